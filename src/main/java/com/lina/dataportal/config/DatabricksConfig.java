@@ -1,9 +1,13 @@
 package com.lina.dataportal.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "databricks")
 @Component
@@ -12,6 +16,19 @@ public class DatabricksConfig {
     private Default defaultConfig = new Default();
     private Api api = new Api();
     private Sql sql = new Sql();
+    private Async async = new Async();
+    private Chunk chunk = new Chunk();
+    private Cache cache = new Cache();
+    private Schema schema = new Schema();
+    private Credentials credentials = new Credentials();
+    private Export export = new Export();
+    private Admission admission = new Admission();
+    private History history = new History();
+    private Columns columns = new Columns();
+    private ResultStore resultStore = new ResultStore();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Stream stream = new Stream();
+    private CatalogSync catalogSync = new CatalogSync();
     
     public static class Default {
         private String workspaceUrl;
@@ -34,27 +51,397 @@ public class DatabricksConfig {
     }
     
     public static class Api {
-        private int timeout = 30000;
-        private int retryAttempts = 3;
+        private int timeout = 30000; // 응답 대기 시간 (밀리초)
+        private int connectTimeout = 10000; // 연결 수립 시간 (밀리초)
+        private int maxConnections = 64; // 워크스페이스별 커넥션 풀 크기
+        private String keepAlive = "60s"; // 유휴 연결 유지 시간
+        private int retryAttempts = 3; // 일시적 오류(429, 503 등) 재시도 횟수 (첫 시도 제외)
+        private String retryInitialBackoff = "200ms"; // 첫 재시도 대기 시간 (시도마다 2배, 지터 적용)
+        private String retryMaxBackoff = "5s"; // 재시도 대기 시간 상한
+        private String maxRetryAfter = "30s"; // Retry-After가 이보다 길면 재시도하지 않고 바로 실패
         
         // Getters and Setters
         public int getTimeout() { return timeout; }
         public void setTimeout(int timeout) { this.timeout = timeout; }
         
+        public int getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(int connectTimeout) { this.connectTimeout = connectTimeout; }
+        
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        
+        public String getKeepAlive() { return keepAlive; }
+        public void setKeepAlive(String keepAlive) { this.keepAlive = keepAlive; }
+        
+        public long getKeepAliveMillis() { return DurationStyle.detectAndParse(keepAlive).toMillis(); }
+        
         public int getRetryAttempts() { return retryAttempts; }
         public void setRetryAttempts(int retryAttempts) { this.retryAttempts = retryAttempts; }
+        
+        public String getRetryInitialBackoff() { return retryInitialBackoff; }
+        public void setRetryInitialBackoff(String retryInitialBackoff) { this.retryInitialBackoff = retryInitialBackoff; }
+        
+        public long getRetryInitialBackoffMillis() { return DurationStyle.detectAndParse(retryInitialBackoff).toMillis(); }
+        
+        public String getRetryMaxBackoff() { return retryMaxBackoff; }
+        public void setRetryMaxBackoff(String retryMaxBackoff) { this.retryMaxBackoff = retryMaxBackoff; }
+        
+        public long getRetryMaxBackoffMillis() { return DurationStyle.detectAndParse(retryMaxBackoff).toMillis(); }
+        
+        public String getMaxRetryAfter() { return maxRetryAfter; }
+        public void setMaxRetryAfter(String maxRetryAfter) { this.maxRetryAfter = maxRetryAfter; }
+        
+        public long getMaxRetryAfterMillis() { return DurationStyle.detectAndParse(maxRetryAfter).toMillis(); }
     }
     
     public static class Sql {
-        private int maxRows = 10000;
+        private int maxRows = 10000; // 조회 결과 행 수 상한 - LIMIT이 없으면 추가하고 더 크면 줄임 (0이면 제한 없음)
+        private boolean readOnly = true; // 조회 문장만 실행 (false면 INSERT/UPDATE 등 변경 문장도 허용)
         private String timeout = "30s";
+        private String disposition = "INLINE"; // 결과 전달 방식 (INLINE, EXTERNAL_LINKS)
+        private int maxBatchStatements = 50; // /batch 요청 하나에 담을 수 있는 문장 수
+        private int batchConcurrency = 10; // /batch 요청 하나가 동시에 실행(또는 대기열에 넣는) 문장 수
+        private String batchTimeout = "10m"; // /batch 요청 하나의 최대 시간 (넘으면 남은 문장 취소)
         
         // Getters and Setters
         public int getMaxRows() { return maxRows; }
         public void setMaxRows(int maxRows) { this.maxRows = maxRows; }
         
+        public boolean isReadOnly() { return readOnly; }
+        public void setReadOnly(boolean readOnly) { this.readOnly = readOnly; }
+        
         public String getTimeout() { return timeout; }
         public void setTimeout(String timeout) { this.timeout = timeout; }
+        
+        public long getTimeoutMillis() { return DurationStyle.detectAndParse(timeout).toMillis(); }
+        
+        public String getDisposition() { return disposition; }
+        public void setDisposition(String disposition) { this.disposition = disposition; }
+        
+        public int getMaxBatchStatements() { return maxBatchStatements; }
+        public void setMaxBatchStatements(int maxBatchStatements) { this.maxBatchStatements = maxBatchStatements; }
+        
+        public int getBatchConcurrency() { return batchConcurrency; }
+        public void setBatchConcurrency(int batchConcurrency) { this.batchConcurrency = batchConcurrency; }
+        
+        public String getBatchTimeout() { return batchTimeout; }
+        public void setBatchTimeout(String batchTimeout) { this.batchTimeout = batchTimeout; }
+        
+        public long getBatchTimeoutMillis() { return DurationStyle.detectAndParse(batchTimeout).toMillis(); }
+    }
+    
+    public static class Async {
+        private String waitTimeout = "0s"; // 서버 측 대기 시간 (Statement Execution API wait_timeout, 0이 아니면 그동안 IO 스레드를 점유)
+        private long initialPollDelay = 250; // 첫 폴링 간격 (밀리초)
+        private long maxPollDelay = 5000; // 최대 폴링 간격 (밀리초)
+        private double pollMultiplier = 1.5; // 폴링 간격 증가 배수
+        private int ioThreads = 32; // Databricks HTTP 호출용 스레드 수
+        private int ioQueueCapacity = 1000; // IO 풀에서 대기할 수 있는 작업 수 - 가득 차면 새 쿼리는 503(busy)으로 거절
+        private int schedulerThreads = 2; // 폴링 스케줄러 스레드 수
+        
+        // Getters and Setters
+        public String getWaitTimeout() { return waitTimeout; }
+        public void setWaitTimeout(String waitTimeout) { this.waitTimeout = waitTimeout; }
+        
+        public long getInitialPollDelay() { return initialPollDelay; }
+        public void setInitialPollDelay(long initialPollDelay) { this.initialPollDelay = initialPollDelay; }
+        
+        public long getMaxPollDelay() { return maxPollDelay; }
+        public void setMaxPollDelay(long maxPollDelay) { this.maxPollDelay = maxPollDelay; }
+        
+        public double getPollMultiplier() { return pollMultiplier; }
+        public void setPollMultiplier(double pollMultiplier) { this.pollMultiplier = pollMultiplier; }
+        
+        public int getIoThreads() { return ioThreads; }
+        public void setIoThreads(int ioThreads) { this.ioThreads = ioThreads; }
+        
+        public int getIoQueueCapacity() { return ioQueueCapacity; }
+        public void setIoQueueCapacity(int ioQueueCapacity) { this.ioQueueCapacity = ioQueueCapacity; }
+        
+        public int getSchedulerThreads() { return schedulerThreads; }
+        public void setSchedulerThreads(int schedulerThreads) { this.schedulerThreads = schedulerThreads; }
+    }
+    
+    public static class Chunk {
+        private int prefetchDepth = 4; // 동시에 미리 가져올 청크 수
+        private int maxReaders = 200; // 동시에 유지할 prefetch 리더 수
+        private long idleTimeout = 300000; // 사용되지 않는 리더 정리 시간 (밀리초)
+        private int maxCursors = 10000; // 보관할 statement 커서 수 (manifest 컬럼 정보, 소유자)
+        private long cursorIdleTimeout = 3600000; // 사용되지 않는 커서 정리 시간 (밀리초)
+        
+        // Getters and Setters
+        public int getPrefetchDepth() { return prefetchDepth; }
+        public void setPrefetchDepth(int prefetchDepth) { this.prefetchDepth = prefetchDepth; }
+        
+        public int getMaxReaders() { return maxReaders; }
+        public void setMaxReaders(int maxReaders) { this.maxReaders = maxReaders; }
+        
+        public long getIdleTimeout() { return idleTimeout; }
+        public void setIdleTimeout(long idleTimeout) { this.idleTimeout = idleTimeout; }
+        
+        public int getMaxCursors() { return maxCursors; }
+        public void setMaxCursors(int maxCursors) { this.maxCursors = maxCursors; }
+        
+        public long getCursorIdleTimeout() { return cursorIdleTimeout; }
+        public void setCursorIdleTimeout(long cursorIdleTimeout) { this.cursorIdleTimeout = cursorIdleTimeout; }
+    }
+    
+    public static class Cache {
+        private boolean enabled = true;
+        private String ttl = "5m"; // 결과 캐시 유지 시간
+        private long maxBytes = 256L * 1024 * 1024; // 캐시 전체 크기 상한 (추정 바이트)
+        private long maxEntryBytes = 32L * 1024 * 1024; // 결과 하나의 크기 상한 - 넘으면 캐시하지 않음
+        private boolean coalesce = true; // 같은 쿼리가 실행 중이면 statement를 새로 만들지 않고 그 결과를 함께 받음
+        
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public String getTtl() { return ttl; }
+        public void setTtl(String ttl) { this.ttl = ttl; }
+        
+        public long getTtlMillis() { return DurationStyle.detectAndParse(ttl).toMillis(); }
+        
+        public long getMaxBytes() { return maxBytes; }
+        public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+        
+        public long getMaxEntryBytes() { return maxEntryBytes; }
+        public void setMaxEntryBytes(long maxEntryBytes) { this.maxEntryBytes = maxEntryBytes; }
+        
+        public boolean isCoalesce() { return coalesce; }
+        public void setCoalesce(boolean coalesce) { this.coalesce = coalesce; }
+    }
+    
+    public static class Schema {
+        private int crawlConcurrency = 8; // 스키마 크롤 시 동시에 보낼 Unity Catalog 요청 수
+        private String refreshAfter = "5m"; // 이 시간이 지나면 기존 트리를 반환하면서 백그라운드 갱신
+        private String expireAfter = "1h"; // 이 시간이 지나면 기존 트리를 버리고 다시 크롤
+        
+        // Getters and Setters
+        public int getCrawlConcurrency() { return crawlConcurrency; }
+        public void setCrawlConcurrency(int crawlConcurrency) { this.crawlConcurrency = crawlConcurrency; }
+        
+        public String getRefreshAfter() { return refreshAfter; }
+        public void setRefreshAfter(String refreshAfter) { this.refreshAfter = refreshAfter; }
+        
+        public long getRefreshAfterMillis() { return DurationStyle.detectAndParse(refreshAfter).toMillis(); }
+        
+        public String getExpireAfter() { return expireAfter; }
+        public void setExpireAfter(String expireAfter) { this.expireAfter = expireAfter; }
+        
+        public long getExpireAfterMillis() { return DurationStyle.detectAndParse(expireAfter).toMillis(); }
+    }
+    
+    public static class Credentials {
+        private String cacheTtl = "60s"; // 사용자 토큰 조회/복호화 결과 캐시 시간
+        private long lastUsedFlushInterval = 30000; // 마지막 사용 시각을 DB에 모아서 반영하는 주기 (밀리초)
+        
+        // Getters and Setters
+        public String getCacheTtl() { return cacheTtl; }
+        public void setCacheTtl(String cacheTtl) { this.cacheTtl = cacheTtl; }
+        
+        public long getCacheTtlMillis() { return DurationStyle.detectAndParse(cacheTtl).toMillis(); }
+        
+        public long getLastUsedFlushInterval() { return lastUsedFlushInterval; }
+        public void setLastUsedFlushInterval(long lastUsedFlushInterval) { this.lastUsedFlushInterval = lastUsedFlushInterval; }
+    }
+    
+    public static class Export {
+        private String timeout = "30m"; // 전체 결과 내보내기 요청 하나의 최대 시간 (spring.mvc.async.request-timeout 대신 적용)
+        
+        // Getters and Setters
+        public String getTimeout() { return timeout; }
+        public void setTimeout(String timeout) { this.timeout = timeout; }
+        
+        public long getTimeoutMillis() { return DurationStyle.detectAndParse(timeout).toMillis(); }
+    }
+    
+    public static class Admission {
+        private boolean enabled = true;
+        private int maxConcurrentPerWarehouse = 10; // 웨어하우스별 동시 실행 statement 수
+        private Map<String, Integer> warehouseConcurrency = new HashMap<>(); // 웨어하우스 ID별 동시 실행 수 (기본값 대신 적용)
+        private int maxQueuedPerUser = 20; // 사용자별 대기 가능한 쿼리 수 - 넘으면 바로 거절
+        private String queueTimeout = "30s"; // 대기열에서 기다리는 최대 시간
+        private double defaultWeight = 1.0; // 공정 큐 가중치 - 클수록 더 많은 실행 슬롯을 받음
+        private Map<String, Double> userWeights = new HashMap<>(); // 사용자 ID별 가중치 (예: 배치 계정은 0.5)
+        
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public int getMaxConcurrentPerWarehouse() { return maxConcurrentPerWarehouse; }
+        public void setMaxConcurrentPerWarehouse(int maxConcurrentPerWarehouse) { this.maxConcurrentPerWarehouse = maxConcurrentPerWarehouse; }
+        
+        public Map<String, Integer> getWarehouseConcurrency() { return warehouseConcurrency; }
+        public void setWarehouseConcurrency(Map<String, Integer> warehouseConcurrency) { this.warehouseConcurrency = warehouseConcurrency; }
+        
+        public int getMaxQueuedPerUser() { return maxQueuedPerUser; }
+        public void setMaxQueuedPerUser(int maxQueuedPerUser) { this.maxQueuedPerUser = maxQueuedPerUser; }
+        
+        public String getQueueTimeout() { return queueTimeout; }
+        public void setQueueTimeout(String queueTimeout) { this.queueTimeout = queueTimeout; }
+        
+        public long getQueueTimeoutMillis() { return DurationStyle.detectAndParse(queueTimeout).toMillis(); }
+        
+        public double getDefaultWeight() { return defaultWeight; }
+        public void setDefaultWeight(double defaultWeight) { this.defaultWeight = defaultWeight; }
+        
+        public Map<String, Double> getUserWeights() { return userWeights; }
+        public void setUserWeights(Map<String, Double> userWeights) { this.userWeights = userWeights; }
+        
+        public int concurrencyFor(String warehouseId) {
+            return warehouseConcurrency.getOrDefault(warehouseId, maxConcurrentPerWarehouse);
+        }
+        
+        public double weightFor(String userId) {
+            return userWeights.getOrDefault(userId, defaultWeight);
+        }
+    }
+    
+    public static class History {
+        private boolean enabled = true;
+        private long flushInterval = 5000; // 실행 이력을 모아서 저장하는 주기 (밀리초)
+        private String retention = "90d"; // 실행 이력 보관 기간
+        private int batchSize = 500; // JDBC 배치 하나에 담는 이력 수
+        
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public long getFlushInterval() { return flushInterval; }
+        public void setFlushInterval(long flushInterval) { this.flushInterval = flushInterval; }
+        
+        public String getRetention() { return retention; }
+        public void setRetention(String retention) { this.retention = retention; }
+        
+        public long getRetentionMillis() { return DurationStyle.detectAndParse(retention).toMillis(); }
+        
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    }
+    
+    public static class ResultStore {
+        private long maxMemoryBytes = 536870912L; // 메모리에 올려 두는 전체 결과 크기 - 넘으면 오래 안 쓴 결과부터 디스크로 내림
+        private long heapBytesPerResult = 16777216L; // 결과 하나에서 힙에 두는 앞부분 크기 - 넘는 행은 디스크 파일에 쓰고 메모리 매핑으로 읽음
+        private int maxRows = 2000000; // 서버에서 정렬/필터할 수 있는 결과 최대 행 수
+        private int maxViews = 8; // 결과별로 보관하는 정렬/필터 행 순서 수
+        private String idleTimeout = "30m"; // 이 시간 동안 조회되지 않은 결과는 삭제
+        private String spillDir; // 디스크로 내린 결과 위치 (기본값: java.io.tmpdir/dataportal-results)
+        
+        // Getters and Setters
+        public long getMaxMemoryBytes() { return maxMemoryBytes; }
+        public void setMaxMemoryBytes(long maxMemoryBytes) { this.maxMemoryBytes = maxMemoryBytes; }
+        
+        public long getHeapBytesPerResult() { return heapBytesPerResult; }
+        public void setHeapBytesPerResult(long heapBytesPerResult) { this.heapBytesPerResult = heapBytesPerResult; }
+        
+        public int getMaxRows() { return maxRows; }
+        public void setMaxRows(int maxRows) { this.maxRows = maxRows; }
+        
+        public int getMaxViews() { return maxViews; }
+        public void setMaxViews(int maxViews) { this.maxViews = maxViews; }
+        
+        public String getIdleTimeout() { return idleTimeout; }
+        public void setIdleTimeout(String idleTimeout) { this.idleTimeout = idleTimeout; }
+        
+        public long getIdleTimeoutMillis() { return DurationStyle.detectAndParse(idleTimeout).toMillis(); }
+        
+        public String getSpillDir() { return spillDir; }
+        public void setSpillDir(String spillDir) { this.spillDir = spillDir; }
+    }
+    
+    public static class Columns {
+        private String revalidateAfter = "10m"; // 이 시간이 지난 컬럼 정보는 다음 조회 시 Unity Catalog에서 다시 확인
+        private String expireAfter = "1h"; // 이 시간 동안 조회되지 않은 테이블은 캐시에서 제거
+        private int maxBatchTables = 200; // 일괄 조회 한 번에 요청할 수 있는 테이블 수
+        private int listThreshold = 3; // 같은 스키마의 테이블이 이 수 이상이면 개별 조회 대신 스키마 테이블 목록으로 한 번에 조회
+        
+        // Getters and Setters
+        public String getRevalidateAfter() { return revalidateAfter; }
+        public void setRevalidateAfter(String revalidateAfter) { this.revalidateAfter = revalidateAfter; }
+        
+        public long getRevalidateAfterMillis() { return DurationStyle.detectAndParse(revalidateAfter).toMillis(); }
+        
+        public String getExpireAfter() { return expireAfter; }
+        public void setExpireAfter(String expireAfter) { this.expireAfter = expireAfter; }
+        
+        public long getExpireAfterMillis() { return DurationStyle.detectAndParse(expireAfter).toMillis(); }
+        
+        public int getMaxBatchTables() { return maxBatchTables; }
+        public void setMaxBatchTables(int maxBatchTables) { this.maxBatchTables = maxBatchTables; }
+        
+        public int getListThreshold() { return listThreshold; }
+        public void setListThreshold(int listThreshold) { this.listThreshold = listThreshold; }
+    }
+    
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private int failureThreshold = 5; // 연속 실패(5xx, 연결/응답 시간 초과)가 이 수에 이르면 워크스페이스 호출 차단
+        private String openDuration = "30s"; // 차단 후 시험 호출(half-open)을 허용하기까지의 시간
+        
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public int getFailureThreshold() { return failureThreshold; }
+        public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+        
+        public String getOpenDuration() { return openDuration; }
+        public void setOpenDuration(String openDuration) { this.openDuration = openDuration; }
+        
+        public long getOpenDurationMillis() { return DurationStyle.detectAndParse(openDuration).toMillis(); }
+    }
+    
+    public static class Stream {
+        private int batchRows = 1000; // rows 이벤트 하나에 담는 행 수
+        private String heartbeatInterval = "15s"; // 보낼 이벤트가 없을 때 연결 유지용 주석을 보내는 간격
+        private String resumeTimeout = "60s"; // 실행 중에 연결이 끊긴 뒤 이 시간 안에 다시 연결하지 않으면 쿼리 취소
+        private String retention = "10m"; // 끝난 스트림을 이어받기용으로 보관하는 시간
+        private String timeout = "30m"; // 스트림 요청 하나의 최대 시간 (spring.mvc.async.request-timeout 대신 적용)
+        
+        // Getters and Setters
+        public int getBatchRows() { return batchRows; }
+        public void setBatchRows(int batchRows) { this.batchRows = batchRows; }
+        
+        public String getHeartbeatInterval() { return heartbeatInterval; }
+        public void setHeartbeatInterval(String heartbeatInterval) { this.heartbeatInterval = heartbeatInterval; }
+        
+        public long getHeartbeatIntervalMillis() { return DurationStyle.detectAndParse(heartbeatInterval).toMillis(); }
+        
+        public String getResumeTimeout() { return resumeTimeout; }
+        public void setResumeTimeout(String resumeTimeout) { this.resumeTimeout = resumeTimeout; }
+        
+        public long getResumeTimeoutMillis() { return DurationStyle.detectAndParse(resumeTimeout).toMillis(); }
+        
+        public String getRetention() { return retention; }
+        public void setRetention(String retention) { this.retention = retention; }
+        
+        public long getRetentionMillis() { return DurationStyle.detectAndParse(retention).toMillis(); }
+        
+        public String getTimeout() { return timeout; }
+        public void setTimeout(String timeout) { this.timeout = timeout; }
+        
+        public long getTimeoutMillis() { return DurationStyle.detectAndParse(timeout).toMillis(); }
+    }
+    
+    public static class CatalogSync {
+        private boolean enabled = true;
+        private long interval = 900000; // Unity Catalog 테이블 목록을 data_tables에 반영하는 주기 (밀리초)
+        private long initialDelay = 60000; // 서버 시작 후 첫 동기화까지 대기 (밀리초)
+        private int batchSize = 500; // JDBC 배치 하나에 담는 행 수
+        
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public long getInterval() { return interval; }
+        public void setInterval(long interval) { this.interval = interval; }
+        
+        public long getInitialDelay() { return initialDelay; }
+        public void setInitialDelay(long initialDelay) { this.initialDelay = initialDelay; }
+        
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
     }
     
     // Main Getters and Setters
@@ -66,4 +453,43 @@ public class DatabricksConfig {
     
     public Sql getSql() { return sql; }
     public void setSql(Sql sql) { this.sql = sql; }
-}
\ No newline at end of file
+    
+    public Async getAsync() { return async; }
+    public void setAsync(Async async) { this.async = async; }
+    
+    public Chunk getChunk() { return chunk; }
+    public void setChunk(Chunk chunk) { this.chunk = chunk; }
+    
+    public Cache getCache() { return cache; }
+    public void setCache(Cache cache) { this.cache = cache; }
+    
+    public Schema getSchema() { return schema; }
+    public void setSchema(Schema schema) { this.schema = schema; }
+    
+    public Credentials getCredentials() { return credentials; }
+    public void setCredentials(Credentials credentials) { this.credentials = credentials; }
+    
+    public Export getExport() { return export; }
+    public void setExport(Export export) { this.export = export; }
+    
+    public Admission getAdmission() { return admission; }
+    public void setAdmission(Admission admission) { this.admission = admission; }
+    
+    public History getHistory() { return history; }
+    public void setHistory(History history) { this.history = history; }
+    
+    public Columns getColumns() { return columns; }
+    public void setColumns(Columns columns) { this.columns = columns; }
+    
+    public ResultStore getResultStore() { return resultStore; }
+    public void setResultStore(ResultStore resultStore) { this.resultStore = resultStore; }
+    
+    public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) { this.circuitBreaker = circuitBreaker; }
+    
+    public Stream getStream() { return stream; }
+    public void setStream(Stream stream) { this.stream = stream; }
+    
+    public CatalogSync getCatalogSync() { return catalogSync; }
+    public void setCatalogSync(CatalogSync catalogSync) { this.catalogSync = catalogSync; }
+}
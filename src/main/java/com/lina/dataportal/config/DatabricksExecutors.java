@@ -0,0 +1,73 @@
+package com.lina.dataportal.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Databricks 연동에 사용하는 공용 스레드 풀
+ * 폴링 대기는 스케줄러가 담당하고, 실제 HTTP 호출만 IO 풀에서 실행합니다.
+ * IO 풀 대기열은 io-queue-capacity로 제한하며, 가득 차면 execute가 RejectedExecutionException을 던집니다.
+ * Spring의 기본 TaskExecutor/TaskScheduler를 대체하지 않도록 빈으로 노출하지 않습니다.
+ */
+@Component
+public class DatabricksExecutors {
+
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor io;
+
+    @Autowired
+    public DatabricksExecutors(DatabricksConfig databricksConfig) {
+        DatabricksConfig.Async async = databricksConfig.getAsync();
+
+        ScheduledThreadPoolExecutor scheduledPool = new ScheduledThreadPoolExecutor(
+            async.getSchedulerThreads(), namedThreadFactory("databricks-poll-"));
+        scheduledPool.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduledPool;
+
+        this.io = new ThreadPoolExecutor(
+            async.getIoThreads(), async.getIoThreads(),
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, async.getIoQueueCapacity())),
+            namedThreadFactory("databricks-io-"),
+            (task, pool) -> {
+                throw new RejectedExecutionException(pool.isShutdown()
+                    ? "Databricks IO pool is shut down"
+                    : "Databricks IO pool is busy (" + pool.getQueue().size() + " tasks queued). Please retry shortly.");
+            });
+        this.io.allowCoreThreadTimeOut(true);
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public ExecutorService io() {
+        return io;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        io.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
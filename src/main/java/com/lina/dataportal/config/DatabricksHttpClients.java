@@ -0,0 +1,137 @@
+package com.lina.dataportal.config;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Databricks 호출용 HTTP 클라이언트
+ * 워크스페이스(및 외부 링크 저장소 호스트)마다 별도의 커넥션 풀을 두어 TLS 연결을 재사용하고,
+ * 한 워크스페이스가 느려져도 다른 워크스페이스의 연결을 잡아먹지 않도록 합니다.
+ * 응답 gzip 압축 해제는 HttpClient가 Accept-Encoding과 함께 자동으로 처리합니다.
+ */
+@Component
+public class DatabricksHttpClients {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabricksHttpClients.class);
+
+    private final DatabricksConfig databricksConfig;
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DatabricksHttpClients(DatabricksConfig databricksConfig) {
+        this.databricksConfig = databricksConfig;
+    }
+
+    /**
+     * URL의 호스트(scheme://host:port)에 해당하는 풀을 사용하는 RestTemplate
+     */
+    public RestTemplate forUrl(String url) {
+        return forOrigin(origin(URI.create(url)));
+    }
+
+    public RestTemplate forUri(URI uri) {
+        return forOrigin(origin(uri));
+    }
+
+    /**
+     * 풀별 사용 현황 - leased(사용 중), available(유휴), pending(연결 대기 중인 요청), max
+     */
+    public List<Map<String, Object>> getPoolStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        clients.forEach((origin, client) -> {
+            PoolStats total = client.connectionManager.getTotalStats();
+            Map<String, Object> pool = new HashMap<>();
+            pool.put("origin", origin);
+            pool.put("leased", total.getLeased());
+            pool.put("available", total.getAvailable());
+            pool.put("pending", total.getPending());
+            pool.put("max", total.getMax());
+            stats.add(pool);
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(client -> client.httpClient.close(CloseMode.GRACEFUL));
+        clients.clear();
+    }
+
+    private RestTemplate forOrigin(String origin) {
+        return clients.computeIfAbsent(origin, this::createClient).restTemplate;
+    }
+
+    private PooledClient createClient(String origin) {
+        DatabricksConfig.Api api = databricksConfig.getApi();
+        long keepAliveMillis = api.getKeepAliveMillis();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(api.getMaxConnections())
+            .setMaxConnPerRoute(api.getMaxConnections())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(api.getConnectTimeout()))
+                .setSocketTimeout(Timeout.ofMilliseconds(api.getTimeout()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(api.getTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(api.getTimeout()))
+                .setDefaultKeepAlive(keepAliveMillis, TimeUnit.MILLISECONDS) // 서버가 Keep-Alive 헤더를 주지 않을 때
+                .build())
+            .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMillis))
+            .evictExpiredConnections()
+            .build();
+
+        log.info("Created Databricks HTTP connection pool for {} (max {})", origin, api.getMaxConnections());
+        return new PooledClient(connectionManager, httpClient,
+            new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)));
+    }
+
+    /**
+     * 풀/서킷 구분 키 - 예: https://adb-123.azuredatabricks.net:443
+     */
+    public static String origin(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "http".equalsIgnoreCase(uri.getScheme()) ? 80 : 443;
+        return uri.getScheme().toLowerCase() + "://" + uri.getHost().toLowerCase() + ":" + port;
+    }
+
+    private static final class PooledClient {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
+        private final RestTemplate restTemplate;
+
+        PooledClient(PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient httpClient,
+                     RestTemplate restTemplate) {
+            this.connectionManager = connectionManager;
+            this.httpClient = httpClient;
+            this.restTemplate = restTemplate;
+        }
+    }
+}
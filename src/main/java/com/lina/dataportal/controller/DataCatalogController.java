@@ -2,6 +2,7 @@ package com.lina.dataportal.controller;
 
 import com.lina.dataportal.domain.catalog.DataTable;
 import com.lina.dataportal.domain.catalog.DataType;
+import com.lina.dataportal.service.CatalogSyncService;
 import com.lina.dataportal.service.DataCatalogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/catalog")
@@ -18,9 +20,12 @@ public class DataCatalogController {
     
     private final DataCatalogService dataCatalogService;
     
+    private final CatalogSyncService catalogSyncService;
+    
     @Autowired
-    public DataCatalogController(DataCatalogService dataCatalogService) {
+    public DataCatalogController(DataCatalogService dataCatalogService, CatalogSyncService catalogSyncService) {
         this.dataCatalogService = dataCatalogService;
+        this.catalogSyncService = catalogSyncService;
     }
     
     @GetMapping("/tables")
@@ -99,6 +104,29 @@ public class DataCatalogController {
         }
     }
     
+    /**
+     * Unity Catalog 동기화 상태 (마지막 결과, 실행 중 여부)
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<Map<String, Object>> getSyncStatus() {
+        Map<String, Object> lastResult = catalogSyncService.getLastResult();
+        return ResponseEntity.ok(Map.of(
+            "running", catalogSyncService.isRunning(),
+            "lastResult", lastResult != null ? lastResult : Map.of()
+        ));
+    }
+    
+    /**
+     * 다음 주기를 기다리지 않고 Unity Catalog 동기화 실행
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<Map<String, Object>> sync() {
+        Map<String, Object> result = catalogSyncService.sync();
+        return Boolean.TRUE.equals(result.get("success"))
+            ? ResponseEntity.ok(result)
+            : ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+    }
+    
     // 데이터 계보 관련 엔드포인트 (향후 구현)
     @GetMapping("/lineage/{id}")
     public ResponseEntity<Object> getDataLineage(@PathVariable Long id) {
@@ -1,13 +1,40 @@
 package com.lina.dataportal.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.domain.databricks.ExportFormat;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import com.lina.dataportal.service.QueryBatchService;
+import com.lina.dataportal.service.QueryBatchService.BatchExecution;
+import com.lina.dataportal.service.QueryBatchService.BatchStatement;
 import com.lina.dataportal.service.QueryService;
+import com.lina.dataportal.service.QueryStreamService;
+import com.lina.dataportal.service.QueryStreamService.QueryStream;
+import com.lina.dataportal.service.QueryStreamService.ResumeToken;
+import com.lina.dataportal.service.ResultExportService;
+import com.lina.dataportal.service.ResultExportService.ExportSource;
+import com.lina.dataportal.service.ResultStoreService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/query")
@@ -18,9 +45,25 @@ public class QueryController {
     @Autowired
     private QueryService queryService;
 
+    @Autowired
+    private ResultExportService resultExportService;
+
+    @Autowired
+    private ResultStoreService resultStoreService;
+
+    @Autowired
+    private QueryStreamService queryStreamService;
+
+    @Autowired
+    private QueryBatchService queryBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/schema")
-    public ResponseEntity<List<Map<String, Object>>> getSchemaInfo(@RequestParam(defaultValue = "current_user") String userId) {
-        List<Map<String, Object>> schemas = queryService.getSchemaInfo(userId);
+    public ResponseEntity<List<Map<String, Object>>> getSchemaInfo(@RequestParam(defaultValue = "current_user") String userId,
+                                                                   @RequestParam(defaultValue = "false") boolean refresh) {
+        List<Map<String, Object>> schemas = queryService.getSchemaInfo(userId, refresh);
         return ResponseEntity.ok(schemas);
     }
 
@@ -31,19 +74,357 @@ public class QueryController {
     }
 
     @GetMapping("/table/{tableName}/columns")
-    public ResponseEntity<List<Map<String, Object>>> getTableColumns(@PathVariable String tableName) {
-        List<Map<String, Object>> columns = queryService.getTableColumns(tableName);
+    public ResponseEntity<List<Map<String, Object>>> getTableColumns(@PathVariable String tableName,
+                                                                     @RequestParam(defaultValue = "current_user") String userId) {
+        List<Map<String, Object>> columns = queryService.getTableColumns(tableName, userId);
         return ResponseEntity.ok(columns);
     }
 
+    /**
+     * 여러 테이블의 컬럼 목록 일괄 조회 - 웨어하우스를 사용하지 않습니다.
+     * 요청: {"tables": ["main.sales.orders", ...], "userId": "..."}
+     */
+    @PostMapping("/tables/columns")
+    public ResponseEntity<Map<String, Object>> getTableColumnsBatch(@RequestBody Map<String, Object> request) {
+        List<String> tables = (List<String>) request.get("tables");
+        String userId = (String) request.getOrDefault("userId", "current_user");
+        
+        if (tables == null || tables.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "tables is required"));
+        }
+        int maxTables = queryService.getMaxBatchTables();
+        if (tables.size() > maxTables) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "Too many tables (max " + maxTables + ")"));
+        }
+        
+        return ResponseEntity.ok(queryService.getTableColumns(new ArrayList<>(new LinkedHashSet<>(tables)), userId));
+    }
+
+    /**
+     * 쿼리 실행 - 응답 전에 요청이 타임아웃되거나 클라이언트 연결이 끊기면 Databricks statement도 취소합니다.
+     * queryId(선택)를 넘기면 실행 중에 DELETE /statements/{queryId}로 취소할 수 있습니다.
+     * Databricks 호출 대기열이 가득 차 실행하지 못하면 busy: true와 함께 503으로 응답합니다.
+     */
     @PostMapping("/execute")
-    public ResponseEntity<Map<String, Object>> executeQuery(@RequestBody Map<String, Object> request) {
+    public DeferredResult<ResponseEntity<Map<String, Object>>> executeQuery(@RequestBody Map<String, Object> request) {
         String sql = (String) request.get("sql");
         String userId = (String) request.getOrDefault("userId", "current_user");
         
-        Map<String, Object> result = queryService.executeQuery(sql, userId);
+        // 결과 전달 방식 (선택) - 없으면 databricks.sql.disposition 설정값 사용
+        ResultDisposition disposition = null;
+        if (request.get("disposition") != null) {
+            try {
+                disposition = ResultDisposition.from((String) request.get("disposition"));
+            } catch (IllegalArgumentException e) {
+                DeferredResult<ResponseEntity<Map<String, Object>>> badRequest = new DeferredResult<>();
+                badRequest.setResult(ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", "Unsupported disposition: " + request.get("disposition")
+                )));
+                return badRequest;
+            }
+        }
+        
+        boolean useCache = !Boolean.FALSE.equals(request.get("useCache"));
+        String queryId = (String) request.get("queryId");
+        
+        CompletableFuture<Map<String, Object>> execution = queryService.executeQueryAsync(sql, userId, disposition, useCache, queryId);
+        
+        DeferredResult<ResponseEntity<Map<String, Object>>> deferred = new DeferredResult<>();
+        deferred.onTimeout(() -> {
+            execution.cancel(false);
+            deferred.setErrorResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "success", false,
+                "cancelled", true,
+                "error", "Query did not finish within the request timeout and was cancelled"
+            )));
+        });
+        deferred.onError(e -> execution.cancel(false)); // 클라이언트 연결 종료 등
+        execution.whenComplete((result, e) -> {
+            if (e == null) {
+                // Databricks IO 풀이 가득 차 statement를 만들지 못함 - 잠시 뒤 다시 시도하도록 503
+                deferred.setResult(Boolean.TRUE.equals(result.get("busy"))
+                    ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(result)
+                    : ResponseEntity.ok(result));
+            }
+        });
+        return deferred;
+    }
+    
+    /**
+     * 여러 쿼리를 동시에 실행 - 대시보드처럼 독립적인 쿼리를 한 번에 보내면 가장 느린 쿼리 하나만큼 걸립니다.
+     * 예: {"statements": [{"id": "widget-1", "sql": "SELECT ..."}, "SELECT ..."], "userId": "u1"}
+     * 결과는 요청 순서대로 results에 담기며, 항목마다 /execute 응답과 같은 형식에 index, id, queryId가 붙습니다.
+     */
+    @PostMapping("/batch")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> executeBatch(@RequestBody Map<String, Object> request) {
+        DeferredResult<ResponseEntity<Map<String, Object>>> deferred = new DeferredResult<>();
+        BatchRequest batchRequest;
+        try {
+            batchRequest = parseBatchRequest(request);
+        } catch (IllegalArgumentException e) {
+            deferred.setResult(ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage())));
+            return deferred;
+        }
+        
+        BatchExecution batch = queryBatchService.submit(batchRequest.statements(), batchRequest.userId(),
+            batchRequest.disposition(), batchRequest.useCache());
+        deferred.onTimeout(() -> {
+            batch.cancel();
+            Map<String, Object> response = new LinkedHashMap<>(batch.summary());
+            response.put("cancelled", true);
+            response.put("error", "Batch did not finish within the request timeout and was cancelled");
+            response.put("results", batch.getAll().join());
+            deferred.setErrorResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
+        });
+        deferred.onError(e -> batch.cancel()); // 클라이언트 연결 종료 등
+        batch.getAll().thenAccept(results -> {
+            Map<String, Object> response = new LinkedHashMap<>(batch.summary());
+            response.put("results", results);
+            deferred.setResult(ResponseEntity.ok(response));
+        });
+        return deferred;
+    }
+    
+    /**
+     * /batch와 같은 요청을 받아 끝나는 순서대로 결과를 NDJSON 한 줄씩 보냅니다 (마지막 줄은 complete=true 요약).
+     */
+    @PostMapping("/batch/stream")
+    public ResponseEntity<StreamingResponseBody> streamBatch(@RequestBody Map<String, Object> request,
+                                                             NativeWebRequest webRequest) {
+        BatchRequest batchRequest;
+        try {
+            batchRequest = parseBatchRequest(request);
+        } catch (IllegalArgumentException e) {
+            return jsonError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        BatchExecution batch = queryBatchService.submit(batchRequest.statements(), batchRequest.userId(),
+            batchRequest.disposition(), batchRequest.useCache());
+        extendTimeout(webRequest, "batch-timeout", queryBatchService.getTimeoutMillis());
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+            .header("X-Accel-Buffering", "no")
+            .header("X-Batch-Id", batch.getBatchId())
+            .body(out -> queryBatchService.stream(batch, out));
+    }
+    
+    private BatchRequest parseBatchRequest(Map<String, Object> request) {
+        if (!(request.get("statements") instanceof List<?> items) || items.isEmpty()) {
+            throw new IllegalArgumentException("statements must be a non-empty list");
+        }
+        if (items.size() > queryBatchService.getMaxStatements()) {
+            throw new IllegalArgumentException("Too many statements: " + items.size() + " (limit " + queryBatchService.getMaxStatements() + ")");
+        }
+        
+        List<BatchStatement> statements = new ArrayList<>();
+        for (Object item : items) {
+            if (item instanceof String sql) {
+                statements.add(new BatchStatement(null, sql));
+            } else if (item instanceof Map<?, ?> statement && statement.get("sql") instanceof String sql) {
+                statements.add(new BatchStatement(statement.get("id") != null ? String.valueOf(statement.get("id")) : null, sql));
+            } else {
+                throw new IllegalArgumentException("Each statement must be a SQL string or an object with sql");
+            }
+        }
+        
+        ResultDisposition disposition = null;
+        if (request.get("disposition") != null) {
+            try {
+                disposition = ResultDisposition.from((String) request.get("disposition"));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported disposition: " + request.get("disposition"));
+            }
+        }
+        return new BatchRequest(statements, (String) request.getOrDefault("userId", "current_user"),
+            disposition, !Boolean.FALSE.equals(request.get("useCache")));
+    }
+    
+    private record BatchRequest(List<BatchStatement> statements, String userId, ResultDisposition disposition, boolean useCache) {
+    }
+    
+    @DeleteMapping("/statements/{id}")
+    public ResponseEntity<Map<String, Object>> cancelStatement(@PathVariable String id,
+                                                               @RequestParam(defaultValue = "current_user") String userId) {
+        Map<String, Object> result = queryService.cancelStatement(id, userId);
+        if (!Boolean.TRUE.equals(result.get("success")) && String.valueOf(result.get("error")).startsWith("Statement not found")) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
         return ResponseEntity.ok(result);
     }
+    
+    /**
+     * 전체 결과 내보내기 - 모든 청크를 순서대로 받아 CSV/NDJSON/Parquet으로 스트리밍합니다.
+     * gzip=true면 CSV/NDJSON은 .gz 파일로, Parquet은 GZIP 코덱 페이지로 압축합니다.
+     */
+    @GetMapping("/statements/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportStatement(@PathVariable String id,
+                                                                 @RequestParam(defaultValue = "csv") String format,
+                                                                 @RequestParam(defaultValue = "false") boolean gzip,
+                                                                 @RequestParam(defaultValue = "current_user") String userId,
+                                                                 NativeWebRequest request) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return jsonError(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        
+        ExportSource source = resultExportService.prepare(id, userId);
+        if (!source.isReady()) {
+            HttpStatus status = source.getError().startsWith("Statement not found") ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return jsonError(status, source.getError());
+        }
+        
+        // 대용량 내보내기는 일반 요청 타임아웃(spring.mvc.async.request-timeout)보다 오래 걸릴 수 있음
+        extendTimeout(request, "export-timeout", resultExportService.getExportTimeoutMillis());
+        
+        boolean gzipFile = gzip && exportFormat != ExportFormat.PARQUET;
+        String filename = id + "." + exportFormat.getExtension() + (gzipFile ? ".gz" : "");
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(gzipFile ? "application/gzip" : exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(out -> resultExportService.export(source, exportFormat, gzip, out));
+    }
+    
+    /**
+     * 쿼리 실행 결과를 Server-Sent Events로 받기 - 요청 본문은 /execute와 같습니다.
+     * 이벤트: state(QUEUED, SUBMITTED, PENDING, RUNNING, SUCCEEDED...), manifest(컬럼/전체 행 수/청크 수),
+     * rows(청크가 도착하는 대로 batch-rows씩), complete 또는 error
+     * 연결이 끊기면 GET /stream/{streamId}에 마지막으로 받은 이벤트 id(Last-Event-ID)를 넘겨 이어서 받습니다.
+     */
+    @PostMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamQuery(@RequestBody Map<String, Object> request,
+                                                             NativeWebRequest webRequest) {
+        String sql = (String) request.get("sql");
+        String userId = (String) request.getOrDefault("userId", "current_user");
+        
+        ResultDisposition disposition = null;
+        if (request.get("disposition") != null) {
+            try {
+                disposition = ResultDisposition.from((String) request.get("disposition"));
+            } catch (IllegalArgumentException e) {
+                return jsonError(HttpStatus.BAD_REQUEST, "Unsupported disposition: " + request.get("disposition"));
+            }
+        }
+        boolean useCache = !Boolean.FALSE.equals(request.get("useCache"));
+        
+        QueryStream stream = queryStreamService.start(sql, userId, disposition, useCache);
+        return eventStream(stream, ResumeToken.START, webRequest);
+    }
+    
+    /**
+     * 끊긴 스트림 이어받기 - EventSource는 재연결할 때 Last-Event-ID를 자동으로 보냅니다.
+     */
+    @GetMapping("/stream/{streamId}")
+    public ResponseEntity<StreamingResponseBody> resumeStream(@PathVariable String streamId,
+                                                              @RequestParam(defaultValue = "current_user") String userId,
+                                                              @RequestParam(required = false) String resumeToken,
+                                                              @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                              NativeWebRequest webRequest) {
+        QueryStream stream = queryStreamService.find(streamId, userId);
+        if (stream == null) {
+            return jsonError(HttpStatus.NOT_FOUND, "Stream not found: " + streamId);
+        }
+        ResumeToken resume;
+        try {
+            resume = ResumeToken.parse(resumeToken != null ? resumeToken : lastEventId);
+        } catch (IllegalArgumentException e) {
+            return jsonError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return eventStream(stream, resume, webRequest);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> eventStream(QueryStream stream, ResumeToken resume, NativeWebRequest webRequest) {
+        extendTimeout(webRequest, "stream-timeout", queryStreamService.getTimeoutMillis());
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_EVENT_STREAM)
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+            .header("X-Accel-Buffering", "no") // 프록시(nginx)가 이벤트를 모아 보내지 않도록
+            .header("X-Stream-Id", stream.getStreamId())
+            .body(out -> queryStreamService.stream(stream, resume, out));
+    }
+    
+    /**
+     * 이 요청의 비동기 처리 타임아웃을 spring.mvc.async.request-timeout 대신 지정한 값으로 바꿉니다.
+     */
+    private static void extendTimeout(NativeWebRequest request, String key, long timeout) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(key, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                if (asyncRequest instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(timeout);
+                }
+            }
+        });
+    }
+    
+    private ResponseEntity<StreamingResponseBody> jsonError(HttpStatus status, String error) {
+        return ResponseEntity.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> objectMapper.writeValue(out, Map.of("success", false, "error", error)));
+    }
+    
+    /**
+     * 전체 결과에서 한 페이지 조회 - 정렬/필터는 서버에 보관한 결과에 적용합니다 (SQL 재실행 없음).
+     * 예: /statements/{id}/rows?offset=0&limit=100&sort=premium:desc&filter=status:eq:ACTIVE&filter=premium:gt:1000
+     */
+    @GetMapping("/statements/{id}/rows")
+    public ResponseEntity<Map<String, Object>> getStatementRows(@PathVariable String id,
+                                                                @RequestParam(defaultValue = "0") int offset,
+                                                                @RequestParam(defaultValue = "100") int limit,
+                                                                @RequestParam(required = false) List<String> sort,
+                                                                @RequestParam(required = false) List<String> filter,
+                                                                @RequestParam(defaultValue = "current_user") String userId) {
+        if (offset < 0 || limit < 1 || limit > 10000) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "offset must be >= 0 and limit between 1 and 10000"));
+        }
+        
+        Map<String, Object> result = resultStoreService.getRows(id, userId, offset, limit, sort, filter);
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            HttpStatus status = String.valueOf(result.get("error")).startsWith("Statement not found") ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/running")
+    public ResponseEntity<List<Map<String, Object>>> getRunningQueries(@RequestParam(defaultValue = "current_user") String userId) {
+        return ResponseEntity.ok(queryService.getRunningQueries(userId));
+    }
+    
+    @GetMapping("/admission/stats")
+    public ResponseEntity<List<Map<String, Object>>> getAdmissionStats() {
+        return ResponseEntity.ok(queryService.getAdmissionStats());
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(queryService.getCacheStats());
+    }
+    
+    @GetMapping("/connections/stats")
+    public ResponseEntity<List<Map<String, Object>>> getConnectionPoolStats() {
+        return ResponseEntity.ok(queryService.getConnectionPoolStats());
+    }
+    
+    @GetMapping("/databricks/health")
+    public ResponseEntity<List<Map<String, Object>>> getDatabricksHealth() {
+        return ResponseEntity.ok(queryService.getDatabricksHealth());
+    }
+    
+    @DeleteMapping("/cache")
+    public ResponseEntity<Map<String, Object>> clearCache() {
+        int removed = queryService.invalidateCache(null);
+        return ResponseEntity.ok(Map.of("removed", removed));
+    }
+    
+    @DeleteMapping("/cache/tables/{tableName}")
+    public ResponseEntity<Map<String, Object>> invalidateTableCache(@PathVariable String tableName) {
+        int removed = queryService.invalidateCache(tableName);
+        return ResponseEntity.ok(Map.of("tableName", tableName, "removed", removed));
+    }
 
     @PostMapping("/format")
     public ResponseEntity<Map<String, Object>> formatQuery(@RequestBody Map<String, Object> request) {
@@ -66,23 +447,49 @@ public class QueryController {
         String name = (String) request.get("name");
         String sql = (String) request.get("sql");
         String description = (String) request.get("description");
+        String userId = (String) request.getOrDefault("userId", "current_user");
+        
+        if (name == null || name.isBlank() || sql == null || sql.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "name and sql are required"));
+        }
         
-        Map<String, Object> savedQuery = queryService.saveQuery(name, sql, description);
+        Map<String, Object> savedQuery = queryService.saveQuery(name, sql, description, userId);
         return ResponseEntity.ok(savedQuery);
     }
 
     @GetMapping("/saved")
-    public ResponseEntity<List<Map<String, Object>>> getSavedQueries() {
-        List<Map<String, Object>> queries = queryService.getSavedQueries();
+    public ResponseEntity<List<Map<String, Object>>> getSavedQueries(@RequestParam(defaultValue = "current_user") String userId) {
+        List<Map<String, Object>> queries = queryService.getSavedQueries(userId);
         return ResponseEntity.ok(queries);
     }
 
     @DeleteMapping("/saved/{queryId}")
-    public ResponseEntity<Void> deleteSavedQuery(@PathVariable Long queryId) {
-        queryService.deleteSavedQuery(queryId);
+    public ResponseEntity<Void> deleteSavedQuery(@PathVariable Long queryId,
+                                                 @RequestParam(defaultValue = "current_user") String userId) {
+        if (!queryService.deleteSavedQuery(queryId, userId)) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * 사용자의 최근 쿼리 실행 이력
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<Map<String, Object>>> getQueryHistory(@RequestParam(defaultValue = "current_user") String userId,
+                                                                     @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(queryService.getQueryHistory(userId, Math.min(Math.max(limit, 1), 500)));
+    }
+
+    /**
+     * 쿼리 지문(리터럴을 제외한 SQL 모양)별 p50/p95/p99 응답 시간
+     */
+    @GetMapping("/history/latency")
+    public ResponseEntity<List<Map<String, Object>>> getLatencyStats(@RequestParam(defaultValue = "7") int days,
+                                                                     @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(queryService.getLatencyStats(Math.max(days, 1), Math.min(Math.max(limit, 1), 200)));
+    }
+
     @PostMapping("/generate-select")
     public ResponseEntity<Map<String, Object>> generateSelectQuery(@RequestBody Map<String, Object> request) {
         String tableName = (String) request.get("tableName");
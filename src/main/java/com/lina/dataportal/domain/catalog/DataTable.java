@@ -55,6 +55,12 @@ public class DataTable {
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated; // 예: 2024-01-25T23:59:59
     
+    @Column(name = "full_name", unique = true)
+    private String fullName; // 예: "main.sales_db.customer_orders" (Unity Catalog에서 동기화한 테이블만, 직접 등록한 테이블은 null)
+    
+    @Column(name = "source_updated_at")
+    private Long sourceUpdatedAt; // 예: 1706227199000 (Unity Catalog updated_at, 동기화 워터마크)
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt; // 예: 2024-01-01T00:00:00
     
@@ -117,6 +123,12 @@ public class DataTable {
     public LocalDateTime getLastUpdated() { return lastUpdated; }
     public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
     
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    
+    public Long getSourceUpdatedAt() { return sourceUpdatedAt; }
+    public void setSourceUpdatedAt(Long sourceUpdatedAt) { this.sourceUpdatedAt = sourceUpdatedAt; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 논리형 컬럼 (BOOLEAN)
+ */
+public class BooleanColumnVector extends ColumnVector {
+
+    private boolean[] values = new boolean[INITIAL_CAPACITY];
+
+    @Override
+    public void appendText(String value) {
+        appendBoolean(Boolean.parseBoolean(value.trim()));
+    }
+
+    @Override
+    public void appendChars(char[] chars, int offset, int length) {
+        // Boolean.parseBoolean과 같은 규칙 - "true"(대소문자 무시)만 참
+        boolean value = length == 4
+            && (chars[offset] | 0x20) == 't' && (chars[offset + 1] | 0x20) == 'r'
+            && (chars[offset + 2] | 0x20) == 'u' && (chars[offset + 3] | 0x20) == 'e';
+        if (!value && length != 5) {
+            appendText(new String(chars, offset, length)); // 앞뒤 공백 등
+            return;
+        }
+        appendBoolean(value);
+    }
+
+    @Override
+    public void appendLong(long value) {
+        appendBoolean(value != 0);
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        appendBoolean(value != 0.0);
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    public boolean getBoolean(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        appendBoolean(((BooleanColumnVector) source).getBoolean(row));
+    }
+
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        return Boolean.compare(values[rowA], values[rowB]);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        if (isNull(row)) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(values[row]);
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return values.length + nullBitmapBytes();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+        }
+        ensureNullCapacity(capacity);
+    }
+}
@@ -0,0 +1,168 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * 하나의 컬럼 값을 담는 타입별 벡터
+ * 행마다 Map을 만드는 대신 컬럼 단위로 원시 타입 배열에 값을 쌓고, NULL 여부는 비트맵으로 관리합니다.
+ */
+public abstract class ColumnVector {
+
+    protected static final int INITIAL_CAPACITY = 64;
+
+    private long[] nullBitmap = new long[1]; // 비트가 1이면 NULL
+    protected int size; // 예: 10000 (저장된 값 수)
+
+    /**
+     * manifest 컬럼 정보(type_name, type_scale)에 맞는 벡터 생성
+     * 컬럼 목록은 statement마다 한 번 만들어져 모든 청크가 같이 쓰므로, 컬럼별 디코더 선택도 statement 단위로 고정됩니다.
+     */
+    public static ColumnVector forColumn(DatabricksColumn column) {
+        String typeName = column.getType();
+        if (typeName == null) {
+            return new StringColumnVector();
+        }
+        switch (typeName.toUpperCase()) {
+            case "LONG":
+                return new LongColumnVector(true);
+            case "INT":
+            case "SHORT":
+            case "BYTE":
+                return new LongColumnVector();
+            case "DOUBLE":
+            case "FLOAT":
+                return new DoubleColumnVector();
+            case "BOOLEAN":
+                return new BooleanColumnVector();
+            case "DECIMAL":
+                return new DecimalColumnVector(column.getScale());
+            case "DATE":
+                return new DateColumnVector();
+            case "TIMESTAMP":
+                return new TimestampColumnVector();
+            default:
+                return new StringColumnVector();
+        }
+    }
+
+    // 값 추가 - Databricks JSON_ARRAY 형식은 모든 값을 문자열로 전달하므로 appendText가 기본 경로입니다.
+    public abstract void appendText(String value);
+
+    public abstract void appendLong(long value);
+
+    public abstract void appendDouble(double value);
+
+    public abstract void appendBoolean(boolean value);
+
+    /**
+     * JSON 문자열 값을 파서 버퍼에서 바로 읽음 - 숫자/날짜/시각 벡터는 String을 만들지 않고 해석합니다.
+     */
+    public void appendChars(char[] chars, int offset, int length) {
+        appendText(new String(chars, offset, length));
+    }
+
+    // Arrow 결과처럼 이미 이진 값으로 읽은 경우 - 타입이 맞는 벡터는 그대로 저장하고, 그 밖의 벡터는 문자열로 받습니다.
+    public void appendDecimal(long unscaled, int scale) {
+        appendText(DecimalColumnVector.toPlainString(unscaled, scale));
+    }
+
+    public void appendDecimal(BigDecimal value) {
+        appendText(value.toPlainString());
+    }
+
+    public void appendEpochDay(int epochDay) {
+        appendText(DateColumnVector.format(epochDay));
+    }
+
+    public void appendEpochMicros(long epochMicros) {
+        appendText(TimestampColumnVector.format(epochMicros));
+    }
+
+    public void appendNull() {
+        ensureCapacity(size + 1);
+        markNull(size);
+        size++;
+    }
+
+    /**
+     * 같은 타입 벡터의 값 하나를 복사해 추가 (결과 청크를 하나로 합칠 때 사용)
+     */
+    public void appendFrom(ColumnVector source, int row) {
+        if (source.isNull(row)) {
+            appendNull();
+        } else {
+            appendValueFrom(source, row);
+        }
+    }
+
+    protected abstract void appendValueFrom(ColumnVector source, int row);
+
+    // 값 조회
+    public abstract Object getObject(int row);
+
+    /**
+     * JSON_ARRAY 결과와 같은 문자열 표현 (CSV 등) - NULL이면 null
+     */
+    public String getText(int row) {
+        Object value = getObject(row);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 두 행의 값 비교 - NULL이 가장 작습니다 (Databricks ORDER BY ASC 기본값인 NULLS FIRST 순서)
+     */
+    public int compare(int rowA, int rowB) {
+        boolean nullA = isNull(rowA);
+        boolean nullB = isNull(rowB);
+        if (nullA || nullB) {
+            return nullA == nullB ? 0 : (nullA ? -1 : 1);
+        }
+        return compareValues(rowA, rowB);
+    }
+
+    protected abstract int compareValues(int rowA, int rowB);
+
+    public abstract void writeJson(JsonGenerator generator, int row) throws IOException;
+
+    /**
+     * 힙 사용량 추정치 (바이트) - 캐시 가중치 계산 등에 사용
+     */
+    public abstract long estimatedBytes();
+
+    public boolean isNull(int row) {
+        return (nullBitmap[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    protected void markNull(int row) {
+        int word = row >>> 6;
+        if (word >= nullBitmap.length) {
+            nullBitmap = Arrays.copyOf(nullBitmap, Math.max(word + 1, nullBitmap.length * 2));
+        }
+        nullBitmap[word] |= 1L << row;
+    }
+
+    protected void ensureNullCapacity(int capacity) {
+        int words = (capacity + 63) >>> 6;
+        if (words > nullBitmap.length) {
+            nullBitmap = Arrays.copyOf(nullBitmap, Math.max(words, nullBitmap.length * 2));
+        }
+    }
+
+    protected long nullBitmapBytes() {
+        return nullBitmap.length * 8L;
+    }
+
+    protected abstract void ensureCapacity(int capacity);
+
+    protected static int grow(int current, int required) {
+        return Math.max(required, current + (current >> 1) + 1);
+    }
+}
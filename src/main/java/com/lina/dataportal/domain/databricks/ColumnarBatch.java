@@ -0,0 +1,124 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 컬럼 기반 결과 데이터
+ * 컬럼 헤더는 한 번만 보관하고, 값은 컬럼별 타입 벡터에 저장합니다.
+ * JSON으로는 행 배열의 배열로 직렬화됩니다. 예: [["CUST_001", 15000], ["CUST_002", 8200]]
+ */
+@JsonSerialize(using = ColumnarBatch.RowArraySerializer.class)
+public class ColumnarBatch {
+
+    private final List<DatabricksColumn> columns; // 예: [{"name": "customer_id", "type": "STRING"}]
+    private final ColumnVector[] vectors;
+    private int rowCount; // 예: 10000
+
+    public ColumnarBatch(List<DatabricksColumn> columns) {
+        this.columns = columns;
+        this.vectors = new ColumnVector[columns.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = ColumnVector.forColumn(columns.get(i));
+        }
+    }
+
+    public static ColumnarBatch empty() {
+        return new ColumnarBatch(new ArrayList<>());
+    }
+
+    /**
+     * 한 행의 값이 모두 추가된 뒤 호출 - 값이 모자란 컬럼은 NULL로 채웁니다.
+     */
+    public void endRow() {
+        rowCount++;
+        for (ColumnVector vector : vectors) {
+            while (vector.size() < rowCount) {
+                vector.appendNull();
+            }
+        }
+    }
+
+    /**
+     * 같은 컬럼 구성의 다른 배치에서 한 행을 복사해 추가
+     */
+    public void appendRow(ColumnarBatch source, int row) {
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].appendFrom(source.vectors[i], row);
+        }
+        rowCount++;
+    }
+
+    public ColumnVector getVector(int columnIndex) {
+        return vectors[columnIndex];
+    }
+
+    public Object getValue(int row, int columnIndex) {
+        return vectors[columnIndex].getObject(row);
+    }
+
+    public int getColumnIndex(String columnName) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equals(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public List<DatabricksColumn> getColumns() {
+        return columns;
+    }
+
+    public List<String> getColumnNames() {
+        List<String> names = new ArrayList<>(columns.size());
+        for (DatabricksColumn column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    public int getColumnCount() {
+        return vectors.length;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long estimatedBytes() {
+        long bytes = 64;
+        for (ColumnVector vector : vectors) {
+            bytes += vector.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 한 행을 JSON 배열로 기록
+     */
+    public void writeRow(JsonGenerator generator, int row) throws IOException {
+        generator.writeStartArray();
+        for (ColumnVector vector : vectors) {
+            vector.writeJson(generator, row);
+        }
+        generator.writeEndArray();
+    }
+
+    public static class RowArraySerializer extends JsonSerializer<ColumnarBatch> {
+        @Override
+        public void serialize(ColumnarBatch batch, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartArray();
+            for (int row = 0; row < batch.rowCount; row++) {
+                batch.writeRow(generator, row);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -6,6 +6,8 @@ public class DatabricksColumn {
     private String type; // 예: "string", "int", "double", "timestamp"
     private String comment; // 예: "고객 고유 식별자"
     private boolean nullable; // 예: true (NULL 값 허용 여부)
+    private Integer precision; // 예: 15 (DECIMAL 전체 자릿수, manifest type_precision)
+    private Integer scale; // 예: 2 (DECIMAL 소수 자릿수, manifest type_scale)
     
     // Constructors
     public DatabricksColumn() {}
@@ -35,4 +37,10 @@ public class DatabricksColumn {
     
     public boolean isNullable() { return nullable; }
     public void setNullable(boolean nullable) { this.nullable = nullable; }
+    
+    public Integer getPrecision() { return precision; }
+    public void setPrecision(Integer precision) { this.precision = precision; }
+    
+    public Integer getScale() { return scale; }
+    public void setScale(Integer scale) { this.scale = scale; }
 }
\ No newline at end of file
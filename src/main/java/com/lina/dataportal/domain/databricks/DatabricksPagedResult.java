@@ -1,14 +1,13 @@
 package com.lina.dataportal.domain.databricks;
 
 import java.util.List;
-import java.util.Map;
 
 public class DatabricksPagedResult {
     
     private boolean success; // 예: true (쿼리 실행 성공 여부)
     private String error; // 예: "Connection timeout" (에러 메시지)
     private List<DatabricksColumn> columns; // 예: [{"name": "order_id", "type": "string"}]
-    private List<Map<String, Object>> results; // 예: [{"order_id": "ORD_001", "amount": 15000}]
+    private ColumnarBatch rows; // 예: [["ORD_001", 15000]] (컬럼 기반 저장, 행 배열로 직렬화)
     private int rowCount; // 예: 1000 (현재 청크의 행 수)
     private long executionTime; // 예: 3500 (실행 시간, 밀리초)
     
@@ -27,15 +26,15 @@ public class DatabricksPagedResult {
     
     // Static factory methods
     public static DatabricksPagedResult success(List<DatabricksColumn> columns, 
-                                              List<Map<String, Object>> results, 
+                                              ColumnarBatch rows, 
                                               long executionTime,
                                               int totalChunks,
                                               int currentChunk,
                                               String statementId) {
         DatabricksPagedResult result = new DatabricksPagedResult(true);
         result.columns = columns;
-        result.results = results;
-        result.rowCount = results.size();
+        result.rows = rows;
+        result.rowCount = rows.getRowCount();
         result.executionTime = executionTime;
         result.totalChunks = totalChunks;
         result.currentChunk = currentChunk;
@@ -65,8 +64,8 @@ public class DatabricksPagedResult {
     public List<DatabricksColumn> getColumns() { return columns; }
     public void setColumns(List<DatabricksColumn> columns) { this.columns = columns; }
     
-    public List<Map<String, Object>> getResults() { return results; }
-    public void setResults(List<Map<String, Object>> results) { this.results = results; }
+    public ColumnarBatch getRows() { return rows; }
+    public void setRows(ColumnarBatch rows) { this.rows = rows; }
     
     public int getRowCount() { return rowCount; }
     public void setRowCount(int rowCount) { this.rowCount = rowCount; }
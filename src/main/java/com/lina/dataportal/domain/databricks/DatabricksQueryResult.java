@@ -1,14 +1,13 @@
 package com.lina.dataportal.domain.databricks;
 
 import java.util.List;
-import java.util.Map;
 
 public class DatabricksQueryResult {
     
     private boolean success; // 예: true (쿼리 실행 성공 여부)
     private String error; // 예: "Table not found: sales.orders" (에러 메시지)
     private List<DatabricksColumn> columns; // 예: [{"name": "customer_id", "type": "string"}, {"name": "order_date", "type": "date"}]
-    private List<Map<String, Object>> results; // 예: [{"customer_id": "CUST_001", "order_date": "2024-01-15"}]
+    private ColumnarBatch rows; // 예: [["CUST_001", "2024-01-15"]] (컬럼 기반 저장, 행 배열로 직렬화)
     private int rowCount; // 예: 1250 (결과 행 수)
     private long executionTime; // 예: 2500 (실행 시간, 밀리초)
     
@@ -21,12 +20,12 @@ public class DatabricksQueryResult {
     
     // Static factory methods
     public static DatabricksQueryResult success(List<DatabricksColumn> columns, 
-                                              List<Map<String, Object>> results, 
+                                              ColumnarBatch rows, 
                                               long executionTime) {
         DatabricksQueryResult result = new DatabricksQueryResult(true);
         result.columns = columns;
-        result.results = results;
-        result.rowCount = results.size();
+        result.rows = rows;
+        result.rowCount = rows.getRowCount();
         result.executionTime = executionTime;
         return result;
     }
@@ -49,8 +48,8 @@ public class DatabricksQueryResult {
     public List<DatabricksColumn> getColumns() { return columns; }
     public void setColumns(List<DatabricksColumn> columns) { this.columns = columns; }
     
-    public List<Map<String, Object>> getResults() { return results; }
-    public void setResults(List<Map<String, Object>> results) { this.results = results; }
+    public ColumnarBatch getRows() { return rows; }
+    public void setRows(ColumnarBatch rows) { this.rows = rows; }
     
     public int getRowCount() { return rowCount; }
     public void setRowCount(int rowCount) { this.rowCount = rowCount; }
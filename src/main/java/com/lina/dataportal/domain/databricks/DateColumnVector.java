@@ -0,0 +1,192 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 날짜 컬럼 (DATE)
+ * 값은 1970-01-01 기준 일수(epoch day)로 저장하고, JSON에는 "yyyy-MM-dd" 문자열로 기록합니다.
+ */
+public class DateColumnVector extends ColumnVector {
+
+    private int[] values = new int[INITIAL_CAPACITY];
+
+    @Override
+    public void appendText(String value) {
+        appendChars(value.toCharArray(), 0, value.length());
+    }
+
+    @Override
+    public void appendChars(char[] chars, int offset, int length) {
+        long epochDay = length == 10 ? parseEpochDay(chars, offset) : Long.MIN_VALUE;
+        if (epochDay == Long.MIN_VALUE) {
+            // 5자리 이상 연도, 공백 등은 LocalDate로 해석
+            epochDay = LocalDate.parse(new String(chars, offset, length).trim()).toEpochDay();
+        }
+        appendEpochDay((int) epochDay);
+    }
+
+    @Override
+    public void appendEpochDay(int epochDay) {
+        ensureCapacity(size + 1);
+        values[size++] = epochDay;
+    }
+
+    @Override
+    public void appendLong(long value) {
+        appendEpochDay(Math.toIntExact(value));
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        appendLong((long) value);
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        throw new IllegalArgumentException("BOOLEAN value cannot be stored in a DATE column");
+    }
+
+    public int getEpochDay(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        appendEpochDay(((DateColumnVector) source).getEpochDay(row));
+    }
+
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        return Integer.compare(values[rowA], values[rowB]);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : LocalDate.ofEpochDay(values[row]);
+    }
+
+    @Override
+    public String getText(int row) {
+        return isNull(row) ? null : format(values[row]);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        if (isNull(row)) {
+            generator.writeNull();
+        } else {
+            generator.writeString(format(values[row]));
+        }
+    }
+
+    /**
+     * "yyyy-MM-dd" 10글자를 epoch day로 변환 - 형식이 다르거나 없는 날짜면 Long.MIN_VALUE
+     */
+    static long parseEpochDay(char[] chars, int offset) {
+        if (chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = parseDigits(chars, offset, 4);
+        int month = parseDigits(chars, offset + 5, 2);
+        int day = parseDigits(chars, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * 숫자 count개를 int로 - 숫자가 아닌 문자가 있으면 -1
+     */
+    static int parseDigits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * 그레고리력 날짜 → epoch day (LocalDate.toEpochDay와 같은 계산, 객체 생성 없음)
+     */
+    private static long epochDay(int year, int month, int day) {
+        long total = 365L * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            total -= leap ? 1 : 2;
+        }
+        return total - 719_528; // 0000-01-01 ~ 1970-01-01
+    }
+
+    /**
+     * epoch day → "yyyy-MM-dd" (LocalDate.toString과 같은 형식)
+     */
+    public static String format(long epochDay) {
+        // 1년 ~ 9999년은 직접 조립, 그 밖의 범위는 LocalDate에 맡김
+        if (epochDay < -719_162 || epochDay > 2_932_896) {
+            return LocalDate.ofEpochDay(epochDay).toString();
+        }
+        // LocalDate.ofEpochDay와 같은 3월 기준 역산
+        long zeroDay = epochDay + 719_528 - 60;
+        long yearEstimate = (400 * zeroDay + 591) / 146_097;
+        long dayOfYear = zeroDay - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+        if (dayOfYear < 0) {
+            yearEstimate--;
+            dayOfYear = zeroDay - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+        }
+        int marchDayOfYear = (int) dayOfYear;
+        int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+        int month = (marchMonth + 2) % 12 + 1;
+        int day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+        long year = yearEstimate + marchMonth / 10;
+
+        char[] text = new char[10];
+        text[0] = (char) ('0' + year / 1000);
+        text[1] = (char) ('0' + year / 100 % 10);
+        text[2] = (char) ('0' + year / 10 % 10);
+        text[3] = (char) ('0' + year % 10);
+        text[4] = '-';
+        text[5] = (char) ('0' + month / 10);
+        text[6] = (char) ('0' + month % 10);
+        text[7] = '-';
+        text[8] = (char) ('0' + day / 10);
+        text[9] = (char) ('0' + day % 10);
+        return new String(text);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return values.length * 4L + nullBitmapBytes();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+        }
+        ensureNullCapacity(capacity);
+    }
+}
@@ -0,0 +1,251 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * 고정 소수점 컬럼 (DECIMAL)
+ * 값은 컬럼 scale 기준의 unscaled long으로 저장합니다. 예: DECIMAL(15,2)의 "1000.05" → 100005
+ * long 범위를 넘는 값이 나오면 그때부터 컬럼 전체를 BigDecimal 배열로 전환합니다 (DECIMAL(38,x) 등).
+ * double을 거치지 않으므로 금액 컬럼도 원본 값 그대로 유지되고, JSON에는 문자열로 기록합니다.
+ */
+public class DecimalColumnVector extends ColumnVector {
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    private static final int MAX_COMPACT_DIGITS = 18; // 이 자릿수까지는 long 오버플로 없이 파싱
+
+    private int scale; // 예: 2 (manifest type_scale, 없으면 첫 값의 소수 자릿수)
+    private long[] unscaled = new long[INITIAL_CAPACITY];
+    private BigDecimal[] wide; // long 범위를 넘는 값이 나온 뒤에만 사용
+
+    public DecimalColumnVector(Integer scale) {
+        this.scale = scale != null ? scale : -1;
+    }
+
+    @Override
+    public void appendText(String value) {
+        appendChars(value.toCharArray(), 0, value.length());
+    }
+
+    /**
+     * 부호, 숫자, 소수점만으로 된 18자리 이하 값은 BigDecimal 없이 바로 unscaled long으로 읽습니다.
+     */
+    @Override
+    public void appendChars(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || digits == MAX_COMPACT_DIGITS) {
+                // 지수 표기, 공백, 19자리 이상 등은 일반 경로
+                appendDecimal(new BigDecimal(new String(chars, offset, length).trim()));
+                return;
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+            if (fraction >= 0) {
+                fraction++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid decimal: " + new String(chars, offset, length));
+        }
+        appendDecimal(negative ? -value : value, Math.max(fraction, 0));
+    }
+
+    @Override
+    public void appendDecimal(long unscaledValue, int valueScale) {
+        if (scale < 0) {
+            scale = valueScale;
+        }
+        if (wide == null && valueScale <= scale && scale - valueScale < POWERS_OF_TEN.length) {
+            long factor = POWERS_OF_TEN[scale - valueScale];
+            long high = Math.multiplyHigh(unscaledValue, factor);
+            long low = unscaledValue * factor;
+            if (high == (low >> 63)) {
+                ensureCapacity(size + 1);
+                unscaled[size++] = low;
+                return;
+            }
+        }
+        appendDecimal(BigDecimal.valueOf(unscaledValue, valueScale));
+    }
+
+    @Override
+    public void appendDecimal(BigDecimal value) {
+        if (scale < 0) {
+            scale = Math.max(value.scale(), 0);
+        }
+        BigDecimal scaled = value;
+        if (value.scale() != scale) {
+            try {
+                scaled = value.setScale(scale);
+            } catch (ArithmeticException e) {
+                // 컬럼 scale보다 소수 자릿수가 많은 값 - 반올림하지 않고 그대로 보관
+            }
+        }
+        if (wide == null) {
+            if (scaled.scale() == scale && scaled.unscaledValue().bitLength() < 64) {
+                ensureCapacity(size + 1);
+                unscaled[size++] = scaled.unscaledValue().longValue();
+                return;
+            }
+            widen();
+        }
+        ensureCapacity(size + 1);
+        wide[size++] = scaled;
+    }
+
+    @Override
+    public void appendLong(long value) {
+        appendDecimal(value, 0);
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        appendDecimal(BigDecimal.valueOf(value));
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        appendDecimal(value ? 1L : 0L, 0);
+    }
+
+    /**
+     * 지금까지의 값을 BigDecimal 배열로 옮김
+     */
+    private void widen() {
+        wide = new BigDecimal[unscaled.length];
+        for (int row = 0; row < size; row++) {
+            if (!isNull(row)) {
+                wide[row] = BigDecimal.valueOf(unscaled[row], scale);
+            }
+        }
+        unscaled = null;
+    }
+
+    /**
+     * 모든 값이 unscaled long으로 저장되어 있는지 여부 (false면 {@link #getDecimal}만 사용 가능)
+     */
+    public boolean isCompact() {
+        return wide == null;
+    }
+
+    public int getScale() {
+        return Math.max(scale, 0);
+    }
+
+    public long getUnscaled(int row) {
+        return unscaled[row];
+    }
+
+    public BigDecimal getDecimal(int row) {
+        return wide != null ? wide[row] : BigDecimal.valueOf(unscaled[row], getScale());
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        DecimalColumnVector decimals = (DecimalColumnVector) source;
+        if (decimals.isCompact()) {
+            appendDecimal(decimals.getUnscaled(row), decimals.getScale());
+        } else {
+            appendDecimal(decimals.getDecimal(row));
+        }
+    }
+
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        if (wide == null) {
+            return Long.compare(unscaled[rowA], unscaled[rowB]);
+        }
+        return wide[rowA].compareTo(wide[rowB]);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : getDecimal(row);
+    }
+
+    @Override
+    public String getText(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return wide != null ? wide[row].toPlainString() : toPlainString(unscaled[row], getScale());
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        if (isNull(row)) {
+            generator.writeNull();
+        } else {
+            generator.writeString(getText(row));
+        }
+    }
+
+    /**
+     * BigDecimal.valueOf(unscaled, scale).toPlainString()과 같은 결과 - 예: (100005, 2) → "1000.05", (-5, 2) → "-0.05"
+     */
+    public static String toPlainString(long unscaled, int scale) {
+        if (scale <= 0) {
+            return scale == 0 ? Long.toString(unscaled) : BigDecimal.valueOf(unscaled, scale).toPlainString();
+        }
+        String digits = Long.toString(unscaled);
+        int start = unscaled < 0 ? 1 : 0;
+        int integerDigits = digits.length() - start - scale;
+        StringBuilder text = new StringBuilder(digits.length() + scale + 3);
+        if (start == 1) {
+            text.append('-');
+        }
+        if (integerDigits <= 0) {
+            text.append("0.");
+            for (int i = integerDigits; i < 0; i++) {
+                text.append('0');
+            }
+            text.append(digits, start, digits.length());
+        } else {
+            text.append(digits, start, start + integerDigits).append('.').append(digits, start + integerDigits, digits.length());
+        }
+        return text.toString();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        if (wide != null) {
+            return wide.length * 56L + nullBitmapBytes(); // 참조 + BigDecimal/BigInteger 객체
+        }
+        return unscaled.length * 8L + nullBitmapBytes();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (wide != null) {
+            if (capacity > wide.length) {
+                wide = Arrays.copyOf(wide, grow(wide.length, capacity));
+            }
+        } else if (capacity > unscaled.length) {
+            unscaled = Arrays.copyOf(unscaled, grow(unscaled.length, capacity));
+        }
+        ensureNullCapacity(capacity);
+    }
+}
@@ -0,0 +1,79 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 실수형 컬럼 (DOUBLE, FLOAT)
+ */
+public class DoubleColumnVector extends ColumnVector {
+
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    @Override
+    public void appendText(String value) {
+        appendDouble(Double.parseDouble(value.trim()));
+    }
+
+    @Override
+    public void appendLong(long value) {
+        appendDouble(value);
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        appendDouble(value ? 1.0 : 0.0);
+    }
+
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        appendDouble(((DoubleColumnVector) source).getDouble(row));
+    }
+
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        return Double.compare(values[rowA], values[rowB]);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        if (isNull(row)) {
+            generator.writeNull();
+        } else if (Double.isNaN(values[row]) || Double.isInfinite(values[row])) {
+            // JSON 숫자로 표현할 수 없는 값은 Databricks와 동일하게 문자열로 전달
+            generator.writeString(Double.toString(values[row]));
+        } else {
+            generator.writeNumber(values[row]);
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return values.length * 8L + nullBitmapBytes();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+        }
+        ensureNullCapacity(capacity);
+    }
+}
@@ -0,0 +1,40 @@
+package com.lina.dataportal.domain.databricks;
+
+/**
+ * 전체 결과 내보내기 형식
+ */
+public enum ExportFormat {
+    /**
+     * 헤더 행 + 쉼표 구분 (RFC 4180, UTF-8)
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * 한 줄에 JSON 객체 하나 (컬럼명 → 값)
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * 청크마다 row group 하나 - 대용량 추출용
+     */
+    PARQUET("application/vnd.apache.parquet", "parquet");
+
+    private final String contentType; // 예: "text/csv"
+    private final String extension; // 예: "csv"
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    public String getContentType() { return contentType; }
+
+    public String getExtension() { return extension; }
+}
@@ -0,0 +1,43 @@
+package com.lina.dataportal.domain.databricks;
+
+import java.util.Map;
+
+/**
+ * EXTERNAL_LINKS 결과의 청크 다운로드 링크
+ */
+public class ExternalLink {
+    
+    private String externalLink; // 예: "https://storage.blob.core.windows.net/...?sig=..." (presigned URL)
+    private String expiration; // 예: "2024-01-25T16:45:00.000Z"
+    private int chunkIndex; // 예: 0
+    private long rowOffset; // 예: 0
+    private long rowCount; // 예: 250000
+    private long byteCount; // 예: 18350000
+    private Integer nextChunkIndex; // 예: 1 (마지막 청크면 null)
+    private Map<String, String> httpHeaders; // 다운로드 시 함께 보내야 하는 헤더 (클라우드별)
+    
+    // Getters and Setters
+    public String getExternalLink() { return externalLink; }
+    public void setExternalLink(String externalLink) { this.externalLink = externalLink; }
+    
+    public String getExpiration() { return expiration; }
+    public void setExpiration(String expiration) { this.expiration = expiration; }
+    
+    public int getChunkIndex() { return chunkIndex; }
+    public void setChunkIndex(int chunkIndex) { this.chunkIndex = chunkIndex; }
+    
+    public long getRowOffset() { return rowOffset; }
+    public void setRowOffset(long rowOffset) { this.rowOffset = rowOffset; }
+    
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+    
+    public long getByteCount() { return byteCount; }
+    public void setByteCount(long byteCount) { this.byteCount = byteCount; }
+    
+    public Integer getNextChunkIndex() { return nextChunkIndex; }
+    public void setNextChunkIndex(Integer nextChunkIndex) { this.nextChunkIndex = nextChunkIndex; }
+    
+    public Map<String, String> getHttpHeaders() { return httpHeaders; }
+    public void setHttpHeaders(Map<String, String> httpHeaders) { this.httpHeaders = httpHeaders; }
+}
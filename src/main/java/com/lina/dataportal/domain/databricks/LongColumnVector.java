@@ -0,0 +1,116 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 정수형 컬럼 (LONG, INT, SHORT, BYTE)
+ * LONG(BIGINT)은 JavaScript Number로 2^53을 넘는 값이 깨지므로 DECIMAL처럼 JSON 문자열로 내려줍니다.
+ */
+public class LongColumnVector extends ColumnVector {
+
+    private final boolean bigint; // JSON 문자열로 기록 (LONG)
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    public LongColumnVector() {
+        this(false);
+    }
+
+    public LongColumnVector(boolean bigint) {
+        this.bigint = bigint;
+    }
+
+    @Override
+    public void appendText(String value) {
+        appendLong(Long.parseLong(value.trim()));
+    }
+
+    /**
+     * 18자리 이하 정수는 String 없이 바로 읽음 (그보다 긴 값은 오버플로 검사를 위해 Long.parseLong)
+     */
+    @Override
+    public void appendChars(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            appendText(new String(chars, offset, length));
+            return;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                appendText(new String(chars, offset, length));
+                return;
+            }
+            value = value * 10 + digit;
+        }
+        appendLong(negative ? -value : value);
+    }
+
+    @Override
+    public void appendLong(long value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        appendLong((long) value);
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        appendLong(value ? 1L : 0L);
+    }
+
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        appendLong(((LongColumnVector) source).getLong(row));
+    }
+
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        return Long.compare(values[rowA], values[rowB]);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        if (isNull(row)) {
+            generator.writeNull();
+        } else if (bigint) {
+            generator.writeString(Long.toString(values[row]));
+        } else {
+            generator.writeNumber(values[row]);
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return values.length * 8L + nullBitmapBytes();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+        }
+        ensureNullCapacity(capacity);
+    }
+}
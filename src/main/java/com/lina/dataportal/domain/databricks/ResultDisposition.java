@@ -0,0 +1,23 @@
+package com.lina.dataportal.domain.databricks;
+
+/**
+ * Statement Execution API 결과 전달 방식
+ */
+public enum ResultDisposition {
+    /**
+     * 응답 본문에 JSON_ARRAY 형식으로 포함 (기본값, 결과 크기 제한 있음)
+     */
+    INLINE,
+    
+    /**
+     * 청크별 presigned URL로 ARROW_STREAM 파일 제공 (대용량 결과용)
+     */
+    EXTERNAL_LINKS;
+    
+    public static ResultDisposition from(String value) {
+        if (value == null || value.isBlank()) {
+            return INLINE;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+}
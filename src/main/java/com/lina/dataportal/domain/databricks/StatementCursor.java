@@ -0,0 +1,52 @@
+package com.lina.dataportal.domain.databricks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 여러 청크로 나뉜 statement 결과의 서버 측 커서
+ * 첫 응답의 manifest를 보관해 두었다가 다음 청크 조회 시 컬럼 정보와 소유자 확인에 사용합니다.
+ */
+public class StatementCursor {
+    
+    private final String statementId; // 예: "01ef1234-5678-90ab-cdef-1234567890ab"
+    private final String userId; // 예: "user001" (statement를 실행한 사용자)
+    private final String workspaceUrl; // 예: "https://adb-1234567890123456.7.azuredatabricks.net"
+    private final List<DatabricksColumn> columns; // manifest 스키마
+    private final int totalChunks; // 예: 12
+    private final Set<String> sharedWith = ConcurrentHashMap.newKeySet(); // 실행 중에 같은 쿼리로 결과를 함께 받은 사용자
+    private final long createdAt;
+    private volatile long lastAccess;
+    
+    public StatementCursor(String statementId, String userId, String workspaceUrl,
+                           List<DatabricksColumn> columns, int totalChunks) {
+        this.statementId = statementId;
+        this.userId = userId;
+        this.workspaceUrl = workspaceUrl;
+        this.columns = List.copyOf(columns);
+        this.totalChunks = totalChunks;
+        this.createdAt = System.currentTimeMillis();
+        this.lastAccess = createdAt;
+    }
+    
+    public boolean isOwnedBy(String userId, String workspaceUrl) {
+        return (this.userId.equals(userId) || sharedWith.contains(userId)) && this.workspaceUrl.equals(workspaceUrl);
+    }
+    
+    /**
+     * 같은 자격 증명으로 statement 결과를 함께 받은 사용자에게도 다음 청크 조회를 허용
+     */
+    public void shareWith(String userId) { sharedWith.add(userId); }
+    
+    public void touch() { this.lastAccess = System.currentTimeMillis(); }
+    
+    // Getters
+    public String getStatementId() { return statementId; }
+    public String getUserId() { return userId; }
+    public String getWorkspaceUrl() { return workspaceUrl; }
+    public List<DatabricksColumn> getColumns() { return columns; }
+    public int getTotalChunks() { return totalChunks; }
+    public long getCreatedAt() { return createdAt; }
+    public long getLastAccess() { return lastAccess; }
+}
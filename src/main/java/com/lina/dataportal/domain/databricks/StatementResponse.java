@@ -0,0 +1,81 @@
+package com.lina.dataportal.domain.databricks;
+
+import java.util.List;
+
+/**
+ * Statement Execution API 응답 (statement 조회 / 결과 청크 조회)
+ * 스트리밍 디코더가 manifest와 result를 읽으면서 채웁니다.
+ */
+public class StatementResponse {
+
+    private String statementId; // 예: "01ef4a2b-8c9d-1234-abcd-ef1234567890"
+    private String state; // 예: "PENDING", "RUNNING", "SUCCEEDED", "FAILED", "CANCELED", "CLOSED"
+    private String errorMessage; // 예: "[TABLE_OR_VIEW_NOT_FOUND] ..."
+
+    // manifest 정보
+    private List<DatabricksColumn> columns; // manifest.schema.columns (없으면 null)
+    private String format; // 예: "JSON_ARRAY", "ARROW_STREAM"
+    private String resultCompression; // 예: "NONE", "LZ4_FRAME"
+    private int totalChunkCount = 1; // 예: 5
+    private long totalRowCount; // 예: 125000
+    private long totalByteCount; // 예: 8388608 (결과 전체 크기, 없으면 0)
+
+    // result 정보
+    private int chunkIndex; // 예: 0
+    private long rowOffset; // 예: 0
+    private Integer nextChunkIndex; // 예: 1 (마지막 청크면 null)
+    private ColumnarBatch rows; // result.data_array
+    private List<ExternalLink> externalLinks; // result.external_links (EXTERNAL_LINKS 방식)
+
+    public boolean isTerminal() {
+        return "SUCCEEDED".equals(state) || "FAILED".equals(state)
+            || "CANCELED".equals(state) || "CLOSED".equals(state);
+    }
+
+    public boolean isSucceeded() {
+        return "SUCCEEDED".equals(state);
+    }
+
+    // Getters and Setters
+    public String getStatementId() { return statementId; }
+    public void setStatementId(String statementId) { this.statementId = statementId; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public List<DatabricksColumn> getColumns() { return columns; }
+    public void setColumns(List<DatabricksColumn> columns) { this.columns = columns; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getResultCompression() { return resultCompression; }
+    public void setResultCompression(String resultCompression) { this.resultCompression = resultCompression; }
+
+    public int getTotalChunkCount() { return totalChunkCount; }
+    public void setTotalChunkCount(int totalChunkCount) { this.totalChunkCount = totalChunkCount; }
+
+    public long getTotalRowCount() { return totalRowCount; }
+    public void setTotalRowCount(long totalRowCount) { this.totalRowCount = totalRowCount; }
+
+    public long getTotalByteCount() { return totalByteCount; }
+    public void setTotalByteCount(long totalByteCount) { this.totalByteCount = totalByteCount; }
+
+    public int getChunkIndex() { return chunkIndex; }
+    public void setChunkIndex(int chunkIndex) { this.chunkIndex = chunkIndex; }
+
+    public long getRowOffset() { return rowOffset; }
+    public void setRowOffset(long rowOffset) { this.rowOffset = rowOffset; }
+
+    public Integer getNextChunkIndex() { return nextChunkIndex; }
+    public void setNextChunkIndex(Integer nextChunkIndex) { this.nextChunkIndex = nextChunkIndex; }
+
+    public ColumnarBatch getRows() { return rows; }
+    public void setRows(ColumnarBatch rows) { this.rows = rows; }
+
+    public List<ExternalLink> getExternalLinks() { return externalLinks; }
+    public void setExternalLinks(List<ExternalLink> externalLinks) { this.externalLinks = externalLinks; }
+}
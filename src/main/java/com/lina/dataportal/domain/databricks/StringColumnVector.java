@@ -0,0 +1,181 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 문자열 컬럼 - 사전(dictionary) 인코딩
+ * 코드값(int)만 행마다 저장하고 실제 문자열은 사전에 한 번만 보관합니다.
+ * 고유값 비율이 높아 사전의 이점이 없으면 일반 문자열 배열로 전환합니다.
+ */
+public class StringColumnVector extends ColumnVector {
+
+    private static final int DICTIONARY_CHECK_ROWS = 4096; // 사전 효율을 판단하는 시점
+    private static final int MAX_DICTIONARY_SIZE = 65536;
+
+    private int[] codes = new int[INITIAL_CAPACITY];
+    private List<String> dictionary = new ArrayList<>();
+    private Map<String, Integer> dictionaryIndex = new HashMap<>();
+    private long dictionaryChars;
+
+    private String[] plainValues; // 사전을 포기한 경우에만 사용
+
+    private int[] dictionaryRanks; // 사전 코드 → 정렬 순위 (정렬할 때 한 번 계산)
+
+    @Override
+    public void appendText(String value) {
+        dictionaryRanks = null;
+        ensureCapacity(size + 1);
+        if (plainValues != null) {
+            plainValues[size++] = value;
+            return;
+        }
+
+        Integer code = dictionaryIndex.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryIndex.put(value, code);
+            dictionaryChars += value.length();
+        }
+        codes[size++] = code;
+
+        if (dictionary.size() > MAX_DICTIONARY_SIZE
+            || (size == DICTIONARY_CHECK_ROWS && dictionary.size() > size / 2)) {
+            convertToPlain();
+        }
+    }
+
+    @Override
+    public void appendLong(long value) {
+        appendText(Long.toString(value));
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        appendText(Double.toString(value));
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        appendText(Boolean.toString(value));
+    }
+
+    public String getString(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return plainValues != null ? plainValues[row] : dictionary.get(codes[row]);
+    }
+
+    public boolean isDictionaryEncoded() {
+        return plainValues == null;
+    }
+
+    public int getDictionarySize() {
+        return plainValues == null ? dictionary.size() : 0;
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        appendText(((StringColumnVector) source).getString(row));
+    }
+
+    /**
+     * 사전 인코딩이면 코드별 순위를 미리 구해 두고 int 비교만 합니다.
+     */
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        if (plainValues != null) {
+            return plainValues[rowA].compareTo(plainValues[rowB]);
+        }
+        return Integer.compare(getDictionaryRank(rowA), getDictionaryRank(rowB));
+    }
+
+    /**
+     * 사전 인코딩된 값의 정렬 순위 (같은 값이면 같은 순위) - 사전 인코딩일 때만 사용
+     */
+    public int getDictionaryRank(int row) {
+        int[] ranks = dictionaryRanks;
+        if (ranks == null) {
+            ranks = rankDictionary();
+            dictionaryRanks = ranks;
+        }
+        return ranks[codes[row]];
+    }
+
+    private int[] rankDictionary() {
+        Integer[] order = new Integer[dictionary.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> dictionary.get(a).compareTo(dictionary.get(b)));
+        int[] ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return getString(row);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        String value = getString(row);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        if (plainValues != null) {
+            long bytes = plainValues.length * 8L + nullBitmapBytes();
+            for (int i = 0; i < size; i++) {
+                if (plainValues[i] != null) {
+                    bytes += 40 + plainValues[i].length();
+                }
+            }
+            return bytes;
+        }
+        // 코드 배열 + 사전 문자열(객체 헤더 포함) + 인덱스 맵 엔트리
+        return codes.length * 4L + nullBitmapBytes() + dictionary.size() * 88L + dictionaryChars;
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (plainValues != null) {
+            if (capacity > plainValues.length) {
+                plainValues = Arrays.copyOf(plainValues, grow(plainValues.length, capacity));
+            }
+        } else if (capacity > codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+        }
+        ensureNullCapacity(capacity);
+    }
+
+    private void convertToPlain() {
+        String[] converted = new String[Math.max(codes.length, size)];
+        for (int i = 0; i < size; i++) {
+            if (!isNull(i)) {
+                converted[i] = dictionary.get(codes[i]);
+            }
+        }
+        plainValues = converted;
+        codes = null;
+        dictionary = null;
+        dictionaryIndex = null;
+        dictionaryRanks = null;
+    }
+}
@@ -0,0 +1,306 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * 시각 컬럼 (TIMESTAMP, 타임존 있음)
+ * 값은 UTC epoch 마이크로초(Databricks TIMESTAMP 정밀도)로 저장해 정렬/필터/Parquet 내보내기에 그대로 쓰고,
+ * 출력할 때는 받은 문자열의 표기(초 이하 자릿수, 오프셋)를 그대로 되살립니다.
+ * 예: "2024-01-15T10:30:00.000+09:00"은 "2024-01-15T01:30:00Z"가 아니라 받은 그대로 출력합니다.
+ * 이진 값으로 받은 시각(Arrow)은 "2024-01-15T10:30:00.123Z" 형식(초 이하 0/3/6자리 + Z)으로 출력합니다.
+ * 타임존 없는 TIMESTAMP_NTZ는 로컬 시각이므로 문자열 컬럼으로 둡니다.
+ */
+public class TimestampColumnVector extends ColumnVector {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    // 값마다 받은 문자열의 표기를 int 하나로 보관 (0이면 기본 표기)
+    // 비트 0-3: 초 이하 자릿수 + 1, 비트 4: 날짜와 시각 사이가 공백, 비트 5~: 오프셋 (0 = Z, 1 = 없음, 그 밖은 분 + OFFSET_BIAS)
+    public static final int DEFAULT_NOTATION = 0;
+    private static final int SPACE_SEPARATOR = 1 << 4;
+    private static final int OFFSET_SHIFT = 5;
+    private static final int OFFSET_ZULU = 0;
+    private static final int OFFSET_NONE = 1;
+    private static final int OFFSET_BIAS = 2 + 18 * 60;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int[] notations; // 기본 표기가 아닌 값이 처음 들어올 때 만듦
+
+    @Override
+    public void appendText(String value) {
+        appendChars(value.toCharArray(), 0, value.length());
+    }
+
+    @Override
+    public void appendChars(char[] chars, int offset, int length) {
+        long micros = length >= 19 ? parseFast(chars, offset, length) : Long.MIN_VALUE;
+        if (micros != Long.MIN_VALUE) {
+            appendEpochMicros(micros, notationOf(chars, offset, length));
+        } else {
+            // java.time으로 읽는 드문 형식은 기본 표기로 출력
+            appendEpochMicros(parseEpochMicros(chars, offset, length), DEFAULT_NOTATION);
+        }
+    }
+
+    @Override
+    public void appendEpochMicros(long epochMicros) {
+        appendEpochMicros(epochMicros, DEFAULT_NOTATION);
+    }
+
+    /**
+     * @param notation 출력 표기 ({@link #getNotation}으로 얻은 값, 기본 표기면 {@link #DEFAULT_NOTATION})
+     */
+    public void appendEpochMicros(long epochMicros, int notation) {
+        ensureCapacity(size + 1);
+        if (notation != DEFAULT_NOTATION && notations == null) {
+            notations = new int[values.length];
+        }
+        if (notations != null) {
+            notations[size] = notation;
+        }
+        values[size++] = epochMicros;
+    }
+
+    @Override
+    public void appendLong(long value) {
+        appendEpochMicros(value);
+    }
+
+    @Override
+    public void appendDouble(double value) {
+        appendEpochMicros((long) value);
+    }
+
+    @Override
+    public void appendBoolean(boolean value) {
+        throw new IllegalArgumentException("BOOLEAN value cannot be stored in a TIMESTAMP column");
+    }
+
+    public long getEpochMicros(int row) {
+        return values[row];
+    }
+
+    public int getNotation(int row) {
+        return notations != null ? notations[row] : DEFAULT_NOTATION;
+    }
+
+    @Override
+    protected void appendValueFrom(ColumnVector source, int row) {
+        TimestampColumnVector timestamps = (TimestampColumnVector) source;
+        appendEpochMicros(timestamps.getEpochMicros(row), timestamps.getNotation(row));
+    }
+
+    @Override
+    protected int compareValues(int rowA, int rowB) {
+        return Long.compare(values[rowA], values[rowB]);
+    }
+
+    @Override
+    public Object getObject(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        long micros = values[row];
+        return Instant.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND), Math.floorMod(micros, MICROS_PER_SECOND) * 1_000L);
+    }
+
+    @Override
+    public String getText(int row) {
+        return isNull(row) ? null : format(values[row], getNotation(row));
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator, int row) throws IOException {
+        if (isNull(row)) {
+            generator.writeNull();
+        } else {
+            generator.writeString(format(values[row], getNotation(row)));
+        }
+    }
+
+    /**
+     * ISO-8601 시각 → epoch 마이크로초
+     * "yyyy-MM-ddTHH:mm:ss[.f…][Z|±HH:mm]" (T 대신 공백 허용, 오프셋이 없으면 UTC)은 직접 읽고,
+     * 그 밖의 형식은 java.time으로 해석합니다. 마이크로초 아래 자릿수는 버립니다.
+     */
+    public static long parseEpochMicros(char[] chars, int offset, int length) {
+        long micros = length >= 19 ? parseFast(chars, offset, length) : Long.MIN_VALUE;
+        if (micros != Long.MIN_VALUE) {
+            return micros;
+        }
+        String text = new String(chars, offset, length).trim().replace(' ', 'T');
+        Instant instant;
+        try {
+            instant = OffsetDateTime.parse(text).toInstant();
+        } catch (DateTimeParseException e) {
+            instant = LocalDateTime.parse(text).toInstant(ZoneOffset.UTC);
+        }
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND), instant.getNano() / 1_000);
+    }
+
+    private static long parseFast(char[] chars, int offset, int length) {
+        char separator = chars[offset + 10];
+        if (separator != 'T' && separator != ' ' || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+            return Long.MIN_VALUE;
+        }
+        long epochDay = DateColumnVector.parseEpochDay(chars, offset);
+        int hour = DateColumnVector.parseDigits(chars, offset + 11, 2);
+        int minute = DateColumnVector.parseDigits(chars, offset + 14, 2);
+        int second = DateColumnVector.parseDigits(chars, offset + 17, 2);
+        if (epochDay == Long.MIN_VALUE || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int end = offset + length;
+        int i = offset + 19;
+        long fraction = 0;
+        if (i < end && chars[i] == '.') {
+            int digits = 0;
+            for (i++; i < end && chars[i] >= '0' && chars[i] <= '9'; i++, digits++) {
+                if (digits < 6) {
+                    fraction = fraction * 10 + (chars[i] - '0');
+                }
+            }
+            if (digits == 0) {
+                return Long.MIN_VALUE;
+            }
+            for (; digits < 6; digits++) {
+                fraction *= 10;
+            }
+        }
+
+        int offsetSeconds = 0;
+        if (i < end && !(chars[i] == 'Z' && i + 1 == end)) {
+            char sign = chars[i];
+            if (sign != '+' && sign != '-' || end - i != 6 || chars[i + 3] != ':') {
+                return Long.MIN_VALUE;
+            }
+            int offsetHours = DateColumnVector.parseDigits(chars, i + 1, 2);
+            int offsetMinutes = DateColumnVector.parseDigits(chars, i + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return Long.MIN_VALUE;
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+        }
+
+        long epochSecond = epochDay * 86_400L + hour * 3600 + minute * 60 + second - offsetSeconds;
+        return epochSecond * MICROS_PER_SECOND + fraction;
+    }
+
+    /**
+     * parseFast로 읽은 문자열의 표기 - 초 이하 자릿수는 마이크로초(6자리)까지만 보관합니다.
+     */
+    private static int notationOf(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset + 19;
+        int digits = 0;
+        if (i < end && chars[i] == '.') {
+            for (i++; i < end && chars[i] >= '0' && chars[i] <= '9'; i++) {
+                digits++;
+            }
+        }
+
+        int offsetCode;
+        if (i == end) {
+            offsetCode = OFFSET_NONE;
+        } else if (chars[i] == 'Z') {
+            offsetCode = OFFSET_ZULU;
+        } else {
+            int minutes = DateColumnVector.parseDigits(chars, i + 1, 2) * 60 + DateColumnVector.parseDigits(chars, i + 4, 2);
+            offsetCode = (chars[i] == '-' ? -minutes : minutes) + OFFSET_BIAS;
+        }
+        return (Math.min(digits, 6) + 1)
+            | (chars[offset + 10] == ' ' ? SPACE_SEPARATOR : 0)
+            | offsetCode << OFFSET_SHIFT;
+    }
+
+    /**
+     * epoch 마이크로초 → Instant.toString과 같은 형식 (초 이하 0/3/6자리 + Z)
+     */
+    public static String format(long epochMicros) {
+        return format(epochMicros, DEFAULT_NOTATION);
+    }
+
+    /**
+     * epoch 마이크로초 → 받은 문자열과 같은 표기 (예: "2024-01-15T10:30:00.000+09:00")
+     */
+    public static String format(long epochMicros, int notation) {
+        int offsetCode = notation >>> OFFSET_SHIFT;
+        int offsetMinutes = offsetCode > OFFSET_NONE ? offsetCode - OFFSET_BIAS : 0;
+        long local = epochMicros + offsetMinutes * 60 * MICROS_PER_SECOND;
+        long seconds = Math.floorDiv(local, MICROS_PER_SECOND);
+        int micros = (int) Math.floorMod(local, MICROS_PER_SECOND);
+        int secondOfDay = (int) Math.floorMod(seconds, 86_400L);
+
+        StringBuilder text = new StringBuilder(32)
+            .append(DateColumnVector.format(Math.floorDiv(seconds, 86_400L)))
+            .append((notation & SPACE_SEPARATOR) != 0 ? ' ' : 'T');
+        appendPadded(text, secondOfDay / 3600, 2).append(':');
+        appendPadded(text, secondOfDay / 60 % 60, 2).append(':');
+        appendPadded(text, secondOfDay % 60, 2);
+
+        if (notation == DEFAULT_NOTATION) {
+            if (micros > 0) {
+                text.append('.');
+                if (micros % 1_000 == 0) {
+                    appendPadded(text, micros / 1_000, 3);
+                } else {
+                    appendPadded(text, micros, 6);
+                }
+            }
+            return text.append('Z').toString();
+        }
+
+        int digits = (notation & 0xF) - 1;
+        if (digits > 0) {
+            int divisor = 1;
+            for (int i = digits; i < 6; i++) {
+                divisor *= 10;
+            }
+            text.append('.');
+            appendPadded(text, micros / divisor, digits);
+        }
+        if (offsetCode == OFFSET_ZULU) {
+            text.append('Z');
+        } else if (offsetCode != OFFSET_NONE) {
+            int absolute = Math.abs(offsetMinutes);
+            text.append(offsetMinutes < 0 ? '-' : '+');
+            appendPadded(text, absolute / 60, 2).append(':');
+            appendPadded(text, absolute % 60, 2);
+        }
+        return text.toString();
+    }
+
+    private static StringBuilder appendPadded(StringBuilder text, int value, int digits) {
+        for (int bound = 10, i = 1; i < digits; i++, bound *= 10) {
+            if (value < bound) {
+                text.append('0');
+            }
+        }
+        return text.append(value);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return values.length * 8L + (notations != null ? notations.length * 4L : 0) + nullBitmapBytes();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+            if (notations != null) {
+                notations = Arrays.copyOf(notations, values.length);
+            }
+        }
+        ensureNullCapacity(capacity);
+    }
+}
@@ -0,0 +1,125 @@
+package com.lina.dataportal.domain.query;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 쿼리 실행 이력 (추가만 하고 수정하지 않음)
+ */
+@Entity
+@Table(name = "query_executions", indexes = {
+    @Index(name = "idx_query_executions_fingerprint", columnList = "fingerprint, executed_at"),
+    @Index(name = "idx_query_executions_user", columnList = "user_id, executed_at")
+})
+public class QueryExecution {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // 예: 1
+    
+    @Column(name = "user_id", nullable = false)
+    private String userId; // 예: "john.doe@company.com"
+    
+    @Column(name = "warehouse_id")
+    private String warehouseId; // 예: "abc123def456"
+    
+    @Column(name = "statement_id")
+    private String statementId; // 예: "01ef4a2b-8c9d-1234-abcd-ef1234567890" (캐시 적중/거절이면 null)
+    
+    @Column(name = "sql_hash", nullable = false, length = 64)
+    private String sqlHash; // 예: "9f86d081..." (정규화한 SQL의 SHA-256)
+    
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint; // 예: "2c26b46b..." (리터럴을 ?로 바꾼 SQL의 SHA-256)
+    
+    @Column(name = "sql_text", columnDefinition = "TEXT")
+    private String sqlText; // 예: "select * from policies where id = 42" (정규화한 SQL)
+    
+    @Column(nullable = false, length = 20)
+    private String status; // 예: "SUCCEEDED", "FAILED", "CANCELLED", "REJECTED"
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage; // 예: "[TABLE_OR_VIEW_NOT_FOUND] ..."
+    
+    @Column(name = "row_count")
+    private Long rowCount; // 예: 125000 (전체 결과 행 수)
+    
+    @Column(name = "result_bytes")
+    private Long resultBytes; // 예: 8388608 (Databricks가 알려준 결과 크기, 없으면 첫 청크 추정치)
+    
+    @Column(name = "queue_time_ms", nullable = false)
+    private Long queueTimeMs = 0L; // 예: 1200 (admission 대기열에서 기다린 시간)
+    
+    @Column(name = "execution_time_ms", nullable = false)
+    private Long executionTimeMs = 0L; // 예: 3400 (statement 생성부터 완료까지)
+    
+    @Column(name = "fetch_time_ms", nullable = false)
+    private Long fetchTimeMs = 0L; // 예: 250 (첫 청크 결과 다운로드)
+    
+    @Column(name = "cache_hit", nullable = false)
+    private Boolean cacheHit = false; // 예: true (결과 캐시에서 응답)
+    
+    @Column(name = "executed_at", nullable = false)
+    private LocalDateTime executedAt; // 예: 2024-01-25T16:45:00
+    
+    // Constructors
+    public QueryExecution() {
+        this.executedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * 대기 + 실행 + 다운로드 시간 (화면에서 체감하는 응답 시간)
+     */
+    public long getTotalTimeMs() {
+        return queueTimeMs + executionTimeMs + fetchTimeMs;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    public String getWarehouseId() { return warehouseId; }
+    public void setWarehouseId(String warehouseId) { this.warehouseId = warehouseId; }
+    
+    public String getStatementId() { return statementId; }
+    public void setStatementId(String statementId) { this.statementId = statementId; }
+    
+    public String getSqlHash() { return sqlHash; }
+    public void setSqlHash(String sqlHash) { this.sqlHash = sqlHash; }
+    
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    
+    public String getSqlText() { return sqlText; }
+    public void setSqlText(String sqlText) { this.sqlText = sqlText; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    
+    public Long getRowCount() { return rowCount; }
+    public void setRowCount(Long rowCount) { this.rowCount = rowCount; }
+    
+    public Long getResultBytes() { return resultBytes; }
+    public void setResultBytes(Long resultBytes) { this.resultBytes = resultBytes; }
+    
+    public Long getQueueTimeMs() { return queueTimeMs; }
+    public void setQueueTimeMs(Long queueTimeMs) { this.queueTimeMs = queueTimeMs; }
+    
+    public Long getExecutionTimeMs() { return executionTimeMs; }
+    public void setExecutionTimeMs(Long executionTimeMs) { this.executionTimeMs = executionTimeMs; }
+    
+    public Long getFetchTimeMs() { return fetchTimeMs; }
+    public void setFetchTimeMs(Long fetchTimeMs) { this.fetchTimeMs = fetchTimeMs; }
+    
+    public Boolean getCacheHit() { return cacheHit; }
+    public void setCacheHit(Boolean cacheHit) { this.cacheHit = cacheHit; }
+    
+    public LocalDateTime getExecutedAt() { return executedAt; }
+    public void setExecutedAt(LocalDateTime executedAt) { this.executedAt = executedAt; }
+}
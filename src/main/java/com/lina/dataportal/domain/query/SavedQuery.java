@@ -0,0 +1,51 @@
+package com.lina.dataportal.domain.query;
+
+import com.lina.dataportal.domain.common.BaseAuditEntity;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "saved_queries")
+public class SavedQuery extends BaseAuditEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // 예: 1
+    
+    @Column(nullable = false)
+    private String name; // 예: "고객별 보험료 합계"
+    
+    @Column(name = "sql_text", nullable = false, columnDefinition = "TEXT")
+    private String sql; // 예: "SELECT customer_id, SUM(premium) FROM policies GROUP BY customer_id"
+    
+    @Column(columnDefinition = "TEXT")
+    private String description; // 예: "고객별 총 보험료 조회"
+    
+    @Column(name = "created_by", nullable = false)
+    private String createdBy; // 예: "john.doe@company.com"
+    
+    // Constructors
+    public SavedQuery() {}
+    
+    public SavedQuery(String name, String sql, String description, String createdBy) {
+        this.name = name;
+        this.sql = sql;
+        this.description = description;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getSql() { return sql; }
+    public void setSql(String sql) { this.sql = sql; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+}
@@ -39,7 +39,7 @@ public class UserToken {
     private LocalDateTime updatedAt; // 예: 2024-01-20T14:30:00
     
     @Column(name = "last_used_at")
-    private LocalDateTime lastUsedAt; // 예: 2024-01-25T16:45:00
+    private LocalDateTime lastUsedAt; // 예: 2024-01-25T16:45:00 (초 단위, credentials.last-used-flush-interval 주기로 반영)
     
     @Column(name = "expires_at")
     private LocalDateTime expiresAt; // 예: 2024-12-31T23:59:59
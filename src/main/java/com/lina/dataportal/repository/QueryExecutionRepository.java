@@ -0,0 +1,24 @@
+package com.lina.dataportal.repository;
+
+import com.lina.dataportal.domain.query.QueryExecution;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QueryExecutionRepository extends JpaRepository<QueryExecution, Long> {
+    
+    List<QueryExecution> findByUserIdOrderByExecutedAtDesc(String userId, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QueryExecution qe WHERE qe.executedAt < :before")
+    int deleteExecutedBefore(@Param("before") LocalDateTime before);
+}
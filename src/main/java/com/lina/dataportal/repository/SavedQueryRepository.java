@@ -0,0 +1,13 @@
+package com.lina.dataportal.repository;
+
+import com.lina.dataportal.domain.query.SavedQuery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedQueryRepository extends JpaRepository<SavedQuery, Long> {
+    
+    List<SavedQuery> findByCreatedByOrderByUpdatedAtDesc(String createdBy);
+}
@@ -2,10 +2,14 @@ package com.lina.dataportal.repository;
 
 import com.lina.dataportal.domain.user.UserToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -17,6 +21,13 @@ public interface UserTokenRepository extends JpaRepository<UserToken, Long> {
     @Query("SELECT ut FROM UserToken ut WHERE ut.userId = :userId AND ut.tokenType = 'DATABRICKS_PAT' AND ut.isActive = true")
     Optional<UserToken> findActiveDatabricksToken(@Param("userId") String userId);
     
+    @Modifying
     @Query("UPDATE UserToken ut SET ut.isActive = false WHERE ut.userId = :userId AND ut.tokenType = :tokenType")
     void deactivateTokensByUserIdAndType(@Param("userId") String userId, @Param("tokenType") String tokenType);
-}
\ No newline at end of file
+    
+    // 마지막 사용 시각 일괄 갱신 (write-behind flush)
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserToken ut SET ut.lastUsedAt = :usedAt WHERE ut.id IN :ids")
+    int updateLastUsedAt(@Param("ids") Collection<Long> ids, @Param("usedAt") LocalDateTime usedAt);
+}
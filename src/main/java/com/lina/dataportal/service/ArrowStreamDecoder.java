@@ -0,0 +1,854 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arrow IPC 스트림(ARROW_STREAM) 디코더
+ * EXTERNAL_LINKS 결과 파일을 읽어 RecordBatch의 버퍼에서 바로 컬럼 벡터에 값을 적재합니다.
+ * Arrow 라이브러리 없이 메시지 메타데이터(flatbuffer)만 직접 해석합니다.
+ * 값 표현은 JSON_ARRAY 결과와 맞춥니다 (DECIMAL/DATE/TIMESTAMP는 문자열, 중첩 타입은 JSON 문자열).
+ * 사전 인코딩 컬럼은 DictionaryBatch로 받은 값을 인덱스로 찾아 적재합니다 (delta 사전은 미지원).
+ */
+public final class ArrowStreamDecoder {
+
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    private static final int LZ4_FRAME_MAGIC = 0x184D2204;
+
+    // Message.header 유니온 타입
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_DICTIONARY_BATCH = 2;
+    private static final byte HEADER_RECORD_BATCH = 3;
+
+    // Field.type 유니온 타입 (Schema.fbs)
+    private static final byte TYPE_NULL = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_BINARY = 4;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_BOOL = 6;
+    private static final byte TYPE_DECIMAL = 7;
+    private static final byte TYPE_DATE = 8;
+    private static final byte TYPE_TIME = 9;
+    private static final byte TYPE_TIMESTAMP = 10;
+    private static final byte TYPE_LIST = 12;
+    private static final byte TYPE_STRUCT = 13;
+    private static final byte TYPE_FIXED_SIZE_BINARY = 15;
+    private static final byte TYPE_FIXED_SIZE_LIST = 16;
+    private static final byte TYPE_MAP = 17;
+    private static final byte TYPE_DURATION = 18;
+    private static final byte TYPE_LARGE_BINARY = 19;
+    private static final byte TYPE_LARGE_UTF8 = 20;
+    private static final byte TYPE_LARGE_LIST = 21;
+
+    // TimeUnit
+    private static final short UNIT_SECOND = 0;
+    private static final short UNIT_MILLISECOND = 1;
+    private static final short UNIT_MICROSECOND = 2;
+
+    private ArrowStreamDecoder() {}
+
+    /**
+     * 스트림의 모든 RecordBatch를 읽어 batch에 행을 추가합니다.
+     * @param columns manifest 컬럼 정보 (없으면 Arrow 스키마로 컬럼을 만듦)
+     * @param target 이어서 적재할 배치 (없으면 새로 만듦)
+     */
+    public static ColumnarBatch decode(InputStream input, List<DatabricksColumn> columns, ColumnarBatch target) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        List<ArrowField> fields = null;
+        Map<Long, ArrowField> dictionaryFields = new HashMap<>();
+        Map<Long, ArrowColumn> dictionaries = new HashMap<>();
+        ColumnarBatch batch = target;
+
+        ByteBuffer metadata;
+        while ((metadata = readMessageMetadata(in)) != null) {
+            Table message = Table.root(metadata);
+            byte headerType = message.getByte(1, (byte) 0);
+            Table header = message.table(2);
+            long bodyLength = message.getLong(3, 0);
+            if (bodyLength > Integer.MAX_VALUE) {
+                throw new IOException("Arrow record batch body too large: " + bodyLength);
+            }
+
+            byte[] body = new byte[(int) bodyLength];
+            in.readFully(body);
+
+            switch (headerType) {
+                case HEADER_SCHEMA -> {
+                    fields = readFields(header, 1);
+                    collectDictionaryFields(fields, dictionaryFields);
+                    if (batch == null) {
+                        batch = new ColumnarBatch(columns != null ? columns : toColumns(fields));
+                    }
+                }
+                case HEADER_RECORD_BATCH -> {
+                    if (fields == null) {
+                        throw new IOException("Arrow record batch before schema");
+                    }
+                    readRecordBatch(header, ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN), fields, dictionaries, batch);
+                }
+                case HEADER_DICTIONARY_BATCH ->
+                    readDictionaryBatch(header, ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN), dictionaryFields, dictionaries);
+                default -> {
+                    // Tensor 등 결과와 무관한 메시지는 무시
+                }
+            }
+        }
+
+        if (batch == null) {
+            batch = columns != null ? new ColumnarBatch(columns) : ColumnarBatch.empty();
+        }
+        return batch;
+    }
+
+    /**
+     * 메시지 프레임: [0xFFFFFFFF] [메타데이터 길이 int32] [메타데이터] [본문]
+     * 구버전 스트림은 continuation 마커가 없습니다. 길이 0이면 스트림 끝입니다.
+     */
+    private static ByteBuffer readMessageMetadata(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = Integer.reverseBytes(in.readInt());
+            if (length == CONTINUATION_MARKER) {
+                length = Integer.reverseBytes(in.readInt());
+            } else if (length == LZ4_FRAME_MAGIC) {
+                // manifest 없이 받은 청크라도 압축된 파일은 잘못된 메타데이터 오류 대신 바로 알림
+                throw new IOException("LZ4-compressed Arrow results are not supported (result_compression=LZ4_FRAME)");
+            }
+        } catch (EOFException e) {
+            return null; // EOS 마커 없이 끝난 스트림
+        }
+        if (length == 0) {
+            return null;
+        }
+
+        byte[] metadata = new byte[length];
+        in.readFully(metadata);
+        return ByteBuffer.wrap(metadata).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static List<ArrowField> readFields(Table table, int vectorField) throws IOException {
+        List<ArrowField> fields = new ArrayList<>();
+        int count = table.vectorLength(vectorField);
+        for (int i = 0; i < count; i++) {
+            Table field = table.vectorTable(vectorField, i);
+            fields.add(new ArrowField(
+                field.string(0),
+                field.getByte(2, (byte) 0),
+                field.table(3),
+                field.table(4),
+                readFields(field, 5)
+            ));
+        }
+        return fields;
+    }
+
+    /**
+     * 사전 ID → 사전 값 필드 (중첩 필드 포함)
+     */
+    private static void collectDictionaryFields(List<ArrowField> fields, Map<Long, ArrowField> dictionaryFields) {
+        for (ArrowField field : fields) {
+            if (field.dictionaryId >= 0) {
+                dictionaryFields.put(field.dictionaryId, field.valueField());
+            }
+            collectDictionaryFields(field.children, dictionaryFields);
+        }
+    }
+
+    private static List<DatabricksColumn> toColumns(List<ArrowField> fields) {
+        List<DatabricksColumn> columns = new ArrayList<>(fields.size());
+        for (ArrowField field : fields) {
+            DatabricksColumn column = new DatabricksColumn(field.name, field.databricksTypeName());
+            if (field.typeType == TYPE_DECIMAL) {
+                column.setPrecision(field.decimalPrecision);
+                column.setScale(field.scale);
+            } else if (field.typeType == TYPE_INT && field.bitWidth == 64 && !field.signed) {
+                column.setPrecision(20); // uint64는 long 범위를 넘을 수 있음
+                column.setScale(0);
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    private static void readRecordBatch(Table recordBatch, ByteBuffer body, List<ArrowField> fields,
+                                        Map<Long, ArrowColumn> dictionaries, ColumnarBatch batch) throws IOException {
+        int rowCount = (int) recordBatch.getLong(0, 0);
+        BufferCursor cursor = new BufferCursor(recordBatch, body);
+        List<ArrowColumn> arrowColumns = new ArrayList<>(fields.size());
+        for (ArrowField field : fields) {
+            arrowColumns.add(ArrowColumn.read(field, cursor, dictionaries));
+        }
+
+        // 컬럼 단위로 적재한 뒤 행 수를 맞춤
+        int columnCount = Math.min(arrowColumns.size(), batch.getColumnCount());
+        for (int col = 0; col < columnCount; col++) {
+            ArrowColumn column = arrowColumns.get(col);
+            ColumnVector vector = batch.getVector(col);
+            for (int row = 0; row < rowCount; row++) {
+                column.appendTo(vector, row);
+            }
+        }
+        for (int row = 0; row < rowCount; row++) {
+            batch.endRow();
+        }
+    }
+
+    /**
+     * DictionaryBatch { id: long, data: RecordBatch, isDelta: bool } - 같은 ID의 사전이 다시 오면 교체합니다.
+     */
+    private static void readDictionaryBatch(Table dictionaryBatch, ByteBuffer body, Map<Long, ArrowField> dictionaryFields,
+                                            Map<Long, ArrowColumn> dictionaries) throws IOException {
+        long id = dictionaryBatch.getLong(0, 0);
+        ArrowField field = dictionaryFields.get(id);
+        if (field == null) {
+            throw new IOException("Arrow dictionary batch for unknown dictionary id " + id);
+        }
+        if (dictionaryBatch.getBool(2, false)) {
+            throw new IOException("Delta Arrow dictionary batches are not supported");
+        }
+        BufferCursor cursor = new BufferCursor(dictionaryBatch.table(1), body);
+        dictionaries.put(id, ArrowColumn.read(field, cursor, dictionaries));
+    }
+
+    /**
+     * 스키마의 필드 정보
+     */
+    private static final class ArrowField {
+        final String name;
+        final byte typeType;
+        final List<ArrowField> children;
+
+        // 타입 파라미터 - 값마다 flatbuffer를 다시 읽지 않도록 미리 풀어 둠
+        final int bitWidth; // Int, Time, Decimal
+        final boolean signed; // Int
+        final short precision; // FloatingPoint (0=HALF, 1=SINGLE, 2=DOUBLE)
+        final short unit; // Date, Time, Timestamp, Duration
+        final int decimalPrecision; // Decimal
+        final int scale; // Decimal
+        final int fixedWidth; // FixedSizeBinary byteWidth, FixedSizeList listSize
+        final boolean hasTimezone; // Timestamp
+
+        // 사전 인코딩 (DictionaryEncoding { id, indexType: Int }) - 아니면 dictionaryId가 -1
+        private final Table type;
+        final long dictionaryId;
+        final int indexBitWidth;
+        final boolean indexSigned;
+
+        ArrowField(String name, byte typeType, Table type, Table dictionary, List<ArrowField> children) {
+            this.name = name;
+            this.typeType = typeType;
+            this.type = type;
+            this.children = children;
+
+            Table indexType = dictionary != null ? dictionary.table(1) : null;
+            this.dictionaryId = dictionary != null ? dictionary.getLong(0, 0) : -1;
+            this.indexBitWidth = indexType != null ? indexType.getInt(0, 32) : 32;
+            this.indexSigned = indexType == null || indexType.getBool(1, true);
+
+            boolean hasType = type != null;
+            this.signed = hasType && type.getBool(1, false);
+            this.precision = hasType ? type.getShort(0, (short) 0) : 0;
+            this.decimalPrecision = hasType && typeType == TYPE_DECIMAL ? type.getInt(0, 38) : 0;
+            this.scale = hasType && typeType == TYPE_DECIMAL ? type.getInt(1, 0) : 0;
+            this.fixedWidth = hasType && (typeType == TYPE_FIXED_SIZE_BINARY || typeType == TYPE_FIXED_SIZE_LIST)
+                ? type.getInt(0, 0) : 0;
+            this.hasTimezone = hasType && typeType == TYPE_TIMESTAMP && type.string(1) != null;
+            this.bitWidth = !hasType ? 0 : switch (typeType) {
+                case TYPE_INT -> type.getInt(0, 32);
+                case TYPE_TIME -> type.getInt(1, 32);
+                case TYPE_DECIMAL -> type.getInt(2, 128);
+                default -> 0;
+            };
+            this.unit = !hasType ? 0 : switch (typeType) {
+                case TYPE_TIMESTAMP -> type.getShort(0, UNIT_SECOND);
+                case TYPE_DATE, TYPE_TIME, TYPE_DURATION -> type.getShort(0, UNIT_MILLISECOND);
+                default -> 0;
+            };
+        }
+
+        /**
+         * 사전 값(DictionaryBatch)을 읽을 때 쓰는 같은 타입의 인코딩 없는 필드
+         */
+        ArrowField valueField() {
+            return new ArrowField(name, typeType, type, null, children);
+        }
+
+        String databricksTypeName() {
+            return switch (typeType) {
+                case TYPE_NULL -> "VOID";
+                case TYPE_INT -> switch (bitWidth) {
+                    case 8 -> "BYTE";
+                    case 16 -> "SHORT";
+                    case 32 -> "INT";
+                    default -> signed ? "LONG" : "DECIMAL";
+                };
+                case TYPE_FLOATING_POINT -> precision == 1 ? "FLOAT" : "DOUBLE";
+                case TYPE_BOOL -> "BOOLEAN";
+                case TYPE_DECIMAL -> "DECIMAL";
+                case TYPE_DATE -> "DATE";
+                case TYPE_TIMESTAMP -> hasTimezone ? "TIMESTAMP" : "TIMESTAMP_NTZ";
+                case TYPE_BINARY, TYPE_LARGE_BINARY, TYPE_FIXED_SIZE_BINARY -> "BINARY";
+                case TYPE_LIST, TYPE_LARGE_LIST, TYPE_FIXED_SIZE_LIST -> "ARRAY";
+                case TYPE_STRUCT -> "STRUCT";
+                case TYPE_MAP -> "MAP";
+                case TYPE_DURATION -> "INTERVAL";
+                default -> "STRING";
+            };
+        }
+    }
+
+    /**
+     * RecordBatch의 FieldNode와 Buffer를 스키마 순서(전위 순회)대로 꺼냅니다.
+     */
+    private static final class BufferCursor {
+        private final Table recordBatch;
+        private final ByteBuffer body;
+        private final int nodeCount;
+        private final int bufferCount;
+        private int nodeIndex;
+        private int bufferIndex;
+
+        BufferCursor(Table recordBatch, ByteBuffer body) throws IOException {
+            if (recordBatch.table(3) != null) {
+                throw new IOException("Compressed Arrow record batches are not supported");
+            }
+            this.recordBatch = recordBatch;
+            this.body = body;
+            this.nodeCount = recordBatch.vectorLength(1);
+            this.bufferCount = recordBatch.vectorLength(2);
+        }
+
+        /** FieldNode { length: long, null_count: long } - length만 사용 */
+        int nextNodeLength() throws IOException {
+            if (nodeIndex >= nodeCount) {
+                throw new IOException("Arrow record batch has fewer field nodes than the schema");
+            }
+            return (int) recordBatch.bb.getLong(recordBatch.vectorStart(1) + 16 * nodeIndex++);
+        }
+
+        /** validity 비트맵 - null이 없어 생략된 경우 -1 */
+        int nextValidityBuffer() throws IOException {
+            int position = recordBatch.vectorStart(2) + 16 * bufferIndex;
+            int offset = nextBuffer();
+            return recordBatch.bb.getLong(position + 8) == 0 ? -1 : offset;
+        }
+
+        /** Buffer { offset: long, length: long } - 본문 기준 시작 위치를 반환 */
+        int nextBuffer() throws IOException {
+            if (bufferIndex >= bufferCount) {
+                throw new IOException("Arrow record batch has fewer buffers than the schema");
+            }
+            int position = recordBatch.vectorStart(2) + 16 * bufferIndex++;
+            long offset = recordBatch.bb.getLong(position);
+            long length = recordBatch.bb.getLong(position + 8);
+            if (offset + length > body.capacity()) {
+                throw new IOException("Arrow buffer exceeds record batch body");
+            }
+            return (int) offset;
+        }
+    }
+
+    /**
+     * RecordBatch 안의 한 컬럼 (중첩 타입은 자식 컬럼 포함)
+     */
+    private static final class ArrowColumn {
+        final ArrowField field;
+        final ByteBuffer body;
+        final int length;
+        int validity = -1;
+        int offsets = -1;
+        int data = -1;
+        final List<ArrowColumn> children = new ArrayList<>();
+        ArrowColumn dictionary; // 사전 인코딩이면 사전 값 - data는 인덱스 버퍼
+
+        // 같은 날짜가 연속되는 경우가 많아 날짜 문자열을 재사용
+        private long cachedEpochDay = Long.MIN_VALUE;
+        private String cachedDate;
+
+        private ArrowColumn(ArrowField field, ByteBuffer body, int length) {
+            this.field = field;
+            this.body = body;
+            this.length = length;
+        }
+
+        static ArrowColumn read(ArrowField field, BufferCursor cursor, Map<Long, ArrowColumn> dictionaries) throws IOException {
+            ArrowColumn column = new ArrowColumn(field, cursor.body, cursor.nextNodeLength());
+            if (field.dictionaryId >= 0) {
+                // 인덱스 컬럼 - 값 타입의 자식 버퍼는 DictionaryBatch에만 있음
+                column.dictionary = dictionaries.get(field.dictionaryId);
+                if (column.dictionary == null) {
+                    throw new IOException("Arrow dictionary " + field.dictionaryId + " for column " + field.name + " was not sent");
+                }
+                column.validity = cursor.nextValidityBuffer();
+                column.data = cursor.nextBuffer();
+                return column;
+            }
+            switch (field.typeType) {
+                case TYPE_NULL -> {
+                    // 버퍼 없음
+                }
+                case TYPE_INT, TYPE_FLOATING_POINT, TYPE_BOOL, TYPE_DECIMAL, TYPE_DATE, TYPE_TIME,
+                     TYPE_TIMESTAMP, TYPE_DURATION, TYPE_FIXED_SIZE_BINARY -> {
+                    column.validity = cursor.nextValidityBuffer();
+                    column.data = cursor.nextBuffer();
+                }
+                case TYPE_UTF8, TYPE_LARGE_UTF8, TYPE_BINARY, TYPE_LARGE_BINARY -> {
+                    column.validity = cursor.nextValidityBuffer();
+                    column.offsets = cursor.nextBuffer();
+                    column.data = cursor.nextBuffer();
+                }
+                case TYPE_LIST, TYPE_LARGE_LIST, TYPE_MAP -> {
+                    column.validity = cursor.nextValidityBuffer();
+                    column.offsets = cursor.nextBuffer();
+                }
+                case TYPE_STRUCT, TYPE_FIXED_SIZE_LIST -> column.validity = cursor.nextValidityBuffer();
+                default -> throw new IOException("Unsupported Arrow type id " + field.typeType + " for column " + field.name);
+            }
+            if (field.typeType == TYPE_FLOATING_POINT && field.precision == 0) {
+                throw new IOException("Half-precision Arrow floats are not supported: " + field.name);
+            }
+            for (ArrowField child : field.children) {
+                column.children.add(read(child, cursor, dictionaries));
+            }
+            return column;
+        }
+
+        boolean isNull(int row) {
+            if (field.typeType == TYPE_NULL && dictionary == null) {
+                return true;
+            }
+            return validity >= 0 && (body.get(validity + (row >>> 3)) & (1 << (row & 7))) == 0;
+        }
+
+        void appendTo(ColumnVector vector, int row) {
+            if (isNull(row)) {
+                vector.appendNull();
+                return;
+            }
+            if (dictionary != null) {
+                dictionary.appendTo(vector, dictionaryIndex(row));
+                return;
+            }
+            switch (field.typeType) {
+                case TYPE_INT -> {
+                    if (isUnsignedLong()) {
+                        vector.appendText(Long.toUnsignedString(getLong(row)));
+                    } else {
+                        vector.appendLong(getLong(row));
+                    }
+                }
+                case TYPE_FLOATING_POINT -> vector.appendDouble(getDouble(row));
+                case TYPE_BOOL -> vector.appendBoolean(getBit(data, row));
+                case TYPE_DECIMAL -> {
+                    int start = data + field.bitWidth / 8 * row;
+                    if (decimalFitsInLong(start)) {
+                        vector.appendDecimal(body.getLong(start), field.scale);
+                    } else {
+                        vector.appendDecimal(getDecimal(row));
+                    }
+                }
+                case TYPE_DATE -> vector.appendEpochDay((int) getEpochDay(row));
+                case TYPE_TIMESTAMP -> {
+                    if (field.hasTimezone) {
+                        vector.appendEpochMicros(toMicros(body.getLong(data + 8 * row), field.unit));
+                    } else {
+                        vector.appendText(getText(row));
+                    }
+                }
+                default -> vector.appendText(getText(row));
+            }
+        }
+
+        private int dictionaryIndex(int row) {
+            return switch (field.indexBitWidth) {
+                case 8 -> field.indexSigned ? body.get(data + row) : body.get(data + row) & 0xFF;
+                case 16 -> field.indexSigned ? body.getShort(data + 2 * row) : body.getShort(data + 2 * row) & 0xFFFF;
+                case 64 -> (int) body.getLong(data + 8 * row);
+                default -> body.getInt(data + 4 * row);
+            };
+        }
+
+        private boolean isUnsignedLong() {
+            return field.bitWidth == 64 && !field.signed;
+        }
+
+        private long getLong(int row) {
+            boolean signed = field.signed;
+            return switch (field.bitWidth) {
+                case 8 -> signed ? body.get(data + row) : body.get(data + row) & 0xFFL;
+                case 16 -> signed ? body.getShort(data + 2 * row) : body.getShort(data + 2 * row) & 0xFFFFL;
+                case 32 -> signed ? body.getInt(data + 4 * row) : body.getInt(data + 4 * row) & 0xFFFFFFFFL;
+                default -> body.getLong(data + 8 * row);
+            };
+        }
+
+        private double getDouble(int row) {
+            if (field.precision == 1) {
+                // float → double 변환 시 생기는 꼬리 자릿수(0.1 → 0.10000000149...)를 피함
+                return Double.parseDouble(Float.toString(body.getFloat(data + 4 * row)));
+            }
+            return body.getDouble(data + 8 * row);
+        }
+
+        private boolean getBit(int buffer, int row) {
+            return (body.get(buffer + (row >>> 3)) & (1 << (row & 7))) != 0;
+        }
+
+        /**
+         * JSON_ARRAY 결과와 같은 문자열 표현
+         */
+        String getText(int row) {
+            if (dictionary != null) {
+                return dictionary.getText(dictionaryIndex(row));
+            }
+            switch (field.typeType) {
+                case TYPE_INT -> {
+                    return isUnsignedLong() ? Long.toUnsignedString(getLong(row)) : Long.toString(getLong(row));
+                }
+                case TYPE_FLOATING_POINT -> {
+                    return Double.toString(getDouble(row));
+                }
+                case TYPE_BOOL -> {
+                    return Boolean.toString(getBit(data, row));
+                }
+                case TYPE_UTF8, TYPE_LARGE_UTF8 -> {
+                    return new String(body.array(), valueStart(row), valueLength(row), StandardCharsets.UTF_8);
+                }
+                case TYPE_BINARY, TYPE_LARGE_BINARY -> {
+                    return encodeBase64(valueStart(row), valueLength(row));
+                }
+                case TYPE_FIXED_SIZE_BINARY -> {
+                    return encodeBase64(data + field.fixedWidth * row, field.fixedWidth);
+                }
+                case TYPE_DECIMAL -> {
+                    return getDecimal(row).toPlainString();
+                }
+                case TYPE_DATE -> {
+                    return formatDate(getEpochDay(row));
+                }
+                case TYPE_TIME -> {
+                    long value = field.bitWidth == 32 ? body.getInt(data + 4 * row) : body.getLong(data + 8 * row);
+                    return LocalTime.ofNanoOfDay(toNanos(value, field.unit)).toString();
+                }
+                case TYPE_TIMESTAMP -> {
+                    // 타임존이 있으면 UTC 시각(...Z), 없으면(TIMESTAMP_NTZ) 로컬 시각
+                    return formatTimestamp(toInstant(body.getLong(data + 8 * row), field.unit), field.hasTimezone);
+                }
+                case TYPE_DURATION -> {
+                    Instant instant = toInstant(body.getLong(data + 8 * row), field.unit);
+                    return Duration.ofSeconds(instant.getEpochSecond(), instant.getNano()).toString();
+                }
+                default -> {
+                    // 중첩 타입(ARRAY/MAP/STRUCT)은 JSON 문자열로 보관
+                    StringBuilder json = new StringBuilder();
+                    writeJson(json, row);
+                    return json.toString();
+                }
+            }
+        }
+
+        private void writeJson(StringBuilder json, int row) {
+            if (isNull(row)) {
+                json.append("null");
+                return;
+            }
+            if (dictionary != null) {
+                dictionary.writeJson(json, dictionaryIndex(row));
+                return;
+            }
+            switch (field.typeType) {
+                case TYPE_INT, TYPE_FLOATING_POINT, TYPE_BOOL -> {
+                    String text = getText(row);
+                    json.append(text.equals("NaN") || text.contains("Infinity") ? quote(text) : text);
+                }
+                case TYPE_LIST, TYPE_LARGE_LIST, TYPE_FIXED_SIZE_LIST -> {
+                    json.append('[');
+                    int start = childStart(row);
+                    int end = childStart(row + 1);
+                    for (int i = start; i < end; i++) {
+                        if (i > start) {
+                            json.append(',');
+                        }
+                        children.get(0).writeJson(json, i);
+                    }
+                    json.append(']');
+                }
+                case TYPE_STRUCT -> {
+                    json.append('{');
+                    for (int c = 0; c < children.size(); c++) {
+                        if (c > 0) {
+                            json.append(',');
+                        }
+                        json.append(quote(children.get(c).field.name)).append(':');
+                        children.get(c).writeJson(json, row);
+                    }
+                    json.append('}');
+                }
+                case TYPE_MAP -> {
+                    // Map<entries: Struct<key, value>>
+                    ArrowColumn entries = children.get(0);
+                    ArrowColumn keys = entries.children.get(0);
+                    ArrowColumn values = entries.children.get(1);
+                    json.append('{');
+                    int start = childStart(row);
+                    int end = childStart(row + 1);
+                    for (int i = start; i < end; i++) {
+                        if (i > start) {
+                            json.append(',');
+                        }
+                        json.append(quote(keys.getText(i))).append(':');
+                        values.writeJson(json, i);
+                    }
+                    json.append('}');
+                }
+                default -> json.append(quote(getText(row)));
+            }
+        }
+
+        private String formatDate(long epochDay) {
+            if (epochDay != cachedEpochDay) {
+                cachedEpochDay = epochDay;
+                cachedDate = LocalDate.ofEpochDay(epochDay).toString();
+            }
+            return cachedDate;
+        }
+
+        /**
+         * Instant.toString과 같은 형식 (초 이하 3/6/9자리) - DateTimeFormatter를 거치지 않음
+         */
+        private String formatTimestamp(Instant instant, boolean utc) {
+            long seconds = instant.getEpochSecond();
+            int secondOfDay = (int) Math.floorMod(seconds, 86_400L);
+            StringBuilder text = new StringBuilder(32)
+                .append(formatDate(Math.floorDiv(seconds, 86_400L))).append('T');
+            appendPadded(text, secondOfDay / 3600, 2).append(':');
+            appendPadded(text, secondOfDay / 60 % 60, 2).append(':');
+            appendPadded(text, secondOfDay % 60, 2);
+
+            int nanos = instant.getNano();
+            if (nanos > 0) {
+                text.append('.');
+                if (nanos % 1_000_000 == 0) {
+                    appendPadded(text, nanos / 1_000_000, 3);
+                } else if (nanos % 1_000 == 0) {
+                    appendPadded(text, nanos / 1_000, 6);
+                } else {
+                    appendPadded(text, nanos, 9);
+                }
+            }
+            return utc ? text.append('Z').toString() : text.toString();
+        }
+
+        private int childStart(int row) {
+            return switch (field.typeType) {
+                case TYPE_FIXED_SIZE_LIST -> field.fixedWidth * row;
+                case TYPE_LARGE_LIST -> (int) body.getLong(offsets + 8 * row);
+                default -> body.getInt(offsets + 4 * row);
+            };
+        }
+
+        private int valueStart(int row) {
+            return data + (field.typeType == TYPE_LARGE_UTF8 || field.typeType == TYPE_LARGE_BINARY
+                ? (int) body.getLong(offsets + 8 * row)
+                : body.getInt(offsets + 4 * row));
+        }
+
+        private int valueLength(int row) {
+            if (field.typeType == TYPE_LARGE_UTF8 || field.typeType == TYPE_LARGE_BINARY) {
+                return (int) (body.getLong(offsets + 8 * row + 8) - body.getLong(offsets + 8 * row));
+            }
+            return body.getInt(offsets + 4 * row + 4) - body.getInt(offsets + 4 * row);
+        }
+
+        private String encodeBase64(int start, int length) {
+            if (length == 0) {
+                return "";
+            }
+            return Base64.getEncoder().encodeToString(Arrays.copyOfRange(body.array(), start, start + length));
+        }
+
+        private long getEpochDay(int row) {
+            return field.unit == 0
+                ? body.getInt(data + 4 * row)
+                : Math.floorDiv(body.getLong(data + 8 * row), 86_400_000L);
+        }
+
+        /**
+         * 상위 바이트가 모두 부호 확장이면 long 범위 값 (대부분의 DECIMAL(18 이하))
+         */
+        private boolean decimalFitsInLong(int start) {
+            long low = body.getLong(start);
+            for (int i = 8; i < field.bitWidth / 8; i += 8) {
+                if (body.getLong(start + i) != (low >> 63)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private BigDecimal getDecimal(int row) {
+            int byteWidth = field.bitWidth / 8;
+            int start = data + byteWidth * row;
+            if (decimalFitsInLong(start)) {
+                return BigDecimal.valueOf(body.getLong(start), field.scale);
+            }
+
+            // 리틀 엔디언 2의 보수 → BigInteger(빅 엔디언)
+            byte[] bigEndian = new byte[byteWidth];
+            for (int i = 0; i < byteWidth; i++) {
+                bigEndian[i] = body.get(start + byteWidth - 1 - i);
+            }
+            return new BigDecimal(new BigInteger(bigEndian), field.scale);
+        }
+    }
+
+    private static StringBuilder appendPadded(StringBuilder text, int value, int digits) {
+        for (int bound = 10, i = 1; i < digits; i++, bound *= 10) {
+            if (value < bound) {
+                text.append('0');
+            }
+        }
+        return text.append(value);
+    }
+
+    private static long toNanos(long value, short unit) {
+        return switch (unit) {
+            case UNIT_SECOND -> value * 1_000_000_000L;
+            case UNIT_MILLISECOND -> value * 1_000_000L;
+            case UNIT_MICROSECOND -> value * 1_000L;
+            default -> value;
+        };
+    }
+
+    private static long toMicros(long value, short unit) {
+        return switch (unit) {
+            case UNIT_SECOND -> value * 1_000_000L;
+            case UNIT_MILLISECOND -> value * 1_000L;
+            case UNIT_MICROSECOND -> value;
+            default -> Math.floorDiv(value, 1_000L);
+        };
+    }
+
+    private static Instant toInstant(long value, short unit) {
+        return switch (unit) {
+            case UNIT_SECOND -> Instant.ofEpochSecond(value);
+            case UNIT_MILLISECOND -> Instant.ofEpochMilli(value);
+            case UNIT_MICROSECOND -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1_000L);
+            default -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L), Math.floorMod(value, 1_000_000_000L));
+        };
+    }
+
+    private static String quote(String value) {
+        return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + '"';
+    }
+
+    /**
+     * flatbuffer 테이블 읽기 (vtable로 필드 위치를 찾음)
+     */
+    private static final class Table {
+        final ByteBuffer bb;
+        final int position;
+
+        private Table(ByteBuffer bb, int position) {
+            this.bb = bb;
+            this.position = position;
+        }
+
+        static Table root(ByteBuffer bb) {
+            return new Table(bb, bb.getInt(0));
+        }
+
+        private int fieldOffset(int field) {
+            int vtable = position - bb.getInt(position);
+            int vtableSize = bb.getShort(vtable) & 0xFFFF;
+            int entry = 4 + 2 * field;
+            return entry < vtableSize ? bb.getShort(vtable + entry) & 0xFFFF : 0;
+        }
+
+        byte getByte(int field, byte defaultValue) {
+            int offset = fieldOffset(field);
+            return offset == 0 ? defaultValue : bb.get(position + offset);
+        }
+
+        boolean getBool(int field, boolean defaultValue) {
+            int offset = fieldOffset(field);
+            return offset == 0 ? defaultValue : bb.get(position + offset) != 0;
+        }
+
+        short getShort(int field, short defaultValue) {
+            int offset = fieldOffset(field);
+            return offset == 0 ? defaultValue : bb.getShort(position + offset);
+        }
+
+        int getInt(int field, int defaultValue) {
+            int offset = fieldOffset(field);
+            return offset == 0 ? defaultValue : bb.getInt(position + offset);
+        }
+
+        long getLong(int field, long defaultValue) {
+            int offset = fieldOffset(field);
+            return offset == 0 ? defaultValue : bb.getLong(position + offset);
+        }
+
+        Table table(int field) {
+            int offset = fieldOffset(field);
+            if (offset == 0) {
+                return null;
+            }
+            int reference = position + offset;
+            return new Table(bb, reference + bb.getInt(reference));
+        }
+
+        String string(int field) {
+            int offset = fieldOffset(field);
+            if (offset == 0) {
+                return null;
+            }
+            int reference = position + offset;
+            int start = reference + bb.getInt(reference);
+            return new String(bb.array(), start + 4, bb.getInt(start), StandardCharsets.UTF_8);
+        }
+
+        int vectorLength(int field) {
+            int offset = fieldOffset(field);
+            if (offset == 0) {
+                return 0;
+            }
+            int reference = position + offset;
+            return bb.getInt(reference + bb.getInt(reference));
+        }
+
+        int vectorStart(int field) {
+            int reference = position + fieldOffset(field);
+            return reference + bb.getInt(reference) + 4;
+        }
+
+        Table vectorTable(int field, int index) {
+            int element = vectorStart(field) + 4 * index;
+            return new Table(bb, element + bb.getInt(element));
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.domain.catalog.DataType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unity Catalog 테이블 목록을 데이터 카탈로그(data_tables)에 주기적으로 반영
+ * 기본 워크스페이스 자격 증명으로 카탈로그 → 스키마 → 테이블 목록을 SchemaCrawlService로 병렬 조회하고, 테이블별 updated_at을
+ * 저장된 워터마크(source_updated_at)와 비교해 새 테이블은 추가, 바뀐 테이블은 갱신, 사라진 테이블은 삭제합니다.
+ * 변경분만 JDBC 배치로 쓰므로 카탈로그 조회와 검색은 Databricks를 거치지 않고 DB에서 바로 처리됩니다.
+ * 직접 등록한 테이블(full_name 없음)은 건드리지 않으며, 목록 조회에 실패한 스키마의 테이블은 그대로 둡니다.
+ * 주기 실행은 크롤을 시작만 하고 바로 반환하므로 스케줄러 스레드를 점유하지 않습니다.
+ */
+@Service
+public class CatalogSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSyncService.class);
+
+    @Autowired
+    private SchemaCrawlService schemaCrawlService;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Map<String, Object> lastResult;
+
+    @Scheduled(initialDelayString = "${databricks.catalog-sync.initial-delay:60000}",
+               fixedDelayString = "${databricks.catalog-sync.interval:900000}")
+    public void scheduledSync() {
+        if (!databricksConfig.getCatalogSync().isEnabled()) {
+            return;
+        }
+        String workspaceUrl = databricksConfig.getDefault().getWorkspaceUrl();
+        if (workspaceUrl == null || workspaceUrl.isBlank()) {
+            return; // 기본 워크스페이스가 설정되지 않은 환경
+        }
+        syncAsync();
+    }
+
+    /**
+     * 지금 바로 동기화 (이미 실행 중이면 기다리지 않고 실패로 응답)
+     */
+    public Map<String, Object> sync() {
+        return syncAsync().join();
+    }
+
+    /**
+     * 동기화 시작 - 목록 크롤은 IO 풀에서 병렬로, DB 반영은 크롤이 끝난 IO 스레드에서 처리합니다.
+     */
+    public CompletableFuture<Map<String, Object>> syncAsync() {
+        String workspaceUrl = databricksConfig.getDefault().getWorkspaceUrl();
+        String accessToken = databricksConfig.getDefault().getAccessToken();
+        if (workspaceUrl == null || workspaceUrl.isBlank() || accessToken == null || accessToken.isBlank()) {
+            return CompletableFuture.completedFuture(Map.of("success", false, "error", "No Databricks configuration found"));
+        }
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(Map.of("success", false, "error", "Catalog sync is already running"));
+        }
+
+        long startTime = System.currentTimeMillis();
+        Listing listing = new Listing();
+        CompletableFuture<Map<String, Object>> result;
+        try {
+            result = schemaCrawlService.crawl(workspaceUrl, accessToken, listing)
+                .thenApply(done -> apply(workspaceUrl, listing, startTime));
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result
+            .exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                log.warn("Catalog sync of {} failed: {}", workspaceUrl, cause.getMessage());
+                Map<String, Object> failure = Map.of("success", false, "error", String.valueOf(cause.getMessage()),
+                    "syncedAt", LocalDateTime.now());
+                lastResult = failure;
+                return failure;
+            })
+            .whenComplete((done, e) -> running.set(false));
+    }
+
+    /**
+     * 크롤한 목록과 저장된 워터마크를 비교해 변경분만 한 트랜잭션으로 반영합니다.
+     */
+    private Map<String, Object> apply(String workspaceUrl, Listing listing, long startTime) {
+        Map<String, SyncedTable> synced = loadSynced();
+
+        List<Map<String, Object>> inserts = new ArrayList<>();
+        List<Map<String, Object>> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> entry : listing.tables.entrySet()) {
+            SyncedTable existing = synced.get(entry.getKey());
+            if (existing == null) {
+                inserts.add(entry.getValue());
+            } else if (!Objects.equals(existing.sourceUpdatedAt, updatedAt(entry.getValue()))) {
+                updates.add(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, SyncedTable> entry : synced.entrySet()) {
+            if (!listing.tables.containsKey(entry.getKey()) && listing.isDropped(entry.getKey())) {
+                deletes.add(entry.getValue().id);
+            }
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            delete(deletes);
+            update(updates, synced);
+            insert(inserts);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.put("tables", listing.tables.size());
+        result.put("inserted", inserts.size());
+        result.put("updated", updates.size());
+        result.put("deleted", deletes.size());
+        result.put("unchanged", listing.tables.size() - inserts.size() - updates.size());
+        result.put("failedSchemas", listing.failedSchemas);
+        result.put("elapsedMs", System.currentTimeMillis() - startTime);
+        result.put("syncedAt", LocalDateTime.now());
+        lastResult = result;
+        log.info("Catalog sync of {} finished: {} tables, {} inserted, {} updated, {} deleted in {}ms",
+            workspaceUrl, listing.tables.size(), inserts.size(), updates.size(), deletes.size(), result.get("elapsedMs"));
+        return result;
+    }
+
+    /**
+     * 마지막 동기화 결과 (아직 실행하지 않았으면 null)
+     */
+    public Map<String, Object> getLastResult() {
+        return lastResult;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private Map<String, SyncedTable> loadSynced() {
+        Map<String, SyncedTable> synced = new HashMap<>();
+        jdbcTemplate.query("SELECT id, full_name, source_updated_at FROM data_tables WHERE full_name IS NOT NULL", rs -> {
+            long sourceUpdatedAt = rs.getLong("source_updated_at");
+            synced.put(rs.getString("full_name"),
+                new SyncedTable(rs.getLong("id"), rs.wasNull() ? null : sourceUpdatedAt));
+        });
+        return synced;
+    }
+
+    private void delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        int batchSize = databricksConfig.getCatalogSync().getBatchSize();
+        jdbcTemplate.batchUpdate("DELETE FROM data_table_columns WHERE table_id = ?", ids, batchSize,
+            (ps, id) -> ps.setLong(1, id));
+        jdbcTemplate.batchUpdate("DELETE FROM data_table_tags WHERE table_id = ?", ids, batchSize,
+            (ps, id) -> ps.setLong(1, id));
+        jdbcTemplate.batchUpdate("DELETE FROM data_tables WHERE id = ?", ids, batchSize,
+            (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * 바뀐 테이블의 설명, 컬럼, 워터마크 갱신 (카테고리, 태그, 즐겨찾기는 포털에서 관리하므로 유지)
+     */
+    private void update(List<Map<String, Object>> tables, Map<String, SyncedTable> synced) {
+        if (tables.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Map<String, Object> table : tables) {
+            byId.put(synced.get(fullName(table)).id, table);
+        }
+        List<Map.Entry<Long, Map<String, Object>>> rows = new ArrayList<>(byId.entrySet());
+        jdbcTemplate.batchUpdate(
+            "UPDATE data_tables SET description = ?, column_count = COALESCE(?, column_count), last_updated = ?, source_updated_at = ? "
+                + "WHERE id = ?",
+            rows, databricksConfig.getCatalogSync().getBatchSize(), (ps, row) -> {
+                Map<String, Object> table = row.getValue();
+                ps.setString(1, (String) table.get("comment"));
+                if (hasColumns(table)) {
+                    ps.setInt(2, columnNames(table).size());
+                } else {
+                    ps.setNull(2, Types.INTEGER);
+                }
+                ps.setTimestamp(3, lastUpdated(table));
+                ps.setLong(4, updatedAt(table));
+                ps.setLong(5, row.getKey());
+            });
+        replaceColumns(byId);
+    }
+
+    private void insert(List<Map<String, Object>> tables) {
+        if (tables.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO data_tables (table_name, schema_name, description, category, data_type, record_count, column_count, "
+                + "is_favorite, last_updated, created_at, full_name, source_updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            tables, databricksConfig.getCatalogSync().getBatchSize(), (ps, table) -> {
+                ps.setString(1, (String) table.get("name"));
+                ps.setString(2, (String) table.get("schema_name"));
+                ps.setString(3, (String) table.get("comment"));
+                ps.setString(4, (String) table.get("catalog_name")); // 카탈로그 이름을 분류로 사용
+                ps.setString(5, DataType.TABLE.name());
+                ps.setLong(6, 0L); // 목록 API에는 행 수가 없음
+                ps.setInt(7, columnNames(table).size());
+                ps.setBoolean(8, false);
+                ps.setTimestamp(9, lastUpdated(table));
+                ps.setTimestamp(10, now);
+                ps.setString(11, fullName(table));
+                ps.setLong(12, updatedAt(table));
+            });
+
+        // IDENTITY로 만든 id를 full_name으로 다시 찾아 컬럼 목록 저장
+        Map<String, SyncedTable> synced = loadSynced();
+        Map<Long, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Map<String, Object> table : tables) {
+            byId.put(synced.get(fullName(table)).id, table);
+        }
+        replaceColumns(byId);
+    }
+
+    /**
+     * 목록 응답에 컬럼 정보가 없는 테이블은 기존 컬럼 목록을 유지합니다.
+     */
+    private void replaceColumns(Map<Long, Map<String, Object>> tables) {
+        Map<Long, Map<String, Object>> tablesById = new LinkedHashMap<>();
+        tables.forEach((id, table) -> {
+            if (hasColumns(table)) {
+                tablesById.put(id, table);
+            }
+        });
+        int batchSize = databricksConfig.getCatalogSync().getBatchSize();
+        jdbcTemplate.batchUpdate("DELETE FROM data_table_columns WHERE table_id = ?", tablesById.keySet(), batchSize,
+            (ps, id) -> ps.setLong(1, id));
+
+        List<Object[]> columns = new ArrayList<>();
+        tablesById.forEach((id, table) -> {
+            for (String columnName : columnNames(table)) {
+                columns.add(new Object[]{id, columnName});
+            }
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO data_table_columns (table_id, column_name) VALUES (?, ?)", columns, batchSize,
+            (ps, column) -> {
+                ps.setLong(1, (Long) column[0]);
+                ps.setString(2, (String) column[1]);
+            });
+    }
+
+    private static String fullName(Map<String, Object> table) {
+        return table.get("catalog_name") + "." + table.get("schema_name") + "." + table.get("name");
+    }
+
+    private static Long updatedAt(Map<String, Object> table) {
+        return table.get("updated_at") instanceof Number updatedAt ? updatedAt.longValue() : 0L;
+    }
+
+    private static Timestamp lastUpdated(Map<String, Object> table) {
+        long updatedAt = updatedAt(table);
+        return Timestamp.valueOf(updatedAt > 0
+            ? LocalDateTime.ofInstant(Instant.ofEpochMilli(updatedAt), ZoneId.systemDefault())
+            : LocalDateTime.now());
+    }
+
+    private static boolean hasColumns(Map<String, Object> table) {
+        return Boolean.TRUE.equals(table.get("has_columns"));
+    }
+
+    private static List<String> columnNames(Map<String, Object> table) {
+        List<String> names = new ArrayList<>();
+        if (table.get("columns") instanceof List<?> columns) {
+            for (Object column : columns) {
+                names.add((String) ((Map<String, Object>) column).get("name"));
+            }
+        }
+        return names;
+    }
+
+    private record SyncedTable(long id, Long sourceUpdatedAt) {
+    }
+
+    /**
+     * 크롤 결과 (스키마별 테이블 목록이 IO 스레드에서 동시에 들어오므로 잠금 안에서 기록)
+     * 테이블 목록 API가 컬럼, 주석, updated_at을 함께 돌려줍니다.
+     */
+    private static final class Listing implements SchemaCrawlService.CrawlObserver {
+        private final Map<String, Map<String, Object>> tables = new LinkedHashMap<>();
+        private final Set<String> catalogs = new HashSet<>();
+        private final Set<String> listedCatalogs = new HashSet<>(); // 스키마 목록까지 받은 카탈로그
+        private final Set<String> schemas = new HashSet<>();
+        private final Set<String> listedSchemas = new HashSet<>(); // 테이블 목록까지 받은 스키마
+        private final List<String> failedSchemas = new ArrayList<>();
+
+        @Override
+        public synchronized void onCatalogs(List<String> catalogNames) {
+            catalogs.addAll(catalogNames);
+        }
+
+        @Override
+        public synchronized void onSchemas(String catalogName, List<String> schemaNames) {
+            if (schemaNames == null) {
+                failedSchemas.add(catalogName + ".*");
+                return;
+            }
+            listedCatalogs.add(catalogName);
+            for (String schemaName : schemaNames) {
+                schemas.add(catalogName + "." + schemaName);
+            }
+        }
+
+        @Override
+        public synchronized void onTables(String catalogName, String schemaName, List<Map<String, Object>> schemaTables) {
+            if (schemaTables == null) {
+                failedSchemas.add(catalogName + "." + schemaName);
+                return;
+            }
+            listedSchemas.add(catalogName + "." + schemaName);
+            for (Map<String, Object> table : schemaTables) {
+                tables.put(catalogName + "." + schemaName + "." + table.get("name"), table);
+            }
+        }
+
+        /**
+         * 목록에 없는 테이블이 실제로 삭제된 것인지 (상위 목록 조회에 실패했으면 판단하지 않음)
+         */
+        synchronized boolean isDropped(String fullName) {
+            String[] parts = fullName.split("\\.", 3);
+            String schema = parts[0] + "." + parts[1];
+            return !catalogs.contains(parts[0])
+                || (listedCatalogs.contains(parts[0]) && !schemas.contains(schema))
+                || listedSchemas.contains(schema);
+        }
+    }
+}
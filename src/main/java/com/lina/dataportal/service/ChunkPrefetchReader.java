@@ -0,0 +1,121 @@
+package com.lina.dataportal.service;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntFunction;
+
+/**
+ * 결과 청크를 미리 병렬로 가져오는 순차 리더
+ * manifest의 total_chunk_count를 알고 있으므로 다음 N개 청크를 동시에 요청해 두고,
+ * 소비자가 하나를 가져갈 때마다 하나를 더 요청합니다 (버퍼 크기 = prefetch depth, backpressure).
+ * 청크는 항상 인덱스 순서대로 반환됩니다.
+ */
+public class ChunkPrefetchReader implements AutoCloseable {
+
+    private final IntFunction<Map<String, Object>> chunkFetcher;
+    private final Executor executor;
+    private final int totalChunks;
+    private final int depth;
+    private final ArrayDeque<CompletableFuture<Map<String, Object>>> buffer = new ArrayDeque<>();
+
+    private int nextToSubmit; // 다음에 요청할 청크 인덱스
+    private int nextToReturn; // 다음에 반환할 청크 인덱스
+    private boolean closed;
+
+    public ChunkPrefetchReader(IntFunction<Map<String, Object>> chunkFetcher, Executor executor,
+                               int startIndex, int totalChunks, int depth) {
+        this.chunkFetcher = chunkFetcher;
+        this.executor = executor;
+        this.totalChunks = totalChunks;
+        this.depth = Math.max(1, depth);
+        this.nextToSubmit = startIndex;
+        this.nextToReturn = startIndex;
+        fill();
+    }
+
+    public synchronized boolean hasNext() {
+        return !closed && nextToReturn < totalChunks;
+    }
+
+    public synchronized int nextIndex() {
+        return nextToReturn;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    /**
+     * 다음 청크를 반환합니다. 아직 도착하지 않았다면 도착할 때까지 기다립니다.
+     */
+    public Map<String, Object> next() {
+        CompletableFuture<Map<String, Object>> head;
+        int chunkIndex;
+        synchronized (this) {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more chunks");
+            }
+            chunkIndex = nextToReturn;
+            head = takeHead();
+        }
+        return head != null ? head.join() : chunkFetcher.apply(chunkIndex);
+    }
+
+    /**
+     * 요청한 인덱스까지 건너뛴 뒤 해당 청크를 반환합니다.
+     * 이미 지나간 인덱스라면 null을 반환하므로 호출자가 직접 조회해야 합니다.
+     */
+    public Map<String, Object> next(int chunkIndex) {
+        CompletableFuture<Map<String, Object>> head;
+        synchronized (this) {
+            if (closed || chunkIndex < nextToReturn || chunkIndex >= totalChunks) {
+                return null;
+            }
+            while (nextToReturn < chunkIndex) {
+                CompletableFuture<Map<String, Object>> skipped = buffer.pollFirst();
+                if (skipped != null) {
+                    skipped.cancel(false);
+                }
+                nextToReturn++;
+            }
+            nextToSubmit = Math.max(nextToSubmit, nextToReturn);
+            head = takeHead();
+        }
+        return head != null ? head.join() : chunkFetcher.apply(chunkIndex);
+    }
+
+    /**
+     * IO 풀이 가득 차 미리 요청하지 못했으면 null - 호출자가 자기 스레드에서 직접 조회합니다.
+     */
+    private CompletableFuture<Map<String, Object>> takeHead() {
+        fill();
+        CompletableFuture<Map<String, Object>> head = buffer.pollFirst();
+        nextToReturn++;
+        nextToSubmit = Math.max(nextToSubmit, nextToReturn);
+        fill();
+        return head;
+    }
+
+    private void fill() {
+        while (!closed && buffer.size() < depth && nextToSubmit < totalChunks) {
+            int chunkIndex = nextToSubmit;
+            try {
+                buffer.addLast(CompletableFuture.supplyAsync(() -> chunkFetcher.apply(chunkIndex), executor));
+            } catch (RejectedExecutionException e) {
+                return; // 미리 가져오기는 다음 호출에서 다시 시도
+            }
+            nextToSubmit++;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        buffer.forEach(future -> future.cancel(false));
+        buffer.clear();
+    }
+}
@@ -0,0 +1,136 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.StatementCursor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * statement별 청크 prefetch 리더 관리
+ * 첫 번째 청크 결과가 나오면 나머지 청크를 미리 가져오기 시작하고,
+ * 화면에서 다음 청크를 요청하면 버퍼에서 바로 꺼내 줍니다.
+ */
+@Service
+public class ChunkPrefetchService {
+
+    @Autowired
+    private DatabricksApiClient databricksApiClient;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    // 접근 순서 기준 LRU - 최대 리더 수를 넘으면 가장 오래 사용되지 않은 리더부터 닫습니다.
+    private final LinkedHashMap<String, ReaderEntry> readers = new LinkedHashMap<>(16, 0.75f, true);
+
+    @PostConstruct
+    public void scheduleCleanup() {
+        long interval = Math.max(1000, databricksConfig.getChunk().getIdleTimeout() / 2);
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictIdleReaders, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 리더를 만듭니다. 등록하지 않으므로 호출자가 직접 닫아야 합니다 (예: 전체 결과 내보내기).
+     */
+    public ChunkPrefetchReader openReader(String workspaceUrl, String accessToken, String statementId,
+                                          List<DatabricksColumn> columns, int startIndex, int totalChunks) {
+        return new ChunkPrefetchReader(
+            chunkIndex -> databricksApiClient.getNextChunk(workspaceUrl, accessToken, statementId, chunkIndex, columns),
+            databricksExecutors.io(),
+            startIndex,
+            totalChunks,
+            databricksConfig.getChunk().getPrefetchDepth()
+        );
+    }
+
+    /**
+     * 첫 번째 청크 이후의 청크를 미리 가져오기 시작합니다.
+     */
+    public void register(StatementCursor cursor, String accessToken) {
+        if (cursor.getTotalChunks() <= 1) {
+            return;
+        }
+
+        ChunkPrefetchReader reader = openReader(cursor.getWorkspaceUrl(), accessToken, cursor.getStatementId(),
+            cursor.getColumns(), 1, cursor.getTotalChunks());
+        ReaderEntry previous;
+        synchronized (readers) {
+            previous = readers.put(cursor.getStatementId(), new ReaderEntry(cursor.getUserId(), reader));
+            while (readers.size() > databricksConfig.getChunk().getMaxReaders()) {
+                Iterator<ReaderEntry> eldest = readers.values().iterator();
+                eldest.next().reader.close();
+                eldest.remove();
+            }
+        }
+        if (previous != null) {
+            previous.reader.close();
+        }
+    }
+
+    /**
+     * prefetch 버퍼에서 청크를 꺼냅니다. 리더가 없거나 이미 지나간 청크라면 null을 반환합니다.
+     */
+    public Map<String, Object> take(String statementId, String userId, int chunkIndex) {
+        ReaderEntry entry;
+        synchronized (readers) {
+            entry = readers.get(statementId);
+        }
+        if (entry == null || !entry.userId.equals(userId)) {
+            return null;
+        }
+
+        entry.lastAccess = System.currentTimeMillis();
+        Map<String, Object> chunk = entry.reader.next(chunkIndex);
+
+        if (!entry.reader.hasNext()) {
+            remove(statementId);
+        }
+        return chunk;
+    }
+
+    public void remove(String statementId) {
+        ReaderEntry entry;
+        synchronized (readers) {
+            entry = readers.remove(statementId);
+        }
+        if (entry != null) {
+            entry.reader.close();
+        }
+    }
+
+    private void evictIdleReaders() {
+        long threshold = System.currentTimeMillis() - databricksConfig.getChunk().getIdleTimeout();
+        synchronized (readers) {
+            Iterator<ReaderEntry> iterator = readers.values().iterator();
+            while (iterator.hasNext()) {
+                ReaderEntry entry = iterator.next();
+                if (entry.lastAccess < threshold) {
+                    entry.reader.close();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class ReaderEntry {
+        private final String userId;
+        private final ChunkPrefetchReader reader;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        ReaderEntry(String userId, ChunkPrefetchReader reader) {
+            this.userId = userId;
+            this.reader = reader;
+        }
+    }
+}
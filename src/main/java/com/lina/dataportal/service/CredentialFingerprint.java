@@ -0,0 +1,27 @@
+package com.lina.dataportal.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 자격 증명을 포함한 캐시 키 생성 - 토큰 원문 대신 SHA-256 해시를 키로 사용합니다.
+ */
+public final class CredentialFingerprint {
+
+    private CredentialFingerprint() {}
+
+    public static String of(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0); // 구분자 - ("ab", "c")와 ("a", "bc")가 같은 키가 되지 않도록
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV 내보내기 (RFC 4180)
+ * 첫 줄은 컬럼명, NULL은 빈 칸입니다. 쉼표/따옴표/줄바꿈이 있는 값만 따옴표로 감쌉니다.
+ */
+public class CsvExportWriter implements ResultExportWriter {
+
+    private final Writer writer;
+    private final List<DatabricksColumn> columns;
+    private boolean headerWritten;
+
+    public CsvExportWriter(OutputStream out, List<DatabricksColumn> columns) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.columns = columns;
+    }
+
+    @Override
+    public void write(ColumnarBatch batch) throws IOException {
+        writeHeader();
+        int columnCount = Math.min(columns.size(), batch.getColumnCount());
+        for (int row = 0; row < batch.getRowCount(); row++) {
+            for (int col = 0; col < columnCount; col++) {
+                if (col > 0) {
+                    writer.write(',');
+                }
+                ColumnVector vector = batch.getVector(col);
+                if (!vector.isNull(row)) {
+                    writeCell(vector.getText(row));
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeHeader();
+        writer.flush();
+    }
+
+    private void writeHeader() throws IOException {
+        if (headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        for (int col = 0; col < columns.size(); col++) {
+            if (col > 0) {
+                writer.write(',');
+            }
+            writeCell(columns.get(col).getName());
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCell(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
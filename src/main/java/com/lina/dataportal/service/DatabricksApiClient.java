@@ -1,68 +1,173 @@
 package com.lina.dataportal.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.config.DatabricksHttpClients;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.ExternalLink;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import com.lina.dataportal.domain.databricks.StatementResponse;
+import com.lina.dataportal.service.DatabricksResilienceService.WorkspaceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class DatabricksApiClient {
     
+    private static final Logger log = LoggerFactory.getLogger(DatabricksApiClient.class);
+    
     @Autowired
-    private RestTemplate restTemplate;
+    private DatabricksHttpClients databricksHttpClients;
     
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private DatabricksConfig databricksConfig;
+    
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+    
+    @Autowired
+    private DatabricksResilienceService databricksResilienceService;
+    
     public Map<String, Object> executeQuery(String workspaceUrl, String accessToken, String warehouseId, String sql) {
+        return executeQueryAsync(workspaceUrl, accessToken, warehouseId, sql).join();
+    }
+    
+    /**
+     * 요청 스레드를 점유하지 않는 비동기 쿼리 실행
+     * statement는 wait_timeout=0s로 바로 제출하고, 끝날 때까지 공용 스케줄러에서 백오프 폴링합니다.
+     * 제출과 폴링 요청만 IO 풀에서 실행하므로 실행 중인 statement는 스레드를 점유하지 않습니다.
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String workspaceUrl, String accessToken, 
+                                                                   String warehouseId, String sql) {
+        ResultDisposition disposition = ResultDisposition.from(databricksConfig.getSql().getDisposition());
+        return executeQueryAsync(workspaceUrl, accessToken, warehouseId, sql, disposition);
+    }
+    
+    /**
+     * 결과 전달 방식을 지정한 비동기 쿼리 실행
+     * EXTERNAL_LINKS는 결과를 ARROW_STREAM 파일로 받아 크기 제한 없이 더 적은 전송량으로 가져옵니다.
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String workspaceUrl, String accessToken, 
+                                                                   String warehouseId, String sql,
+                                                                   ResultDisposition disposition) {
+        return executeQueryAsync(workspaceUrl, accessToken, warehouseId, sql, disposition, null);
+    }
+    
+    /**
+     * 취소 가능한 비동기 쿼리 실행
+     * 반환한 future를 cancel하면 폴링을 멈추고 Databricks statement도 취소합니다.
+     * @param onSubmitted statement가 생성되면 statementId로 호출됩니다 (없으면 null).
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String workspaceUrl, String accessToken, 
+                                                                   String warehouseId, String sql,
+                                                                   ResultDisposition disposition,
+                                                                   Consumer<String> onSubmitted) {
+        return executeQueryAsync(workspaceUrl, accessToken, warehouseId, sql, disposition, onSubmitted, null);
+    }
+    
+    /**
+     * @param onStateChange Databricks statement 상태가 바뀔 때마다 호출됩니다 (예: PENDING → RUNNING → SUCCEEDED, 없으면 null).
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String workspaceUrl, String accessToken, 
+                                                                   String warehouseId, String sql,
+                                                                   ResultDisposition disposition,
+                                                                   Consumer<String> onSubmitted,
+                                                                   Consumer<String> onStateChange) {
+        StatementPoll poll = new StatementPoll(workspaceUrl, accessToken, System.currentTimeMillis(), onSubmitted, onStateChange);
         try {
-            // Step 1: Create statement
-            String statementId = createStatement(workspaceUrl, accessToken, warehouseId, sql);
-            
-            // Step 2: Poll for results (첫 번째 청크만)
-            return pollStatementResults(workspaceUrl, accessToken, statementId);
-            
+            databricksExecutors.io().execute(() -> {
+                try {
+                    poll.start(createStatement(workspaceUrl, accessToken, warehouseId, sql, disposition));
+                } catch (Exception e) {
+                    poll.fail(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            poll.fail(e); // IO 풀 대기열이 가득 참 - statement를 만들지 않고 busy로 응답
+        }
+        return poll.future;
+    }
+    
+    /**
+     * 실행 중인 statement 취소 (Statement Execution API cancel)
+     * 이미 끝난 statement에 대해서도 성공으로 응답합니다.
+     */
+    public Map<String, Object> cancelStatement(String workspaceUrl, String accessToken, String statementId) {
+        try {
+            String url = workspaceUrl + "/api/2.0/sql/statements/" + statementId + "/cancel";
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(accessToken);
+            databricksResilienceService.execute(URI.create(url), true,
+                () -> databricksHttpClients.forUrl(url).exchange(url, HttpMethod.POST, new HttpEntity<>(headers), String.class));
+            log.info("Databricks statement {} cancel requested", statementId);
+            return Map.of("success", true, "statementId", statementId);
+        } catch (HttpClientErrorException.NotFound e) {
+            return Map.of("success", false, "statementId", statementId, "error", "Statement not found: " + statementId);
         } catch (Exception e) {
-            return Map.of(
-                "success", false,
-                "error", e.getMessage(),
-                "results", new ArrayList<>(),
-                "columns", new ArrayList<>(),
-                "rowCount", 0,
-                "executionTime", 0L,
-                "totalChunks", 0,
-                "currentChunk", 0,
-                "hasNextChunk", false
-            );
+            log.warn("Failed to cancel Databricks statement {}: {}", statementId, e.getMessage());
+            return Map.of("success", false, "statementId", statementId, "error", e.getMessage());
         }
     }
     
     public Map<String, Object> getNextChunk(String workspaceUrl, String accessToken, String statementId, int chunkIndex) {
+        return getNextChunk(workspaceUrl, accessToken, statementId, chunkIndex, null);
+    }
+    
+    /**
+     * 청크 조회 - 청크 응답에는 manifest가 없으므로 첫 응답의 컬럼 정보(knownColumns)로 타입과 이름을 맞춥니다.
+     */
+    public Map<String, Object> getNextChunk(String workspaceUrl, String accessToken, String statementId, int chunkIndex,
+                                            List<DatabricksColumn> knownColumns) {
         try {
             String url = workspaceUrl + "/api/2.0/sql/statements/" + statementId + "/result/chunks/" + chunkIndex;
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(accessToken);
-            
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                return parseChunkResults(jsonNode, chunkIndex);
-            } else {
-                throw new RuntimeException("Failed to get chunk: " + response.getBody());
+            StatementResponse chunk = exchangeStatement(url, HttpMethod.GET, accessToken, null, knownColumns);
+            if (chunk.getRows() == null && hasExternalLinks(chunk)) {
+                chunk.setRows(downloadExternalLinks(workspaceUrl, accessToken, statementId, chunk.getExternalLinks(), knownColumns));
             }
             
+            ColumnarBatch rows = chunk.getRows() != null ? chunk.getRows()
+                : knownColumns != null ? new ColumnarBatch(knownColumns) : ColumnarBatch.empty();
+            return Map.of(
+                "success", true,
+                "rows", rows,
+                "columns", rows.getColumnNames(),
+                "columnMetadata", columnMetadata(rows.getColumns()),
+                "rowCount", rows.getRowCount(),
+                "currentChunk", chunkIndex,
+                "executionTime", 0L
+            );
         } catch (Exception e) {
             return Map.of(
                 "success", false,
                 "error", e.getMessage(),
-                "results", new ArrayList<>(),
+                "rows", new ArrayList<>(),
                 "columns", new ArrayList<>(),
                 "rowCount", 0,
                 "executionTime", 0L
@@ -70,226 +175,371 @@ public class DatabricksApiClient {
         }
     }
     
-    private String createStatement(String workspaceUrl, String accessToken, String warehouseId, String sql) throws Exception {
+    private StatementResponse createStatement(String workspaceUrl, String accessToken, String warehouseId, String sql,
+                                              ResultDisposition disposition) {
         String url = workspaceUrl + "/api/2.0/sql/statements";
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(accessToken);
-        
-        Map<String, Object> requestBody = Map.of(
-            "warehouse_id", warehouseId,
-            "statement", sql,
-            "wait_timeout", "10s"
-        );
-        
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
-        
-        if (response.getStatusCode() == HttpStatus.OK) {
-            JsonNode jsonNode = objectMapper.readTree(response.getBody());
-            return jsonNode.get("statement_id").asText();
-        } else {
-            throw new RuntimeException("Failed to create statement: " + response.getBody());
+        // 결과 압축은 요청하지 않음 (LZ4_FRAME 결과는 디코딩하지 않고 오류로 처리)
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("warehouse_id", warehouseId);
+        requestBody.put("statement", sql);
+        requestBody.put("wait_timeout", databricksConfig.getAsync().getWaitTimeout());
+        if (disposition == ResultDisposition.EXTERNAL_LINKS) {
+            requestBody.put("disposition", "EXTERNAL_LINKS");
+            requestBody.put("format", "ARROW_STREAM");
         }
+        
+        return exchangeStatement(url, HttpMethod.POST, accessToken, requestBody, null);
     }
     
-    private Map<String, Object> pollStatementResults(String workspaceUrl, String accessToken, String statementId) throws Exception {
+    /**
+     * statement 상태와 manifest 조회 (SUCCEEDED면 첫 번째 청크 결과도 포함)
+     */
+    public StatementResponse getStatement(String workspaceUrl, String accessToken, String statementId) {
         String url = workspaceUrl + "/api/2.0/sql/statements/" + statementId;
+        return exchangeStatement(url, HttpMethod.GET, accessToken, null, null);
+    }
+    
+    /**
+     * Statement Execution API 호출 - 응답 본문을 문자열로 읽지 않고 스트림에서 바로 디코딩합니다.
+     */
+    private StatementResponse exchangeStatement(String url, HttpMethod method, String accessToken, 
+                                                Object requestBody, List<DatabricksColumn> knownColumns) {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().setBearerAuth(accessToken);
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (requestBody != null) {
+                byte[] body = objectMapper.writeValueAsBytes(requestBody);
+                request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                request.getHeaders().setContentLength(body.length);
+                request.getBody().write(body);
+            }
+        };
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-        
-        HttpEntity<Void> request = new HttpEntity<>(headers);
-        
-        // Poll for results (max 30 seconds)
-        long startTime = System.currentTimeMillis();
-        long maxWaitTime = 30000; // 30 seconds
+        // statement 생성(POST)은 같은 쿼리가 두 번 실행되지 않도록 거절이 확실한 오류만 재시도
+        boolean idempotent = method == HttpMethod.GET;
+        StatementResponse response = databricksResilienceService.execute(URI.create(url), idempotent,
+            () -> databricksHttpClients.forUrl(url).execute(url, method, requestCallback, httpResponse -> {
+                try (JsonParser parser = objectMapper.createParser(httpResponse.getBody())) {
+                    return StatementResponseDecoder.decode(parser, knownColumns);
+                }
+            }));
         
-        while (System.currentTimeMillis() - startTime < maxWaitTime) {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+        if (response == null) {
+            throw new RuntimeException("Empty response from Databricks: " + url);
+        }
+        log.debug("Databricks statement {} state={} chunk={} rows={}", response.getStatementId(), response.getState(),
+            response.getChunkIndex(), response.getRows() != null ? response.getRows().getRowCount() : 0);
+        return response;
+    }
+    
+    /**
+     * 압축된 결과(result_compression=LZ4_FRAME 등)는 디코딩할 수 없으므로 명확한 오류로 끝냅니다.
+     * statement 생성 요청에는 압축 옵션을 넣지 않으므로 보통은 NONE(또는 생략)입니다.
+     */
+    private static void requireUncompressed(StatementResponse response) {
+        String compression = response.getResultCompression();
+        if (compression != null && !"NONE".equalsIgnoreCase(compression)) {
+            throw new RuntimeException("Unsupported result compression: " + compression);
+        }
+    }
+    
+    private static boolean hasExternalLinks(StatementResponse response) {
+        return response.getExternalLinks() != null && !response.getExternalLinks().isEmpty();
+    }
+    
+    /**
+     * presigned URL에서 ARROW_STREAM 파일을 받아 디코딩합니다.
+     * 저장소 URL이므로 Databricks 토큰은 보내지 않고, 링크에 지정된 헤더만 붙입니다.
+     * 청크 간 병렬 다운로드는 {@link ChunkPrefetchReader}가 담당합니다.
+     */
+    private ColumnarBatch downloadExternalLinks(String workspaceUrl, String accessToken, String statementId,
+                                                List<ExternalLink> links, List<DatabricksColumn> columns) {
+        ColumnarBatch batch = null;
+        for (ExternalLink link : links) {
+            ExternalLink current = isExpired(link) ? refreshExternalLink(workspaceUrl, accessToken, statementId, link) : link;
+            ColumnarBatch target = batch;
             
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                String status = jsonNode.get("status").get("state").asText();
-                
-                if ("SUCCEEDED".equals(status)) {
-                    return parseSuccessfulResults(jsonNode, System.currentTimeMillis() - startTime);
-                } else if ("FAILED".equals(status) || "CANCELED".equals(status)) {
-                    String errorMessage = jsonNode.has("status") && jsonNode.get("status").has("error") 
-                        ? jsonNode.get("status").get("error").get("message").asText()
-                        : "Query execution failed";
-                    throw new RuntimeException(errorMessage);
-                } else if ("RUNNING".equals(status) || "PENDING".equals(status)) {
-                    // Continue polling
-                    Thread.sleep(1000); // Wait 1 second before next poll
-                    continue;
+            RequestCallback requestCallback = request -> {
+                if (current.getHttpHeaders() != null) {
+                    current.getHttpHeaders().forEach(request.getHeaders()::set);
                 }
-            }
+            };
             
-            Thread.sleep(1000);
+            // presigned URL의 서명 값이 다시 인코딩되지 않도록 URI로 전달
+            URI uri = URI.create(current.getExternalLink());
+            // 디코딩 중 끊기면 target에 일부 행이 이미 들어가 있으므로, 본문을 받기 전 오류(429/503, 연결 실패)만 재시도
+            batch = databricksResilienceService.executeWithRetry(uri, false,
+                () -> databricksHttpClients.forUri(uri).execute(uri, HttpMethod.GET, requestCallback,
+                    httpResponse -> ArrowStreamDecoder.decode(httpResponse.getBody(), columns, target)));
+            
+            log.debug("Databricks statement {} external link chunk={} bytes={} rows={}", statementId,
+                current.getChunkIndex(), current.getByteCount(), batch != null ? batch.getRowCount() : 0);
         }
-        
-        throw new RuntimeException("Query execution timeout");
+        return batch != null ? batch : ColumnarBatch.empty();
     }
     
-    private Map<String, Object> parseSuccessfulResults(JsonNode jsonNode, long executionTime) {
-        List<Map<String, Object>> results = new ArrayList<>();
-        List<String> columns = new ArrayList<>();
+    private static boolean isExpired(ExternalLink link) {
+        if (link.getExpiration() == null) {
+            return false;
+        }
+        try {
+            return Instant.parse(link.getExpiration()).isBefore(Instant.now().plusSeconds(10));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 만료된 링크는 청크 조회 API로 새 링크를 받습니다.
+     */
+    private ExternalLink refreshExternalLink(String workspaceUrl, String accessToken, String statementId, ExternalLink link) {
+        String url = workspaceUrl + "/api/2.0/sql/statements/" + statementId + "/result/chunks/" + link.getChunkIndex();
+        StatementResponse chunk = exchangeStatement(url, HttpMethod.GET, accessToken, null, null);
+        if (!hasExternalLinks(chunk)) {
+            throw new RuntimeException("No external link for chunk " + link.getChunkIndex() + " of statement " + statementId);
+        }
+        return chunk.getExternalLinks().get(0);
+    }
+    
+    /**
+     * 하나의 statement에 대한 폴링 상태
+     * 대기 중에는 스레드를 점유하지 않고, 폴링 시점에만 IO 풀에서 GET 요청을 실행합니다.
+     * 상태가 바뀌면(PENDING → RUNNING) 간격을 초기값으로 되돌리고, 같은 상태가 이어지면 지수적으로 늘립니다.
+     * future가 취소되거나 제한 시간이 지나면 예약된 폴링을 멈추고 Databricks statement를 취소합니다.
+     */
+    private final class StatementPoll {
+        
+        private final String workspaceUrl;
+        private final String accessToken;
+        private final long startTime;
+        private final long deadline;
+        private final Consumer<String> onSubmitted;
+        private final Consumer<String> onStateChange;
+        private final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
         
-        // 디버깅을 위해 전체 응답 로깅
-        System.out.println("Databricks Response: " + jsonNode.toString());
+        private String statementId;
+        private String lastState;
+        private String reportedState;
+        private long delay;
+        private ScheduledFuture<?> scheduledPoll;
+        private boolean remoteCancelRequested;
         
-        // 실제 Databricks 응답 구조에 맞게 파싱
-        // manifest.schema.columns에서 컬럼 정보 추출
-        if (jsonNode.has("manifest") && jsonNode.get("manifest").has("schema") 
-            && jsonNode.get("manifest").get("schema").has("columns")) {
-            JsonNode columnsNode = jsonNode.get("manifest").get("schema").get("columns");
-            for (JsonNode column : columnsNode) {
-                columns.add(column.get("name").asText());
+        StatementPoll(String workspaceUrl, String accessToken, long startTime, Consumer<String> onSubmitted,
+                      Consumer<String> onStateChange) {
+            this.workspaceUrl = workspaceUrl;
+            this.accessToken = accessToken;
+            this.startTime = startTime;
+            this.deadline = startTime + databricksConfig.getSql().getTimeoutMillis();
+            this.delay = databricksConfig.getAsync().getInitialPollDelay();
+            this.onSubmitted = onSubmitted;
+            this.onStateChange = onStateChange;
+            future.whenComplete((result, e) -> {
+                if (future.isCancelled()) {
+                    cancelRemote();
+                }
+            });
+        }
+        
+        void start(StatementResponse createResponse) {
+            synchronized (this) {
+                statementId = createResponse.getStatementId();
+            }
+            if (future.isCancelled()) {
+                cancelRemote(); // 생성 응답을 기다리는 사이에 취소됨
+                return;
+            }
+            if (onSubmitted != null && statementId != null) {
+                onSubmitted.accept(statementId);
+            }
+            try {
+                handle(createResponse);
+            } catch (Exception e) {
+                fail(e);
             }
         }
         
-        // result.data_array에서 데이터 추출
-        if (jsonNode.has("result") && jsonNode.get("result").has("data_array")) {
-            JsonNode dataArray = jsonNode.get("result").get("data_array");
+        void fail(Throwable e) {
+            Throwable cause = rootCause(e);
+            Map<String, Object> result = failureResult(cause.getMessage());
+            if (cause instanceof WorkspaceUnavailableException unavailable) {
+                result = new HashMap<>(result);
+                result.put("workspaceUnavailable", true);
+                result.put("retryAfter", unavailable.getRetryAfterMillis());
+            } else if (cause instanceof RejectedExecutionException) {
+                result = new HashMap<>(result);
+                result.put("rejected", true);
+                result.put("busy", true);
+            }
+            future.complete(result);
+        }
+        
+        private void handle(StatementResponse response) {
+            if (future.isDone()) {
+                return;
+            }
+            String state = response.getState() != null ? response.getState() : "PENDING";
+            if (onStateChange != null && !state.equals(reportedState)) {
+                reportedState = state;
+                onStateChange.accept(state);
+            }
             
-            for (JsonNode row : dataArray) {
-                Map<String, Object> rowMap = new HashMap<>();
+            if (response.isSucceeded()) {
+                requireUncompressed(response);
+                long fetchStart = System.currentTimeMillis();
+                if (response.getRows() == null && hasExternalLinks(response)) {
+                    response.setRows(downloadExternalLinks(workspaceUrl, accessToken, statementId,
+                        response.getExternalLinks(), response.getColumns()));
+                }
+                long now = System.currentTimeMillis();
+                future.complete(toResultMap(response, now - startTime, now - fetchStart));
+            } else if (response.isTerminal()) {
+                String errorMessage = response.getErrorMessage() != null 
+                    ? response.getErrorMessage()
+                    : "Query execution failed";
+                fail(new RuntimeException(errorMessage));
+            } else if (System.currentTimeMillis() >= deadline) {
+                fail(new RuntimeException("Query execution timeout"));
+                cancelRemote(); // 웨어하우스에서 계속 실행되지 않도록
+            } else {
+                DatabricksConfig.Async async = databricksConfig.getAsync();
+                if (lastState != null && lastState.equals(state)) {
+                    delay = Math.min(async.getMaxPollDelay(), (long) (delay * async.getPollMultiplier()));
+                } else {
+                    delay = async.getInitialPollDelay();
+                }
+                lastState = state;
                 
-                if (row.isArray()) {
-                    // 배열 형태: ["first_catalog"], ["hive_metastore"], ...
-                    for (int i = 0; i < columns.size() && i < row.size(); i++) {
-                        JsonNode cellValue = row.get(i);
-                        Object value = parseJsonValue(cellValue);
-                        rowMap.put(columns.get(i), value);
+                long wait = Math.min(delay, Math.max(0, deadline - System.currentTimeMillis()));
+                synchronized (this) {
+                    if (!future.isDone()) {
+                        scheduledPoll = databricksExecutors.scheduler().schedule(
+                            () -> submit(this::poll), wait, TimeUnit.MILLISECONDS);
                     }
-                } else if (row.isObject()) {
-                    // 객체 형태 처리
-                    row.fields().forEachRemaining(entry -> {
-                        String key = entry.getKey();
-                        Object value = parseJsonValue(entry.getValue());
-                        rowMap.put(key, value);
-                        if (!columns.contains(key)) {
-                            columns.add(key);
-                        }
-                    });
                 }
-                
-                results.add(rowMap);
             }
         }
         
-        // 청킹 정보 추출
-        int totalChunks = 1;
-        int currentChunk = 0;
-        String statementId = null;
-        
-        if (jsonNode.has("statement_id")) {
-            statementId = jsonNode.get("statement_id").asText();
+        private void poll() {
+            if (future.isDone()) {
+                return; // 다시 넣은 폴링이 도는 사이에 끝남
+            }
+            try {
+                handle(getStatement(workspaceUrl, accessToken, statementId));
+            } catch (Exception e) {
+                fail(e);
+            }
         }
         
-        if (jsonNode.has("manifest") && jsonNode.get("manifest").has("total_chunk_count")) {
-            totalChunks = jsonNode.get("manifest").get("total_chunk_count").asInt();
+        private void cancelRemote() {
+            String id;
+            synchronized (this) {
+                if (scheduledPoll != null) {
+                    scheduledPoll.cancel(false);
+                }
+                if (statementId == null || remoteCancelRequested) {
+                    return; // 아직 생성 전이면 start()에서 취소
+                }
+                remoteCancelRequested = true;
+                id = statementId;
+            }
+            submit(() -> cancelStatement(workspaceUrl, accessToken, id));
         }
         
-        if (jsonNode.has("result") && jsonNode.get("result").has("chunk_index")) {
-            currentChunk = jsonNode.get("result").get("chunk_index").asInt();
+        /**
+         * 이미 만들어진 statement의 폴링/취소는 IO 풀이 가득 차도 버리지 않고 잠시 뒤 다시 넣습니다.
+         */
+        private void submit(Runnable task) {
+            try {
+                databricksExecutors.io().execute(task);
+            } catch (RejectedExecutionException e) {
+                if (!databricksExecutors.io().isShutdown()) {
+                    databricksExecutors.scheduler().schedule(() -> submit(task),
+                        databricksConfig.getAsync().getMaxPollDelay(), TimeUnit.MILLISECONDS);
+                }
+            }
         }
-        
-        return Map.of(
-            "success", true,
-            "results", results,
-            "columns", columns,
-            "rowCount", results.size(),
-            "executionTime", executionTime,
-            "totalChunks", totalChunks,
-            "currentChunk", currentChunk,
-            "hasNextChunk", currentChunk < totalChunks - 1,
-            "statementId", statementId != null ? statementId : ""
-        );
     }
     
-    private Object parseJsonValue(JsonNode cellValue) {
-        if (cellValue.isNull()) return null;
-        if (cellValue.isTextual()) return cellValue.asText();
-        if (cellValue.isNumber()) return cellValue.asDouble();
-        if (cellValue.isBoolean()) return cellValue.asBoolean();
-        return cellValue.toString();
+    /**
+     * @param executionTime statement 생성부터 첫 번째 청크 결과를 받을 때까지 (fetchTime 포함)
+     * @param fetchTime 첫 번째 청크를 외부 링크에서 내려받은 시간 (INLINE이면 0)
+     */
+    private Map<String, Object> toResultMap(StatementResponse response, long executionTime, long fetchTime) {
+        ColumnarBatch rows = response.getRows() != null ? response.getRows()
+            : new ColumnarBatch(response.getColumns() != null ? response.getColumns() : new ArrayList<>());
+        int totalChunks = response.getTotalChunkCount();
+        int currentChunk = response.getChunkIndex();
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("rows", rows);
+        result.put("columns", rows.getColumnNames());
+        result.put("columnMetadata", columnMetadata(rows.getColumns()));
+        result.put("rowCount", rows.getRowCount());
+        result.put("totalRowCount", Math.max(response.getTotalRowCount(), rows.getRowCount()));
+        result.put("totalByteCount", response.getTotalByteCount());
+        result.put("executionTime", executionTime);
+        result.put("fetchTime", fetchTime);
+        result.put("totalChunks", totalChunks);
+        result.put("currentChunk", currentChunk);
+        result.put("hasNextChunk", currentChunk < totalChunks - 1);
+        result.put("statementId", response.getStatementId() != null ? response.getStatementId() : "");
+        return result;
     }
     
-    private Map<String, Object> parseChunkResults(JsonNode jsonNode, int chunkIndex) {
-        List<Map<String, Object>> results = new ArrayList<>();
-        List<String> columns = new ArrayList<>();
-        
-        // 청크 데이터에서는 컬럼 정보가 없으므로 데이터에서 추론
-        if (jsonNode.has("data_array")) {
-            JsonNode dataArray = jsonNode.get("data_array");
-            
-            // 첫 번째 행에서 컬럼 수 추론 (실제로는 원본 쿼리에서 컬럼 정보를 저장해야 함)
-            if (dataArray.isArray() && dataArray.size() > 0) {
-                JsonNode firstRow = dataArray.get(0);
-                if (firstRow.isArray()) {
-                    for (int i = 0; i < firstRow.size(); i++) {
-                        columns.add("column_" + i); // 임시 컬럼명
-                    }
-                }
-            }
-            
-            // 데이터 파싱
-            for (JsonNode row : dataArray) {
-                Map<String, Object> rowMap = new HashMap<>();
-                
-                if (row.isArray()) {
-                    for (int i = 0; i < columns.size() && i < row.size(); i++) {
-                        JsonNode cellValue = row.get(i);
-                        Object value = parseJsonValue(cellValue);
-                        rowMap.put(columns.get(i), value);
-                    }
-                }
-                
-                results.add(rowMap);
+    /**
+     * 화면에 내려줄 컬럼 정보 (이름, Databricks 타입, NULL 허용 여부, DECIMAL이면 precision/scale)
+     * DECIMAL과 LONG(BIGINT) 값은 정밀도 유지를 위해 JSON 문자열로 내려가므로, 화면은 scale로 자릿수를 맞춥니다.
+     */
+    public static List<Map<String, Object>> columnMetadata(List<DatabricksColumn> columns) {
+        List<Map<String, Object>> metadata = new ArrayList<>(columns.size());
+        for (DatabricksColumn column : columns) {
+            Map<String, Object> info = new HashMap<>();
+            info.put("name", column.getName());
+            info.put("type", column.getType());
+            info.put("nullable", column.isNullable());
+            if (column.getScale() != null) {
+                info.put("precision", column.getPrecision());
+                info.put("scale", column.getScale());
             }
+            metadata.add(info);
         }
-        
+        return metadata;
+    }
+    
+    private Map<String, Object> failureResult(String error) {
         return Map.of(
-            "success", true,
-            "results", results,
-            "columns", columns,
-            "rowCount", results.size(),
-            "currentChunk", chunkIndex,
-            "executionTime", 0L
+            "success", false,
+            "error", error != null ? error : "Query execution failed",
+            "rows", new ArrayList<>(),
+            "columns", new ArrayList<>(),
+            "rowCount", 0,
+            "executionTime", 0L,
+            "totalChunks", 0,
+            "currentChunk", 0,
+            "hasNextChunk", false
         );
     }
     
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+    
     public Map<String, Object> listCatalogs(String workspaceUrl, String accessToken) {
         try {
-            String url = workspaceUrl + "/api/2.1/unity-catalog/catalogs";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(accessToken);
-            
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+            List<Map<String, Object>> catalogs = listAllPages(workspaceUrl + "/api/2.1/unity-catalog/catalogs", 
+                Map.of(), accessToken, "catalogs", catalog -> Map.of(
+                    "name", catalog.get("name").asText(),
+                    "comment", catalog.has("comment") ? catalog.get("comment").asText() : "",
+                    "metastore_id", catalog.has("metastore_id") ? catalog.get("metastore_id").asText() : ""
+                ));
             
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                List<Map<String, Object>> catalogs = new ArrayList<>();
-                
-                if (jsonNode.has("catalogs")) {
-                    for (JsonNode catalog : jsonNode.get("catalogs")) {
-                        catalogs.add(Map.of(
-                            "name", catalog.get("name").asText(),
-                            "comment", catalog.has("comment") ? catalog.get("comment").asText() : "",
-                            "metastore_id", catalog.has("metastore_id") ? catalog.get("metastore_id").asText() : ""
-                        ));
-                    }
-                }
-                
-                return Map.of("success", true, "catalogs", catalogs);
-            } else {
-                return Map.of("success", false, "error", "Failed to list catalogs");
-            }
+            return Map.of("success", true, "catalogs", catalogs);
         } catch (Exception e) {
             return Map.of("success", false, "error", e.getMessage());
         }
@@ -297,32 +547,14 @@ public class DatabricksApiClient {
     
     public Map<String, Object> listSchemas(String workspaceUrl, String accessToken, String catalogName) {
         try {
-            String url = workspaceUrl + "/api/2.1/unity-catalog/schemas?catalog_name=" + catalogName;
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(accessToken);
+            List<Map<String, Object>> schemas = listAllPages(workspaceUrl + "/api/2.1/unity-catalog/schemas", 
+                Map.of("catalog_name", catalogName), accessToken, "schemas", schema -> Map.of(
+                    "name", schema.get("name").asText(),
+                    "catalog_name", schema.get("catalog_name").asText(),
+                    "comment", schema.has("comment") ? schema.get("comment").asText() : ""
+                ));
             
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                List<Map<String, Object>> schemas = new ArrayList<>();
-                
-                if (jsonNode.has("schemas")) {
-                    for (JsonNode schema : jsonNode.get("schemas")) {
-                        schemas.add(Map.of(
-                            "name", schema.get("name").asText(),
-                            "catalog_name", schema.get("catalog_name").asText(),
-                            "comment", schema.has("comment") ? schema.get("comment").asText() : ""
-                        ));
-                    }
-                }
-                
-                return Map.of("success", true, "schemas", schemas);
-            } else {
-                return Map.of("success", false, "error", "Failed to list schemas");
-            }
+            return Map.of("success", true, "schemas", schemas);
         } catch (Exception e) {
             return Map.of("success", false, "error", e.getMessage());
         }
@@ -330,36 +562,127 @@ public class DatabricksApiClient {
     
     public Map<String, Object> listTables(String workspaceUrl, String accessToken, String catalogName, String schemaName) {
         try {
-            String url = workspaceUrl + "/api/2.1/unity-catalog/tables?catalog_name=" + catalogName + "&schema_name=" + schemaName;
+            List<Map<String, Object>> tables = listAllPages(workspaceUrl + "/api/2.1/unity-catalog/tables", 
+                Map.of("catalog_name", catalogName, "schema_name", schemaName), accessToken, "tables", DatabricksApiClient::toTableInfo);
             
+            return Map.of("success", true, "tables", tables);
+        } catch (Exception e) {
+            return Map.of("success", false, "error", e.getMessage());
+        }
+    }
+    
+    /**
+     * Unity Catalog 테이블 한 개 조회 (컬럼, 제약 조건, updated_at 포함) - 웨어하우스를 사용하지 않습니다.
+     * @param fullName catalog.schema.table
+     */
+    public Map<String, Object> getTable(String workspaceUrl, String accessToken, String fullName) {
+        try {
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(accessToken);
+            URI uri = UriComponentsBuilder.fromHttpUrl(workspaceUrl + "/api/2.1/unity-catalog/tables/{fullName}")
+                .buildAndExpand(fullName).encode().toUri();
             
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+            ResponseEntity<String> response = databricksResilienceService.execute(uri, true,
+                () -> databricksHttpClients.forUri(uri).exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class));
             
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                List<Map<String, Object>> tables = new ArrayList<>();
-                
-                if (jsonNode.has("tables")) {
-                    for (JsonNode table : jsonNode.get("tables")) {
-                        tables.add(Map.of(
-                            "name", table.get("name").asText(),
-                            "catalog_name", table.get("catalog_name").asText(),
-                            "schema_name", table.get("schema_name").asText(),
-                            "table_type", table.has("table_type") ? table.get("table_type").asText() : "TABLE",
-                            "comment", table.has("comment") ? table.get("comment").asText() : ""
-                        ));
-                    }
-                }
-                
-                return Map.of("success", true, "tables", tables);
-            } else {
-                return Map.of("success", false, "error", "Failed to list tables");
-            }
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("table", toTableInfo(objectMapper.readTree(response.getBody())));
+            return result;
+        } catch (HttpClientErrorException.NotFound e) {
+            return Map.of("success", false, "notFound", true, "error", "Table not found: " + fullName);
         } catch (Exception e) {
             return Map.of("success", false, "error", e.getMessage());
         }
     }
+    
+    /**
+     * Unity Catalog TableInfo → 맵 (columns가 없으면 빈 목록)
+     */
+    private static Map<String, Object> toTableInfo(JsonNode table) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("name", table.get("name").asText());
+        info.put("catalog_name", table.get("catalog_name").asText());
+        info.put("schema_name", table.get("schema_name").asText());
+        info.put("table_type", table.has("table_type") ? table.get("table_type").asText() : "TABLE");
+        info.put("comment", table.has("comment") ? table.get("comment").asText() : "");
+        info.put("updated_at", table.has("updated_at") ? table.get("updated_at").asLong() : 0L);
+        info.put("has_columns", table.has("columns"));
+        
+        List<Map<String, Object>> columns = new ArrayList<>();
+        if (table.has("columns")) {
+            for (JsonNode column : table.get("columns")) {
+                Map<String, Object> columnInfo = new HashMap<>();
+                columnInfo.put("name", column.get("name").asText());
+                columnInfo.put("type_text", column.has("type_text") ? column.get("type_text").asText() : "string");
+                columnInfo.put("nullable", !column.has("nullable") || column.get("nullable").asBoolean());
+                columnInfo.put("comment", column.has("comment") ? column.get("comment").asText() : "");
+                columnInfo.put("position", column.has("position") ? column.get("position").asInt() : columns.size());
+                if (column.has("partition_index")) {
+                    columnInfo.put("partition_index", column.get("partition_index").asInt());
+                }
+                columns.add(columnInfo);
+            }
+        }
+        info.put("columns", columns);
+        
+        List<String> primaryKeyColumns = new ArrayList<>();
+        List<String> foreignKeyColumns = new ArrayList<>();
+        if (table.has("table_constraints")) {
+            for (JsonNode constraint : table.get("table_constraints")) {
+                if (constraint.has("primary_key_constraint")) {
+                    constraint.get("primary_key_constraint").path("child_columns").forEach(c -> primaryKeyColumns.add(c.asText()));
+                }
+                if (constraint.has("foreign_key_constraint")) {
+                    constraint.get("foreign_key_constraint").path("child_columns").forEach(c -> foreignKeyColumns.add(c.asText()));
+                }
+            }
+        }
+        info.put("primary_key_columns", primaryKeyColumns);
+        info.put("foreign_key_columns", foreignKeyColumns);
+        return info;
+    }
+    
+    /**
+     * Unity Catalog 목록 API - next_page_token이 없을 때까지 모든 페이지를 읽습니다.
+     */
+    private List<Map<String, Object>> listAllPages(String baseUrl, Map<String, String> params, String accessToken,
+                                                   String arrayField, Function<JsonNode, Map<String, Object>> mapper) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        
+        List<Map<String, Object>> items = new ArrayList<>();
+        String pageToken = null;
+        do {
+            // 값은 URI 변수로 넘겨야 +, &, = 까지 인코딩됨 (queryParam에 값을 직접 넣고 encode()하면 +가 그대로 남아 공백으로 읽힘)
+            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(baseUrl);
+            Map<String, String> variables = new HashMap<>(params);
+            params.keySet().forEach(name -> builder.queryParam(name, "{" + name + "}"));
+            if (pageToken != null) {
+                builder.queryParam("page_token", "{page_token}");
+                variables.put("page_token", pageToken);
+            }
+            URI uri = builder.encode().buildAndExpand(variables).toUri();
+            
+            ResponseEntity<String> response = databricksResilienceService.execute(uri, true,
+                () -> databricksHttpClients.forUri(uri).exchange(uri, HttpMethod.GET, request, String.class));
+            if (response.getStatusCode() != HttpStatus.OK) {
+                throw new RuntimeException("Failed to list " + arrayField);
+            }
+            
+            JsonNode jsonNode = objectMapper.readTree(response.getBody());
+            if (jsonNode.has(arrayField)) {
+                for (JsonNode item : jsonNode.get(arrayField)) {
+                    items.add(mapper.apply(item));
+                }
+            }
+            
+            pageToken = jsonNode.hasNonNull("next_page_token") && !jsonNode.get("next_page_token").asText().isEmpty()
+                ? jsonNode.get("next_page_token").asText()
+                : null;
+        } while (pageToken != null);
+        
+        return items;
+    }
 }
\ No newline at end of file
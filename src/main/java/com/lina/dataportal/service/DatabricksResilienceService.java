@@ -0,0 +1,314 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksHttpClients;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Databricks 호출 재시도와 워크스페이스별 서킷 브레이커
+ * 429/503은 Retry-After(없으면 지수 백오프 + 지터)만큼 기다렸다가 다시 보내고,
+ * 5xx나 연결 장애가 연속으로 이어진 워크스페이스는 open-duration 동안 호출을 바로 거절합니다.
+ * 그 뒤에는 시험 호출 하나만 보내(half-open) 성공하면 다시 열고, 실패하면 다시 차단합니다.
+ */
+@Service
+public class DatabricksResilienceService {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabricksResilienceService.class);
+
+    private static final long HALF_OPEN_RETRY_MILLIS = 1_000L; // 시험 호출 중에 거절된 호출에 안내할 대기 시간
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    private final Map<String, WorkspaceCircuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * 워크스페이스 API 호출 - 서킷 브레이커와 재시도를 함께 적용합니다.
+     * @param idempotent false면 요청이 처리되지 않았다고 확신할 수 있는 오류(429, 503, 연결 실패)만 재시도합니다.
+     *                   예: statement 생성은 500/응답 시간 초과 뒤에 다시 보내면 쿼리가 두 번 실행될 수 있음
+     */
+    public <T> T execute(URI target, boolean idempotent, Supplier<T> call) {
+        DatabricksConfig.CircuitBreaker config = databricksConfig.getCircuitBreaker();
+        if (!config.isEnabled()) {
+            return withRetry(target, idempotent, call);
+        }
+
+        WorkspaceCircuit circuit = circuits.computeIfAbsent(DatabricksHttpClients.origin(target), WorkspaceCircuit::new);
+        circuit.acquire(config);
+        try {
+            T result = withRetry(target, idempotent, call);
+            circuit.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isWorkspaceFailure(e)) {
+                circuit.onFailure(config, e);
+            } else {
+                circuit.onSuccess(); // 4xx는 워크스페이스가 응답한 것
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 서킷 브레이커 없이 재시도만 적용 (presigned URL 등 워크스페이스가 아닌 저장소 호출)
+     */
+    public <T> T executeWithRetry(URI target, boolean idempotent, Supplier<T> call) {
+        return withRetry(target, idempotent, call);
+    }
+
+    /**
+     * 워크스페이스가 차단 상태면 남은 차단 시간(ms), 아니면 0
+     */
+    public long unavailableFor(String workspaceUrl) {
+        if (workspaceUrl == null || !databricksConfig.getCircuitBreaker().isEnabled()) {
+            return 0;
+        }
+        WorkspaceCircuit circuit;
+        try {
+            circuit = circuits.get(DatabricksHttpClients.origin(URI.create(workspaceUrl)));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return 0;
+        }
+        return circuit != null ? circuit.remainingOpenMillis() : 0;
+    }
+
+    /**
+     * 워크스페이스별 서킷 상태 - 헬스 체크 화면용
+     */
+    public List<Map<String, Object>> getHealth() {
+        List<Map<String, Object>> health = new ArrayList<>();
+        circuits.values().forEach(circuit -> health.add(circuit.snapshot()));
+        return health;
+    }
+
+    private <T> T withRetry(URI target, boolean idempotent, Supplier<T> call) {
+        DatabricksConfig.Api api = databricksConfig.getApi();
+        int attempt = 0;
+        while (true) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                attempt++;
+                if (attempt > api.getRetryAttempts() || !isRetryable(e, idempotent)) {
+                    throw e;
+                }
+
+                long retryAfter = retryAfterMillis(e);
+                if (retryAfter > api.getMaxRetryAfterMillis()) {
+                    log.warn("Databricks asked to retry {} after {}ms - giving up", target.getPath(), retryAfter);
+                    throw e;
+                }
+                long wait = retryAfter >= 0 ? retryAfter : backoffMillis(api, attempt);
+                log.info("Retrying Databricks call {} in {}ms (attempt {}/{}): {}",
+                    target.getPath(), wait, attempt, api.getRetryAttempts(), e.getMessage());
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 지수 백오프 + equal jitter: 상한의 절반은 고정, 나머지 절반은 무작위 (동시에 실패한 호출이 한꺼번에 몰리지 않도록)
+     */
+    private static long backoffMillis(DatabricksConfig.Api api, int attempt) {
+        long cap = Math.min(api.getRetryMaxBackoffMillis(),
+            api.getRetryInitialBackoffMillis() << Math.min(attempt - 1, 20));
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private static boolean isRetryable(RuntimeException e, boolean idempotent) {
+        if (e instanceof HttpStatusCodeException statusError) {
+            int status = statusError.getStatusCode().value();
+            if (status == 429 || status == 503) {
+                return true; // 처리하지 않고 거절한 요청
+            }
+            return idempotent && (status == 500 || status == 502 || status == 504);
+        }
+        if (e instanceof ResourceAccessException) {
+            if (hasCause(e, ConnectException.class) || hasCause(e, ConnectTimeoutException.class)) {
+                return true; // 요청을 보내기 전에 실패
+            }
+            return idempotent && hasCause(e, SocketTimeoutException.class);
+        }
+        return false;
+    }
+
+    /**
+     * 서킷 브레이커가 세는 실패 - 워크스페이스가 응답하지 못한 경우만 (4xx, 429는 제외)
+     */
+    private static boolean isWorkspaceFailure(RuntimeException e) {
+        return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retry-After 헤더 (초 또는 HTTP 날짜) → ms, 없으면 -1
+     */
+    private static long retryAfterMillis(RuntimeException e) {
+        if (!(e instanceof HttpStatusCodeException statusError) || statusError.getResponseHeaders() == null) {
+            return -1;
+        }
+        String value = statusError.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        value = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1_000L);
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(0, at.toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException notDate) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 서킷이 열려(차단) 있어 워크스페이스 호출을 보내지 않았음
+     */
+    public static class WorkspaceUnavailableException extends RuntimeException {
+
+        private final long retryAfterMillis;
+
+        public WorkspaceUnavailableException(String workspace, long retryAfterMillis) {
+            super("Databricks workspace " + workspace + " is temporarily unavailable. Retry after "
+                + Math.max(1, (retryAfterMillis + 999) / 1000) + "s");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private static final class WorkspaceCircuit {
+
+        private final String workspace; // 예: https://adb-123.azuredatabricks.net:443
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long totalFailures;
+        private long rejectedCalls;
+        private long openedAt;
+        private long openUntil;
+        private boolean probeInFlight;
+        private String lastError;
+        private long lastFailureAt;
+
+        WorkspaceCircuit(String workspace) {
+            this.workspace = workspace;
+        }
+
+        /**
+         * 호출 허가 - 차단 중이면 WorkspaceUnavailableException
+         */
+        synchronized void acquire(DatabricksConfig.CircuitBreaker config) {
+            long now = System.currentTimeMillis();
+            if (state == CircuitState.OPEN) {
+                if (now < openUntil) {
+                    rejectedCalls++;
+                    throw new WorkspaceUnavailableException(workspace, openUntil - now);
+                }
+                state = CircuitState.HALF_OPEN;
+                probeInFlight = false;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                if (probeInFlight) {
+                    rejectedCalls++;
+                    throw new WorkspaceUnavailableException(workspace, HALF_OPEN_RETRY_MILLIS);
+                }
+                probeInFlight = true;
+                log.info("Databricks workspace {} circuit half-open - sending probe call", workspace);
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state != CircuitState.CLOSED) {
+                log.info("Databricks workspace {} circuit closed", workspace);
+            }
+            state = CircuitState.CLOSED;
+            probeInFlight = false;
+            consecutiveFailures = 0;
+        }
+
+        synchronized void onFailure(DatabricksConfig.CircuitBreaker config, RuntimeException e) {
+            long now = System.currentTimeMillis();
+            consecutiveFailures++;
+            totalFailures++;
+            lastError = e.getMessage();
+            lastFailureAt = now;
+            if (state == CircuitState.HALF_OPEN || consecutiveFailures >= config.getFailureThreshold()) {
+                if (state != CircuitState.OPEN) {
+                    log.warn("Databricks workspace {} circuit opened for {}ms after {} consecutive failures: {}",
+                        workspace, config.getOpenDurationMillis(), consecutiveFailures, lastError);
+                }
+                state = CircuitState.OPEN;
+                probeInFlight = false;
+                openedAt = now;
+                openUntil = now + config.getOpenDurationMillis();
+            }
+        }
+
+        synchronized long remainingOpenMillis() {
+            return state == CircuitState.OPEN ? Math.max(0, openUntil - System.currentTimeMillis()) : 0;
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            long retryAfter = remainingOpenMillis();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("workspaceUrl", workspace);
+            stats.put("state", state == CircuitState.OPEN && retryAfter == 0 ? CircuitState.HALF_OPEN.name() : state.name());
+            stats.put("available", retryAfter == 0);
+            stats.put("consecutiveFailures", consecutiveFailures);
+            stats.put("totalFailures", totalFailures);
+            stats.put("rejectedCalls", rejectedCalls);
+            stats.put("lastError", lastError);
+            stats.put("lastFailureAt", lastFailureAt > 0 ? Instant.ofEpochMilli(lastFailureAt).toString() : null);
+            stats.put("openedAt", openedAt > 0 ? Instant.ofEpochMilli(openedAt).toString() : null);
+            stats.put("retryAfterMs", retryAfter);
+            return stats;
+        }
+    }
+}
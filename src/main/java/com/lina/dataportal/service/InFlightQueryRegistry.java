@@ -0,0 +1,172 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.service.RunningQueryRegistry.RunningQuery;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 실행 중인 같은 쿼리 묶기 (single-flight)
+ * 같은 자격 증명/웨어하우스로 같은 SQL이 동시에 들어오면 첫 요청만 statement를 만들고,
+ * 나중 요청은 그 실행에 붙어 결과를 함께 받습니다. 예: 오전 9시에 여러 사용자가 같은 대시보드를 열 때
+ * 요청마다 받는 future는 따로이므로 한 사용자가 취소해도 다른 사용자의 결과에는 영향이 없고,
+ * 붙어 있는 요청이 모두 취소되어야 statement를 취소합니다.
+ */
+@Service
+public class InFlightQueryRegistry {
+
+    private final Map<String, Flight> flights = new HashMap<>();
+    private final LongAdder launched = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * 실행 중인 같은 쿼리가 있으면 붙고, 없으면 launcher로 실행을 시작합니다.
+     * @param key 자격 증명/웨어하우스/정규화된 SQL 키 (QueryResultCache.key)
+     * @param sharedQuery 첫 요청일 때 공유 실행의 상태를 담을 RunningQuery - 붙는 요청이면 버려지고 기존 것이 반환됩니다.
+     * @param launcher 공유할 실행 - 이 호출자가 첫 요청일 때만 호출됩니다.
+     */
+    public Subscription subscribe(String key, RunningQuery sharedQuery,
+                                  Supplier<CompletableFuture<Map<String, Object>>> launcher) {
+        Flight flight;
+        boolean leader;
+        synchronized (flights) {
+            flight = flights.get(key);
+            leader = flight == null;
+            if (leader) {
+                flight = new Flight(key, sharedQuery);
+                flights.put(key, flight);
+            }
+            flight.subscribers++;
+        }
+
+        if (leader) {
+            launched.increment();
+            Flight started = flight;
+            started.result.whenComplete((result, e) -> {
+                synchronized (flights) {
+                    flights.remove(key, started);
+                }
+            });
+            CompletableFuture<Map<String, Object>> execution;
+            try {
+                execution = launcher.get();
+            } catch (RuntimeException e) {
+                execution = CompletableFuture.failedFuture(e);
+            }
+            started.start(execution);
+        } else {
+            coalesced.increment();
+        }
+
+        // 호출자별 future - 취소하면 구독만 해제
+        Flight joined = flight;
+        CompletableFuture<Map<String, Object>> own = new CompletableFuture<>();
+        joined.result.whenComplete((result, e) -> {
+            if (e != null) {
+                own.completeExceptionally(e);
+            } else {
+                own.complete(result);
+            }
+        });
+        own.whenComplete((result, e) -> {
+            if (own.isCancelled()) {
+                unsubscribe(joined);
+            }
+        });
+        return new Subscription(own, leader, joined.sharedQuery);
+    }
+
+    private void unsubscribe(Flight flight) {
+        boolean last;
+        synchronized (flights) {
+            last = --flight.subscribers == 0;
+            if (last) {
+                flights.remove(flight.key, flight); // 이후 같은 쿼리는 새로 실행
+            }
+        }
+        if (last) {
+            flight.cancel();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int inFlight;
+        synchronized (flights) {
+            inFlight = flights.size();
+        }
+        return Map.of(
+            "inFlight", inFlight,
+            "launched", launched.sum(),
+            "coalesced", coalesced.sum()
+        );
+    }
+
+    /**
+     * 호출자 한 명의 구독
+     */
+    public static final class Subscription {
+        private final CompletableFuture<Map<String, Object>> result;
+        private final boolean leader;
+        private final RunningQuery sharedQuery;
+
+        Subscription(CompletableFuture<Map<String, Object>> result, boolean leader, RunningQuery sharedQuery) {
+            this.result = result;
+            this.leader = leader;
+            this.sharedQuery = sharedQuery;
+        }
+
+        /**
+         * 이 호출자의 결과 - 공유 결과 맵 그대로이므로 호출자별 값은 복사본에 넣어야 합니다.
+         */
+        public CompletableFuture<Map<String, Object>> getResult() { return result; }
+
+        /**
+         * statement를 직접 실행한 첫 요청인지 여부 (false면 실행 중인 쿼리에 붙음)
+         */
+        public boolean isLeader() { return leader; }
+
+        /**
+         * 공유 실행의 상태와 statementId (첫 요청이 넘긴 RunningQuery)
+         */
+        public RunningQuery getSharedQuery() { return sharedQuery; }
+    }
+
+    private static final class Flight {
+        private final String key;
+        private final RunningQuery sharedQuery;
+        private final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        private int subscribers; // flights 잠금 안에서만 변경
+        private CompletableFuture<Map<String, Object>> execution;
+        private boolean cancelled;
+
+        Flight(String key, RunningQuery sharedQuery) {
+            this.key = key;
+            this.sharedQuery = sharedQuery;
+        }
+
+        synchronized void start(CompletableFuture<Map<String, Object>> execution) {
+            this.execution = execution;
+            execution.whenComplete((value, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(value);
+                }
+            });
+            if (cancelled) {
+                execution.cancel(false);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (execution != null) {
+                execution.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * NDJSON 내보내기 - 한 줄에 행 하나를 {"컬럼명": 값} 객체로 기록합니다.
+ * 값 표현은 청크 API 응답(ColumnVector.writeJson)과 같습니다.
+ */
+public class NdjsonExportWriter implements ResultExportWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private final SerializedString[] fieldNames;
+
+    public NdjsonExportWriter(OutputStream out, List<DatabricksColumn> columns) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.fieldNames = new SerializedString[columns.size()];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldNames[i] = new SerializedString(columns.get(i).getName());
+        }
+    }
+
+    @Override
+    public void write(ColumnarBatch batch) throws IOException {
+        int columnCount = Math.min(fieldNames.length, batch.getColumnCount());
+        for (int row = 0; row < batch.getRowCount(); row++) {
+            generator.writeStartObject();
+            for (int col = 0; col < columnCount; col++) {
+                generator.writeFieldName(fieldNames[col]);
+                batch.getVector(col).writeJson(generator, row);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
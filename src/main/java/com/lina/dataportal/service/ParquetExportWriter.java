@@ -0,0 +1,562 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.domain.databricks.BooleanColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.DateColumnVector;
+import com.lina.dataportal.domain.databricks.DecimalColumnVector;
+import com.lina.dataportal.domain.databricks.DoubleColumnVector;
+import com.lina.dataportal.domain.databricks.LongColumnVector;
+import com.lina.dataportal.domain.databricks.StringColumnVector;
+import com.lina.dataportal.domain.databricks.TimestampColumnVector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parquet 내보내기
+ * Parquet 라이브러리(Hadoop 의존성) 없이 파일 구조를 직접 기록합니다.
+ * - 청크 하나가 row group 하나이고, 컬럼마다 data page(v1) 하나를 씁니다.
+ * - 값은 PLAIN 인코딩, NULL 여부는 definition level(RLE)로 기록합니다 (모든 컬럼 OPTIONAL).
+ * - 타입: LONG 계열 → INT64, DOUBLE 계열 → DOUBLE, BOOLEAN → BOOLEAN, DATE → INT32(DATE),
+ *   TIMESTAMP → INT64(TIMESTAMP_MICROS), DECIMAL(18자리 이하) → INT64(DECIMAL), 그 외 → BYTE_ARRAY(UTF8)
+ * - PageHeader, FileMetaData는 Thrift compact protocol로 기록합니다.
+ * 파일 끝 메타데이터(row group 목록)만 메모리에 남고, 값은 청크 단위로 바로 출력합니다.
+ */
+public class ParquetExportWriter implements ResultExportWriter {
+
+    private static final byte[] MAGIC = {'P', 'A', 'R', '1'};
+    private static final String CREATED_BY = "lina-data-portal";
+
+    // parquet.thrift 상수
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_INT32 = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    private static final int CODEC_UNCOMPRESSED = 0;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGE_TYPE_DATA = 0;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int CONVERTED_TYPE_UTF8 = 0;
+    private static final int CONVERTED_TYPE_DECIMAL = 5;
+    private static final int CONVERTED_TYPE_DATE = 6;
+    private static final int CONVERTED_TYPE_TIMESTAMP_MICROS = 10;
+    private static final int NO_CONVERTED_TYPE = -1;
+    private static final int MAX_INT64_DECIMAL_PRECISION = 18;
+
+    private final CountingOutputStream out;
+    private final String[] names;
+    private final int[] types;
+    private final int[] convertedTypes;
+    private final int[] precisions; // DECIMAL만
+    private final int[] scales; // DECIMAL만
+    private final boolean gzip;
+    private final List<RowGroupMeta> rowGroups = new ArrayList<>();
+    private final ByteArrayOutputStream page = new ByteArrayOutputStream(64 * 1024); // 페이지 버퍼 (재사용)
+    private final ByteArrayOutputStream levels = new ByteArrayOutputStream(1024);
+    private final byte[] scratch = new byte[8];
+    private long totalRows;
+    private boolean started;
+
+    /**
+     * @param gzip true면 페이지를 GZIP 코덱으로 압축합니다 (파일 자체는 일반 Parquet)
+     */
+    public ParquetExportWriter(OutputStream out, List<DatabricksColumn> columns, boolean gzip) {
+        this.out = new CountingOutputStream(out);
+        this.gzip = gzip;
+        this.names = new String[columns.size()];
+        this.types = new int[columns.size()];
+        this.convertedTypes = new int[columns.size()];
+        this.precisions = new int[columns.size()];
+        this.scales = new int[columns.size()];
+
+        // Parquet 스키마 필드명은 고유해야 하므로 중복 컬럼명(예: 조인 결과의 id)에는 번호를 붙입니다.
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < names.length; i++) {
+            String name = columns.get(i).getName();
+            String unique = name;
+            for (int n = 2; !used.add(unique); n++) {
+                unique = name + "_" + n;
+            }
+            names[i] = unique;
+            mapType(i, columns.get(i));
+        }
+    }
+
+    @Override
+    public void write(ColumnarBatch batch) throws IOException {
+        int rowCount = batch.getRowCount();
+        if (rowCount == 0) {
+            return;
+        }
+        writeMagic();
+
+        RowGroupMeta rowGroup = new RowGroupMeta(rowCount);
+        for (int col = 0; col < names.length; col++) {
+            ColumnVector vector = col < batch.getColumnCount() ? batch.getVector(col) : null;
+            ColumnChunkMeta chunk = writeColumnChunk(col, vector, rowCount);
+            rowGroup.columns.add(chunk);
+            rowGroup.totalByteSize += chunk.uncompressedSize;
+        }
+        rowGroups.add(rowGroup);
+        totalRows += rowCount;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeMagic();
+        byte[] footer = fileMetaData();
+        out.write(footer);
+        writeIntLE(out, footer.length);
+        out.write(MAGIC);
+        out.flush();
+    }
+
+    private void writeMagic() throws IOException {
+        if (!started) {
+            started = true;
+            out.write(MAGIC);
+        }
+    }
+
+    private ColumnChunkMeta writeColumnChunk(int col, ColumnVector vector, int rowCount) throws IOException {
+        page.reset();
+        writeDefinitionLevels(vector, rowCount);
+        switch (types[col]) {
+            case TYPE_INT32 -> writeInts(vector, rowCount);
+            case TYPE_INT64 -> writeLongs(vector, rowCount, col);
+            case TYPE_DOUBLE -> writeDoubles(vector, rowCount);
+            case TYPE_BOOLEAN -> writeBooleans(vector, rowCount);
+            default -> writeStrings(vector, rowCount);
+        }
+
+        int uncompressedSize = page.size();
+        byte[] body;
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(uncompressedSize / 4 + 64);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(compressed)) {
+                page.writeTo(gzipOut);
+            }
+            body = compressed.toByteArray();
+        } else {
+            body = page.toByteArray();
+        }
+
+        CompactWriter header = new CompactWriter();
+        header.i32Field(1, PAGE_TYPE_DATA);
+        header.i32Field(2, uncompressedSize);
+        header.i32Field(3, body.length);
+        header.beginStruct(5); // DataPageHeader
+        header.i32Field(1, rowCount);
+        header.i32Field(2, ENCODING_PLAIN);
+        header.i32Field(3, ENCODING_RLE);
+        header.i32Field(4, ENCODING_RLE);
+        header.endStruct();
+        header.endStruct();
+        byte[] headerBytes = header.toByteArray();
+
+        ColumnChunkMeta chunk = new ColumnChunkMeta();
+        chunk.dataPageOffset = out.count;
+        chunk.numValues = rowCount;
+        chunk.uncompressedSize = headerBytes.length + uncompressedSize;
+        chunk.compressedSize = headerBytes.length + body.length;
+        out.write(headerBytes);
+        out.write(body);
+        return chunk;
+    }
+
+    /**
+     * definition level (비트 폭 1) - 4바이트 길이 + RLE run 목록. 1은 값 있음, 0은 NULL
+     */
+    private void writeDefinitionLevels(ColumnVector vector, int rowCount) throws IOException {
+        levels.reset();
+        int row = 0;
+        while (row < rowCount) {
+            boolean defined = !isNull(vector, row);
+            int run = 1;
+            while (row + run < rowCount && !isNull(vector, row + run) == defined) {
+                run++;
+            }
+            writeUnsignedVarint(levels, (long) run << 1);
+            levels.write(defined ? 1 : 0);
+            row += run;
+        }
+        writeIntLE(page, levels.size());
+        levels.writeTo(page);
+    }
+
+    private void writeInts(ColumnVector vector, int rowCount) throws IOException {
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(vector, row)) {
+                writeIntLE(page, epochDayValue(vector, row));
+            }
+        }
+    }
+
+    private void writeLongs(ColumnVector vector, int rowCount, int col) {
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(vector, row)) {
+                writeLongLE(longValue(vector, row, col));
+            }
+        }
+    }
+
+    private void writeDoubles(ColumnVector vector, int rowCount) {
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(vector, row)) {
+                writeLongLE(Double.doubleToLongBits(doubleValue(vector, row)));
+            }
+        }
+    }
+
+    /**
+     * BOOLEAN PLAIN 인코딩 - 값마다 1비트, 하위 비트부터 채움
+     */
+    private void writeBooleans(ColumnVector vector, int rowCount) {
+        int bits = 0;
+        int bitCount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (isNull(vector, row)) {
+                continue;
+            }
+            if (booleanValue(vector, row)) {
+                bits |= 1 << bitCount;
+            }
+            if (++bitCount == 8) {
+                page.write(bits);
+                bits = 0;
+                bitCount = 0;
+            }
+        }
+        if (bitCount > 0) {
+            page.write(bits);
+        }
+    }
+
+    private void writeStrings(ColumnVector vector, int rowCount) throws IOException {
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(vector, row)) {
+                byte[] bytes = stringValue(vector, row).getBytes(StandardCharsets.UTF_8);
+                writeIntLE(page, bytes.length);
+                page.write(bytes);
+            }
+        }
+    }
+
+    private void writeLongLE(long value) {
+        for (int i = 0; i < 8; i++) {
+            scratch[i] = (byte) (value >>> (i * 8));
+        }
+        page.write(scratch, 0, 8);
+    }
+
+    private static boolean isNull(ColumnVector vector, int row) {
+        return vector == null || vector.isNull(row);
+    }
+
+    // 컬럼 타입과 벡터 타입이 다른 경우(예: 타입 정보 없는 청크)에는 값을 변환합니다.
+    private long longValue(ColumnVector vector, int row, int col) {
+        if (vector instanceof LongColumnVector longs) {
+            return longs.getLong(row);
+        }
+        if (vector instanceof TimestampColumnVector timestamps) {
+            return timestamps.getEpochMicros(row);
+        }
+        if (convertedTypes[col] == CONVERTED_TYPE_DECIMAL) {
+            if (vector instanceof DecimalColumnVector decimals && decimals.isCompact() && decimals.getScale() == scales[col]) {
+                return decimals.getUnscaled(row);
+            }
+            BigDecimal value = vector instanceof DecimalColumnVector decimals
+                ? decimals.getDecimal(row) : new BigDecimal(vector.getText(row).trim());
+            return value.setScale(scales[col], RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+        if (convertedTypes[col] == CONVERTED_TYPE_TIMESTAMP_MICROS) {
+            char[] text = vector.getText(row).toCharArray();
+            return TimestampColumnVector.parseEpochMicros(text, 0, text.length);
+        }
+        Object value = vector.getObject(row);
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString().trim());
+    }
+
+    private static int epochDayValue(ColumnVector vector, int row) {
+        if (vector instanceof DateColumnVector dates) {
+            return dates.getEpochDay(row);
+        }
+        return (int) LocalDate.parse(vector.getText(row).trim()).toEpochDay();
+    }
+
+    private static double doubleValue(ColumnVector vector, int row) {
+        if (vector instanceof DoubleColumnVector doubles) {
+            return doubles.getDouble(row);
+        }
+        Object value = vector.getObject(row);
+        return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString().trim());
+    }
+
+    private static boolean booleanValue(ColumnVector vector, int row) {
+        if (vector instanceof BooleanColumnVector booleans) {
+            return booleans.getBoolean(row);
+        }
+        Object value = vector.getObject(row);
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString().trim());
+    }
+
+    private static String stringValue(ColumnVector vector, int row) {
+        if (vector instanceof StringColumnVector strings) {
+            return strings.getString(row);
+        }
+        return vector.getText(row);
+    }
+
+    /**
+     * 결과 디코더와 같은 기준(ColumnVector.forColumn)으로 물리 타입과 converted type 결정
+     * DECIMAL은 precision이 18 이하로 알려진 경우만 INT64 DECIMAL로 쓰고, 그 밖에는 문자열로 씁니다 (값은 어느 쪽이든 정확).
+     */
+    private void mapType(int col, DatabricksColumn column) {
+        ColumnVector vector = ColumnVector.forColumn(column);
+        convertedTypes[col] = NO_CONVERTED_TYPE;
+        if (vector instanceof LongColumnVector) {
+            types[col] = TYPE_INT64;
+        } else if (vector instanceof DoubleColumnVector) {
+            types[col] = TYPE_DOUBLE;
+        } else if (vector instanceof BooleanColumnVector) {
+            types[col] = TYPE_BOOLEAN;
+        } else if (vector instanceof DateColumnVector) {
+            types[col] = TYPE_INT32;
+            convertedTypes[col] = CONVERTED_TYPE_DATE;
+        } else if (vector instanceof TimestampColumnVector) {
+            types[col] = TYPE_INT64;
+            convertedTypes[col] = CONVERTED_TYPE_TIMESTAMP_MICROS;
+        } else if (vector instanceof DecimalColumnVector && column.getPrecision() != null && column.getScale() != null
+            && column.getPrecision() <= MAX_INT64_DECIMAL_PRECISION) {
+            types[col] = TYPE_INT64;
+            convertedTypes[col] = CONVERTED_TYPE_DECIMAL;
+            precisions[col] = column.getPrecision();
+            scales[col] = column.getScale();
+        } else {
+            types[col] = TYPE_BYTE_ARRAY;
+            convertedTypes[col] = CONVERTED_TYPE_UTF8;
+        }
+    }
+
+    private byte[] fileMetaData() {
+        CompactWriter meta = new CompactWriter();
+        meta.i32Field(1, 1); // version
+
+        meta.listField(2, CompactWriter.TYPE_STRUCT, names.length + 1); // schema
+        meta.beginElement();
+        meta.stringField(4, "schema");
+        meta.i32Field(5, names.length);
+        meta.endStruct();
+        for (int col = 0; col < names.length; col++) {
+            meta.beginElement();
+            meta.i32Field(1, types[col]);
+            meta.i32Field(3, REPETITION_OPTIONAL);
+            meta.stringField(4, names[col]);
+            if (convertedTypes[col] != NO_CONVERTED_TYPE) {
+                meta.i32Field(6, convertedTypes[col]);
+            }
+            if (convertedTypes[col] == CONVERTED_TYPE_DECIMAL) {
+                meta.i32Field(7, scales[col]);
+                meta.i32Field(8, precisions[col]);
+            }
+            meta.endStruct();
+        }
+
+        meta.i64Field(3, totalRows);
+
+        meta.listField(4, CompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupMeta rowGroup : rowGroups) {
+            meta.beginElement();
+            meta.listField(1, CompactWriter.TYPE_STRUCT, rowGroup.columns.size());
+            for (int col = 0; col < rowGroup.columns.size(); col++) {
+                ColumnChunkMeta chunk = rowGroup.columns.get(col);
+                meta.beginElement();
+                meta.i64Field(2, chunk.dataPageOffset); // file_offset
+                meta.beginStruct(3); // ColumnMetaData
+                meta.i32Field(1, types[col]);
+                meta.listField(2, CompactWriter.TYPE_I32, 2);
+                meta.i32(ENCODING_PLAIN);
+                meta.i32(ENCODING_RLE);
+                meta.listField(3, CompactWriter.TYPE_BINARY, 1);
+                meta.string(names[col]);
+                meta.i32Field(4, gzip ? CODEC_GZIP : CODEC_UNCOMPRESSED);
+                meta.i64Field(5, chunk.numValues);
+                meta.i64Field(6, chunk.uncompressedSize);
+                meta.i64Field(7, chunk.compressedSize);
+                meta.i64Field(9, chunk.dataPageOffset);
+                meta.endStruct();
+                meta.endStruct();
+            }
+            meta.i64Field(2, rowGroup.totalByteSize);
+            meta.i64Field(3, rowGroup.numRows);
+            meta.endStruct();
+        }
+
+        meta.stringField(6, CREATED_BY);
+        meta.endStruct();
+        return meta.toByteArray();
+    }
+
+    private static void writeIntLE(OutputStream target, int value) throws IOException {
+        target.write(value);
+        target.write(value >>> 8);
+        target.write(value >>> 16);
+        target.write(value >>> 24);
+    }
+
+    private static void writeUnsignedVarint(OutputStream target, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            target.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.write((int) value);
+    }
+
+    private static final class RowGroupMeta {
+        private final long numRows;
+        private final List<ColumnChunkMeta> columns = new ArrayList<>();
+        private long totalByteSize;
+
+        RowGroupMeta(long numRows) {
+            this.numRows = numRows;
+        }
+    }
+
+    private static final class ColumnChunkMeta {
+        private long dataPageOffset;
+        private long numValues;
+        private long uncompressedSize; // 페이지 헤더 포함
+        private long compressedSize;
+    }
+
+    /**
+     * Thrift compact protocol 쓰기 (Parquet 메타데이터에 필요한 부분만)
+     */
+    private static final class CompactWriter {
+
+        static final int TYPE_I32 = 5;
+        static final int TYPE_I64 = 6;
+        static final int TYPE_BINARY = 8;
+        static final int TYPE_LIST = 9;
+        static final int TYPE_STRUCT = 12;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private final int[] fieldIdStack = new int[16];
+        private int depth;
+        private int lastFieldId;
+
+        void i32Field(int id, int value) {
+            fieldHeader(id, TYPE_I32);
+            i32(value);
+        }
+
+        void i64Field(int id, long value) {
+            fieldHeader(id, TYPE_I64);
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void stringField(int id, String value) {
+            fieldHeader(id, TYPE_BINARY);
+            string(value);
+        }
+
+        void listField(int id, int elementType, int size) {
+            fieldHeader(id, TYPE_LIST);
+            if (size < 15) {
+                buffer.write(size << 4 | elementType);
+            } else {
+                buffer.write(0xF0 | elementType);
+                varint(size);
+            }
+        }
+
+        void beginStruct(int id) {
+            fieldHeader(id, TYPE_STRUCT);
+            beginElement();
+        }
+
+        /**
+         * 리스트 원소인 struct 시작 (필드 헤더 없음)
+         */
+        void beginElement() {
+            fieldIdStack[depth++] = lastFieldId;
+            lastFieldId = 0;
+        }
+
+        void endStruct() {
+            buffer.write(0); // STOP
+            if (depth > 0) {
+                lastFieldId = fieldIdStack[--depth];
+            }
+        }
+
+        void i32(int value) {
+            varint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            buffer.write(bytes, 0, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        private void fieldHeader(int id, int type) {
+            int delta = id - lastFieldId;
+            if (delta > 0 && delta <= 15) {
+                buffer.write(delta << 4 | type);
+            } else {
+                buffer.write(type);
+                i32(id);
+            }
+            lastFieldId = id;
+        }
+
+        private void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.write((int) value);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
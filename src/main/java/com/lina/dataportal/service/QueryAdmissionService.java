@@ -0,0 +1,373 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쿼리 실행 승인 (admission control)
+ * 웨어하우스마다 동시에 실행하는 statement 수를 제한하고, 자리가 없으면 대기열에 넣습니다.
+ * 대기열은 사용자별 가중치 공정 큐(start-time fair queuing)라서 한 사용자가 쿼리를 몰아 보내도
+ * 다른 사용자의 쿼리는 그 뒤에 줄 서지 않고 가중치 비율대로 번갈아 실행됩니다.
+ */
+@Service
+public class QueryAdmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryAdmissionService.class);
+
+    private static final int WAIT_SAMPLES = 1024; // 대기 시간 백분위 계산에 사용하는 최근 표본 수
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    private final Map<String, WarehouseQueue> warehouses = new ConcurrentHashMap<>();
+
+    /**
+     * 실행 슬롯 요청
+     * 반환된 Ticket의 getAdmitted()가 완료되면 실행하고, 실행이 끝나면 release()를 호출해야 합니다.
+     * 사용자 대기열이 가득 찼거나 queue-timeout 안에 자리가 나지 않으면 RejectedExecutionException으로 완료됩니다.
+     */
+    public Ticket enqueue(String workspaceUrl, String warehouseId, String userId) {
+        DatabricksConfig.Admission config = databricksConfig.getAdmission();
+        if (!config.isEnabled()) {
+            Ticket ticket = new Ticket(null, userId, 0);
+            ticket.admitted.complete(null);
+            return ticket;
+        }
+
+        WarehouseQueue queue = warehouses.computeIfAbsent(workspaceUrl + "#" + warehouseId,
+            key -> new WarehouseQueue(workspaceUrl, warehouseId));
+        Ticket ticket = new Ticket(queue, userId, Math.max(0.01, config.weightFor(userId)));
+
+        String rejection = queue.offer(ticket, config.concurrencyFor(warehouseId), config.getMaxQueuedPerUser());
+        if (rejection != null) {
+            ticket.admitted.completeExceptionally(new RejectedExecutionException(rejection));
+        } else if (ticket.state == TicketState.ADMITTED) {
+            ticket.admitted.complete(null);
+        } else {
+            long timeout = config.getQueueTimeoutMillis();
+            ticket.timeoutTask = databricksExecutors.scheduler().schedule(
+                () -> queue.expire(ticket, timeout), timeout, TimeUnit.MILLISECONDS);
+            log.debug("Query of {} queued for warehouse {} at position {}", userId, warehouseId, ticket.queuePosition);
+        }
+        return ticket;
+    }
+
+    /**
+     * 웨어하우스별 대기열 현황 - 동시 실행 수/대기열 깊이/대기 시간 분포 (웨어하우스 크기 산정용)
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (WarehouseQueue queue : warehouses.values()) {
+            stats.add(queue.stats(databricksConfig.getAdmission().concurrencyFor(queue.warehouseId)));
+        }
+        return stats;
+    }
+
+    private enum TicketState { QUEUED, ADMITTED, DONE }
+
+    /**
+     * 실행 슬롯 하나에 대한 요청
+     */
+    public static final class Ticket {
+        private final WarehouseQueue queue; // admission 비활성화 시 null
+        private final String userId;
+        private final double weight;
+        private final long enqueuedAt = System.currentTimeMillis();
+        private final CompletableFuture<Void> admitted = new CompletableFuture<>();
+
+        // 아래 필드는 queue 잠금 안에서 변경
+        private volatile TicketState state = TicketState.QUEUED;
+        private double startTag; // 공정 큐 가상 시작 시각 - 작을수록 먼저 실행
+        private long sequence;
+        private int queuePosition; // 대기열에 들어갈 때의 순번 (바로 실행되면 0)
+        private volatile long admittedAt;
+        private volatile ScheduledFuture<?> timeoutTask;
+
+        Ticket(WarehouseQueue queue, String userId, double weight) {
+            this.queue = queue;
+            this.userId = userId;
+            this.weight = weight;
+        }
+
+        public CompletableFuture<Void> getAdmitted() {
+            return admitted;
+        }
+
+        /**
+         * 실행 종료 - 슬롯을 반납하고 다음 대기 쿼리를 실행합니다. 여러 번 호출해도 됩니다.
+         */
+        public void release() {
+            if (queue != null) {
+                queue.release(this);
+            }
+        }
+
+        /**
+         * 대기 중이면 대기열에서 빼고 getAdmitted()를 취소 상태로 완료합니다. 이미 실행 중이면 아무것도 하지 않습니다.
+         */
+        public void cancel() {
+            if (queue != null) {
+                queue.cancel(this);
+            }
+        }
+
+        public int getQueuePosition() {
+            return queuePosition;
+        }
+
+        /**
+         * 현재 대기 순번 (실행 중이거나 끝났으면 0)
+         */
+        public int getCurrentPosition() {
+            return queue != null ? queue.positionOf(this) : 0;
+        }
+
+        /**
+         * 대기한 시간 (밀리초) - 아직 대기 중이면 지금까지의 시간
+         */
+        public long getWaitMillis() {
+            long end = admittedAt > 0 ? admittedAt : System.currentTimeMillis();
+            return queue != null ? end - enqueuedAt : 0;
+        }
+    }
+
+    /**
+     * 웨어하우스 하나의 실행 슬롯과 대기열
+     */
+    private static final class WarehouseQueue {
+        private static final Comparator<Ticket> ORDER =
+            Comparator.<Ticket>comparingDouble(t -> t.startTag).thenComparingLong(t -> t.sequence);
+
+        private final String workspaceUrl;
+        private final String warehouseId;
+        private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(ORDER);
+        private final Map<String, UserState> users = new HashMap<>();
+        private int running;
+        private int limit; // 동시 실행 상한 (가장 최근 요청 시점의 설정값)
+        private double virtualTime; // 마지막으로 실행된 쿼리의 startTag
+        private long nextSequence;
+
+        // 지표
+        private long admittedCount;
+        private long queuedCount;
+        private long rejectedCount;
+        private long timedOutCount;
+        private long cancelledCount;
+        private int peakQueued;
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+        private final long[] waitSamples = new long[WAIT_SAMPLES];
+        private int nextWaitSample; // 다음에 덮어쓸 위치 (링 버퍼)
+        private boolean waitSamplesFull;
+
+        WarehouseQueue(String workspaceUrl, String warehouseId) {
+            this.workspaceUrl = workspaceUrl;
+            this.warehouseId = warehouseId;
+        }
+
+        /**
+         * @return 거절 사유 (받아들였으면 null)
+         */
+        synchronized String offer(Ticket ticket, int limit, int maxQueuedPerUser) {
+            this.limit = limit;
+            if (running < limit && waiting.isEmpty()) {
+                running++;
+                admit(ticket);
+                return null;
+            }
+
+            UserState user = users.computeIfAbsent(ticket.userId, id -> new UserState());
+            if (user.queued >= maxQueuedPerUser) {
+                rejectedCount++;
+                ticket.state = TicketState.DONE;
+                return "Too many queued queries for warehouse " + warehouseId + " (limit " + maxQueuedPerUser + " per user)";
+            }
+
+            // 사용자별로 이전 쿼리의 가상 종료 시각 이후에 시작 - 가중치가 클수록 간격이 좁아져 더 자주 실행됨
+            ticket.startTag = Math.max(virtualTime, user.lastFinishTag);
+            ticket.sequence = nextSequence++;
+            user.lastFinishTag = ticket.startTag + 1.0 / ticket.weight;
+            user.queued++;
+            waiting.add(ticket);
+            queuedCount++;
+            peakQueued = Math.max(peakQueued, waiting.size());
+            ticket.queuePosition = positionOf(ticket);
+            return null;
+        }
+
+        void release(Ticket ticket) {
+            synchronized (this) {
+                if (ticket.state != TicketState.ADMITTED) {
+                    return;
+                }
+                ticket.state = TicketState.DONE;
+                running--;
+            }
+            dispatch();
+        }
+
+        void cancel(Ticket ticket) {
+            if (remove(ticket, false)) {
+                ticket.admitted.completeExceptionally(new CancellationException("Query was cancelled while queued"));
+            }
+        }
+
+        void expire(Ticket ticket, long timeout) {
+            if (remove(ticket, true)) {
+                log.info("Query of {} timed out after {} ms in queue for warehouse {}", ticket.userId, timeout, warehouseId);
+                ticket.admitted.completeExceptionally(new RejectedExecutionException(
+                    "Query was not started within " + timeout + " ms because warehouse " + warehouseId + " is busy"));
+            }
+        }
+
+        private boolean remove(Ticket ticket, boolean timedOut) {
+            synchronized (this) {
+                if (ticket.state != TicketState.QUEUED) {
+                    return false;
+                }
+                ticket.state = TicketState.DONE;
+                waiting.remove(ticket);
+                dequeued(ticket);
+                if (timedOut) {
+                    timedOutCount++;
+                } else {
+                    cancelledCount++;
+                }
+            }
+            ScheduledFuture<?> timeoutTask = ticket.timeoutTask;
+            if (timeoutTask != null && !timedOut) {
+                timeoutTask.cancel(false);
+            }
+            return true;
+        }
+
+        /**
+         * 빈 슬롯만큼 대기열에서 꺼내 실행 - future 완료(후속 실행 시작)는 잠금 밖에서 합니다.
+         */
+        private void dispatch() {
+            List<Ticket> admittedTickets = new ArrayList<>();
+            synchronized (this) {
+                while (!waiting.isEmpty() && running < limit) {
+                    Ticket ticket = waiting.poll();
+                    virtualTime = ticket.startTag;
+                    dequeued(ticket);
+                    running++;
+                    admit(ticket);
+                    admittedTickets.add(ticket);
+                }
+            }
+            for (Ticket ticket : admittedTickets) {
+                ScheduledFuture<?> timeoutTask = ticket.timeoutTask;
+                if (timeoutTask != null) {
+                    timeoutTask.cancel(false);
+                }
+                ticket.admitted.complete(null);
+            }
+        }
+
+        private void admit(Ticket ticket) {
+            ticket.state = TicketState.ADMITTED;
+            ticket.admittedAt = System.currentTimeMillis();
+            long wait = ticket.admittedAt - ticket.enqueuedAt;
+            admittedCount++;
+            totalWaitMillis += wait;
+            maxWaitMillis = Math.max(maxWaitMillis, wait);
+            waitSamples[nextWaitSample] = wait;
+            nextWaitSample = (nextWaitSample + 1) % WAIT_SAMPLES;
+            waitSamplesFull |= nextWaitSample == 0;
+        }
+
+        private void dequeued(Ticket ticket) {
+            UserState user = users.get(ticket.userId);
+            if (user != null) {
+                user.queued--;
+            }
+            if (waiting.isEmpty()) {
+                // 대기열이 비면 공정성 기록도 초기화 (쉬던 사용자가 밀린 몫을 한꺼번에 쓰지 않도록 시작 시각은 virtualTime 기준)
+                users.clear();
+            } else if (user != null && user.queued == 0 && user.lastFinishTag <= virtualTime) {
+                users.remove(ticket.userId);
+            }
+        }
+
+        synchronized int positionOf(Ticket ticket) {
+            if (ticket.state != TicketState.QUEUED) {
+                return 0;
+            }
+            int ahead = 0;
+            for (Ticket other : waiting) {
+                if (ORDER.compare(other, ticket) < 0) {
+                    ahead++;
+                }
+            }
+            return ahead + 1;
+        }
+
+        synchronized Map<String, Object> stats(int maxConcurrent) {
+            Map<String, Integer> queuedByUser = new HashMap<>();
+            for (Ticket ticket : waiting) {
+                queuedByUser.merge(ticket.userId, 1, Integer::sum);
+            }
+
+            int samples = waitSamplesFull ? WAIT_SAMPLES : nextWaitSample;
+            long[] sorted = Arrays.copyOf(waitSamples, samples);
+            Arrays.sort(sorted);
+            Map<String, Object> waitTime = new HashMap<>();
+            waitTime.put("count", admittedCount);
+            waitTime.put("avgMs", admittedCount > 0 ? totalWaitMillis / admittedCount : 0);
+            waitTime.put("maxMs", maxWaitMillis);
+            waitTime.put("p50Ms", percentile(sorted, 0.50));
+            waitTime.put("p95Ms", percentile(sorted, 0.95));
+            waitTime.put("p99Ms", percentile(sorted, 0.99));
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("workspaceUrl", workspaceUrl);
+            stats.put("warehouseId", warehouseId);
+            stats.put("running", running);
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("queued", waiting.size());
+            stats.put("peakQueued", peakQueued);
+            stats.put("queuedByUser", queuedByUser);
+            stats.put("admitted", admittedCount);
+            stats.put("admittedAfterQueueing", queuedCount - timedOutCount - cancelledCount - waiting.size());
+            stats.put("rejected", rejectedCount);
+            stats.put("timedOut", timedOutCount);
+            stats.put("cancelled", cancelledCount);
+            stats.put("waitTime", waitTime);
+            return stats;
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+    }
+
+    private static final class UserState {
+        private int queued; // 대기 중인 쿼리 수
+        private double lastFinishTag; // 마지막으로 넣은 쿼리의 가상 종료 시각
+    }
+}
@@ -0,0 +1,257 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 쿼리를 한 번에 실행 (대시보드, 노트북처럼 서로 독립적인 쿼리 5~20개)
+ * 문장을 하나씩 보내지 않고 동시에 제출하므로 전체 응답 시간이 가장 느린 쿼리 하나 정도가 됩니다.
+ * 한 배치가 동시에 실행(또는 대기열에 넣는) 문장 수는 batch-concurrency와 사용자 대기열 한도 안으로 제한하고,
+ * 나머지는 앞선 문장이 끝나는 대로 이어서 제출합니다 - 웨어하우스 슬롯은 기존과 같이 admission 공정 큐가 나눕니다.
+ */
+@Service
+public class QueryBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBatchService.class);
+
+    @Autowired
+    private QueryService queryService;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public int getMaxStatements() {
+        return databricksConfig.getSql().getMaxBatchStatements();
+    }
+
+    /**
+     * 배치 요청 하나의 최대 시간 (databricks.sql.batch-timeout)
+     */
+    public long getTimeoutMillis() {
+        return databricksConfig.getSql().getBatchTimeoutMillis();
+    }
+
+    /**
+     * 배치 실행 시작
+     * @param statements 실행할 문장 (순서대로 index 0부터)
+     */
+    public BatchExecution submit(List<BatchStatement> statements, String userId, ResultDisposition disposition, boolean useCache) {
+        int window = Math.max(1, Math.min(databricksConfig.getSql().getBatchConcurrency(),
+            databricksConfig.getAdmission().getMaxQueuedPerUser()));
+        BatchExecution batch = new BatchExecution(UUID.randomUUID().toString(), statements, userId, disposition, useCache, window);
+        log.debug("Batch {} of {}: {} statements, {} at a time", batch.batchId, userId, statements.size(), window);
+        batch.start();
+        return batch;
+    }
+
+    /**
+     * 끝나는 순서대로 결과를 한 줄씩 NDJSON으로 씁니다. 마지막 줄은 요약(complete=true)입니다.
+     * 클라이언트 연결이 끊기면 남은 문장을 취소합니다.
+     */
+    public void stream(BatchExecution batch, OutputStream out) throws IOException {
+        try {
+            long deadline = System.currentTimeMillis() + getTimeoutMillis();
+            for (int written = 0; written < batch.statements.size(); written++) {
+                Map<String, Object> result = batch.completed.poll(Math.max(0, deadline - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    batch.cancel(); // 남은 문장은 취소 결과로 바로 이어서 나옴
+                    result = batch.completed.take();
+                }
+                writeLine(out, result);
+            }
+            writeLine(out, batch.summary());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.cancel();
+        } catch (IOException e) {
+            log.debug("Batch {} client disconnected, cancelling remaining statements", batch.batchId);
+            batch.cancel();
+            throw e;
+        }
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * 배치에 담긴 문장 하나
+     * @param id 화면에서 붙인 식별자 (예: 대시보드 위젯 ID, 없으면 null)
+     */
+    public record BatchStatement(String id, String sql) {
+    }
+
+    /**
+     * 실행 중인 배치
+     */
+    public final class BatchExecution {
+        private final String batchId;
+        private final List<BatchStatement> statements;
+        private final String userId;
+        private final ResultDisposition disposition;
+        private final boolean useCache;
+        private final int window;
+        private final long startTime = System.currentTimeMillis();
+        private final List<CompletableFuture<Map<String, Object>>> executions = new ArrayList<>();
+        private final List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+        private final BlockingQueue<Map<String, Object>> completed = new LinkedBlockingQueue<>();
+        private final CompletableFuture<List<Map<String, Object>>> all;
+        private int nextIndex;
+        private boolean cancelled;
+
+        BatchExecution(String batchId, List<BatchStatement> statements, String userId, ResultDisposition disposition,
+                       boolean useCache, int window) {
+            this.batchId = batchId;
+            this.statements = statements;
+            this.userId = userId;
+            this.disposition = disposition;
+            this.useCache = useCache;
+            this.window = window;
+            for (int i = 0; i < statements.size(); i++) {
+                CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+                result.thenAccept(value -> {
+                    completed.add(value);
+                    launchNext();
+                });
+                results.add(result);
+                executions.add(null);
+            }
+            all = CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(v -> results.stream().map(CompletableFuture::join).toList());
+        }
+
+        public String getBatchId() {
+            return batchId;
+        }
+
+        /**
+         * 모든 문장의 결과 (요청 순서대로)
+         */
+        public CompletableFuture<List<Map<String, Object>>> getAll() {
+            return all;
+        }
+
+        /**
+         * 실행 중인 문장은 Databricks statement까지 취소하고, 아직 제출하지 않은 문장은 취소 결과로 끝냅니다.
+         */
+        public void cancel() {
+            List<CompletableFuture<Map<String, Object>>> running = new ArrayList<>();
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                for (CompletableFuture<Map<String, Object>> execution : executions) {
+                    if (execution != null) {
+                        running.add(execution);
+                    }
+                }
+            }
+            running.forEach(execution -> execution.cancel(false));
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).complete(failure(i, "Batch was cancelled", true));
+            }
+        }
+
+        /**
+         * 전체 요약 (성공/실패 수, 전체 소요 시간)
+         */
+        public Map<String, Object> summary() {
+            int succeeded = 0;
+            for (CompletableFuture<Map<String, Object>> result : results) {
+                if (result.isDone() && Boolean.TRUE.equals(result.join().get("success"))) {
+                    succeeded++;
+                }
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("batchId", batchId);
+            summary.put("complete", true);
+            summary.put("success", succeeded == statements.size());
+            summary.put("statementCount", statements.size());
+            summary.put("succeeded", succeeded);
+            summary.put("failed", statements.size() - succeeded);
+            summary.put("executionTime", System.currentTimeMillis() - startTime);
+            return summary;
+        }
+
+        private void start() {
+            for (int i = 0; i < window; i++) {
+                launchNext();
+            }
+        }
+
+        private void launchNext() {
+            int index;
+            synchronized (this) {
+                if (cancelled || nextIndex >= statements.size()) {
+                    return;
+                }
+                index = nextIndex++;
+            }
+
+            BatchStatement statement = statements.get(index);
+            CompletableFuture<Map<String, Object>> execution;
+            try {
+                // 문장마다 queryId를 붙여 DELETE /statements/{batchId}-{index}로 하나만 취소할 수도 있음
+                execution = queryService.executeQueryAsync(statement.sql(), userId, disposition, useCache, batchId + "-" + index);
+            } catch (RuntimeException e) {
+                results.get(index).complete(failure(index, e.getMessage(), false));
+                return;
+            }
+            synchronized (this) {
+                executions.set(index, execution);
+            }
+            execution.whenComplete((result, e) -> {
+                if (e == null) {
+                    Map<String, Object> value = new LinkedHashMap<>();
+                    value.put("index", index);
+                    value.put("id", statement.id());
+                    value.put("queryId", batchId + "-" + index);
+                    value.putAll(result);
+                    results.get(index).complete(value);
+                } else {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    boolean cancelledExecution = cause instanceof CancellationException;
+                    results.get(index).complete(failure(index,
+                        cancelledExecution ? "Batch was cancelled" : cause.getMessage(), cancelledExecution));
+                }
+            });
+        }
+
+        private Map<String, Object> failure(int index, String error, boolean cancelled) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("index", index);
+            value.put("id", statements.get(index).id());
+            value.put("queryId", batchId + "-" + index);
+            value.put("success", false);
+            value.put("cancelled", cancelled);
+            value.put("error", error != null ? error : "Query failed");
+            value.put("rows", List.of());
+            value.put("columns", List.of());
+            value.put("rowCount", 0);
+            value.put("executionTime", 0L);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.query.QueryExecution;
+import com.lina.dataportal.repository.QueryExecutionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 쿼리 실행 이력 기록과 지문(fingerprint)별 응답 시간 통계
+ * 실행할 때마다 INSERT하지 않고 메모리 큐에 모아 두었다가 flush 주기마다 JDBC 배치 INSERT로 저장합니다.
+ * (id가 IDENTITY라 JPA saveAll은 행마다 INSERT를 따로 보내므로 JdbcTemplate을 사용)
+ */
+@Service
+public class QueryHistoryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryHistoryService.class);
+    
+    private static final int MAX_PENDING = 10000; // DB 장애로 쌓이는 이력 상한
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String TOTAL_TIME = "queue_time_ms + execution_time_ms + fetch_time_ms";
+    
+    @Autowired
+    private QueryExecutionRepository queryExecutionRepository;
+    
+    @Autowired
+    private DatabricksConfig databricksConfig;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final Queue<QueryExecution> pending = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * 실행 결과를 이력으로 기록합니다 (저장은 다음 flush에서).
+     * @param result QueryService 응답 맵 - success/cancelled/rejected, rowCount, 시간 정보를 읽습니다.
+     */
+    public void record(String userId, String warehouseId, String normalizedSql, Map<String, Object> result) {
+        if (!databricksConfig.getHistory().isEnabled() || result == null) {
+            return;
+        }
+        
+        QueryExecution execution = new QueryExecution();
+        execution.setUserId(userId);
+        execution.setWarehouseId(warehouseId);
+        execution.setSqlText(normalizedSql);
+        execution.setSqlHash(CredentialFingerprint.of(normalizedSql));
+        execution.setFingerprint(CredentialFingerprint.of(SqlNormalizer.fingerprint(normalizedSql)));
+        
+        String statementId = (String) result.get("statementId");
+        execution.setStatementId(statementId != null && !statementId.isEmpty() ? statementId : null);
+        execution.setStatus(statusOf(result));
+        if (!Boolean.TRUE.equals(result.get("success")) && result.get("error") != null) {
+            String error = String.valueOf(result.get("error"));
+            execution.setErrorMessage(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+        
+        boolean cacheHit = Boolean.TRUE.equals(result.get("cacheHit"));
+        execution.setCacheHit(cacheHit);
+        execution.setRowCount(toLong(result.getOrDefault("totalRowCount", result.get("rowCount"))));
+        execution.setResultBytes(resultBytes(result));
+        execution.setQueueTimeMs(toLong(result.get("queueWaitTime")));
+        if (!cacheHit) {
+            // executionTime은 첫 청크 다운로드(fetchTime)를 포함하므로 나눠서 기록
+            long fetchTime = toLong(result.get("fetchTime"));
+            execution.setExecutionTimeMs(Math.max(0, toLong(result.get("executionTime")) - fetchTime));
+            execution.setFetchTimeMs(fetchTime);
+        }
+        
+        if (pending.size() >= MAX_PENDING) {
+            pending.poll(); // 가장 오래된 이력부터 버림
+        }
+        pending.add(execution);
+    }
+    
+    @Scheduled(fixedDelayString = "${databricks.history.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        List<QueryExecution> batch = new ArrayList<>();
+        QueryExecution execution;
+        while ((execution = pending.poll()) != null) {
+            batch.add(execution);
+        }
+        
+        try {
+            // 배치 일부만 저장된 채 다시 시도하면 중복되므로 한 트랜잭션으로 저장
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> insert(batch));
+        } catch (Exception e) {
+            // 다음 주기에 다시 시도
+            pending.addAll(batch);
+            log.warn("Failed to flush {} query executions: {}", batch.size(), e.getMessage());
+        }
+    }
+    
+    private void insert(List<QueryExecution> executions) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO query_executions (user_id, warehouse_id, statement_id, sql_hash, fingerprint, sql_text, status, "
+                + "error_message, row_count, result_bytes, queue_time_ms, execution_time_ms, fetch_time_ms, cache_hit, executed_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            executions, databricksConfig.getHistory().getBatchSize(), (ps, execution) -> {
+                ps.setString(1, execution.getUserId());
+                ps.setString(2, execution.getWarehouseId());
+                ps.setString(3, execution.getStatementId());
+                ps.setString(4, execution.getSqlHash());
+                ps.setString(5, execution.getFingerprint());
+                ps.setString(6, execution.getSqlText());
+                ps.setString(7, execution.getStatus());
+                ps.setString(8, execution.getErrorMessage());
+                ps.setObject(9, execution.getRowCount(), Types.BIGINT);
+                ps.setObject(10, execution.getResultBytes(), Types.BIGINT);
+                ps.setLong(11, execution.getQueueTimeMs());
+                ps.setLong(12, execution.getExecutionTimeMs());
+                ps.setLong(13, execution.getFetchTimeMs());
+                ps.setBoolean(14, execution.getCacheHit());
+                ps.setTimestamp(15, Timestamp.valueOf(execution.getExecutedAt()));
+            });
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    /**
+     * 보관 기간이 지난 이력 삭제 (매일 새벽 4시)
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(databricksConfig.getHistory().getRetentionMillis()));
+        int deleted = queryExecutionRepository.deleteExecutedBefore(before);
+        if (deleted > 0) {
+            log.info("Purged {} query executions older than {}", deleted, before);
+        }
+    }
+    
+    /**
+     * 사용자의 최근 실행 이력
+     */
+    public List<Map<String, Object>> getHistory(String userId, int limit) {
+        List<Map<String, Object>> history = new ArrayList<>();
+        for (QueryExecution execution : queryExecutionRepository.findByUserIdOrderByExecutedAtDesc(userId, PageRequest.of(0, limit))) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", execution.getId());
+            item.put("statementId", execution.getStatementId() != null ? execution.getStatementId() : "");
+            item.put("warehouseId", execution.getWarehouseId() != null ? execution.getWarehouseId() : "");
+            item.put("sql", execution.getSqlText());
+            item.put("sqlHash", execution.getSqlHash());
+            item.put("fingerprint", execution.getFingerprint());
+            item.put("status", execution.getStatus());
+            item.put("error", execution.getErrorMessage() != null ? execution.getErrorMessage() : "");
+            item.put("rowCount", execution.getRowCount() != null ? execution.getRowCount() : 0L);
+            item.put("resultBytes", execution.getResultBytes() != null ? execution.getResultBytes() : 0L);
+            item.put("queueTime", execution.getQueueTimeMs());
+            item.put("executionTime", execution.getExecutionTimeMs());
+            item.put("fetchTime", execution.getFetchTimeMs());
+            item.put("totalTime", execution.getTotalTimeMs());
+            item.put("cacheHit", execution.getCacheHit());
+            item.put("executedAt", execution.getExecutedAt());
+            history.add(item);
+        }
+        return history;
+    }
+    
+    /**
+     * 지문별 응답 시간 분위수 (성공한 실행만)
+     * 집계와 분위수(PERCENTILE_DISC = nearest-rank)는 DB에서 계산하고, 지문별 최근 SQL은 한 번의 조회로 가져옵니다.
+     * 전체 소요 시간(호출 수 × 평균)이 큰 지문부터 반환합니다.
+     */
+    public List<Map<String, Object>> getLatencyStats(int days, int limit) {
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        
+        List<Map<String, Object>> stats = jdbcTemplate.query(
+            "SELECT fingerprint, COUNT(*) AS cnt, SUM(" + TOTAL_TIME + ") AS total_time, MAX(" + TOTAL_TIME + ") AS max_time, "
+                + "PERCENTILE_DISC(0.5) WITHIN GROUP (ORDER BY " + TOTAL_TIME + ") AS p50, "
+                + "PERCENTILE_DISC(0.95) WITHIN GROUP (ORDER BY " + TOTAL_TIME + ") AS p95, "
+                + "PERCENTILE_DISC(0.99) WITHIN GROUP (ORDER BY " + TOTAL_TIME + ") AS p99, "
+                + "PERCENTILE_DISC(0.95) WITHIN GROUP (ORDER BY execution_time_ms) AS execution_p95, "
+                + "SUM(CASE WHEN cache_hit THEN 1 ELSE 0 END) AS cache_hits, SUM(COALESCE(row_count, 0)) AS row_sum "
+                + "FROM query_executions WHERE executed_at >= ? AND status = 'SUCCEEDED' "
+                + "GROUP BY fingerprint ORDER BY total_time DESC LIMIT ?",
+            (rs, rowNum) -> {
+                long count = rs.getLong("cnt");
+                Map<String, Object> stat = new HashMap<>();
+                stat.put("fingerprint", rs.getString("fingerprint"));
+                stat.put("count", (int) count);
+                stat.put("p50", rs.getLong("p50"));
+                stat.put("p95", rs.getLong("p95"));
+                stat.put("p99", rs.getLong("p99"));
+                stat.put("max", rs.getLong("max_time"));
+                stat.put("executionP95", rs.getLong("execution_p95"));
+                stat.put("totalTime", rs.getLong("total_time"));
+                stat.put("cacheHitRate", (double) rs.getLong("cache_hits") / count);
+                stat.put("avgRowCount", rs.getLong("row_sum") / count);
+                return stat;
+            },
+            Timestamp.valueOf(since), limit);
+        if (stats.isEmpty()) {
+            return stats;
+        }
+        
+        List<Object> fingerprints = new ArrayList<>();
+        for (Map<String, Object> stat : stats) {
+            fingerprints.add(stat.get("fingerprint"));
+        }
+        Map<String, Object[]> latest = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT qe.fingerprint, qe.sql_text, qe.executed_at FROM query_executions qe "
+                + "JOIN (SELECT fingerprint, MAX(executed_at) AS executed_at FROM query_executions "
+                + "WHERE fingerprint IN (" + String.join(", ", Collections.nCopies(fingerprints.size(), "?")) + ") "
+                + "GROUP BY fingerprint) latest ON latest.fingerprint = qe.fingerprint AND latest.executed_at = qe.executed_at",
+            rs -> {
+                Timestamp executedAt = rs.getTimestamp("executed_at");
+                latest.putIfAbsent(rs.getString("fingerprint"),
+                    new Object[] { rs.getString("sql_text"), executedAt != null ? executedAt.toLocalDateTime() : null });
+            },
+            fingerprints.toArray());
+        
+        for (Map<String, Object> stat : stats) {
+            Object[] sample = latest.get((String) stat.get("fingerprint"));
+            stat.put("sampleSql", sample != null && sample[0] != null ? sample[0] : "");
+            stat.put("lastExecutedAt", sample != null ? sample[1] : null);
+        }
+        return stats;
+    }
+    
+    private static String statusOf(Map<String, Object> result) {
+        if (Boolean.TRUE.equals(result.get("success"))) {
+            return "SUCCEEDED";
+        }
+        if (Boolean.TRUE.equals(result.get("cancelled"))) {
+            return "CANCELLED";
+        }
+        if (Boolean.TRUE.equals(result.get("rejected"))) {
+            return "REJECTED";
+        }
+        return "FAILED";
+    }
+    
+    private static Long resultBytes(Map<String, Object> result) {
+        long totalByteCount = toLong(result.get("totalByteCount"));
+        if (totalByteCount > 0) {
+            return totalByteCount;
+        }
+        // INLINE 결과는 Databricks가 크기를 알려주지 않으므로 첫 청크 크기로 추정
+        Object rows = result.get("rows");
+        return rows instanceof ColumnarBatch ? ((ColumnarBatch) rows).estimatedBytes() : 0L;
+    }
+    
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
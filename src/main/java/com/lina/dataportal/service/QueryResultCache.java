@@ -0,0 +1,265 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 쿼리 결과 캐시
+ * 정규화한 SQL + 실제 사용한 자격 증명 + 웨어하우스를 키로 성공한 결과를 보관합니다.
+ * 크기는 결과의 추정 바이트로 계산하고, 상한을 넘으면 가장 오래 사용되지 않은 결과부터 버립니다.
+ * 테이블별 역인덱스로 특정 테이블을 참조하는 결과만 무효화할 수 있습니다.
+ */
+@Service
+public class QueryResultCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 512; // 결과 맵, 키, 인덱스 항목
+
+    // 요청마다 다른 실행 정보 - 캐시에는 보관하지 않음
+    private static final List<String> EXECUTION_FIELDS = List.of(
+        "statementId", "executionTime", "fetchTime", "queuePosition", "queueWaitTime", "coalesced", "cacheHit");
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    // 접근 순서 기준 LRU
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> keysByTable = new HashMap<>();
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    public void scheduleCleanup() {
+        long interval = Math.max(1000, databricksConfig.getCache().getTtlMillis() / 2);
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return databricksConfig.getCache().isEnabled();
+    }
+
+    /**
+     * 캐시 키 - 토큰 원문을 보관하지 않도록 SHA-256으로 해시합니다.
+     */
+    public String key(String workspaceUrl, String accessToken, String warehouseId, String normalizedSql) {
+        return CredentialFingerprint.of(workspaceUrl, accessToken, warehouseId, normalizedSql);
+    }
+
+    /**
+     * 캐시 조회 - 만료되지 않은 결과가 있으면 cached=true를 붙인 복사본을 반환합니다.
+     * 이번 요청은 실행하지 않았으므로 executionTime은 0이고, statementId는 비어 있습니다.
+     */
+    public Map<String, Object> get(String key) {
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+                removeEntry(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        Map<String, Object> result = new HashMap<>(entry.result);
+        result.put("statementId", "");
+        result.put("executionTime", 0L);
+        result.put("cached", true);
+        result.put("cacheHit", true);
+        result.put("cachedAt", entry.createdAt);
+        return result;
+    }
+
+    /**
+     * 캐시 가능한 결과만 저장합니다.
+     * 읽기 전용이고 결정적인 쿼리, 성공, 단일 청크(다음 청크는 원본 statement가 필요함), 항목 크기 상한 이내.
+     */
+    public void put(String key, String normalizedSql, Map<String, Object> result) {
+        DatabricksConfig.Cache config = databricksConfig.getCache();
+        if (!config.isEnabled()
+            || !Boolean.TRUE.equals(result.get("success"))
+            || Boolean.TRUE.equals(result.get("hasNextChunk"))
+            || !SqlNormalizer.isReadOnly(normalizedSql)
+            || !SqlNormalizer.isDeterministic(normalizedSql)) {
+            return;
+        }
+
+        Object rows = result.get("rows");
+        long bytes = ENTRY_OVERHEAD_BYTES + normalizedSql.length() * 2L
+            + (rows instanceof ColumnarBatch batch ? batch.estimatedBytes() : 0);
+        if (bytes > config.getMaxEntryBytes()) {
+            return;
+        }
+
+        // 실행할 때의 값은 빼고 결과만 보관 - 원래 statement는 Databricks에서 결과가 만료되면 다시 조회할 수 없음
+        Map<String, Object> stored = new HashMap<>(result);
+        for (String field : EXECUTION_FIELDS) {
+            stored.remove(field);
+        }
+        long now = System.currentTimeMillis();
+        CacheEntry entry = new CacheEntry(stored, SqlNormalizer.referencedTables(normalizedSql), bytes,
+            now, now + config.getTtlMillis());
+
+        synchronized (entries) {
+            removeEntry(key);
+            entries.put(key, entry);
+            totalBytes += bytes;
+            for (String table : entry.tables) {
+                keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+            }
+
+            Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+            while (totalBytes > config.getMaxBytes() && eldest.hasNext()) {
+                Map.Entry<String, CacheEntry> victim = eldest.next();
+                eldest.remove();
+                unindex(victim.getKey(), victim.getValue());
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * 테이블을 참조하는 결과 무효화
+     * 이름 일부만 맞아도 무효화합니다. 예: "customers"는 "main.insurance.customers"를 참조한 결과도 지웁니다.
+     */
+    public int invalidateTable(String tableName) {
+        String target = tableName.replace("`", "").toLowerCase();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Set<String>>> iterator = keysByTable.entrySet().iterator();
+            Set<String> keys = new HashSet<>();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Set<String>> indexed = iterator.next();
+                if (sameTable(indexed.getKey(), target)) {
+                    keys.addAll(indexed.getValue());
+                }
+            }
+            for (String key : keys) {
+                if (removeEntry(key)) {
+                    removed++;
+                }
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    public int invalidateTables(Set<String> tableNames) {
+        int removed = 0;
+        for (String tableName : tableNames) {
+            removed += invalidateTable(tableName);
+        }
+        return removed;
+    }
+
+    public int invalidateAll() {
+        int removed;
+        synchronized (entries) {
+            removed = entries.size();
+            entries.clear();
+            keysByTable.clear();
+            totalBytes = 0;
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalBytes);
+            stats.put("tables", keysByTable.size());
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("enabled", isEnabled());
+        stats.put("maxBytes", databricksConfig.getCache().getMaxBytes());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private static boolean sameTable(String indexed, String target) {
+        return indexed.equals(target) || indexed.endsWith("." + target) || target.endsWith("." + indexed);
+    }
+
+    // entries 락 안에서 호출
+    private boolean removeEntry(String key) {
+        CacheEntry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unindex(key, entry);
+        return true;
+    }
+
+    private void unindex(String key, CacheEntry entry) {
+        totalBytes -= entry.bytes;
+        for (String table : entry.tables) {
+            Set<String> keys = keysByTable.get(table);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByTable.remove(table);
+                }
+            }
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CacheEntry> entry = iterator.next();
+                if (entry.getValue().expiresAt <= now) {
+                    iterator.remove();
+                    unindex(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+        private final Map<String, Object> result;
+        private final Set<String> tables;
+        private final long bytes;
+        private final long createdAt;
+        private final long expiresAt;
+
+        CacheEntry(Map<String, Object> result, Set<String> tables, long bytes, long createdAt, long expiresAt) {
+            this.result = result;
+            this.tables = tables;
+            this.bytes = bytes;
+            this.createdAt = createdAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
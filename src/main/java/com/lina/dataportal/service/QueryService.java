@@ -1,11 +1,25 @@
 package com.lina.dataportal.service;
 
 import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksHttpClients;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import com.lina.dataportal.domain.databricks.StatementCursor;
+import com.lina.dataportal.domain.query.SavedQuery;
 import com.lina.dataportal.domain.user.UserToken;
+import com.lina.dataportal.repository.SavedQueryRepository;
+import com.lina.dataportal.service.InFlightQueryRegistry.Subscription;
+import com.lina.dataportal.service.QueryAdmissionService.Ticket;
+import com.lina.dataportal.service.RunningQueryRegistry.RunningQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class QueryService {
@@ -18,12 +32,55 @@ public class QueryService {
     
     @Autowired
     private DatabricksConfig databricksConfig;
+    
+    @Autowired
+    private ChunkPrefetchService chunkPrefetchService;
+    
+    @Autowired
+    private QueryResultCache queryResultCache;
+    
+    @Autowired
+    private StatementCursorRegistry statementCursorRegistry;
+    
+    @Autowired
+    private DatabricksHttpClients databricksHttpClients;
+    
+    @Autowired
+    private RunningQueryRegistry runningQueryRegistry;
+    
+    @Autowired
+    private SchemaCrawlService schemaCrawlService;
+    
+    @Autowired
+    private QueryAdmissionService queryAdmissionService;
+    
+    @Autowired
+    private QueryHistoryService queryHistoryService;
+    
+    @Autowired
+    private SavedQueryRepository savedQueryRepository;
+    
+    @Autowired
+    private TableMetadataService tableMetadataService;
+    
+    @Autowired
+    private DatabricksResilienceService databricksResilienceService;
+    
+    @Autowired
+    private InFlightQueryRegistry inFlightQueryRegistry;
 
     public List<Map<String, Object>> getSchemaInfo() {
         return getSchemaInfo("current_user"); // Default user for now
     }
     
     public List<Map<String, Object>> getSchemaInfo(String userId) {
+        return getSchemaInfo(userId, false);
+    }
+    
+    /**
+     * @param refresh true면 캐시된 스키마 트리를 무시하고 다시 크롤합니다.
+     */
+    public List<Map<String, Object>> getSchemaInfo(String userId, boolean refresh) {
         Optional<UserToken> tokenOpt = userTokenService.getDatabricksToken(userId);
         
         String workspaceUrl;
@@ -48,49 +105,7 @@ public class QueryService {
         }
         
         try {
-            // Get catalogs from Databricks
-            Map<String, Object> catalogsResult = databricksApiClient.listCatalogs(workspaceUrl, accessToken);
-            
-            if ((Boolean) catalogsResult.get("success")) {
-                List<Map<String, Object>> catalogs = (List<Map<String, Object>>) catalogsResult.get("catalogs");
-                List<Map<String, Object>> schemas = new ArrayList<>();
-                
-                // For each catalog, get schemas
-                for (Map<String, Object> catalog : catalogs) {
-                    String catalogName = (String) catalog.get("name");
-                    Map<String, Object> schemasResult = databricksApiClient.listSchemas(
-                        workspaceUrl, accessToken, catalogName);
-                    
-                    if ((Boolean) schemasResult.get("success")) {
-                        List<Map<String, Object>> catalogSchemas = (List<Map<String, Object>>) schemasResult.get("schemas");
-                        
-                        for (Map<String, Object> schema : catalogSchemas) {
-                            String schemaName = (String) schema.get("name");
-                            
-                            // Get tables for this schema
-                            Map<String, Object> tablesResult = databricksApiClient.listTables(
-                                workspaceUrl, accessToken, catalogName, schemaName);
-                            
-                            if ((Boolean) tablesResult.get("success")) {
-                                List<Map<String, Object>> tables = (List<Map<String, Object>>) tablesResult.get("tables");
-                                
-                                Map<String, Object> schemaInfo = new HashMap<>();
-                                schemaInfo.put("name", catalogName + "." + schemaName);
-                                schemaInfo.put("catalog", catalogName);
-                                schemaInfo.put("schema", schemaName);
-                                schemaInfo.put("tables", tables.stream().map(table -> 
-                                    createTableFromDatabricks(table)).toList());
-                                
-                                schemas.add(schemaInfo);
-                            }
-                        }
-                    }
-                }
-                
-                return schemas;
-            } else {
-                return getFallbackSchemaInfo();
-            }
+            return schemaCrawlService.getSchemaTree(workspaceUrl, accessToken, refresh);
         } catch (Exception e) {
             // Log error and return fallback data
             System.err.println("Error fetching schema info from Databricks: " + e.getMessage());
@@ -140,19 +155,35 @@ public class QueryService {
     }
     
     public List<Map<String, Object>> getTableColumns(String tableName, String userId) {
-        // 먼저 실제 Databricks에서 컬럼 정보 가져오기 시도
+        // Unity Catalog 테이블 API (캐시) - 웨어하우스를 깨우지 않음
+        String[] credentials = resolveCredentials(userId);
+        if (credentials != null) {
+            try {
+                List<Map<String, Object>> columns = tableMetadataService.getColumns(credentials[0], credentials[1], tableName);
+                if (columns != null) {
+                    return columns;
+                }
+            } catch (Exception e) {
+                System.err.println("Error fetching table columns from Unity Catalog: " + e.getMessage());
+            }
+        }
+        
+        // Unity Catalog에서 찾지 못한 테이블(이름을 특정할 수 없는 경우 등)은 DESCRIBE TABLE로 조회
         try {
             String describeQuery = "DESCRIBE TABLE " + tableName;
             Map<String, Object> result = executeQuery(describeQuery, userId);
             
             if ((Boolean) result.get("success")) {
-                List<Map<String, Object>> queryResults = (List<Map<String, Object>>) result.get("results");
+                ColumnarBatch rows = (ColumnarBatch) result.get("rows");
+                int nameIndex = rows.getColumnIndex("col_name");
+                int typeIndex = rows.getColumnIndex("data_type");
+                int commentIndex = rows.getColumnIndex("comment");
                 List<Map<String, Object>> columns = new ArrayList<>();
                 
-                for (Map<String, Object> row : queryResults) {
-                    String colName = (String) row.get("col_name");
-                    String dataType = (String) row.get("data_type");
-                    String comment = (String) row.getOrDefault("comment", "");
+                for (int row = 0; row < rows.getRowCount(); row++) {
+                    String colName = nameIndex >= 0 ? (String) rows.getValue(row, nameIndex) : null;
+                    String dataType = typeIndex >= 0 ? (String) rows.getValue(row, typeIndex) : null;
+                    String comment = commentIndex >= 0 ? (String) rows.getValue(row, commentIndex) : "";
                     
                     // 빈 행이나 파티션 정보는 제외
                     if (colName != null && !colName.trim().isEmpty() && 
@@ -180,6 +211,42 @@ public class QueryService {
         return getFallbackTableColumns(tableName);
     }
     
+    /**
+     * 여러 테이블의 컬럼 목록을 한 번에 조회 (스키마 트리 펼치기용)
+     * Unity Catalog 테이블 API만 사용하며, 찾지 못한 테이블은 errors에 담습니다.
+     */
+    public Map<String, Object> getTableColumns(List<String> tableNames, String userId) {
+        String[] credentials = resolveCredentials(userId);
+        if (credentials == null) {
+            Map<String, Object> tables = new LinkedHashMap<>();
+            tableNames.forEach(tableName -> tables.put(tableName, getFallbackTableColumns(tableName)));
+            return Map.of("success", true, "tables", tables, "errors", Map.of());
+        }
+        
+        Map<String, Object> result = new HashMap<>(tableMetadataService.getColumns(credentials[0], credentials[1], tableNames));
+        result.put("success", true);
+        return result;
+    }
+    
+    public int getMaxBatchTables() {
+        return databricksConfig.getColumns().getMaxBatchTables();
+    }
+    
+    /**
+     * @return {workspaceUrl, accessToken}, 설정이 없으면 null
+     */
+    private String[] resolveCredentials(String userId) {
+        Optional<UserToken> tokenOpt = userTokenService.getDatabricksToken(userId);
+        if (tokenOpt.isPresent()) {
+            UserToken token = tokenOpt.get();
+            userTokenService.updateLastUsed(token.getId());
+            return new String[] { token.getWorkspaceUrl(), userTokenService.decryptToken(token) };
+        }
+        String workspaceUrl = databricksConfig.getDefault().getWorkspaceUrl();
+        String accessToken = databricksConfig.getDefault().getAccessToken();
+        return workspaceUrl != null && accessToken != null ? new String[] { workspaceUrl, accessToken } : null;
+    }
+    
     private List<Map<String, Object>> getFallbackTableColumns(String tableName) {
         Map<String, List<Map<String, Object>>> tableColumns = new HashMap<>();
         
@@ -227,6 +294,54 @@ public class QueryService {
     }
     
     public Map<String, Object> executeQuery(String sql, String userId) {
+        return executeQueryAsync(sql, userId).join();
+    }
+    
+    /**
+     * 비동기 쿼리 실행 - Databricks 폴링 동안 요청 스레드를 반환합니다.
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String sql, String userId) {
+        return executeQueryAsync(sql, userId, null);
+    }
+    
+    /**
+     * @param disposition 결과 전달 방식 (null이면 databricks.sql.disposition 설정값)
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String sql, String userId, ResultDisposition disposition) {
+        return executeQueryAsync(sql, userId, disposition, true);
+    }
+    
+    /**
+     * @param useCache false면 캐시를 조회하지 않고 실행한 뒤 결과로 캐시를 갱신합니다.
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String sql, String userId, ResultDisposition disposition,
+                                                                   boolean useCache) {
+        return executeQueryAsync(sql, userId, disposition, useCache, null);
+    }
+    
+    /**
+     * 반환한 future를 cancel하면 Databricks statement도 취소됩니다 (예: 클라이언트 연결 종료).
+     * @param queryId 화면에서 만든 실행 ID - 실행 중에 cancelStatement(queryId)로 취소할 수 있습니다 (없으면 null).
+     */
+    public CompletableFuture<Map<String, Object>> executeQueryAsync(String sql, String userId, ResultDisposition disposition,
+                                                                   boolean useCache, String queryId) {
+        // 웨어하우스로 보내기 전에 문장 종류 확인, 결과 행 수 제한(LIMIT) 적용
+        SqlValidator.Result validation = SqlValidator.validate(sql,
+            databricksConfig.getSql().getMaxRows(), databricksConfig.getSql().isReadOnly());
+        if (!validation.isValid()) {
+            return CompletableFuture.completedFuture(Map.of(
+                "success", false,
+                "validationFailed", true,
+                "error", String.join(" ", validation.getErrors()),
+                "diagnostics", validation.getDiagnostics(),
+                "rows", new ArrayList<>(),
+                "columns", new ArrayList<>(),
+                "rowCount", 0,
+                "executionTime", 0L
+            ));
+        }
+        String statementSql = validation.getSql();
+        
         // 사용자 토큰 확인
         Optional<UserToken> tokenOpt = userTokenService.getDatabricksToken(userId);
         
@@ -250,48 +365,405 @@ public class QueryService {
             warehouseId = databricksConfig.getDefault().getWarehouseId();
             
             if (workspaceUrl == null || accessToken == null) {
-                return Map.of(
+                return CompletableFuture.completedFuture(Map.of(
                     "success", false,
                     "error", "No Databricks workspace URL or access token found. Please configure your settings.",
-                    "results", new ArrayList<>(),
+                    "rows", new ArrayList<>(),
                     "columns", new ArrayList<>(),
                     "rowCount", 0,
                     "executionTime", 0L
-                );
+                ));
             }
             
             if (warehouseId == null || warehouseId.isEmpty()) {
-                return Map.of(
+                return CompletableFuture.completedFuture(Map.of(
                     "success", false,
                     "error", "No Databricks warehouse ID configured. Please set DATABRICKS_WAREHOUSE_ID environment variable or find your SQL Warehouse ID in Databricks console.",
-                    "results", new ArrayList<>(),
+                    "rows", new ArrayList<>(),
                     "columns", new ArrayList<>(),
                     "rowCount", 0,
                     "executionTime", 0L
-                );
+                ));
             }
         }
         
-        try {
-            Map<String, Object> result = databricksApiClient.executeQuery(
-                workspaceUrl, 
-                accessToken, 
-                warehouseId, 
-                sql
-            );
-            
-            return result;
-            
-        } catch (Exception e) {
-            return Map.of(
+        ResultDisposition resolvedDisposition = disposition != null 
+            ? disposition 
+            : ResultDisposition.from(databricksConfig.getSql().getDisposition());
+        
+        // 장애로 차단된 워크스페이스인지 먼저 확인 (캐시된 결과를 돌려줄 때도 함께 알림)
+        long unavailableFor = databricksResilienceService.unavailableFor(workspaceUrl);
+        
+        // 같은 자격 증명/웨어하우스로 실행한 같은 쿼리면 캐시된 결과 반환
+        String normalizedSql = SqlNormalizer.normalize(statementSql);
+        String cacheKey = queryResultCache.key(workspaceUrl, accessToken, warehouseId, normalizedSql);
+        if (useCache && queryResultCache.isEnabled()) {
+            Map<String, Object> cached = queryResultCache.get(cacheKey);
+            if (cached != null) {
+                if (unavailableFor > 0) {
+                    cached.put("workspaceUnavailable", true);
+                    cached.put("retryAfter", unavailableFor);
+                }
+                queryHistoryService.record(userId, warehouseId, normalizedSql, cached);
+                return withDiagnostics(CompletableFuture.completedFuture(cached), validation);
+            }
+        }
+        
+        // 장애로 차단된 워크스페이스면 대기열에 넣지 않고 바로 실패
+        if (unavailableFor > 0) {
+            return CompletableFuture.completedFuture(Map.of(
                 "success", false,
-                "error", "Query execution failed: " + e.getMessage(),
-                "results", new ArrayList<>(),
+                "workspaceUnavailable", true,
+                "error", "Databricks workspace is temporarily unavailable. Please retry in " + ((unavailableFor + 999) / 1000) + "s.",
+                "retryAfter", unavailableFor,
+                "rows", new ArrayList<>(),
                 "columns", new ArrayList<>(),
                 "rowCount", 0,
                 "executionTime", 0L
-            );
+            ));
+        }
+        
+        // 같은 쿼리가 이미 실행 중이면 statement를 새로 만들지 않고 그 결과를 함께 받음 (single-flight)
+        if (useCache && databricksConfig.getCache().isCoalesce() && SqlNormalizer.isReadOnly(normalizedSql)) {
+            return withDiagnostics(joinInFlight(workspaceUrl, accessToken, warehouseId, statementSql, normalizedSql,
+                cacheKey, resolvedDisposition, userId, queryId), validation);
+        }
+        
+        RunningQuery running = runningQueryRegistry.register(userId, queryId);
+        CompletableFuture<Map<String, Object>> response = runStatement(workspaceUrl, accessToken, warehouseId, statementSql,
+            normalizedSql, cacheKey, resolvedDisposition, userId, running);
+        recordHistory(response, userId, warehouseId, normalizedSql, running);
+        return withDiagnostics(response, validation);
+    }
+    
+    /**
+     * 검사 경고(LIMIT 추가/조정, 카테시안 조인 등)를 응답에 붙입니다.
+     * 반환한 future를 cancel하면 원래 실행도 취소됩니다.
+     */
+    private static CompletableFuture<Map<String, Object>> withDiagnostics(CompletableFuture<Map<String, Object>> response,
+                                                                        SqlValidator.Result validation) {
+        if (validation.getDiagnostics().isEmpty()) {
+            return response;
+        }
+        CompletableFuture<Map<String, Object>> decorated = response.thenApply(result -> {
+            Map<String, Object> copy = new HashMap<>(result);
+            copy.put("warnings", validation.getWarnings());
+            copy.put("diagnostics", validation.getDiagnostics());
+            if (validation.getAppliedLimit() != null) {
+                copy.put("appliedLimit", validation.getAppliedLimit());
+            }
+            return copy;
+        });
+        decorated.whenComplete((result, e) -> {
+            if (decorated.isCancelled()) {
+                response.cancel(false);
+            }
+        });
+        return decorated;
+    }
+    
+    /**
+     * 실행 중인 같은 쿼리에 붙거나, 없으면 새로 실행해 다른 요청이 붙을 수 있게 합니다.
+     * 공유하는 것은 statement와 결과뿐이고, 응답 맵/커서 권한/이력은 호출자마다 따로 처리합니다.
+     * 한 호출자가 취소하면 그 호출자만 빠지고, 모두 취소해야 statement가 취소됩니다.
+     */
+    private CompletableFuture<Map<String, Object>> joinInFlight(String workspaceUrl, String accessToken, String warehouseId,
+                                                              String sql, String normalizedSql, String cacheKey,
+                                                              ResultDisposition disposition, String userId, String queryId) {
+        RunningQuery running = runningQueryRegistry.register(userId, queryId);
+        RunningQuery execution = runningQueryRegistry.registerShared(userId);
+        Subscription subscription = inFlightQueryRegistry.subscribe(cacheKey, execution, () ->
+            runStatement(workspaceUrl, accessToken, warehouseId, sql, normalizedSql, cacheKey, disposition, userId, execution));
+        
+        CompletableFuture<Map<String, Object>> shared = subscription.getResult();
+        running.attach(shared);
+        if (!subscription.isLeader()) {
+            running.setState("COALESCED"); // 다른 요청이 만든 statement의 결과를 기다리는 중
+        }
+        // statementId로 취소해도 이 요청의 구독만 해제됨 (첫 요청은 실행 상태를 그대로 표시)
+        runningQueryRegistry.follow(running, subscription.getSharedQuery(), subscription.isLeader());
+        
+        CompletableFuture<Map<String, Object>> response = shared
+            .whenComplete((result, e) -> runningQueryRegistry.remove(running))
+            .thenApply(result -> {
+                // 공유 결과는 그대로 두고 호출자별 값은 복사본에 기록
+                Map<String, Object> copy = new HashMap<>(result);
+                copy.put("coalesced", !subscription.isLeader());
+                String statementId = (String) result.get("statementId");
+                if (!subscription.isLeader() && Boolean.TRUE.equals(result.get("hasNextChunk")) && statementId != null) {
+                    // 같은 자격 증명으로 실행한 결과이므로 붙은 사용자도 다음 청크를 조회할 수 있게 함
+                    statementCursorRegistry.share(statementId, userId, workspaceUrl);
+                }
+                return copy;
+            })
+            .exceptionally(e -> {
+                // runStatement는 실패를 결과 맵으로 돌려주므로, 여기로 오는 것은 취소와 실행 시작 전 예외뿐
+                if (isCancellation(e)) {
+                    return Map.of(
+                        "success", false,
+                        "cancelled", true,
+                        "error", "Query was cancelled",
+                        "rows", new ArrayList<>(),
+                        "columns", new ArrayList<>(),
+                        "rowCount", 0,
+                        "executionTime", 0L
+                    );
+                }
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof RejectedExecutionException) {
+                    return Map.of(
+                        "success", false,
+                        "rejected", true,
+                        "error", String.valueOf(cause.getMessage()),
+                        "rows", new ArrayList<>(),
+                        "columns", new ArrayList<>(),
+                        "rowCount", 0,
+                        "executionTime", 0L
+                    );
+                }
+                return Map.of(
+                    "success", false,
+                    "error", "Query execution failed: " + cause.getMessage(),
+                    "rows", new ArrayList<>(),
+                    "columns", new ArrayList<>(),
+                    "rowCount", 0,
+                    "executionTime", 0L
+                );
+            });
+        
+        response.whenComplete((result, e) -> {
+            if (response.isCancelled()) {
+                shared.cancel(false);
+            }
+        });
+        recordHistory(response, userId, warehouseId, normalizedSql, running);
+        return response;
+    }
+    
+    /**
+     * 대기열에서 차례를 기다린 뒤 statement를 실행하고, 결과로 커서/캐시를 처리합니다.
+     * 반환한 future를 cancel하면 대기열 자리와 Databricks statement도 취소됩니다.
+     */
+    private CompletableFuture<Map<String, Object>> runStatement(String workspaceUrl, String accessToken, String warehouseId,
+                                                              String sql, String normalizedSql, String cacheKey,
+                                                              ResultDisposition disposition, String userId,
+                                                              RunningQuery running) {
+        // 웨어하우스 동시 실행 수를 넘으면 대기열에서 차례를 기다린 뒤 statement 생성
+        Ticket ticket = queryAdmissionService.enqueue(workspaceUrl, warehouseId, userId);
+        running.setAdmission(ticket);
+        
+        CompletableFuture<Map<String, Object>> execution = new CompletableFuture<>();
+        ticket.getAdmitted().whenComplete((admitted, e) -> {
+            if (e != null) {
+                execution.completeExceptionally(e);
+                return;
+            }
+            if (execution.isDone()) {
+                ticket.release(); // 차례가 오기 직전에 취소됨
+                return;
+            }
+            running.setState("SUBMITTED");
+            CompletableFuture<Map<String, Object>> statement = databricksApiClient.executeQueryAsync(
+                workspaceUrl, accessToken, warehouseId, sql, disposition,
+                statementId -> runningQueryRegistry.bindStatement(running, statementId), running::setState);
+            statement.whenComplete((result, statementError) -> {
+                ticket.release();
+                if (statementError != null) {
+                    execution.completeExceptionally(statementError);
+                } else {
+                    execution.complete(result);
+                }
+            });
+            execution.whenComplete((result, cancelled) -> {
+                if (execution.isCancelled()) {
+                    statement.cancel(false);
+                }
+            });
+        });
+        execution.whenComplete((result, e) -> {
+            if (execution.isCancelled()) {
+                ticket.cancel();
+            }
+        });
+        running.attach(execution);
+        
+        CompletableFuture<Map<String, Object>> response = execution
+            .whenComplete((result, e) -> runningQueryRegistry.remove(running))
+            .thenApply(result -> {
+                // 다음 청크가 있으면 커서를 남기고 미리 가져오기 시작
+                String statementId = (String) result.get("statementId");
+                if (Boolean.TRUE.equals(result.get("hasNextChunk")) && statementId != null && !statementId.isEmpty()) {
+                    StatementCursor cursor = statementCursorRegistry.register(statementId, userId, workspaceUrl,
+                        ((ColumnarBatch) result.get("rows")).getColumns(), (Integer) result.get("totalChunks"));
+                    chunkPrefetchService.register(cursor, accessToken);
+                }
+                
+                if (Boolean.TRUE.equals(result.get("success"))) {
+                    if (SqlNormalizer.isReadOnly(normalizedSql)) {
+                        queryResultCache.put(cacheKey, normalizedSql, result);
+                    } else {
+                        // 포털에서 실행한 변경 쿼리는 대상 테이블의 캐시를 무효화
+                        Set<String> tables = SqlNormalizer.referencedTables(normalizedSql);
+                        queryResultCache.invalidateTables(tables);
+                        tableMetadataService.invalidate(tables);
+                    }
+                }
+                
+                Map<String, Object> copy = new HashMap<>(result);
+                copy.put("cacheHit", false);
+                copy.put("queuePosition", ticket.getQueuePosition());
+                copy.put("queueWaitTime", ticket.getWaitMillis());
+                return copy;
+            })
+            .exceptionally(e -> {
+                if (isCancellation(e)) {
+                    return Map.of(
+                        "success", false,
+                        "cancelled", true,
+                        "error", "Query was cancelled",
+                        "rows", new ArrayList<>(),
+                        "columns", new ArrayList<>(),
+                        "rowCount", 0,
+                        "executionTime", 0L
+                    );
+                }
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    // 대기열이 가득 찼거나 대기 시간 초과 - statement는 만들어지지 않음
+                    return Map.of(
+                        "success", false,
+                        "rejected", true,
+                        "error", e.getCause().getMessage(),
+                        "queuePosition", ticket.getQueuePosition(),
+                        "queueWaitTime", ticket.getWaitMillis(),
+                        "rows", new ArrayList<>(),
+                        "columns", new ArrayList<>(),
+                        "rowCount", 0,
+                        "executionTime", 0L
+                    );
+                }
+                return Map.of(
+                    "success", false,
+                    "error", "Query execution failed: " + e.getMessage(),
+                    "rows", new ArrayList<>(),
+                    "columns", new ArrayList<>(),
+                    "rowCount", 0,
+                    "executionTime", 0L
+                );
+            });
+        
+        // 호출자가 응답을 기다리지 않게 되면(연결 종료, 타임아웃) 실행도 취소
+        response.whenComplete((result, e) -> {
+            if (response.isCancelled()) {
+                execution.cancel(false);
+            }
+        });
+        return response;
+    }
+    
+    private void recordHistory(CompletableFuture<Map<String, Object>> response, String userId, String warehouseId,
+                               String normalizedSql, RunningQuery running) {
+        response.whenComplete((result, e) -> {
+            if (response.isCancelled()) {
+                queryHistoryService.record(userId, warehouseId, normalizedSql, Map.of(
+                    "success", false, "cancelled", true, "queueWaitTime", running.getQueueWaitMillis()));
+            } else if (result != null) {
+                queryHistoryService.record(userId, warehouseId, normalizedSql, result);
+            }
+        });
+    }
+    
+    /**
+     * 실행 중인 쿼리 취소
+     * @param id Databricks statementId 또는 실행 시 넘긴 queryId
+     */
+    public Map<String, Object> cancelStatement(String id, String userId) {
+        // 공유 statement면 호출자의 구독만 취소되고, 마지막 구독이 빠질 때 statement가 취소됨
+        List<RunningQuery> runnings = runningQueryRegistry.findAll(id, userId);
+        if (!runnings.isEmpty()) {
+            runnings.forEach(RunningQuery::cancel);
+            RunningQuery running = runnings.get(0);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("statementId", running.getStatementId() != null ? running.getStatementId() : "");
+            result.put("queryId", running.getQueryId() != null ? running.getQueryId() : "");
+            return result;
+        }
+        
+        // 이 서버에서 실행 중이 아니면 사용자 자격 증명으로 Databricks에 직접 요청
+        Optional<UserToken> tokenOpt = userTokenService.getDatabricksToken(userId);
+        String workspaceUrl;
+        String accessToken;
+        if (tokenOpt.isPresent()) {
+            workspaceUrl = tokenOpt.get().getWorkspaceUrl();
+            accessToken = userTokenService.decryptToken(tokenOpt.get());
+        } else {
+            workspaceUrl = databricksConfig.getDefault().getWorkspaceUrl();
+            accessToken = databricksConfig.getDefault().getAccessToken();
+            if (workspaceUrl == null || accessToken == null) {
+                return Map.of("success", false, "error", "No Databricks configuration found");
+            }
         }
+        
+        // 다른 사용자의 statement는 존재 여부도 알려주지 않음
+        if (statementCursorRegistry.contains(id) && statementCursorRegistry.get(id, userId, workspaceUrl) == null) {
+            return Map.of("success", false, "error", "Statement not found: " + id);
+        }
+        
+        Map<String, Object> result = databricksApiClient.cancelStatement(workspaceUrl, accessToken, id);
+        chunkPrefetchService.remove(id);
+        return result;
+    }
+    
+    private static boolean isCancellation(Throwable e) {
+        return e instanceof CancellationException || e.getCause() instanceof CancellationException;
+    }
+    
+    /**
+     * 사용자의 실행 중/대기 중인 쿼리 목록 (queuePosition이 0보다 크면 아직 대기열에 있음)
+     */
+    public List<Map<String, Object>> getRunningQueries(String userId) {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (RunningQuery running : runningQueryRegistry.list(userId)) {
+            Map<String, Object> query = new HashMap<>();
+            query.put("queryId", running.getQueryId() != null ? running.getQueryId() : "");
+            query.put("statementId", running.getStatementId() != null ? running.getStatementId() : "");
+            query.put("startedAt", running.getStartedAt());
+            query.put("queuePosition", running.getQueuePosition());
+            query.put("state", running.getState());
+            queries.add(query);
+        }
+        return queries;
+    }
+    
+    public List<Map<String, Object>> getAdmissionStats() {
+        return queryAdmissionService.getStats();
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>(queryResultCache.getStats());
+        stats.put("singleFlight", inFlightQueryRegistry.getStats());
+        return stats;
+    }
+    
+    /**
+     * Databricks 커넥션 풀 사용 현황 (워크스페이스/저장소 호스트별)
+     */
+    public List<Map<String, Object>> getConnectionPoolStats() {
+        return databricksHttpClients.getPoolStats();
+    }
+    
+    /**
+     * 워크스페이스별 서킷 브레이커 상태 (차단 여부, 연속 실패 수, 마지막 오류)
+     */
+    public List<Map<String, Object>> getDatabricksHealth() {
+        return databricksResilienceService.getHealth();
+    }
+    
+    /**
+     * 결과 캐시 무효화 - 테이블 이름이 없으면 전체
+     */
+    public int invalidateCache(String tableName) {
+        return tableName == null ? queryResultCache.invalidateAll() : queryResultCache.invalidateTable(tableName);
     }
     
     public String formatQuery(String sql) {
@@ -307,54 +779,74 @@ public class QueryService {
                  .trim();
     }
     
+    /**
+     * 실행 전 검사 - 실행할 때와 같은 규칙으로 오류/경고와 실제로 실행될 SQL(LIMIT 적용 후)을 반환합니다.
+     */
     public Map<String, Object> validateQuery(String sql) {
-        // 간단한 SQL 유효성 검사
-        boolean isValid = sql.trim().toUpperCase().startsWith("SELECT");
-        List<String> errors = new ArrayList<>();
-        
-        if (!isValid) {
-            errors.add("쿼리는 SELECT 문으로 시작해야 합니다.");
-        }
-        
-        if (!sql.contains("FROM")) {
-            errors.add("FROM 절이 필요합니다.");
-            isValid = false;
-        }
+        SqlValidator.Result result = SqlValidator.validate(sql,
+            databricksConfig.getSql().getMaxRows(), databricksConfig.getSql().isReadOnly());
         
         Map<String, Object> validation = new HashMap<>();
-        validation.put("isValid", isValid);
-        validation.put("errors", errors);
-        validation.put("warnings", new ArrayList<>());
+        validation.put("isValid", result.isValid());
+        validation.put("errors", result.getErrors());
+        validation.put("warnings", result.getWarnings());
+        validation.put("diagnostics", result.getDiagnostics());
+        validation.put("statementType", result.getStatementType());
+        validation.put("appliedLimit", result.getAppliedLimit());
+        validation.put("rewrittenSql", result.getSql());
         
         return validation;
     }
     
-    public Map<String, Object> saveQuery(String name, String sql, String description) {
-        // 쿼리 저장 시뮬레이션
-        Map<String, Object> savedQuery = new HashMap<>();
-        savedQuery.put("id", System.currentTimeMillis());
-        savedQuery.put("name", name);
-        savedQuery.put("sql", sql);
-        savedQuery.put("description", description);
-        savedQuery.put("createdAt", new Date());
-        savedQuery.put("updatedAt", new Date());
-        
-        return savedQuery;
+    public Map<String, Object> saveQuery(String name, String sql, String description, String userId) {
+        SavedQuery savedQuery = savedQueryRepository.save(new SavedQuery(name, sql, description, userId));
+        return toSavedQueryMap(savedQuery);
     }
     
-    public List<Map<String, Object>> getSavedQueries() {
-        // TODO: 실제 저장된 쿼리 테이블에서 조회하도록 구현 필요
-        // 현재는 기본 예시 쿼리들을 반환
-        return Arrays.asList(
-            Map.of("id", 1L, "name", "고객별 보험료 합계", "description", "고객별 총 보험료 조회", "createdAt", new Date()),
-            Map.of("id", 2L, "name", "월별 신규 계약", "description", "월별 신규 계약 건수", "createdAt", new Date()),
-            Map.of("id", 3L, "name", "상품별 판매 현황", "description", "상품별 판매 실적", "createdAt", new Date())
-        );
+    public List<Map<String, Object>> getSavedQueries(String userId) {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (SavedQuery savedQuery : savedQueryRepository.findByCreatedByOrderByUpdatedAtDesc(userId)) {
+            queries.add(toSavedQueryMap(savedQuery));
+        }
+        return queries;
     }
     
-    public void deleteSavedQuery(Long queryId) {
-        // 쿼리 삭제 시뮬레이션
-        System.out.println("Deleted query with ID: " + queryId);
+    /**
+     * @return 삭제했으면 true (없거나 다른 사용자의 쿼리면 false)
+     */
+    public boolean deleteSavedQuery(Long queryId, String userId) {
+        Optional<SavedQuery> savedQuery = savedQueryRepository.findById(queryId);
+        if (savedQuery.isEmpty() || !savedQuery.get().getCreatedBy().equals(userId)) {
+            return false;
+        }
+        savedQueryRepository.delete(savedQuery.get());
+        return true;
+    }
+    
+    private Map<String, Object> toSavedQueryMap(SavedQuery savedQuery) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", savedQuery.getId());
+        map.put("name", savedQuery.getName());
+        map.put("sql", savedQuery.getSql());
+        map.put("description", savedQuery.getDescription() != null ? savedQuery.getDescription() : "");
+        map.put("createdBy", savedQuery.getCreatedBy());
+        map.put("createdAt", savedQuery.getCreatedAt());
+        map.put("updatedAt", savedQuery.getUpdatedAt());
+        return map;
+    }
+    
+    /**
+     * 사용자의 최근 실행 이력
+     */
+    public List<Map<String, Object>> getQueryHistory(String userId, int limit) {
+        return queryHistoryService.getHistory(userId, limit);
+    }
+    
+    /**
+     * 최근 days일 동안 쿼리 지문별 p50/p95/p99 응답 시간
+     */
+    public List<Map<String, Object>> getLatencyStats(int days, int limit) {
+        return queryHistoryService.getLatencyStats(days, limit);
     }
     
     public String generateSelectQuery(String tableName) {
@@ -393,20 +885,49 @@ public class QueryService {
                 return Map.of(
                     "success", false,
                     "error", "No Databricks configuration found",
-                    "results", new ArrayList<>(),
+                    "rows", new ArrayList<>(),
+                    "columns", new ArrayList<>(),
+                    "rowCount", 0
+                );
+            }
+        }
+        
+        // 이 서버에서 실행한 statement면 커서로 소유자와 청크 범위를 확인하고 manifest 컬럼 정보를 사용
+        List<DatabricksColumn> knownColumns = null;
+        StatementCursor cursor = statementCursorRegistry.get(statementId, userId, workspaceUrl);
+        if (cursor != null) {
+            if (chunkIndex < 0 || chunkIndex >= cursor.getTotalChunks()) {
+                return Map.of(
+                    "success", false,
+                    "error", "Chunk index out of range: " + chunkIndex + " (total " + cursor.getTotalChunks() + ")",
+                    "rows", new ArrayList<>(),
                     "columns", new ArrayList<>(),
                     "rowCount", 0
                 );
             }
+            knownColumns = cursor.getColumns();
+        } else if (statementCursorRegistry.contains(statementId)) {
+            // 다른 사용자의 statement - 존재 여부도 알려주지 않음
+            return Map.of(
+                "success", false,
+                "error", "Statement not found: " + statementId,
+                "rows", new ArrayList<>(),
+                "columns", new ArrayList<>(),
+                "rowCount", 0
+            );
         }
         
         try {
-            return databricksApiClient.getNextChunk(workspaceUrl, accessToken, statementId, chunkIndex);
+            Map<String, Object> prefetched = chunkPrefetchService.take(statementId, userId, chunkIndex);
+            if (prefetched != null) {
+                return prefetched;
+            }
+            return databricksApiClient.getNextChunk(workspaceUrl, accessToken, statementId, chunkIndex, knownColumns);
         } catch (Exception e) {
             return Map.of(
                 "success", false,
                 "error", "Failed to get next chunk: " + e.getMessage(),
-                "results", new ArrayList<>(),
+                "rows", new ArrayList<>(),
                 "columns", new ArrayList<>(),
                 "rowCount", 0
             );
@@ -421,17 +942,6 @@ public class QueryService {
         return table;
     }
     
-    private Map<String, Object> createTableFromDatabricks(Map<String, Object> databricksTable) {
-        Map<String, Object> table = new HashMap<>();
-        table.put("name", databricksTable.get("name"));
-        table.put("description", databricksTable.getOrDefault("comment", ""));
-        table.put("rowCount", "Unknown"); // Databricks doesn't provide row count in list API
-        table.put("catalog", databricksTable.get("catalog_name"));
-        table.put("schema", databricksTable.get("schema_name"));
-        table.put("tableType", databricksTable.getOrDefault("table_type", "TABLE"));
-        return table;
-    }
-    
     private Map<String, Object> createColumn(String name, String type, boolean nullable, 
                                            boolean isPrimaryKey, boolean isForeignKey, String description) {
         Map<String, Object> column = new HashMap<>();
@@ -0,0 +1,367 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import com.lina.dataportal.service.RunningQueryRegistry.RunningQuery;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쿼리 결과 스트리밍 (Server-Sent Events)
+ * 실행 상태가 바뀔 때마다 state, 결과가 나오면 manifest, 이어서 청크가 도착하는 대로 rows 이벤트를 보내므로
+ * 화면은 전체 결과 크기와 관계없이 첫 행부터 표시할 수 있습니다.
+ * rows 이벤트의 id는 다음에 받을 위치("청크.행")이며, 연결이 끊기면 이 값을 resume token으로 넘겨 이어서 받습니다.
+ */
+@Service
+public class QueryStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStreamService.class);
+
+    private static final long STATE_CHECK_MILLIS = 1_000L; // 대기 순번 변화 확인 간격
+
+    @Autowired
+    private QueryService queryService;
+
+    @Autowired
+    private RunningQueryRegistry runningQueryRegistry;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, QueryStream> streams = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        long interval = Math.max(1000, Math.min(60000, databricksConfig.getStream().getRetentionMillis()));
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 쿼리 실행을 시작합니다. streamId는 queryId로도 쓰이므로 DELETE /statements/{streamId}로 취소할 수 있습니다.
+     */
+    public QueryStream start(String sql, String userId, ResultDisposition disposition, boolean useCache) {
+        String streamId = UUID.randomUUID().toString();
+        CompletableFuture<Map<String, Object>> execution = queryService.executeQueryAsync(sql, userId, disposition, useCache, streamId);
+        // 캐시 적중, SQL 검사 실패 등 바로 끝난 실행은 RunningQuery가 없음
+        RunningQuery running = runningQueryRegistry.find(streamId, userId);
+        QueryStream stream = new QueryStream(streamId, userId, execution, running);
+        streams.put(streamId, stream);
+        return stream;
+    }
+
+    /**
+     * 이어받을 스트림 - 다른 사용자의 스트림이면 null
+     */
+    public QueryStream find(String streamId, String userId) {
+        QueryStream stream = streams.get(streamId);
+        return stream != null && stream.userId.equals(userId) ? stream : null;
+    }
+
+    public long getTimeoutMillis() {
+        return databricksConfig.getStream().getTimeoutMillis();
+    }
+
+    /**
+     * 이벤트를 보냅니다. 클라이언트 연결이 끊기면 IOException - 실행은 resume-timeout 동안 유지됩니다.
+     * @param resume 이어받을 위치 (처음이면 ResumeToken.START)
+     */
+    public void stream(QueryStream stream, ResumeToken resume, OutputStream out) throws IOException {
+        stream.attach();
+        try {
+            EventWriter writer = new EventWriter(out);
+            Map<String, Object> result = awaitResult(stream, writer);
+            writeResult(stream, result, resume, writer);
+        } finally {
+            if (stream.detach() == 0 && !stream.execution.isDone()) {
+                scheduleAbandonCheck(stream);
+            }
+        }
+    }
+
+    /**
+     * 실행이 끝날 때까지 상태 변화를 보내고 결과를 반환합니다.
+     */
+    private Map<String, Object> awaitResult(QueryStream stream, EventWriter writer) throws IOException {
+        BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+        Runnable unsubscribe = stream.running != null ? stream.running.addStateListener(changes::offer) : () -> { };
+        stream.execution.whenComplete((result, e) -> changes.offer("DONE"));
+        long heartbeat = databricksConfig.getStream().getHeartbeatIntervalMillis();
+        try {
+            long lastWrite = System.currentTimeMillis();
+            while (!stream.execution.isDone()) {
+                String state = stream.running != null ? stream.running.getState() : "PENDING";
+                long now = System.currentTimeMillis();
+                if (writer.state(stream, state)) {
+                    lastWrite = now;
+                } else if (now - lastWrite >= heartbeat) {
+                    writer.comment("keep-alive"); // 연결이 끊겼는지도 이때 확인됨
+                    lastWrite = now;
+                }
+                changes.poll(STATE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Stream interrupted", e);
+        } finally {
+            unsubscribe.run();
+        }
+
+        try {
+            return stream.execution.join();
+        } catch (CancellationException e) {
+            return Map.of("success", false, "cancelled", true, "error", "Query was cancelled");
+        }
+    }
+
+    private void writeResult(QueryStream stream, Map<String, Object> result, ResumeToken resume, EventWriter writer)
+            throws IOException {
+        Map<String, Object> summary = new HashMap<>(result);
+        summary.remove("rows");
+        summary.put("streamId", stream.streamId);
+
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            writer.event("error", null, summary);
+            writer.state(stream, Boolean.TRUE.equals(result.get("cancelled")) ? "CANCELED" : "FAILED");
+            return;
+        }
+        writer.state(stream, "SUCCEEDED");
+        writer.event("manifest", resume.toString(), summary);
+
+        String statementId = (String) result.get("statementId");
+        int firstChunk = result.get("currentChunk") instanceof Integer index ? index : 0;
+        int totalChunks = Math.max(firstChunk + 1, result.get("totalChunks") instanceof Integer total ? total : 0);
+        int batchRows = Math.max(1, databricksConfig.getStream().getBatchRows());
+        long sentRows = 0;
+        for (int chunk = Math.max(resume.chunk(), firstChunk); chunk < totalChunks; chunk++) {
+            ColumnarBatch rows;
+            if (chunk == firstChunk) {
+                rows = (ColumnarBatch) result.get("rows");
+            } else {
+                Map<String, Object> next = queryService.getNextChunk(statementId, chunk, stream.userId);
+                if (!Boolean.TRUE.equals(next.get("success"))) {
+                    writer.event("error", new ResumeToken(chunk, 0).toString(), Map.of(
+                        "success", false,
+                        "streamId", stream.streamId,
+                        "chunk", chunk,
+                        "error", String.valueOf(next.get("error"))
+                    ));
+                    return;
+                }
+                rows = (ColumnarBatch) next.get("rows");
+            }
+
+            int from = chunk == resume.chunk() ? Math.min(resume.row(), rows.getRowCount()) : 0;
+            while (from < rows.getRowCount()) {
+                int to = Math.min(from + batchRows, rows.getRowCount());
+                ResumeToken position = to == rows.getRowCount() ? new ResumeToken(chunk + 1, 0) : new ResumeToken(chunk, to);
+                writer.rows(position.toString(), chunk, from, rows, to);
+                sentRows += to - from;
+                from = to;
+            }
+        }
+        writer.event("complete", new ResumeToken(totalChunks, 0).toString(), Map.of(
+            "streamId", stream.streamId,
+            "statementId", statementId != null ? statementId : "",
+            "totalChunks", totalChunks,
+            "sentRows", sentRows
+        ));
+    }
+
+    private static Map<String, Object> stateEvent(QueryStream stream, String state) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("streamId", stream.streamId);
+        event.put("state", state);
+        if (stream.running != null) {
+            event.put("statementId", stream.running.getStatementId() != null ? stream.running.getStatementId() : "");
+            event.put("queuePosition", stream.running.getQueuePosition());
+        }
+        event.put("elapsed", System.currentTimeMillis() - stream.startedAt);
+        return event;
+    }
+
+    /**
+     * 실행 중에 끊긴 스트림을 아무도 이어받지 않으면 statement를 취소합니다.
+     */
+    private void scheduleAbandonCheck(QueryStream stream) {
+        databricksExecutors.scheduler().schedule(() -> {
+            if (stream.attached() == 0 && !stream.execution.isDone()) {
+                log.info("Cancelling query stream {} - client did not reconnect", stream.streamId);
+                stream.execution.cancel(false);
+            }
+        }, databricksConfig.getStream().getResumeTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void evictExpired() {
+        long threshold = System.currentTimeMillis() - databricksConfig.getStream().getRetentionMillis();
+        streams.values().removeIf(stream -> stream.attached() == 0 && stream.execution.isDone() && stream.lastAccess < threshold);
+    }
+
+    /**
+     * 이어받기 위치 - 예: "3.2000" (3번 청크의 2000번 행부터)
+     */
+    public record ResumeToken(int chunk, int row) {
+
+        public static final ResumeToken START = new ResumeToken(0, 0);
+
+        /**
+         * @param token Last-Event-ID 또는 resumeToken 파라미터 (없으면 처음부터)
+         */
+        public static ResumeToken parse(String token) {
+            if (token == null || token.isBlank()) {
+                return START;
+            }
+            String[] parts = token.trim().split("\\.");
+            try {
+                if (parts.length == 2) {
+                    int chunk = Integer.parseInt(parts[0]);
+                    int row = Integer.parseInt(parts[1]);
+                    if (chunk >= 0 && row >= 0) {
+                        return new ResumeToken(chunk, row);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // 아래에서 처리
+            }
+            throw new IllegalArgumentException("Invalid resume token: " + token);
+        }
+
+        @Override
+        public String toString() {
+            return chunk + "." + row;
+        }
+    }
+
+    /**
+     * 실행 하나의 스트림 - 연결이 끊겨도 retention 동안 남아 있어 이어받을 수 있습니다.
+     */
+    public static final class QueryStream {
+        private final String streamId;
+        private final String userId;
+        private final CompletableFuture<Map<String, Object>> execution;
+        private final RunningQuery running;
+        private final long startedAt = System.currentTimeMillis();
+        private volatile long lastAccess = startedAt;
+        private int attached; // 연결된 클라이언트 수
+
+        QueryStream(String streamId, String userId, CompletableFuture<Map<String, Object>> execution, RunningQuery running) {
+            this.streamId = streamId;
+            this.userId = userId;
+            this.execution = execution;
+            this.running = running;
+        }
+
+        public String getStreamId() { return streamId; }
+
+        synchronized void attach() {
+            attached++;
+            lastAccess = System.currentTimeMillis();
+        }
+
+        synchronized int detach() {
+            lastAccess = System.currentTimeMillis();
+            return --attached;
+        }
+
+        synchronized int attached() {
+            return attached;
+        }
+    }
+
+    /**
+     * text/event-stream 형식 기록 - 이벤트마다 flush
+     */
+    private final class EventWriter {
+        private final OutputStream out;
+        private String lastState;
+        private int lastPosition = -1;
+
+        EventWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * 상태나 대기 순번이 바뀌었을 때만 state 이벤트를 보냅니다.
+         * @return 보냈으면 true
+         */
+        boolean state(QueryStream stream, String state) throws IOException {
+            int position = stream.running != null ? stream.running.getQueuePosition() : 0;
+            if (state.equals(lastState) && position == lastPosition) {
+                return false;
+            }
+            event("state", null, stateEvent(stream, state));
+            lastState = state;
+            lastPosition = position;
+            return true;
+        }
+
+        void event(String name, String id, Object data) throws IOException {
+            write(name, id, objectMapper.writeValueAsBytes(data));
+        }
+
+        /**
+         * 행 묶음 - {"chunk": 3, "offset": 1000, "rowCount": 1000, "rows": [[...], ...]}
+         */
+        void rows(String id, int chunk, int from, ColumnarBatch rows, int to) throws IOException {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+                generator.writeStartObject();
+                generator.writeNumberField("chunk", chunk);
+                generator.writeNumberField("offset", from);
+                generator.writeNumberField("rowCount", to - from);
+                generator.writeFieldName("rows");
+                generator.writeStartArray();
+                for (int row = from; row < to; row++) {
+                    rows.writeRow(generator, row);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            write("rows", id, json.toByteArray());
+        }
+
+        void comment(String text) throws IOException {
+            out.write((": " + text + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        // JSON은 줄바꿈을 이스케이프하므로 data 한 줄로 충분
+        private void write(String name, String id, byte[] data) throws IOException {
+            StringBuilder header = new StringBuilder();
+            if (id != null) {
+                header.append("id: ").append(id).append('\n');
+            }
+            header.append("event: ").append(name).append('\n').append("data: ");
+            out.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(data);
+            out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.domain.databricks.BooleanColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.DateColumnVector;
+import com.lina.dataportal.domain.databricks.DecimalColumnVector;
+import com.lina.dataportal.domain.databricks.DoubleColumnVector;
+import com.lina.dataportal.domain.databricks.LongColumnVector;
+import com.lina.dataportal.domain.databricks.TimestampColumnVector;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * statement 하나의 전체 결과 - 앞쪽 heap-bytes-per-result만큼의 행은 컬럼 벡터로 힙에 두고,
+ * 넘는 결과는 임시 파일에 행 단위 이진 형식으로 기록해 MappedByteBuffer로 읽습니다.
+ * 결과가 커져도 힙에는 앞부분과 블록 색인만 남으므로 쿼리별 힙 사용량이 결과 크기와 관계없이 일정합니다.
+ * 파일은 만들어지면 항상 0번 행부터 모든 행을 담으므로, 메모리가 부족할 때는 힙 부분만 버리면 됩니다 ({@link #releaseHeap}).
+ *
+ * 행 형식: NULL 비트맵(컬럼 8개당 1바이트) + NULL이 아닌 값 - LONG/DOUBLE 8바이트, TIMESTAMP 8바이트 + 표기 4바이트, DATE 4바이트, BOOLEAN 1바이트,
+ * DECIMAL은 scale + unscaled long (long 범위를 넘으면 BigInteger 바이트), 문자열은 varint 길이 + UTF-8 바이트
+ */
+public class ResultBuffer implements AutoCloseable {
+
+    private static final int BLOCK_ROWS = 128; // 이 행 수마다 파일 위치를 색인 - 임의 행은 블록 시작부터 최대 127행을 건너뛰어 읽음
+    private static final long SEGMENT_BYTES = 256L * 1024 * 1024; // 매핑 단위 (MappedByteBuffer 하나는 2GB 미만)
+    private static final int WRITE_BUFFER_BYTES = 256 * 1024;
+
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte DATE = 3;
+    private static final byte TIMESTAMP = 4;
+    private static final byte DECIMAL = 5;
+    private static final byte TEXT = 6;
+
+    private final List<DatabricksColumn> columns;
+    private final byte[] types; // 컬럼별 값 형식 (ColumnVector.forColumn과 같은 기준)
+    private final int nullBytes;
+    private final long heapLimit;
+    private final Path spillDir;
+
+    private volatile ColumnarBatch head; // 힙에 둔 앞부분 - releaseHeap 뒤에는 null
+    private long headBytes;
+    private int rowCount;
+
+    private Path file; // 앞부분 한도를 넘었거나 힙을 비운 결과만
+    private FileChannel channel; // 기록 중에만 열려 있음
+    private ByteBuffer writeBuffer;
+    private long flushedBytes;
+    private int fileRows;
+    private long[] blockOffsets = new long[16]; // 블록 첫 행의 파일 위치
+    private long[] segmentStarts; // 매핑 구간 시작 위치 - 블록 경계에서만 나뉨
+    private int[] segmentFirstBlocks;
+    private volatile MappedByteBuffer[] segments;
+
+    public ResultBuffer(List<DatabricksColumn> columns, long heapLimit, Path spillDir) {
+        this.columns = columns;
+        this.types = new byte[columns.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = typeOf(ColumnVector.forColumn(columns.get(i)));
+        }
+        this.nullBytes = (columns.size() + 7) / 8;
+        this.heapLimit = heapLimit;
+        this.spillDir = spillDir;
+        this.head = new ColumnarBatch(columns);
+    }
+
+    /**
+     * 받아 온 청크 추가 - 앞부분 한도를 넘는 행부터는 파일에 씁니다.
+     */
+    public synchronized void append(ColumnarBatch rows) throws IOException {
+        int count = rows.getRowCount();
+        int row = 0;
+        if (file == null && count > 0) {
+            // 행 크기는 청크 평균으로 추정 (estimatedBytes는 문자열 길이를 모두 세므로 청크마다 한 번만)
+            long rowBytes = Math.max(1, rows.estimatedBytes() / count);
+            int fit = (int) Math.min(count, Math.max(0, (heapLimit - headBytes + rowBytes - 1) / rowBytes));
+            for (; row < fit; row++) {
+                head.appendRow(rows, row);
+            }
+            headBytes += fit * rowBytes;
+            rowCount += fit;
+            if (fit == count) {
+                return;
+            }
+            openFile();
+        }
+        for (; row < count; row++) {
+            writeRow(rows, row);
+        }
+        rowCount = fileRows;
+    }
+
+    /**
+     * 모든 청크를 추가한 뒤 호출 - 파일을 읽기 전용으로 매핑합니다.
+     */
+    public synchronized void finish() throws IOException {
+        headBytes = head.estimatedBytes();
+        if (channel != null) {
+            closeFile();
+        }
+    }
+
+    public List<DatabricksColumn> getColumns() {
+        return columns;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 힙에 있는 행 수 (나머지는 매핑된 파일에서 읽음)
+     */
+    public int getHeapRowCount() {
+        ColumnarBatch heap = head;
+        return heap != null ? heap.getRowCount() : 0;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * 이 결과가 차지하는 힙 크기 - 앞부분 + 블록 색인
+     */
+    public synchronized long heapBytes() {
+        return (head != null ? headBytes : 0) + blockOffsets.length * 8L;
+    }
+
+    /**
+     * 힙에 둔 앞부분을 버립니다. 아직 파일이 없으면 먼저 모든 행을 파일로 씁니다.
+     * @return 비운 바이트 수
+     */
+    public synchronized long releaseHeap() throws IOException {
+        ColumnarBatch heap = head;
+        if (heap == null) {
+            return 0;
+        }
+        if (file == null) {
+            openFile();
+            closeFile();
+        }
+        head = null; // 파일이 매핑된 뒤에 비워야 동시에 읽는 요청이 빈 행을 보지 않음
+        return headBytes;
+    }
+
+    /**
+     * 한 행을 같은 컬럼 구성의 배치 끝에 복사합니다.
+     */
+    public void copyRow(int row, ColumnarBatch target) {
+        ColumnarBatch heap = head;
+        if (heap != null && row < heap.getRowCount()) {
+            target.appendRow(heap, row);
+            return;
+        }
+        ColumnVector[] vectors = new ColumnVector[types.length];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = target.getVector(i);
+        }
+        Cursor cursor = new Cursor();
+        cursor.seek(row);
+        cursor.readRow(vectors);
+        target.endRow();
+    }
+
+    /**
+     * 컬럼 하나의 전체 값 - 정렬 키와 필터 계산용. 파일에 있는 행은 이 컬럼만 골라 읽어 새 벡터를 만듭니다.
+     */
+    public ColumnVector column(int columnIndex) {
+        ColumnarBatch heap = head;
+        if (heap != null && heap.getRowCount() == rowCount) {
+            return heap.getVector(columnIndex);
+        }
+        ColumnVector vector = ColumnVector.forColumn(columns.get(columnIndex));
+        int from = 0;
+        if (heap != null) {
+            ColumnVector source = heap.getVector(columnIndex);
+            for (; from < heap.getRowCount(); from++) {
+                vector.appendFrom(source, from);
+            }
+        }
+        ColumnVector[] targets = new ColumnVector[types.length];
+        targets[columnIndex] = vector;
+        Cursor cursor = new Cursor();
+        for (int row = from; row < rowCount; row++) {
+            if (row == from || row % BLOCK_ROWS == 0) {
+                cursor.seek(row); // 블록 경계에서 매핑 구간이 바뀔 수 있음
+            }
+            cursor.readRow(targets);
+        }
+        return vector;
+    }
+
+    /**
+     * 힙 부분을 비우고 파일을 삭제합니다. 매핑은 GC가 해제하며, 삭제된 파일도 그때까지 읽을 수 있습니다.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        head = null;
+        segments = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        if (file != null) {
+            Path spilled = file;
+            file = null;
+            Files.deleteIfExists(spilled);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return rowCount + " rows (" + getHeapRowCount() + " on heap)" + (file != null ? " spilled to " + file : "");
+    }
+
+    private void openFile() throws IOException {
+        file = Files.createTempFile(spillDir, "result-", ".bin");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        ColumnarBatch heap = head;
+        for (int row = 0; row < heap.getRowCount(); row++) {
+            writeRow(heap, row);
+        }
+    }
+
+    private void closeFile() throws IOException {
+        flush();
+        writeBuffer = null;
+        try {
+            map();
+        } finally {
+            channel.close(); // 매핑은 채널을 닫아도 유지됨
+            channel = null;
+        }
+    }
+
+    /**
+     * 블록 경계에서 SEGMENT_BYTES마다 나눠 매핑 - 한 행이 두 구간에 걸치지 않음
+     */
+    private void map() throws IOException {
+        int blocks = (fileRows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        long[] starts = new long[4];
+        int[] firstBlocks = new int[4];
+        int count = 0;
+        for (int block = 0; block < blocks; block++) {
+            if (count == 0 || blockOffsets[block] - starts[count - 1] >= SEGMENT_BYTES) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    firstBlocks = Arrays.copyOf(firstBlocks, count * 2);
+                }
+                starts[count] = blockOffsets[block];
+                firstBlocks[count] = block;
+                count++;
+            }
+        }
+
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long end = i + 1 < count ? starts[i + 1] : flushedBytes;
+            if (end - starts[i] > Integer.MAX_VALUE) {
+                throw new IOException("Result block too large to map: " + (end - starts[i]) + " bytes");
+            }
+            mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, starts[i], end - starts[i]);
+        }
+        segmentStarts = Arrays.copyOf(starts, count);
+        segmentFirstBlocks = Arrays.copyOf(firstBlocks, count);
+        blockOffsets = Arrays.copyOf(blockOffsets, blocks);
+        segments = mapped;
+    }
+
+    private void writeRow(ColumnarBatch rows, int row) throws IOException {
+        if (fileRows % BLOCK_ROWS == 0) {
+            int block = fileRows / BLOCK_ROWS;
+            if (block == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+            }
+            blockOffsets[block] = flushedBytes + writeBuffer.position();
+        }
+
+        ensure(nullBytes);
+        for (int i = 0; i < nullBytes; i++) {
+            int bits = 0;
+            for (int column = i * 8; column < Math.min(types.length, i * 8 + 8); column++) {
+                if (rows.getVector(column).isNull(row)) {
+                    bits |= 1 << (column % 8);
+                }
+            }
+            writeBuffer.put((byte) bits);
+        }
+        for (int column = 0; column < types.length; column++) {
+            ColumnVector vector = rows.getVector(column);
+            if (!vector.isNull(row)) {
+                writeValue(types[column], vector, row);
+            }
+        }
+        fileRows++;
+    }
+
+    private void writeValue(byte type, ColumnVector vector, int row) throws IOException {
+        switch (type) {
+            case LONG:
+                ensure(8);
+                writeBuffer.putLong(((LongColumnVector) vector).getLong(row));
+                break;
+            case DOUBLE:
+                ensure(8);
+                writeBuffer.putDouble(((DoubleColumnVector) vector).getDouble(row));
+                break;
+            case BOOLEAN:
+                ensure(1);
+                writeBuffer.put((byte) (((BooleanColumnVector) vector).getBoolean(row) ? 1 : 0));
+                break;
+            case DATE:
+                ensure(4);
+                writeBuffer.putInt(((DateColumnVector) vector).getEpochDay(row));
+                break;
+            case TIMESTAMP: {
+                TimestampColumnVector timestamps = (TimestampColumnVector) vector;
+                ensure(12);
+                writeBuffer.putLong(timestamps.getEpochMicros(row));
+                writeBuffer.putInt(timestamps.getNotation(row)); // 출력 표기 (초 이하 자릿수, 오프셋)
+                break;
+            }
+            case DECIMAL: {
+                DecimalColumnVector decimals = (DecimalColumnVector) vector;
+                if (decimals.isCompact()) {
+                    ensure(13);
+                    writeBuffer.putInt(decimals.getScale());
+                    writeBuffer.put((byte) 0);
+                    writeBuffer.putLong(decimals.getUnscaled(row));
+                } else {
+                    BigDecimal value = decimals.getDecimal(row);
+                    byte[] unscaled = value.unscaledValue().toByteArray(); // 38자리도 17바이트 이하
+                    ensure(5 + unscaled.length);
+                    writeBuffer.putInt(value.scale());
+                    writeBuffer.put((byte) unscaled.length);
+                    writeBuffer.put(unscaled);
+                }
+                break;
+            }
+            default: {
+                byte[] bytes = vector.getText(row).getBytes(StandardCharsets.UTF_8);
+                ensure(5);
+                int length = bytes.length;
+                while ((length & ~0x7F) != 0) {
+                    writeBuffer.put((byte) ((length & 0x7F) | 0x80));
+                    length >>>= 7;
+                }
+                writeBuffer.put((byte) length);
+                if (bytes.length <= writeBuffer.capacity()) {
+                    ensure(bytes.length);
+                    writeBuffer.put(bytes);
+                } else {
+                    flush();
+                    ByteBuffer large = ByteBuffer.wrap(bytes);
+                    while (large.hasRemaining()) {
+                        flushedBytes += channel.write(large);
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (writeBuffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            flushedBytes += channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private static byte typeOf(ColumnVector vector) {
+        if (vector instanceof LongColumnVector) {
+            return LONG;
+        }
+        if (vector instanceof DoubleColumnVector) {
+            return DOUBLE;
+        }
+        if (vector instanceof BooleanColumnVector) {
+            return BOOLEAN;
+        }
+        if (vector instanceof DateColumnVector) {
+            return DATE;
+        }
+        if (vector instanceof TimestampColumnVector) {
+            return TIMESTAMP;
+        }
+        if (vector instanceof DecimalColumnVector) {
+            return DECIMAL;
+        }
+        return TEXT;
+    }
+
+    /**
+     * 매핑된 파일 읽기 위치 - 절대 위치로만 읽으므로 여러 요청이 같은 MappedByteBuffer를 동시에 읽어도 됩니다.
+     */
+    private final class Cursor {
+        private MappedByteBuffer buffer;
+        private int position;
+
+        void seek(int row) {
+            MappedByteBuffer[] mapped = segments;
+            if (mapped == null) {
+                throw new IllegalStateException("Result buffer is closed");
+            }
+            int block = row / BLOCK_ROWS;
+            int segment = Arrays.binarySearch(segmentFirstBlocks, block);
+            if (segment < 0) {
+                segment = -segment - 2;
+            }
+            buffer = mapped[segment];
+            position = (int) (blockOffsets[block] - segmentStarts[segment]);
+            for (int skip = row % BLOCK_ROWS; skip > 0; skip--) {
+                readRow(null);
+            }
+        }
+
+        /**
+         * 현재 위치의 한 행을 읽어 벡터에 추가 - vectors가 null이거나 컬럼 벡터가 null이면 그 값은 건너뜁니다.
+         */
+        void readRow(ColumnVector[] vectors) {
+            int bitmapStart = position;
+            position += nullBytes;
+            for (int column = 0; column < types.length; column++) {
+                ColumnVector vector = vectors != null ? vectors[column] : null;
+                if ((buffer.get(bitmapStart + column / 8) & (1 << (column % 8))) != 0) {
+                    if (vector != null) {
+                        vector.appendNull();
+                    }
+                    continue;
+                }
+                readValue(types[column], vector);
+            }
+        }
+
+        private void readValue(byte type, ColumnVector vector) {
+            switch (type) {
+                case LONG:
+                    if (vector != null) {
+                        vector.appendLong(buffer.getLong(position));
+                    }
+                    position += 8;
+                    break;
+                case TIMESTAMP:
+                    if (vector != null) {
+                        ((TimestampColumnVector) vector).appendEpochMicros(buffer.getLong(position), buffer.getInt(position + 8));
+                    }
+                    position += 12;
+                    break;
+                case DOUBLE:
+                    if (vector != null) {
+                        vector.appendDouble(buffer.getDouble(position));
+                    }
+                    position += 8;
+                    break;
+                case BOOLEAN:
+                    if (vector != null) {
+                        vector.appendBoolean(buffer.get(position) != 0);
+                    }
+                    position += 1;
+                    break;
+                case DATE:
+                    if (vector != null) {
+                        vector.appendEpochDay(buffer.getInt(position));
+                    }
+                    position += 4;
+                    break;
+                case DECIMAL: {
+                    int scale = buffer.getInt(position);
+                    int length = buffer.get(position + 4);
+                    position += 5;
+                    if (length == 0) {
+                        if (vector != null) {
+                            vector.appendDecimal(buffer.getLong(position), scale);
+                        }
+                        position += 8;
+                    } else {
+                        if (vector != null) {
+                            byte[] unscaled = new byte[length];
+                            buffer.get(position, unscaled);
+                            vector.appendDecimal(new BigDecimal(new BigInteger(unscaled), scale));
+                        }
+                        position += length;
+                    }
+                    break;
+                }
+                default: {
+                    int length = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = buffer.get(position++);
+                        length |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while ((b & 0x80) != 0);
+                    if (vector != null) {
+                        byte[] bytes = new byte[length];
+                        buffer.get(position, bytes);
+                        vector.appendText(new String(bytes, StandardCharsets.UTF_8));
+                    }
+                    position += length;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.ExportFormat;
+import com.lina.dataportal.domain.databricks.StatementCursor;
+import com.lina.dataportal.domain.databricks.StatementResponse;
+import com.lina.dataportal.domain.user.UserToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * statement 전체 결과 내보내기
+ * 모든 청크를 prefetch 리더로 순서대로 받아 바로 인코딩해 응답 스트림에 씁니다.
+ * 메모리에는 prefetch 깊이만큼의 청크만 남으므로 결과 크기와 관계없이 사용량이 일정합니다.
+ */
+@Service
+public class ResultExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultExportService.class);
+
+    @Autowired
+    private UserTokenService userTokenService;
+
+    @Autowired
+    private DatabricksApiClient databricksApiClient;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private ChunkPrefetchService chunkPrefetchService;
+
+    @Autowired
+    private StatementCursorRegistry statementCursorRegistry;
+
+    /**
+     * 내보내기 준비 - 자격 증명, 소유자, statement 상태를 확인하고 컬럼/청크 정보를 가져옵니다.
+     * 응답 헤더를 보내기 전에 호출해 오류를 일반 JSON 응답으로 돌려줄 수 있게 합니다.
+     */
+    public ExportSource prepare(String statementId, String userId) {
+        Optional<UserToken> tokenOpt = userTokenService.getDatabricksToken(userId);
+        String workspaceUrl;
+        String accessToken;
+        if (tokenOpt.isPresent()) {
+            UserToken token = tokenOpt.get();
+            workspaceUrl = token.getWorkspaceUrl();
+            accessToken = userTokenService.decryptToken(token);
+            userTokenService.updateLastUsed(token.getId());
+        } else {
+            workspaceUrl = databricksConfig.getDefault().getWorkspaceUrl();
+            accessToken = databricksConfig.getDefault().getAccessToken();
+            if (workspaceUrl == null || accessToken == null) {
+                return ExportSource.failed("No Databricks configuration found");
+            }
+        }
+
+        // 이 서버에서 실행한 statement면 커서의 manifest 정보를 사용
+        StatementCursor cursor = statementCursorRegistry.get(statementId, userId, workspaceUrl);
+        if (cursor != null) {
+            return new ExportSource(statementId, workspaceUrl, accessToken, cursor.getColumns(), cursor.getTotalChunks(), null);
+        }
+        if (statementCursorRegistry.contains(statementId)) {
+            // 다른 사용자의 statement - 존재 여부도 알려주지 않음
+            return ExportSource.failed("Statement not found: " + statementId);
+        }
+
+        try {
+            StatementResponse statement = databricksApiClient.getStatement(workspaceUrl, accessToken, statementId);
+            if (!statement.isSucceeded()) {
+                return ExportSource.failed("Statement is not finished successfully: " + statement.getState());
+            }
+            List<DatabricksColumn> columns = statement.getColumns() != null ? statement.getColumns() : List.of();
+            return new ExportSource(statementId, workspaceUrl, accessToken, columns, statement.getTotalChunkCount(), null);
+        } catch (HttpClientErrorException.NotFound e) {
+            return ExportSource.failed("Statement not found: " + statementId);
+        } catch (Exception e) {
+            return ExportSource.failed("Failed to get statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 전체 결과를 순서대로 기록합니다.
+     * 중간에 청크 조회가 실패하면 IOException을 던져 응답을 비정상 종료시킵니다 (잘린 파일이 완료된 것처럼 보이지 않도록).
+     * @param gzip CSV/NDJSON은 출력 전체를 gzip으로, Parquet은 페이지를 GZIP 코덱으로 압축
+     */
+    public void export(ExportSource source, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        GZIPOutputStream gzipOut = gzip && format != ExportFormat.PARQUET ? new GZIPOutputStream(out, 64 * 1024) : null;
+        OutputStream target = gzipOut != null ? gzipOut : out;
+        ResultExportWriter writer = switch (format) {
+            case CSV -> new CsvExportWriter(target, source.columns);
+            case NDJSON -> new NdjsonExportWriter(target, source.columns);
+            case PARQUET -> new ParquetExportWriter(target, source.columns, gzip);
+        };
+
+        long rowCount = 0;
+        try (ChunkPrefetchReader reader = chunkPrefetchService.openReader(source.workspaceUrl, source.accessToken,
+                source.statementId, source.columns, 0, source.totalChunks)) {
+            while (reader.hasNext()) {
+                int chunkIndex = reader.nextIndex();
+                Map<String, Object> chunk = reader.next();
+                if (!Boolean.TRUE.equals(chunk.get("success"))) {
+                    throw new IOException("Failed to get chunk " + chunkIndex + " of " + source.statementId + ": " + chunk.get("error"));
+                }
+                ColumnarBatch rows = (ColumnarBatch) chunk.get("rows");
+                writer.write(rows);
+                rowCount += rows.getRowCount();
+            }
+        }
+        writer.finish();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        out.flush();
+
+        log.info("Exported statement {} as {}{}: {} rows in {} chunks ({} ms)", source.statementId, format,
+            gzip ? " (gzip)" : "", rowCount, source.totalChunks, System.currentTimeMillis() - startTime);
+    }
+
+    public long getExportTimeoutMillis() {
+        return databricksConfig.getExport().getTimeoutMillis();
+    }
+
+    /**
+     * 내보낼 statement 정보 (prepare 결과)
+     */
+    public static final class ExportSource {
+        private final String statementId;
+        private final String workspaceUrl;
+        private final String accessToken;
+        private final List<DatabricksColumn> columns;
+        private final int totalChunks;
+        private final String error;
+
+        ExportSource(String statementId, String workspaceUrl, String accessToken, List<DatabricksColumn> columns,
+                     int totalChunks, String error) {
+            this.statementId = statementId;
+            this.workspaceUrl = workspaceUrl;
+            this.accessToken = accessToken;
+            this.columns = columns;
+            this.totalChunks = totalChunks;
+            this.error = error;
+        }
+
+        static ExportSource failed(String error) {
+            return new ExportSource(null, null, null, List.of(), 0, error);
+        }
+
+        public boolean isReady() { return error == null; }
+        public String getError() { return error; }
+        public String getStatementId() { return statementId; }
+        String getWorkspaceUrl() { return workspaceUrl; }
+        String getAccessToken() { return accessToken; }
+        List<DatabricksColumn> getColumns() { return columns; }
+        public int getTotalChunks() { return totalChunks; }
+    }
+}
@@ -0,0 +1,19 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+
+import java.io.IOException;
+
+/**
+ * 전체 결과 내보내기용 인코더
+ * 청크를 받는 즉시 출력 스트림에 기록하므로 메모리에는 현재 청크만 남습니다.
+ */
+public interface ResultExportWriter {
+
+    void write(ColumnarBatch batch) throws IOException;
+
+    /**
+     * 남은 내용(헤더, 파일 끝 메타데이터 등)을 기록하고 flush 합니다. 출력 스트림은 닫지 않습니다.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,771 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.BooleanColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.DateColumnVector;
+import com.lina.dataportal.domain.databricks.DecimalColumnVector;
+import com.lina.dataportal.domain.databricks.DoubleColumnVector;
+import com.lina.dataportal.domain.databricks.LongColumnVector;
+import com.lina.dataportal.domain.databricks.StringColumnVector;
+import com.lina.dataportal.domain.databricks.TimestampColumnVector;
+import com.lina.dataportal.domain.user.UserToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * 서버 측 결과 저장소 - statement 전체 결과를 한 번 받아 두고 페이징/정렬/필터를 서버에서 처리합니다.
+ * 결과마다 앞쪽 heap-bytes-per-result만큼만 컬럼 벡터로 메모리에 두고 나머지는 메모리 매핑 파일로 읽습니다 ({@link ResultBuffer}).
+ * 메모리에 둔 앞부분의 합이 max-memory-bytes를 넘으면 오래 조회되지 않은 결과부터 앞부분을 비웁니다.
+ * 정렬 순서(행 번호 순열)와 필터 결과는 결과별로 캐시해 같은 화면에서 페이지를 넘길 때는 행 복사만 합니다.
+ */
+@Service
+public class ResultStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultStoreService.class);
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    @Autowired
+    private UserTokenService userTokenService;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private ResultExportService resultExportService;
+
+    @Autowired
+    private ChunkPrefetchService chunkPrefetchService;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    @Autowired
+    private StatementCursorRegistry statementCursorRegistry;
+
+    private final Map<String, StoredResult> results = new ConcurrentHashMap<>();
+    private final AtomicLong memoryBytes = new AtomicLong();
+    private Path spillDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        String configured = databricksConfig.getResultStore().getSpillDir();
+        spillDir = configured != null && !configured.isBlank()
+            ? Paths.get(configured)
+            : Paths.get(System.getProperty("java.io.tmpdir"), "dataportal-results");
+        Files.createDirectories(spillDir);
+
+        long interval = Math.max(1000, Math.min(60000, databricksConfig.getResultStore().getIdleTimeoutMillis()));
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        results.values().forEach(this::discard);
+        results.clear();
+    }
+
+    /**
+     * 결과 행 조회
+     * @param sorts 정렬 컬럼 (예: "premium:desc", "name") - 앞에 있는 컬럼이 우선
+     * @param filters 조건 (예: "premium:gt:1000", "name:contains:kim", "end_date:null") - 모두 AND로 적용
+     */
+    public Map<String, Object> getRows(String statementId, String userId, int offset, int limit,
+                                       List<String> sorts, List<String> filters) {
+        long startTime = System.currentTimeMillis();
+        String[] credentials = resolveCredentials(userId);
+        if (credentials == null) {
+            return Map.of("success", false, "error", "No Databricks configuration found");
+        }
+        String credentialKey = CredentialFingerprint.of(credentials[0], credentials[1]);
+
+        StoredResult entry = results.get(statementId);
+        if (entry == null) {
+            ResultExportService.ExportSource source = resultExportService.prepare(statementId, userId);
+            if (!source.isReady()) {
+                return Map.of("success", false, "error", source.getError());
+            }
+            entry = results.computeIfAbsent(statementId, id -> new StoredResult(id, userId, credentialKey, source, memoryBytes));
+        }
+        boolean owner = entry.userId.equals(userId)
+            || statementCursorRegistry.get(statementId, userId, credentials[0]) != null; // 실행 중에 결과를 함께 받은 사용자
+        if (!owner || !entry.credentialKey.equals(credentialKey)) {
+            // 다른 사용자의 statement - 존재 여부도 알려주지 않음
+            return Map.of("success", false, "error", "Statement not found: " + statementId);
+        }
+
+        ResultBuffer data;
+        try {
+            data = acquire(entry);
+        } catch (IOException e) {
+            results.remove(statementId, entry);
+            discard(entry);
+            log.warn("Failed to materialize statement {}: {}", statementId, e.getMessage());
+            return Map.of("success", false, "error", e.getMessage());
+        }
+
+        int[] view;
+        try {
+            view = view(entry, data, parseSorts(data.getColumns(), sorts), parseFilters(data.getColumns(), filters));
+        } catch (IllegalArgumentException e) {
+            return Map.of("success", false, "error", e.getMessage());
+        }
+        enforceMemoryLimit(entry); // 새로 만든 정렬 키와 행 번호 목록도 메모리 사용량에 포함
+
+        int filteredRowCount = view != null ? view.length : data.getRowCount();
+        int from = Math.min(Math.max(offset, 0), filteredRowCount);
+        int to = Math.min(from + Math.max(limit, 0), filteredRowCount);
+        ColumnarBatch page = new ColumnarBatch(data.getColumns());
+        for (int i = from; i < to; i++) {
+            data.copyRow(view != null ? view[i] : i, page);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("statementId", statementId);
+        result.put("rows", page);
+        result.put("columns", page.getColumnNames());
+        result.put("columnMetadata", DatabricksApiClient.columnMetadata(page.getColumns()));
+        result.put("offset", from);
+        result.put("rowCount", page.getRowCount());
+        result.put("totalRowCount", data.getRowCount());
+        result.put("filteredRowCount", filteredRowCount);
+        result.put("hasMore", to < filteredRowCount);
+        result.put("queryTime", System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * 이미 받아 둔 결과는 그대로, 처음이면 Databricks에서 모든 청크를 받아 옵니다.
+     * 같은 statement를 동시에 요청하면 하나만 받아 오고 나머지는 기다립니다.
+     */
+    private ResultBuffer acquire(StoredResult entry) throws IOException {
+        entry.lastAccess = System.currentTimeMillis();
+        ResultBuffer data = entry.data;
+        if (data != null) {
+            return data;
+        }
+
+        synchronized (entry) {
+            if (entry.data == null) {
+                long startTime = System.currentTimeMillis();
+                ResultBuffer loaded = load(entry);
+                entry.bytes = loaded.heapBytes();
+                entry.data = loaded;
+                memoryBytes.addAndGet(entry.bytes);
+                log.debug("Materialized statement {}: {}, {} heap bytes in {}ms",
+                    entry.statementId, loaded, entry.bytes, System.currentTimeMillis() - startTime);
+            }
+            data = entry.data;
+        }
+        enforceMemoryLimit(entry);
+        return data;
+    }
+
+    private ResultBuffer load(StoredResult entry) throws IOException {
+        DatabricksConfig.ResultStore config = databricksConfig.getResultStore();
+        int maxRows = config.getMaxRows();
+        ResultBuffer data = new ResultBuffer(entry.columns, config.getHeapBytesPerResult(), spillDir);
+        try (ChunkPrefetchReader reader = chunkPrefetchService.openReader(entry.workspaceUrl, entry.accessToken,
+                entry.statementId, entry.columns, 0, entry.totalChunks)) {
+            while (reader.hasNext()) {
+                int chunkIndex = reader.nextIndex();
+                Map<String, Object> chunk = reader.next();
+                if (!Boolean.TRUE.equals(chunk.get("success"))) {
+                    throw new IOException("Failed to get chunk " + chunkIndex + " of " + entry.statementId + ": " + chunk.get("error"));
+                }
+                ColumnarBatch rows = (ColumnarBatch) chunk.get("rows");
+                if (data.getRowCount() + rows.getRowCount() > maxRows) {
+                    throw new IOException("Result has more than " + maxRows + " rows. Use export instead.");
+                }
+                data.append(rows);
+            }
+            data.finish();
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            throw e;
+        }
+        return data;
+    }
+
+    /**
+     * 정렬/필터가 적용된 행 번호 목록 (캐시) - 둘 다 없으면 null (원래 순서 전체)
+     */
+    private int[] view(StoredResult entry, ResultBuffer data, List<SortKey> sorts, List<Filter> filters) {
+        if (sorts.isEmpty() && filters.isEmpty()) {
+            return null;
+        }
+        String sortKey = sorts.toString();
+        String viewKey = sortKey + "|" + filters;
+        int[] view = entry.getView(viewKey);
+        if (view != null) {
+            return view;
+        }
+
+        int[] ordered = null;
+        if (!sorts.isEmpty()) {
+            ordered = filters.isEmpty() ? null : entry.getView(sortKey + "|[]");
+            if (ordered == null) {
+                ordered = sort(entry, data, sorts);
+                entry.putView(sortKey + "|[]", ordered, databricksConfig.getResultStore().getMaxViews());
+            }
+            if (filters.isEmpty()) {
+                return ordered;
+            }
+        }
+
+        view = filter(data, ordered, filters);
+        entry.putView(viewKey, view, databricksConfig.getResultStore().getMaxViews());
+        return view;
+    }
+
+    private static int[] sort(StoredResult entry, ResultBuffer data, List<SortKey> sorts) {
+        int rowCount = data.getRowCount();
+        int[] rows = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = i;
+        }
+
+        long[][] keys = new long[sorts.size()][];
+        boolean[] descending = new boolean[sorts.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entry.sortKeys(data, sorts.get(i).columnIndex);
+            descending[i] = sorts.get(i).descending;
+        }
+        // DESC는 비교 결과를 뒤집으므로 NULL이 마지막 (Databricks 기본값 NULLS LAST와 같음)
+        RowComparator comparator = (a, b) -> {
+            for (int i = 0; i < keys.length; i++) {
+                int compared = Long.compare(keys[i][a], keys[i][b]);
+                if (compared != 0) {
+                    return descending[i] ? -compared : compared;
+                }
+            }
+            return 0;
+        };
+        mergeSort(rows, new int[rowCount], 0, rowCount, comparator);
+        return rows;
+    }
+
+    /**
+     * 컬럼 값을 순서가 같은 long 키로 변환합니다 (NULL이 가장 작음).
+     * 정렬할 때는 이 키만 비교하므로 타입별 분기나 문자열 비교가 반복되지 않습니다.
+     */
+    private static long[] computeSortKeys(ColumnVector vector, int rowCount) {
+        long[] keys = new long[rowCount];
+        if (vector instanceof LongColumnVector longVector) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? Long.MIN_VALUE : longVector.getLong(row);
+            }
+        } else if (vector instanceof DoubleColumnVector doubleVector) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? Long.MIN_VALUE : sortableBits(doubleVector.getDouble(row));
+            }
+        } else if (vector instanceof BooleanColumnVector booleanVector) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? -1 : (booleanVector.getBoolean(row) ? 1 : 0);
+            }
+        } else if (vector instanceof DecimalColumnVector decimalVector && decimalVector.isCompact()) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? Long.MIN_VALUE : decimalVector.getUnscaled(row);
+            }
+        } else if (vector instanceof DateColumnVector dateVector) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? Long.MIN_VALUE : dateVector.getEpochDay(row);
+            }
+        } else if (vector instanceof TimestampColumnVector timestampVector) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? Long.MIN_VALUE : timestampVector.getEpochMicros(row);
+            }
+        } else if (vector instanceof StringColumnVector stringVector && stringVector.isDictionaryEncoded()) {
+            for (int row = 0; row < rowCount; row++) {
+                keys[row] = vector.isNull(row) ? -1 : stringVector.getDictionaryRank(row);
+            }
+        } else {
+            // 사전 인코딩이 아닌 문자열, long 범위를 넘는 DECIMAL - 값 순서대로 한 번 정렬해 순위를 키로 사용
+            int[] rows = new int[rowCount];
+            int nonNull = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (vector.isNull(row)) {
+                    keys[row] = -1;
+                } else {
+                    rows[nonNull++] = row;
+                }
+            }
+            mergeSort(rows, new int[nonNull], 0, nonNull, vector::compare);
+            long rank = 0;
+            for (int i = 0; i < nonNull; i++) {
+                if (i > 0 && vector.compare(rows[i - 1], rows[i]) != 0) {
+                    rank++;
+                }
+                keys[rows[i]] = rank;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * double → 대소 관계가 같은 long (음수/양수 모두)
+     */
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * int 행 번호 배열 안정 정렬 (같은 값은 원래 순서 유지, 박싱 없음)
+     */
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, RowComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid, comparator);
+        mergeSort(rows, buffer, mid, to, comparator);
+        if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+            return; // 이미 정렬된 구간
+        }
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        int target = from;
+        while (left < mid && right < to) {
+            rows[target++] = comparator.compare(buffer[right], buffer[left]) < 0 ? buffer[right++] : buffer[left++];
+        }
+        while (left < mid) {
+            rows[target++] = buffer[left++];
+        }
+        while (right < to) {
+            rows[target++] = buffer[right++];
+        }
+    }
+
+    /**
+     * @param ordered 정렬된 행 번호 (null이면 원래 순서)
+     */
+    private static int[] filter(ResultBuffer data, int[] ordered, List<Filter> filters) {
+        // 조건 컬럼만 벡터로 읽어 옴 - 파일에 있는 결과도 다른 컬럼은 힙에 올리지 않음
+        IntPredicate[] predicates = new IntPredicate[filters.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            Filter filter = filters.get(i);
+            predicates[i] = predicate(data.column(filter.columnIndex), filter.operator, filter.value);
+        }
+
+        int rowCount = data.getRowCount();
+        int[] matched = new int[Math.min(rowCount, 1024)];
+        int size = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int row = ordered != null ? ordered[i] : i;
+            boolean accepted = true;
+            for (IntPredicate predicate : predicates) {
+                if (!predicate.test(row)) {
+                    accepted = false;
+                    break;
+                }
+            }
+            if (accepted) {
+                if (size == matched.length) {
+                    matched = Arrays.copyOf(matched, Math.min(rowCount, matched.length * 2));
+                }
+                matched[size++] = row;
+            }
+        }
+        return Arrays.copyOf(matched, size);
+    }
+
+    private static List<SortKey> parseSorts(List<DatabricksColumn> columns, List<String> sorts) {
+        List<SortKey> keys = new ArrayList<>();
+        if (sorts == null) {
+            return keys;
+        }
+        for (String sort : sorts) {
+            if (sort == null || sort.isBlank()) {
+                continue;
+            }
+            String columnName = sort.trim();
+            boolean descending = false;
+            int colon = columnName.lastIndexOf(':');
+            if (colon > 0) {
+                String direction = columnName.substring(colon + 1).trim().toLowerCase(Locale.ROOT);
+                if (direction.equals("asc") || direction.equals("desc")) {
+                    descending = direction.equals("desc");
+                    columnName = columnName.substring(0, colon);
+                }
+            }
+            keys.add(new SortKey(columnIndex(columns, columnName), descending));
+        }
+        return keys;
+    }
+
+    private static List<Filter> parseFilters(List<DatabricksColumn> columns, List<String> filters) {
+        List<Filter> parsed = new ArrayList<>();
+        if (filters == null) {
+            return parsed;
+        }
+        for (String filter : filters) {
+            if (filter == null || filter.isBlank()) {
+                continue;
+            }
+            String[] parts = filter.split(":", 3);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Invalid filter (expected column:operator[:value]): " + filter);
+            }
+            int columnIndex = columnIndex(columns, parts[0]);
+            String operator = parts[1].trim().toLowerCase(Locale.ROOT);
+            String value = parts.length == 3 ? parts[2] : null;
+            parsed.add(new Filter(filter, columnIndex, operator, value));
+        }
+        return parsed;
+    }
+
+    private static int columnIndex(List<DatabricksColumn> columns, String columnName) {
+        String name = columnName.trim();
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column: " + name);
+    }
+
+    /**
+     * 조건 하나를 행 번호 → 일치 여부 함수로 변환합니다. null/notnull 외의 조건은 NULL 행과 일치하지 않습니다 (SQL과 동일).
+     * 지원: eq, ne, gt, ge, lt, le, in (쉼표 구분), contains, startswith, endswith (대소문자 무시), null, notnull
+     */
+    private static IntPredicate predicate(ColumnVector vector, String operator, String value) {
+        if (operator.equals("null")) {
+            return vector::isNull;
+        }
+        if (operator.equals("notnull")) {
+            return row -> !vector.isNull(row);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Filter value is required for operator: " + operator);
+        }
+
+        IntPredicate matches;
+        switch (operator) {
+            case "contains":
+            case "startswith":
+            case "endswith": {
+                String needle = value.toLowerCase(Locale.ROOT);
+                matches = row -> {
+                    String text = vector.getText(row).toLowerCase(Locale.ROOT);
+                    return operator.equals("contains") ? text.contains(needle)
+                        : operator.equals("startswith") ? text.startsWith(needle) : text.endsWith(needle);
+                };
+                break;
+            }
+            case "in": {
+                List<ValueComparator> candidates = new ArrayList<>();
+                for (String candidate : value.split(",")) {
+                    candidates.add(comparator(vector, candidate));
+                }
+                matches = row -> {
+                    for (ValueComparator candidate : candidates) {
+                        if (candidate.compareTo(row) == 0) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+                break;
+            }
+            default: {
+                ValueComparator comparator = comparator(vector, value);
+                IntPredicate test = comparison(operator);
+                matches = row -> test.test(comparator.compareTo(row));
+            }
+        }
+        return row -> !vector.isNull(row) && matches.test(row);
+    }
+
+    private static ValueComparator comparator(ColumnVector vector, String value) {
+        String text = value.trim();
+        try {
+            if (vector instanceof DecimalColumnVector decimalVector) {
+                BigDecimal target = new BigDecimal(text);
+                if (decimalVector.isCompact()) {
+                    try {
+                        long unscaledTarget = target.setScale(decimalVector.getScale()).unscaledValue().longValueExact();
+                        return row -> Long.compare(decimalVector.getUnscaled(row), unscaledTarget);
+                    } catch (ArithmeticException e) {
+                        // 컬럼 scale보다 소수 자릿수가 많거나 long 범위 밖인 비교값
+                    }
+                }
+                return row -> decimalVector.getDecimal(row).compareTo(target);
+            }
+            if (vector instanceof LongColumnVector longVector) {
+                try {
+                    long target = Long.parseLong(text);
+                    return row -> Long.compare(longVector.getLong(row), target);
+                } catch (NumberFormatException e) {
+                    double target = Double.parseDouble(text);
+                    return row -> Double.compare(longVector.getLong(row), target);
+                }
+            }
+            if (vector instanceof DoubleColumnVector doubleVector) {
+                double target = Double.parseDouble(text);
+                return row -> Double.compare(doubleVector.getDouble(row), target);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+        try {
+            if (vector instanceof DateColumnVector dateVector) {
+                long target = LocalDate.parse(text).toEpochDay();
+                return row -> Long.compare(dateVector.getEpochDay(row), target);
+            }
+            if (vector instanceof TimestampColumnVector timestampVector) {
+                long target = TimestampColumnVector.parseEpochMicros(text.toCharArray(), 0, text.length());
+                return row -> Long.compare(timestampVector.getEpochMicros(row), target);
+            }
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date/time: " + value);
+        }
+        if (vector instanceof BooleanColumnVector booleanVector) {
+            if (!text.equalsIgnoreCase("true") && !text.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("Invalid boolean: " + value);
+            }
+            boolean target = Boolean.parseBoolean(text);
+            return row -> Boolean.compare(booleanVector.getBoolean(row), target);
+        }
+        if (vector instanceof StringColumnVector stringVector) {
+            return row -> stringVector.getString(row).compareTo(value);
+        }
+        return row -> vector.getText(row).compareTo(value);
+    }
+
+    private static IntPredicate comparison(String operator) {
+        switch (operator) {
+            case "eq": return compared -> compared == 0;
+            case "ne": return compared -> compared != 0;
+            case "gt": return compared -> compared > 0;
+            case "ge": return compared -> compared >= 0;
+            case "lt": return compared -> compared < 0;
+            case "le": return compared -> compared <= 0;
+            default: throw new IllegalArgumentException("Unknown filter operator: " + operator);
+        }
+    }
+
+    /**
+     * 메모리 사용량이 한도를 넘으면 방금 사용한 결과를 제외하고 오래 조회되지 않은 결과부터
+     * 힙에 둔 앞부분과 정렬 키, 캐시한 행 번호 목록을 비웁니다.
+     */
+    private void enforceMemoryLimit(StoredResult current) {
+        long limit = databricksConfig.getResultStore().getMaxMemoryBytes();
+        while (memoryBytes.get() > limit) {
+            StoredResult oldest = null;
+            for (StoredResult entry : results.values()) {
+                if (entry != current && entry.data != null && (entry.data.getHeapRowCount() > 0 || entry.derivedBytes() > 0)
+                        && (oldest == null || entry.lastAccess < oldest.lastAccess)) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null || !spill(oldest)) {
+                return;
+            }
+        }
+    }
+
+    private boolean spill(StoredResult entry) {
+        synchronized (entry) {
+            ResultBuffer data = entry.data;
+            if (data == null) {
+                return true;
+            }
+            try {
+                // 결과는 바뀌지 않으므로 이미 기록한 파일이 있으면 앞부분만 버림
+                data.releaseHeap();
+            } catch (IOException e) {
+                log.warn("Failed to spill statement {} to disk: {}", entry.statementId, e.getMessage());
+                return false;
+            }
+            long bytes = data.heapBytes();
+            memoryBytes.addAndGet(bytes - entry.bytes);
+            entry.bytes = bytes;
+            entry.releaseDerived();
+            log.debug("Spilled statement {} to disk: {}", entry.statementId, data);
+            return true;
+        }
+    }
+
+    private void evictIdle() {
+        long threshold = System.currentTimeMillis() - databricksConfig.getResultStore().getIdleTimeoutMillis();
+        for (StoredResult entry : results.values()) {
+            if (entry.lastAccess < threshold && results.remove(entry.statementId, entry)) {
+                discard(entry);
+            }
+        }
+    }
+
+    private void discard(StoredResult entry) {
+        synchronized (entry) {
+            ResultBuffer data = entry.data;
+            entry.releaseDerived();
+            if (data != null) {
+                memoryBytes.addAndGet(-entry.bytes);
+                entry.data = null;
+                try {
+                    data.close();
+                } catch (IOException e) {
+                    log.warn("Failed to delete spill file of statement {}: {}", entry.statementId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {workspaceUrl, accessToken}, 설정이 없으면 null
+     */
+    private String[] resolveCredentials(String userId) {
+        Optional<UserToken> tokenOpt = userTokenService.getDatabricksToken(userId);
+        if (tokenOpt.isPresent()) {
+            return new String[] { tokenOpt.get().getWorkspaceUrl(), userTokenService.decryptToken(tokenOpt.get()) };
+        }
+        String workspaceUrl = databricksConfig.getDefault().getWorkspaceUrl();
+        String accessToken = databricksConfig.getDefault().getAccessToken();
+        return workspaceUrl != null && accessToken != null ? new String[] { workspaceUrl, accessToken } : null;
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int rowA, int rowB);
+    }
+
+    @FunctionalInterface
+    private interface ValueComparator {
+        int compareTo(int row);
+    }
+
+    private record SortKey(int columnIndex, boolean descending) {
+        @Override
+        public String toString() {
+            return columnIndex + (descending ? " desc" : " asc");
+        }
+    }
+
+    private record Filter(String text, int columnIndex, String operator, String value) {
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * statement 하나의 전체 결과
+     */
+    private static final class StoredResult {
+        private final String statementId;
+        private final String userId;
+        private final String credentialKey;
+        private final String workspaceUrl;
+        private final String accessToken;
+        private final List<DatabricksColumn> columns;
+        private final int totalChunks;
+        private final Map<String, int[]> views = new LinkedHashMap<>(16, 0.75f, true); // 접근 순서 (LRU)
+        private final AtomicLong memoryBytes; // 서비스 전체 메모리 사용량 (정렬 키, 행 번호 목록 크기를 더하고 뺌)
+
+        private volatile ResultBuffer data; // 아직 받아 오지 않았으면 null
+        private long[][] sortKeys; // 컬럼별 정렬 키 (처음 정렬할 때 계산)
+        private long bytes; // 힙에 둔 크기
+        private long derivedBytes; // 정렬 키와 캐시한 행 번호 목록 크기
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        StoredResult(String statementId, String userId, String credentialKey, ResultExportService.ExportSource source,
+                     AtomicLong memoryBytes) {
+            this.statementId = statementId;
+            this.userId = userId;
+            this.credentialKey = credentialKey;
+            this.workspaceUrl = source.getWorkspaceUrl();
+            this.accessToken = source.getAccessToken();
+            this.columns = source.getColumns();
+            this.totalChunks = source.getTotalChunks();
+            this.memoryBytes = memoryBytes;
+        }
+
+        synchronized int[] getView(String key) {
+            return views.get(key);
+        }
+
+        synchronized void putView(String key, int[] view, int maxViews) {
+            int[] previous = views.put(key, view);
+            long delta = viewBytes(view) - (previous != null ? viewBytes(previous) : 0);
+            Iterator<int[]> oldest = views.values().iterator();
+            while (views.size() > Math.max(1, maxViews) && oldest.hasNext()) {
+                delta -= viewBytes(oldest.next());
+                oldest.remove();
+            }
+            addDerived(delta);
+        }
+
+        synchronized long[] sortKeys(ResultBuffer data, int columnIndex) {
+            if (sortKeys == null) {
+                sortKeys = new long[columns.size()][];
+            }
+            if (sortKeys[columnIndex] == null) {
+                sortKeys[columnIndex] = computeSortKeys(data.column(columnIndex), data.getRowCount());
+                addDerived(16L + 8L * sortKeys[columnIndex].length); // 배열 헤더 + long
+            }
+            return sortKeys[columnIndex];
+        }
+
+        synchronized long derivedBytes() {
+            return derivedBytes;
+        }
+
+        /**
+         * 정렬 키와 행 번호 목록은 필요하면 다시 계산하므로 버리고 메모리 사용량에서 뺍니다.
+         */
+        synchronized void releaseDerived() {
+            views.clear();
+            sortKeys = null;
+            addDerived(-derivedBytes);
+        }
+
+        private void addDerived(long delta) {
+            derivedBytes += delta;
+            memoryBytes.addAndGet(delta);
+        }
+
+        private static long viewBytes(int[] view) {
+            return 16L + 4L * view.length; // 배열 헤더 + int
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.lina.dataportal.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 실행 중인 쿼리 목록
+ * Databricks statementId(생성된 뒤) 또는 화면에서 넘긴 queryId로 찾아 취소할 수 있습니다.
+ * statementId는 첫 응답 전에는 화면에 전달되지 않으므로, 실행 중 취소에는 queryId를 사용합니다.
+ * 여러 요청이 함께 쓰는 statement는 statementId로 찾아도 실행 자체가 아니라 호출자 자신의 구독이 나옵니다.
+ */
+@Service
+public class RunningQueryRegistry {
+
+    private final Map<String, RunningQuery> byStatementId = new ConcurrentHashMap<>();
+    private final Map<String, RunningQuery> byQueryId = new ConcurrentHashMap<>();
+    private final Map<String, Set<RunningQuery>> subscribersByStatementId = new ConcurrentHashMap<>();
+
+    public RunningQuery register(String userId, String queryId) {
+        RunningQuery running = new RunningQuery(userId, queryId);
+        if (queryId != null) {
+            byQueryId.put(queryId, running);
+        }
+        return running;
+    }
+
+    /**
+     * 실행을 공유하는 요청들이 따라갈 RunningQuery (QueryService.joinInFlight)
+     * statementId로 직접 찾을 수 없고, 취소는 구독한 요청을 통해서만 전달됩니다.
+     */
+    public RunningQuery registerShared(String userId) {
+        RunningQuery running = new RunningQuery(userId, null);
+        running.shared = true;
+        return running;
+    }
+
+    public void bindStatement(RunningQuery running, String statementId) {
+        running.statementId = statementId;
+        if (!running.shared) {
+            byStatementId.put(statementId, running);
+            return;
+        }
+        for (RunningQuery follower : running.followers) {
+            indexFollower(follower, statementId);
+        }
+    }
+
+    /**
+     * 공유 실행(registerShared)의 statementId를 따라갑니다. 따라가는 요청은 statementId로 찾을 수 있습니다.
+     * @param mirrorState true면 실행 상태(PENDING, RUNNING 등)도 그대로 표시
+     */
+    public void follow(RunningQuery follower, RunningQuery leader, boolean mirrorState) {
+        leader.followers.add(follower);
+        Runnable sync = () -> {
+            if (leader.statementId != null) {
+                indexFollower(follower, leader.statementId);
+            }
+            if (mirrorState) {
+                follower.setState(leader.getState());
+            }
+        };
+        Runnable removeListener = leader.addStateListener(state -> sync.run());
+        follower.unfollow = () -> {
+            removeListener.run();
+            leader.followers.remove(follower);
+        };
+        sync.run();
+    }
+
+    private void indexFollower(RunningQuery follower, String statementId) {
+        follower.statementId = statementId;
+        subscribersByStatementId.computeIfAbsent(statementId, id -> ConcurrentHashMap.newKeySet()).add(follower);
+    }
+
+    public void remove(RunningQuery running) {
+        if (running.queryId != null) {
+            byQueryId.remove(running.queryId, running);
+        }
+        if (running.statementId != null) {
+            byStatementId.remove(running.statementId, running);
+            subscribersByStatementId.computeIfPresent(running.statementId, (id, subscribers) -> {
+                subscribers.remove(running);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        if (running.unfollow != null) {
+            running.unfollow.run();
+        }
+    }
+
+    /**
+     * statementId 또는 queryId로 조회 - 다른 사용자의 쿼리면 null을 반환합니다.
+     */
+    public RunningQuery find(String id, String userId) {
+        List<RunningQuery> found = findAll(id, userId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * statementId 또는 queryId로 찾은 사용자의 요청
+     * 공유 statement면 이 사용자가 구독한 요청만 반환합니다 (같은 사용자가 여러 번 붙었으면 모두).
+     */
+    public List<RunningQuery> findAll(String id, String userId) {
+        List<RunningQuery> result = new ArrayList<>();
+        RunningQuery running = byStatementId.get(id);
+        if (running == null) {
+            running = byQueryId.get(id);
+        }
+        if (running != null && running.userId.equals(userId)) {
+            result.add(running);
+        }
+        for (RunningQuery subscriber : subscribersByStatementId.getOrDefault(id, Set.of())) {
+            if (subscriber.userId.equals(userId) && !result.contains(subscriber)) {
+                result.add(subscriber);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 사용자의 실행 중인 쿼리 (queryId를 넘긴 쿼리와 statement가 만들어진 쿼리)
+     */
+    public List<RunningQuery> list(String userId) {
+        List<RunningQuery> result = new ArrayList<>();
+        for (RunningQuery running : byQueryId.values()) {
+            if (running.userId.equals(userId)) {
+                result.add(running);
+            }
+        }
+        for (RunningQuery running : byStatementId.values()) {
+            if (running.userId.equals(userId) && running.queryId == null) {
+                result.add(running);
+            }
+        }
+        for (Set<RunningQuery> subscribers : subscribersByStatementId.values()) {
+            for (RunningQuery running : subscribers) {
+                if (running.userId.equals(userId) && running.queryId == null) {
+                    result.add(running);
+                }
+            }
+        }
+        return result;
+    }
+
+    public static final class RunningQuery {
+        private final String userId;
+        private final String queryId;
+        private final long startedAt = System.currentTimeMillis();
+        private volatile String statementId;
+        private CompletableFuture<?> execution;
+        private boolean cancelled;
+        private volatile QueryAdmissionService.Ticket admission;
+        private volatile String state = "QUEUED"; // 예: QUEUED, PENDING, RUNNING, SUCCEEDED (Databricks statement 상태)
+        private final List<Consumer<String>> stateListeners = new CopyOnWriteArrayList<>();
+        private final List<RunningQuery> followers = new CopyOnWriteArrayList<>();
+        private boolean shared; // 여러 요청이 함께 쓰는 실행 (registerShared)
+        private volatile Runnable unfollow;
+
+        RunningQuery(String userId, String queryId) {
+            this.userId = userId;
+            this.queryId = queryId;
+        }
+
+        public synchronized void attach(CompletableFuture<?> execution) {
+            this.execution = execution;
+            if (cancelled) {
+                execution.cancel(false);
+            }
+        }
+
+        public synchronized void cancel() {
+            cancelled = true;
+            if (execution != null) {
+                execution.cancel(false);
+            }
+        }
+
+        public void setAdmission(QueryAdmissionService.Ticket admission) {
+            this.admission = admission;
+        }
+
+        /**
+         * 현재 대기 순번 (실행 중이면 0)
+         */
+        public int getQueuePosition() {
+            QueryAdmissionService.Ticket ticket = admission;
+            return ticket != null ? ticket.getCurrentPosition() : 0;
+        }
+
+        /**
+         * 대기열에서 기다린 시간 (대기열을 거치지 않았으면 0)
+         */
+        public long getQueueWaitMillis() {
+            QueryAdmissionService.Ticket ticket = admission;
+            return ticket != null ? ticket.getWaitMillis() : 0;
+        }
+
+        public void setState(String state) {
+            if (state.equals(this.state)) {
+                return;
+            }
+            this.state = state;
+            stateListeners.forEach(listener -> listener.accept(state));
+        }
+
+        /**
+         * 상태가 바뀔 때마다 호출 - 반환한 Runnable로 해제합니다.
+         */
+        public Runnable addStateListener(Consumer<String> listener) {
+            stateListeners.add(listener);
+            return () -> stateListeners.remove(listener);
+        }
+
+        public String getState() { return state; }
+        public String getQueryId() { return queryId; }
+        public String getStatementId() { return statementId; }
+        public long getStartedAt() { return startedAt; }
+    }
+}
@@ -0,0 +1,348 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Unity Catalog 스키마 트리(카탈로그 → 스키마 → 테이블) 크롤 및 캐시
+ * 스키마별 테이블 조회를 동시 요청 수 제한 안에서 병렬로 보내고,
+ * 결과 트리는 워크스페이스 + 자격 증명별로 캐시합니다 (사용자마다 볼 수 있는 카탈로그가 다름).
+ * refresh-after가 지나면 기존 트리를 바로 반환하면서 백그라운드에서 다시 크롤합니다.
+ */
+@Service
+public class SchemaCrawlService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaCrawlService.class);
+
+    @Autowired
+    private DatabricksApiClient databricksApiClient;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    private final Map<String, TreeEntry> trees = new ConcurrentHashMap<>();
+
+    private final List<ListingListener> listingListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void scheduleCleanup() {
+        long interval = Math.max(1000, databricksConfig.getSchema().getExpireAfterMillis());
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 스키마 트리 조회
+     * @param forceRefresh true면 캐시를 무시하고 크롤이 끝날 때까지 기다립니다.
+     */
+    public List<Map<String, Object>> getSchemaTree(String workspaceUrl, String accessToken, boolean forceRefresh) {
+        TreeEntry entry = trees.computeIfAbsent(CredentialFingerprint.of(workspaceUrl, accessToken), key -> new TreeEntry());
+        DatabricksConfig.Schema config = databricksConfig.getSchema();
+
+        List<Map<String, Object>> tree;
+        long age;
+        synchronized (entry) {
+            tree = entry.tree;
+            age = System.currentTimeMillis() - entry.loadedAt;
+        }
+
+        if (tree != null && !forceRefresh && age < config.getExpireAfterMillis()) {
+            if (age >= config.getRefreshAfterMillis()) {
+                refresh(entry, workspaceUrl, accessToken); // stale-while-revalidate
+            }
+            return tree;
+        }
+
+        // 처음이거나 만료됨 - 같은 워크스페이스를 동시에 요청한 사용자는 진행 중인 크롤을 함께 기다림
+        try {
+            return refresh(entry, workspaceUrl, accessToken).join();
+        } catch (CompletionException e) {
+            if (tree != null) {
+                log.warn("Schema crawl failed, serving cached tree: {}", e.getCause().getMessage());
+                return tree;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 캐시된 스키마 트리 (크롤하지 않음)
+     * @return 아직 크롤하지 않았거나 만료되었으면 null
+     */
+    public List<Map<String, Object>> getCachedSchemaTree(String workspaceUrl, String accessToken) {
+        TreeEntry entry = trees.get(CredentialFingerprint.of(workspaceUrl, accessToken));
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            boolean expired = System.currentTimeMillis() - entry.loadedAt >= databricksConfig.getSchema().getExpireAfterMillis();
+            return expired ? null : entry.tree;
+        }
+    }
+
+    /**
+     * 크롤 중 스키마별 테이블 목록(컬럼, updated_at 포함)을 받을 때마다 호출됩니다.
+     */
+    public void addListingListener(ListingListener listener) {
+        listingListeners.add(listener);
+    }
+
+    /**
+     * 캐시와 별개로 한 번 크롤하면서 카탈로그/스키마/테이블 목록과 실패 여부를 observer에 전달합니다 (카탈로그 동기화).
+     * 트리 크롤과 같은 동시 요청 수 제한을 쓰며, 등록된 ListingListener에도 테이블 목록이 전달됩니다.
+     */
+    public CompletableFuture<Void> crawl(String workspaceUrl, String accessToken, CrawlObserver observer) {
+        return crawlTree(workspaceUrl, accessToken, observer).thenApply(tree -> null);
+    }
+
+    private CompletableFuture<List<Map<String, Object>>> refresh(TreeEntry entry, String workspaceUrl, String accessToken) {
+        synchronized (entry) {
+            if (entry.inFlight != null) {
+                return entry.inFlight;
+            }
+
+            long startTime = System.currentTimeMillis();
+            CompletableFuture<List<Map<String, Object>>> crawl = crawlTree(workspaceUrl, accessToken, null);
+            entry.inFlight = crawl;
+            crawl.whenComplete((tree, e) -> {
+                synchronized (entry) {
+                    entry.inFlight = null;
+                    if (e == null) {
+                        entry.tree = tree;
+                        entry.loadedAt = System.currentTimeMillis();
+                    }
+                }
+                if (e == null) {
+                    log.debug("Schema crawl of {} finished: {} schemas in {}ms", workspaceUrl, tree.size(),
+                        System.currentTimeMillis() - startTime);
+                }
+            });
+            return crawl;
+        }
+    }
+
+    /**
+     * 카탈로그 목록 → 카탈로그별 스키마 목록 → 스키마별 테이블 목록을 병렬로 조회합니다.
+     * 스키마나 테이블 조회에 실패한 카탈로그/스키마는 기존과 같이 건너뜁니다.
+     */
+    private CompletableFuture<List<Map<String, Object>>> crawlTree(String workspaceUrl, String accessToken,
+                                                                   CrawlObserver observer) {
+        CrawlLimiter limiter = new CrawlLimiter(databricksConfig.getSchema().getCrawlConcurrency());
+
+        return limiter.submit(() -> databricksApiClient.listCatalogs(workspaceUrl, accessToken))
+            .thenCompose(catalogsResult -> {
+                if (!Boolean.TRUE.equals(catalogsResult.get("success"))) {
+                    throw new RuntimeException("Failed to list catalogs: " + catalogsResult.get("error"));
+                }
+
+                List<Map<String, Object>> catalogs = (List<Map<String, Object>>) catalogsResult.get("catalogs");
+                if (observer != null) {
+                    observer.onCatalogs(catalogs.stream().map(catalog -> (String) catalog.get("name")).toList());
+                }
+                List<CompletableFuture<List<Map<String, Object>>>> catalogFutures = new ArrayList<>();
+                for (Map<String, Object> catalog : catalogs) {
+                    String catalogName = (String) catalog.get("name");
+                    catalogFutures.add(limiter
+                        .submit(() -> databricksApiClient.listSchemas(workspaceUrl, accessToken, catalogName))
+                        .thenCompose(schemasResult -> crawlSchemas(limiter, workspaceUrl, accessToken, catalogName,
+                            schemasResult, observer)));
+                }
+                return joinAll(catalogFutures).thenApply(perCatalog -> {
+                    List<Map<String, Object>> schemas = new ArrayList<>();
+                    perCatalog.forEach(schemas::addAll);
+                    return schemas;
+                });
+            });
+    }
+
+    private CompletableFuture<List<Map<String, Object>>> crawlSchemas(CrawlLimiter limiter, String workspaceUrl, String accessToken,
+                                                                      String catalogName, Map<String, Object> schemasResult,
+                                                                      CrawlObserver observer) {
+        if (!Boolean.TRUE.equals(schemasResult.get("success"))) {
+            if (observer != null) {
+                observer.onSchemas(catalogName, null);
+            }
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        List<Map<String, Object>> catalogSchemas = (List<Map<String, Object>>) schemasResult.get("schemas");
+        if (observer != null) {
+            observer.onSchemas(catalogName, catalogSchemas.stream().map(schema -> (String) schema.get("name")).toList());
+        }
+        List<CompletableFuture<Map<String, Object>>> schemaFutures = new ArrayList<>();
+        for (Map<String, Object> schema : catalogSchemas) {
+            String schemaName = (String) schema.get("name");
+            schemaFutures.add(limiter
+                .submit(() -> databricksApiClient.listTables(workspaceUrl, accessToken, catalogName, schemaName))
+                .thenApply(tablesResult -> {
+                    if (!Boolean.TRUE.equals(tablesResult.get("success"))) {
+                        if (observer != null) {
+                            observer.onTables(catalogName, schemaName, null);
+                        }
+                        return null;
+                    }
+                    List<Map<String, Object>> tables = (List<Map<String, Object>>) tablesResult.get("tables");
+                    if (observer != null) {
+                        observer.onTables(catalogName, schemaName, tables);
+                    }
+                    for (ListingListener listener : listingListeners) {
+                        listener.onTables(workspaceUrl, accessToken, tables);
+                    }
+
+                    Map<String, Object> schemaInfo = new HashMap<>();
+                    schemaInfo.put("name", catalogName + "." + schemaName);
+                    schemaInfo.put("catalog", catalogName);
+                    schemaInfo.put("schema", schemaName);
+                    schemaInfo.put("tables", tables.stream().map(this::createTableFromDatabricks).toList());
+                    return schemaInfo;
+                }));
+        }
+        return joinAll(schemaFutures).thenApply(schemas -> schemas.stream().filter(schema -> schema != null).toList());
+    }
+
+    private Map<String, Object> createTableFromDatabricks(Map<String, Object> databricksTable) {
+        Map<String, Object> table = new HashMap<>();
+        table.put("name", databricksTable.get("name"));
+        table.put("description", databricksTable.getOrDefault("comment", ""));
+        table.put("rowCount", "Unknown"); // Databricks doesn't provide row count in list API
+        table.put("catalog", databricksTable.get("catalog_name"));
+        table.put("schema", databricksTable.get("schema_name"));
+        table.put("tableType", databricksTable.getOrDefault("table_type", "TABLE"));
+        return table;
+    }
+
+    /**
+     * 순서를 유지한 채 모든 future의 결과를 모읍니다.
+     */
+    private static <T> CompletableFuture<List<T>> joinAll(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private void evictExpired() {
+        long threshold = System.currentTimeMillis() - databricksConfig.getSchema().getExpireAfterMillis();
+        trees.values().removeIf(entry -> {
+            synchronized (entry) {
+                return entry.inFlight == null && entry.loadedAt < threshold;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface ListingListener {
+        void onTables(String workspaceUrl, String accessToken, List<Map<String, Object>> tables);
+    }
+
+    /**
+     * 크롤 하나의 목록 결과 - IO 스레드에서 동시에 호출될 수 있습니다.
+     */
+    public interface CrawlObserver {
+        void onCatalogs(List<String> catalogNames);
+
+        /**
+         * @param schemaNames 스키마 목록 조회에 실패했으면 null
+         */
+        void onSchemas(String catalogName, List<String> schemaNames);
+
+        /**
+         * @param tables 테이블 목록 조회에 실패했으면 null
+         */
+        void onTables(String catalogName, String schemaName, List<Map<String, Object>> tables);
+    }
+
+    private static final class TreeEntry {
+        private List<Map<String, Object>> tree;
+        private long loadedAt;
+        private CompletableFuture<List<Map<String, Object>>> inFlight;
+    }
+
+    /**
+     * 크롤 하나의 동시 요청 수 제한
+     * 제한을 넘는 요청은 큐에 두었다가 앞선 요청이 끝나면 IO 풀에서 이어서 실행합니다 (대기 중 스레드를 점유하지 않음).
+     * IO 풀 대기열이 가득 차 거절되면 해당 요청의 future를 RejectedExecutionException으로 완료합니다.
+     */
+    private final class CrawlLimiter {
+        private final int limit;
+        private final Queue<CrawlTask> pending = new ArrayDeque<>();
+        private int running;
+
+        CrawlLimiter(int limit) {
+            this.limit = Math.max(1, limit);
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<T> call) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            CrawlTask task = new CrawlTask(() -> {
+                try {
+                    future.complete(call.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    release();
+                }
+            }, future);
+
+            synchronized (this) {
+                if (running >= limit) {
+                    pending.add(task);
+                    return future;
+                }
+                running++;
+            }
+            if (!execute(task)) {
+                release();
+            }
+            return future;
+        }
+
+        private void release() {
+            while (true) {
+                CrawlTask next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null) {
+                        running--;
+                        return;
+                    }
+                }
+                if (execute(next)) {
+                    return; // 자리는 다음 요청이 이어받음
+                }
+            }
+        }
+
+        private boolean execute(CrawlTask task) {
+            try {
+                databricksExecutors.io().execute(task.run());
+                return true;
+            } catch (RejectedExecutionException e) {
+                task.future().completeExceptionally(e);
+                return false;
+            }
+        }
+    }
+
+    private record CrawlTask(Runnable run, CompletableFuture<?> future) {
+    }
+}
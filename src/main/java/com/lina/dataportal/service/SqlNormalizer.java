@@ -0,0 +1,275 @@
+package com.lina.dataportal.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 결과 캐시용 SQL 정규화 / 참조 테이블 추출
+ * 주석 제거, 공백 정리, 따옴표 밖 소문자 변환으로 같은 의미의 쿼리를 같은 문자열로 만듭니다.
+ */
+public final class SqlNormalizer {
+
+    // 실행할 때마다 결과가 달라지는 함수 - 캐시하지 않음
+    private static final List<String> NON_DETERMINISTIC = List.of(
+        "current_timestamp", "current_date", "now(", "rand(", "random(", "randn(", "uuid(",
+        "unix_timestamp(", "localtimestamp", "current_time"
+    );
+
+    // 다음 식별자가 테이블인 키워드
+    private static final Set<String> TABLE_PREFIX_KEYWORDS = Set.of(
+        "from", "join", "into", "update", "table", "overwrite", "optimize"
+    );
+
+    private SqlNormalizer() {}
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+
+            // 주석
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                pendingSpace = true;
+                continue;
+            }
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            if (pendingSpace && out.length() > 0) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+
+            // 문자열 리터럴과 따옴표 식별자는 그대로 유지
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < length) {
+                    char q = sql.charAt(end);
+                    if (q == '\\' && c != '`' && end + 1 < length) {
+                        end += 2;
+                        continue;
+                    }
+                    if (q == c) {
+                        break;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, length);
+                out.append(sql, i, end);
+                i = end;
+                continue;
+            }
+
+            out.append(Character.toLowerCase(c));
+            i++;
+        }
+
+        // 끝의 세미콜론 제거
+        int end = out.length();
+        while (end > 0 && (out.charAt(end - 1) == ';' || out.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString();
+    }
+
+    /**
+     * 쿼리 형태 지문 - 문자열/숫자 리터럴을 ?로 바꾸고 IN 목록을 하나로 줄입니다 (실행 이력 통계용).
+     * 예: "select * from t where id in (1, 2, 3) and name = 'a'" → "select * from t where id in (?) and name = ?"
+     */
+    public static String fingerprint(String normalizedSql) {
+        StringBuilder out = new StringBuilder(normalizedSql.length());
+        int i = 0;
+        int length = normalizedSql.length();
+        while (i < length) {
+            char c = normalizedSql.charAt(i);
+            if (c == '\'' || c == '"') {
+                // Databricks SQL에서는 큰따옴표도 문자열 리터럴
+                int end = i + 1;
+                while (end < length) {
+                    char ch = normalizedSql.charAt(end);
+                    if (ch == '\\') {
+                        end += 2;
+                    } else if (ch != c) {
+                        end++;
+                    } else if (end + 1 < length && normalizedSql.charAt(end + 1) == c) {
+                        end += 2; // 'it''s'
+                    } else {
+                        break;
+                    }
+                }
+                out.append('?');
+                i = Math.min(end + 1, length);
+            } else if (c == '`') {
+                int end = normalizedSql.indexOf('`', i + 1);
+                end = end < 0 ? length : end + 1;
+                out.append(normalizedSql, i, end);
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(normalizedSql.charAt(i)) || normalizedSql.charAt(i) == '_')) {
+                    i++;
+                }
+                out.append(normalizedSql, start, i);
+            } else if (Character.isDigit(c)) {
+                while (i < length && (Character.isLetterOrDigit(normalizedSql.charAt(i)) || normalizedSql.charAt(i) == '.')) {
+                    i++; // 1.5, 1e10, 10l, 0.5bd
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString().replaceAll("\\(\\?(?:\\s*,\\s*\\?)+\\)", "(?)");
+    }
+
+    /**
+     * 캐시해도 되는 조회 문장인지 - 실행 전 검사와 같은 기준({@link SqlValidator#isReadOnly})으로 판단합니다.
+     */
+    public static boolean isReadOnly(String normalizedSql) {
+        return SqlValidator.isReadOnly(normalizedSql);
+    }
+
+    public static boolean isDeterministic(String normalizedSql) {
+        String unquoted = stripQuoted(normalizedSql);
+        for (String function : NON_DETERMINISTIC) {
+            if (unquoted.contains(function)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FROM/JOIN/INTO/UPDATE/TABLE 뒤의 테이블 이름 (소문자, 백틱 제거)
+     * 서브쿼리와 테이블 함수는 건너뜁니다. 예: "select * from main.ins.policies p join customers c" → [main.ins.policies, customers]
+     */
+    public static Set<String> referencedTables(String normalizedSql) {
+        List<String> tokens = tokenize(normalizedSql);
+        Set<String> tables = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size() - 1; i++) {
+            if (!TABLE_PREFIX_KEYWORDS.contains(tokens.get(i))) {
+                continue;
+            }
+
+            int j = i + 1;
+            while (j < tokens.size()) {
+                String token = tokens.get(j);
+                if (token.equals("table") || token.equals("if") || token.equals("not") || token.equals("exists")) {
+                    j++; // "insert overwrite table t", "create table if not exists t"
+                    continue;
+                }
+                if (!isIdentifier(token) || (j + 1 < tokens.size() && tokens.get(j + 1).equals("("))) {
+                    break; // 서브쿼리, 테이블 함수
+                }
+                tables.add(token.replace("`", ""));
+
+                // "from a, b" - 별칭을 건너뛰고 콤마 뒤의 테이블도 수집
+                j++;
+                while (j < tokens.size() && isIdentifier(tokens.get(j)) && !TABLE_PREFIX_KEYWORDS.contains(tokens.get(j))
+                    && !isClauseKeyword(tokens.get(j))) {
+                    j++;
+                }
+                if (j < tokens.size() && tokens.get(j).equals(",") && tokens.get(i).equals("from")) {
+                    j++;
+                    continue;
+                }
+                break;
+            }
+        }
+        return tables;
+    }
+
+    private static boolean isClauseKeyword(String token) {
+        return switch (token) {
+            case "where", "group", "order", "having", "limit", "on", "using", "union", "except", "intersect",
+                 "left", "right", "inner", "outer", "full", "cross", "natural", "lateral", "window", "qualify",
+                 "set", "values", "select", "partition", "when", "anti", "semi" -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isIdentifier(String token) {
+        char c = token.charAt(0);
+        return c == '`' || Character.isLetter(c) || c == '_';
+    }
+
+    /**
+     * 식별자(점으로 연결된 이름 포함), 문자열 리터럴, 기호 단위로 나눕니다.
+     */
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length : end + 1;
+                tokens.add(sql.substring(i, end));
+                i = end;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '`') {
+                int start = i;
+                while (i < length) {
+                    char d = sql.charAt(i);
+                    if (d == '`') {
+                        int end = sql.indexOf('`', i + 1);
+                        i = end < 0 ? length : end + 1;
+                    } else if (Character.isLetterOrDigit(d) || d == '_' || d == '.') {
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(sql.substring(start, i).toLowerCase());
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static String stripQuoted(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,606 @@
+package com.lina.dataportal.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 실행 전 SQL 검사
+ * Spark SQL 문법 전체를 파싱하지 않고 토큰과 괄호 구조만으로 판단합니다.
+ * - 읽기 전용 문장(SELECT/WITH/VALUES/TABLE, SHOW/DESCRIBE/EXPLAIN) 하나만 허용
+ *   FROM으로 시작하는 문장은 최상위에 INSERT/MERGE/UPDATE/DELETE가 있으면 변경 문장으로 봄 (FROM src INSERT INTO t SELECT ...)
+ * - 최상위 LIMIT이 없으면 max-rows로 추가하고, 더 크면 max-rows로 줄임
+ * - 조인 조건이 없는 조인(카테시안 곱) 경고
+ * 진단 항목에는 줄/열 위치가 들어 있어 편집기에서 바로 표시할 수 있습니다.
+ */
+public final class SqlValidator {
+
+    public static final String ERROR = "ERROR";
+    public static final String WARNING = "WARNING";
+
+    private static final Set<String> QUERY_KEYWORDS = Set.of("select", "with", "values", "table", "from");
+    private static final Set<String> METADATA_KEYWORDS = Set.of("show", "describe", "desc", "explain");
+    private static final Set<String> SET_OPERATORS = Set.of("union", "except", "intersect", "minus");
+    private static final Set<String> WRITE_KEYWORDS = Set.of("insert", "merge", "update", "delete");
+
+    // FROM 절이 끝나는 키워드
+    private static final Set<String> FROM_END_KEYWORDS = Set.of(
+        "where", "group", "order", "having", "limit", "offset", "window", "qualify", "cluster", "distribute",
+        "sort", "lateral", "pivot", "unpivot", "select", "tablesample"
+    );
+
+    private SqlValidator() {}
+
+    /**
+     * @param maxRows 결과 행 수 상한 - 0 이하면 LIMIT을 적용하지 않음
+     * @param readOnly false면 변경 문장(INSERT 등)도 허용하고 LIMIT은 조회 문장에만 적용
+     */
+    public static Result validate(String sql, int maxRows, boolean readOnly) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (sql == null || sql.isBlank()) {
+            diagnostics.add(new Diagnostic(ERROR, "EMPTY_QUERY", "실행할 SQL이 없습니다.", 1, 1));
+            return new Result(sql, null, null, diagnostics);
+        }
+
+        Parser parser = new Parser(sql, diagnostics);
+        List<Token> tokens = parser.tokenize();
+        Block root = parser.structure(tokens);
+        if (hasErrors(diagnostics)) {
+            return new Result(sql, null, null, diagnostics);
+        }
+
+        // 세미콜론으로 나뉜 문장 - 빈 문장(끝의 ;)은 무시
+        List<List<Object>> statements = new ArrayList<>();
+        List<Object> current = new ArrayList<>();
+        for (Object item : root.items) {
+            if (item instanceof Token token && token.is(";")) {
+                if (!current.isEmpty()) {
+                    statements.add(current);
+                    current = new ArrayList<>();
+                }
+            } else {
+                current.add(item);
+            }
+        }
+        if (!current.isEmpty()) {
+            statements.add(current);
+        }
+        if (statements.isEmpty()) {
+            diagnostics.add(new Diagnostic(ERROR, "EMPTY_QUERY", "실행할 SQL이 없습니다.", 1, 1));
+            return new Result(sql, null, null, diagnostics);
+        }
+        if (statements.size() > 1) {
+            Token second = firstToken(statements.get(1));
+            diagnostics.add(parser.diagnostic(ERROR, "MULTIPLE_STATEMENTS",
+                "한 번에 하나의 문장만 실행할 수 있습니다.", second));
+            return new Result(sql, null, null, diagnostics);
+        }
+
+        List<Object> statement = statements.get(0);
+        int mainStart = mainQueryStart(statement);
+        String keyword = leadingKeyword(statement, mainStart);
+        Token writeClause = keyword.equals("from") ? findWriteClause(statement, mainStart) : null;
+        if (writeClause != null) {
+            keyword = writeClause.lower;
+        }
+        String statementType;
+        if (QUERY_KEYWORDS.contains(keyword) || keyword.equals("(")) {
+            statementType = "QUERY";
+        } else if (METADATA_KEYWORDS.contains(keyword)) {
+            statementType = "METADATA";
+        } else {
+            statementType = keyword.toUpperCase();
+            if (readOnly) {
+                diagnostics.add(parser.diagnostic(ERROR, "NOT_READ_ONLY",
+                    "조회 문장(SELECT, WITH, SHOW, DESCRIBE)만 실행할 수 있습니다: " + statementType,
+                    writeClause != null ? writeClause : firstToken(statement.subList(mainStart, statement.size()))));
+                return new Result(sql, statementType, null, diagnostics);
+            }
+        }
+
+        checkJoins(statement, parser, diagnostics);
+
+        String rewritten = sql;
+        Integer appliedLimit = null;
+        if (statementType.equals("QUERY") && maxRows > 0) {
+            LimitRewrite limit = applyLimit(sql, statement.subList(mainStart, statement.size()), lastToken(statement),
+                maxRows, parser, diagnostics);
+            rewritten = limit.sql;
+            appliedLimit = limit.limit;
+        }
+        return new Result(rewritten, statementType, appliedLimit, diagnostics);
+    }
+
+    /**
+     * 읽기 전용 문장(조회/메타데이터) 하나인지 - 결과 캐시와 단일 실행 공유 판단에도 같은 기준을 씁니다.
+     */
+    public static boolean isReadOnly(String sql) {
+        return validate(sql, 0, true).isValid();
+    }
+
+    /**
+     * WITH 절의 CTE 정의를 건너뛴 본문 시작 위치 (WITH가 아니면 0)
+     */
+    private static int mainQueryStart(List<Object> statement) {
+        if (!(statement.get(0) instanceof Token first) || !first.isWord("with")) {
+            return 0;
+        }
+        int i = 1;
+        if (i < statement.size() && statement.get(i) instanceof Token t && t.isWord("recursive")) {
+            i++;
+        }
+        while (i < statement.size()) {
+            i++; // CTE 이름
+            if (i < statement.size() && statement.get(i) instanceof Block) {
+                i++; // 컬럼 목록
+            }
+            if (i < statement.size() && statement.get(i) instanceof Token t && t.isWord("as")) {
+                i++;
+            }
+            if (i < statement.size() && statement.get(i) instanceof Block) {
+                i++; // CTE 본문
+            }
+            if (i < statement.size() && statement.get(i) instanceof Token t && t.is(",")) {
+                i++;
+                continue;
+            }
+            break;
+        }
+        return Math.min(i, statement.size() - 1);
+    }
+
+    /**
+     * Hive 형식 다중 삽입(FROM src INSERT INTO a SELECT ... INSERT INTO b SELECT ...)의 첫 변경 절
+     * 괄호 안(서브쿼리)은 보지 않고 최상위 토큰만 확인합니다.
+     */
+    private static Token findWriteClause(List<Object> statement, int start) {
+        for (int i = start; i < statement.size(); i++) {
+            if (statement.get(i) instanceof Token token && token.type == TokenType.WORD && WRITE_KEYWORDS.contains(token.lower)) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    private static String leadingKeyword(List<Object> statement, int start) {
+        Object item = statement.get(start);
+        if (item instanceof Block) {
+            return "(";
+        }
+        Token token = (Token) item;
+        return token.type == TokenType.WORD ? token.lower : token.text;
+    }
+
+    // ---- LIMIT ----
+
+    private static LimitRewrite applyLimit(String sql, List<Object> query, Token last, int maxRows,
+                                           Parser parser, List<Diagnostic> diagnostics) {
+        Token limit = null;
+        Token offset = null;
+        for (Object item : query) {
+            if (item instanceof Token token && token.isWord("limit")) {
+                limit = token;
+            } else if (item instanceof Token token && token.isWord("offset")) {
+                offset = token;
+            }
+        }
+        String body = sql.substring(0, last.end); // 끝의 세미콜론/주석 제외
+
+        if (limit == null) {
+            String clause = "LIMIT " + maxRows;
+            diagnostics.add(parser.diagnostic(WARNING, "LIMIT_INJECTED",
+                "결과가 최대 " + maxRows + "행으로 제한됩니다 (" + clause + " 추가).", last));
+            if (offset != null) {
+                // Spark SQL은 LIMIT n OFFSET m 순서
+                return new LimitRewrite(body.substring(0, offset.start) + clause + " " + body.substring(offset.start), maxRows);
+            }
+            return new LimitRewrite(body + "\n" + clause, maxRows);
+        }
+
+        Token value = parser.next(limit);
+        if (value != null && value.type == TokenType.NUMBER && value.text.chars().allMatch(Character::isDigit)) {
+            long requested;
+            try {
+                requested = Long.parseLong(value.text);
+            } catch (NumberFormatException e) {
+                requested = Long.MAX_VALUE;
+            }
+            if (requested <= maxRows) {
+                return new LimitRewrite(sql, (int) requested);
+            }
+            diagnostics.add(parser.diagnostic(WARNING, "LIMIT_CLAMPED",
+                "LIMIT " + value.text + "이 최대 행 수보다 커서 " + maxRows + "(으)로 줄였습니다.", value));
+            return new LimitRewrite(body.substring(0, value.start) + maxRows + body.substring(value.end), maxRows);
+        }
+        if (value != null && value.isWord("all")) {
+            diagnostics.add(parser.diagnostic(WARNING, "LIMIT_CLAMPED",
+                "LIMIT ALL 대신 최대 행 수 " + maxRows + "(으)로 제한합니다.", value));
+            return new LimitRewrite(body.substring(0, value.start) + maxRows + body.substring(value.end), maxRows);
+        }
+
+        // 식/파라미터 LIMIT은 값을 알 수 없으므로 바깥에서 한 번 더 제한
+        diagnostics.add(parser.diagnostic(WARNING, "LIMIT_INJECTED",
+            "LIMIT 값을 확인할 수 없어 결과를 최대 " + maxRows + "행으로 제한합니다.", limit));
+        return new LimitRewrite("SELECT * FROM (\n" + body + "\n) LIMIT " + maxRows, maxRows);
+    }
+
+    // ---- 카테시안 조인 ----
+
+    /**
+     * 각 SELECT 범위(괄호 단위, 집합 연산자로 나뉜 부분)마다 FROM 절의 조인을 검사합니다.
+     */
+    private static void checkJoins(List<Object> items, Parser parser, List<Diagnostic> diagnostics) {
+        List<Object> segment = new ArrayList<>();
+        for (Object item : items) {
+            if (item instanceof Token token && token.type == TokenType.WORD && SET_OPERATORS.contains(token.lower)) {
+                checkSegment(segment, parser, diagnostics);
+                segment = new ArrayList<>();
+            } else {
+                segment.add(item);
+            }
+            if (item instanceof Block block) {
+                checkJoins(block.items, parser, diagnostics);
+            }
+        }
+        checkSegment(segment, parser, diagnostics);
+    }
+
+    private static void checkSegment(List<Object> segment, Parser parser, List<Diagnostic> diagnostics) {
+        int from = -1;
+        boolean hasWhere = false;
+        for (int i = 0; i < segment.size(); i++) {
+            if (segment.get(i) instanceof Token token) {
+                if (from < 0 && token.isWord("from")) {
+                    from = i;
+                } else if (token.isWord("where")) {
+                    hasWhere = true;
+                }
+            }
+        }
+        if (from < 0) {
+            return;
+        }
+
+        int end = segment.size();
+        for (int i = from + 1; i < segment.size(); i++) {
+            if (segment.get(i) instanceof Token token && token.type == TokenType.WORD && FROM_END_KEYWORDS.contains(token.lower)) {
+                end = i;
+                break;
+            }
+        }
+
+        for (int i = from + 1; i < end; i++) {
+            if (!(segment.get(i) instanceof Token token)) {
+                continue;
+            }
+            if (token.is(",") && !hasWhere) {
+                diagnostics.add(parser.diagnostic(WARNING, "CARTESIAN_JOIN",
+                    "FROM 절에 콤마로 나열한 테이블에 조인 조건(WHERE)이 없어 모든 행 조합이 만들어집니다.", token));
+            } else if (token.isWord("join")) {
+                Token modifier = i > 0 && segment.get(i - 1) instanceof Token previous ? previous : null;
+                if (modifier != null && modifier.isWord("cross")) {
+                    diagnostics.add(parser.diagnostic(WARNING, "CROSS_JOIN",
+                        "CROSS JOIN은 두 테이블의 모든 행 조합을 만듭니다.", modifier));
+                } else if (modifier == null || !modifier.isWord("natural")) {
+                    checkJoinCondition(segment, i, end, hasWhere, parser, diagnostics);
+                }
+            }
+        }
+    }
+
+    private static void checkJoinCondition(List<Object> segment, int join, int end, boolean hasWhere, Parser parser,
+                                           List<Diagnostic> diagnostics) {
+        Token joinToken = (Token) segment.get(join);
+        for (int i = join + 1; i < end; i++) {
+            if (!(segment.get(i) instanceof Token token)) {
+                continue;
+            }
+            if (token.isWord("using")) {
+                return;
+            }
+            if (token.isWord("on")) {
+                if (isAlwaysTrue(segment, i + 1, end)) {
+                    diagnostics.add(parser.diagnostic(WARNING, "CARTESIAN_JOIN",
+                        "항상 참인 조인 조건은 모든 행 조합을 만듭니다.", token));
+                }
+                return;
+            }
+            if (token.isWord("join") || token.is(",")) {
+                break;
+            }
+        }
+        if (hasWhere) {
+            return; // 조건을 WHERE에 쓴 경우
+        }
+        diagnostics.add(parser.diagnostic(WARNING, "CARTESIAN_JOIN",
+            "JOIN에 ON/USING 조건이 없어 모든 행 조합이 만들어집니다.", joinToken));
+    }
+
+    /**
+     * ON true, ON 1 = 1 처럼 다음 조인/절까지의 조건이 상수뿐인지
+     */
+    private static boolean isAlwaysTrue(List<Object> segment, int start, int end) {
+        List<Token> condition = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            Object item = segment.get(i);
+            if (item instanceof Token token && (token.isWord("join") || token.isWord("left") || token.isWord("right")
+                || token.isWord("inner") || token.isWord("full") || token.isWord("cross") || token.is(","))) {
+                break;
+            }
+            if (!(item instanceof Token token)) {
+                return false;
+            }
+            condition.add(token);
+        }
+        if (condition.size() == 1) {
+            return condition.get(0).isWord("true");
+        }
+        return condition.size() == 3 && condition.get(1).is("=")
+            && condition.get(0).type != TokenType.WORD && condition.get(0).type != TokenType.QUOTED_IDENTIFIER
+            && condition.get(0).text.equals(condition.get(2).text);
+    }
+
+    // ---- 공통 ----
+
+    private static boolean hasErrors(List<Diagnostic> diagnostics) {
+        return diagnostics.stream().anyMatch(d -> d.getSeverity().equals(ERROR));
+    }
+
+    private static Token firstToken(List<Object> items) {
+        Object first = items.get(0);
+        return first instanceof Block block ? block.open : (Token) first;
+    }
+
+    private static Token lastToken(List<Object> items) {
+        Object last = items.get(items.size() - 1);
+        return last instanceof Block block ? block.close : (Token) last;
+    }
+
+    private enum TokenType { WORD, QUOTED_IDENTIFIER, STRING, NUMBER, SYMBOL }
+
+    private static final class Token {
+        private final TokenType type;
+        private final String text;
+        private final String lower;
+        private final int start;
+        private final int end;
+        private final int index; // 전체 토큰 목록에서의 위치
+
+        Token(TokenType type, String text, int start, int end, int index) {
+            this.type = type;
+            this.text = text;
+            this.lower = type == TokenType.WORD ? text.toLowerCase() : text;
+            this.start = start;
+            this.end = end;
+            this.index = index;
+        }
+
+        boolean isWord(String word) {
+            return type == TokenType.WORD && lower.equals(word);
+        }
+
+        boolean is(String symbol) {
+            return type == TokenType.SYMBOL && text.equals(symbol);
+        }
+    }
+
+    /**
+     * 괄호 한 쌍 - items는 토큰과 중첩 Block
+     */
+    private static final class Block {
+        private final Token open;
+        private Token close;
+        private final List<Object> items = new ArrayList<>();
+
+        Block(Token open) {
+            this.open = open;
+        }
+    }
+
+    private static final class Parser {
+        private final String sql;
+        private final List<Diagnostic> diagnostics;
+        private List<Token> tokens;
+
+        Parser(String sql, List<Diagnostic> diagnostics) {
+            this.sql = sql;
+            this.diagnostics = diagnostics;
+        }
+
+        List<Token> tokenize() {
+            tokens = new ArrayList<>();
+            int i = 0;
+            int length = sql.length();
+            while (i < length) {
+                char c = sql.charAt(i);
+                char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '-' && next == '-') {
+                    while (i < length && sql.charAt(i) != '\n') {
+                        i++;
+                    }
+                } else if (c == '/' && next == '*') {
+                    int close = sql.indexOf("*/", i + 2);
+                    if (close < 0) {
+                        diagnostics.add(diagnostic(ERROR, "SYNTAX_ERROR", "닫히지 않은 주석이 있습니다.", start));
+                        break;
+                    }
+                    i = close + 2;
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    i = skipQuoted(i, c);
+                    if (i < 0) {
+                        diagnostics.add(diagnostic(ERROR, "SYNTAX_ERROR",
+                            c == '`' ? "닫히지 않은 식별자(`)가 있습니다." : "닫히지 않은 문자열이 있습니다.", start));
+                        break;
+                    }
+                    add(c == '`' ? TokenType.QUOTED_IDENTIFIER : TokenType.STRING, start, i);
+                } else if (Character.isLetter(c) || c == '_') {
+                    while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+                        i++;
+                    }
+                    add(TokenType.WORD, start, i);
+                } else if (Character.isDigit(c) || (c == '.' && Character.isDigit(next))) {
+                    while (i < length) {
+                        char d = sql.charAt(i);
+                        if ((d == '+' || d == '-') && (sql.charAt(i - 1) == 'e' || sql.charAt(i - 1) == 'E')) {
+                            i++; // 1e-5
+                        } else if (Character.isLetterOrDigit(d) || d == '.') {
+                            i++; // 1.5, 10L, 0.5BD
+                        } else {
+                            break;
+                        }
+                    }
+                    add(TokenType.NUMBER, start, i);
+                } else {
+                    i++;
+                    add(TokenType.SYMBOL, start, i);
+                }
+            }
+            return tokens;
+        }
+
+        /**
+         * 따옴표로 묶인 부분의 끝 다음 위치 - 닫히지 않았으면 -1
+         */
+        private int skipQuoted(int i, char quote) {
+            int length = sql.length();
+            int j = i + 1;
+            while (j < length) {
+                char d = sql.charAt(j);
+                if (d == '\\' && quote != '`') {
+                    j += 2;
+                } else if (d == quote) {
+                    if (j + 1 < length && sql.charAt(j + 1) == quote) {
+                        j += 2; // 'it''s', `a``b`
+                    } else {
+                        return j + 1;
+                    }
+                } else {
+                    j++;
+                }
+            }
+            return -1;
+        }
+
+        private void add(TokenType type, int start, int end) {
+            tokens.add(new Token(type, sql.substring(start, end), start, end, tokens.size()));
+        }
+
+        Block structure(List<Token> tokens) {
+            Block root = new Block(null);
+            List<Block> stack = new ArrayList<>();
+            stack.add(root);
+            for (Token token : tokens) {
+                Block top = stack.get(stack.size() - 1);
+                if (token.is("(")) {
+                    Block block = new Block(token);
+                    top.items.add(block);
+                    stack.add(block);
+                } else if (token.is(")")) {
+                    if (stack.size() == 1) {
+                        diagnostics.add(diagnostic(ERROR, "SYNTAX_ERROR", "여는 괄호 없이 닫는 괄호가 있습니다.", token));
+                        return root;
+                    }
+                    top.close = token;
+                    stack.remove(stack.size() - 1);
+                } else {
+                    top.items.add(token);
+                }
+            }
+            if (stack.size() > 1) {
+                diagnostics.add(diagnostic(ERROR, "SYNTAX_ERROR", "닫히지 않은 괄호가 있습니다.", stack.get(stack.size() - 1).open));
+            }
+            return root;
+        }
+
+        Token next(Token token) {
+            return token.index + 1 < tokens.size() ? tokens.get(token.index + 1) : null;
+        }
+
+        Diagnostic diagnostic(String severity, String code, String message, Token token) {
+            return diagnostic(severity, code, message, token.start);
+        }
+
+        Diagnostic diagnostic(String severity, String code, String message, int offset) {
+            int line = 1;
+            int lineStart = 0;
+            for (int i = 0; i < offset; i++) {
+                if (sql.charAt(i) == '\n') {
+                    line++;
+                    lineStart = i + 1;
+                }
+            }
+            return new Diagnostic(severity, code, message, line, offset - lineStart + 1);
+        }
+    }
+
+    private static final class LimitRewrite {
+        private final String sql;
+        private final int limit;
+
+        LimitRewrite(String sql, int limit) {
+            this.sql = sql;
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * 검사 결과
+     */
+    public static final class Result {
+        private final String sql; // 실행할 SQL (LIMIT 추가/조정 후)
+        private final String statementType; // 예: "QUERY", "METADATA", "INSERT"
+        private final Integer appliedLimit; // 예: 10000 (조회 문장이 아니거나 제한이 없으면 null)
+        private final List<Diagnostic> diagnostics;
+
+        Result(String sql, String statementType, Integer appliedLimit, List<Diagnostic> diagnostics) {
+            this.sql = sql;
+            this.statementType = statementType;
+            this.appliedLimit = appliedLimit;
+            diagnostics.sort(Comparator.comparingInt(Diagnostic::getLine).thenComparingInt(Diagnostic::getColumn));
+            this.diagnostics = List.copyOf(diagnostics);
+        }
+
+        public boolean isValid() { return !hasErrors(diagnostics); }
+
+        public List<String> getErrors() { return messages(ERROR); }
+        public List<String> getWarnings() { return messages(WARNING); }
+
+        private List<String> messages(String severity) {
+            return diagnostics.stream().filter(d -> d.getSeverity().equals(severity)).map(Diagnostic::getMessage).toList();
+        }
+
+        public String getSql() { return sql; }
+        public String getStatementType() { return statementType; }
+        public Integer getAppliedLimit() { return appliedLimit; }
+        public List<Diagnostic> getDiagnostics() { return diagnostics; }
+    }
+
+    /**
+     * 진단 항목 - 예: {severity: "WARNING", code: "CARTESIAN_JOIN", line: 3, column: 8}
+     */
+    public static final class Diagnostic {
+        private final String severity; // ERROR면 실행하지 않음, WARNING은 실행하되 화면에 표시
+        private final String code; // 예: "NOT_READ_ONLY", "LIMIT_INJECTED"
+        private final String message;
+        private final int line; // 1부터
+        private final int column; // 1부터
+
+        Diagnostic(String severity, String code, String message, int line, int column) {
+            this.severity = severity;
+            this.code = code;
+            this.message = message;
+            this.line = line;
+            this.column = column;
+        }
+
+        public String getSeverity() { return severity; }
+        public String getCode() { return code; }
+        public String getMessage() { return message; }
+        public int getLine() { return line; }
+        public int getColumn() { return column; }
+    }
+}
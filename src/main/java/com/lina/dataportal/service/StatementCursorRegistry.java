@@ -0,0 +1,99 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.StatementCursor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * statementId별 커서 보관소
+ * 다음 청크 조회 시 manifest 컬럼 정보를 다시 받지 않고, 소유자 확인도 메모리에서 처리합니다.
+ * 최대 개수를 넘거나 일정 시간 사용되지 않은 커서는 제거합니다.
+ */
+@Service
+public class StatementCursorRegistry {
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    // 접근 순서 기준 LRU
+    private final LinkedHashMap<String, StatementCursor> cursors = new LinkedHashMap<>(16, 0.75f, true);
+
+    @PostConstruct
+    public void scheduleCleanup() {
+        long interval = Math.max(1000, databricksConfig.getChunk().getCursorIdleTimeout() / 2);
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictIdleCursors, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public StatementCursor register(String statementId, String userId, String workspaceUrl,
+                                    List<DatabricksColumn> columns, int totalChunks) {
+        StatementCursor cursor = new StatementCursor(statementId, userId, workspaceUrl, columns, totalChunks);
+        synchronized (cursors) {
+            cursors.put(statementId, cursor);
+            while (cursors.size() > databricksConfig.getChunk().getMaxCursors()) {
+                Iterator<StatementCursor> eldest = cursors.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * 커서 조회 - 없거나 다른 사용자/워크스페이스의 statement면 null을 반환합니다.
+     */
+    public StatementCursor get(String statementId, String userId, String workspaceUrl) {
+        StatementCursor cursor;
+        synchronized (cursors) {
+            cursor = cursors.get(statementId);
+        }
+        if (cursor == null || !cursor.isOwnedBy(userId, workspaceUrl)) {
+            return null;
+        }
+        cursor.touch();
+        return cursor;
+    }
+
+    /**
+     * 실행 중인 쿼리에 붙어 결과를 함께 받은 사용자를 커서 소유자에 추가 (같은 워크스페이스일 때만)
+     */
+    public void share(String statementId, String userId, String workspaceUrl) {
+        StatementCursor cursor;
+        synchronized (cursors) {
+            cursor = cursors.get(statementId);
+        }
+        if (cursor != null && cursor.getWorkspaceUrl().equals(workspaceUrl)) {
+            cursor.shareWith(userId);
+        }
+    }
+
+    public boolean contains(String statementId) {
+        synchronized (cursors) {
+            return cursors.containsKey(statementId);
+        }
+    }
+
+    public void remove(String statementId) {
+        synchronized (cursors) {
+            cursors.remove(statementId);
+        }
+    }
+
+    private void evictIdleCursors() {
+        long threshold = System.currentTimeMillis() - databricksConfig.getChunk().getCursorIdleTimeout();
+        synchronized (cursors) {
+            cursors.values().removeIf(cursor -> cursor.getLastAccess() < threshold);
+        }
+    }
+}
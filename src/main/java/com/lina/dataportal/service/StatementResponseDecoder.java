@@ -0,0 +1,311 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.ExternalLink;
+import com.lina.dataportal.domain.databricks.StatementResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statement Execution API 응답을 토큰 단위로 읽는 스트리밍 디코더
+ * JsonNode 트리나 응답 문자열을 만들지 않고 HTTP 스트림에서 바로 컬럼 벡터에 값을 적재합니다.
+ * statement 조회 응답({"manifest": ..., "result": {...}})과
+ * 청크 조회 응답({"chunk_index": ..., "data_array": [...]}) 모두 처리합니다.
+ * EXTERNAL_LINKS 방식이면 data_array 대신 external_links만 읽고, 실제 데이터는 {@link ArrowStreamDecoder}가 읽습니다.
+ */
+public final class StatementResponseDecoder {
+
+    private StatementResponseDecoder() {}
+
+    /**
+     * @param knownColumns 청크 조회처럼 manifest가 없는 응답에서 사용할 컬럼 정보 (없으면 null)
+     */
+    public static StatementResponse decode(JsonParser parser, List<DatabricksColumn> knownColumns) throws IOException {
+        StatementResponse response = new StatementResponse();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected statement response object");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "statement_id" -> response.setStatementId(parser.getText());
+                case "status" -> readStatus(parser, response);
+                case "manifest" -> readManifest(parser, response);
+                case "result" -> readResult(parser, response, knownColumns);
+                default -> {
+                    // 청크 조회 응답은 result 필드들이 최상위에 있음
+                    if (!readResultField(parser, field, response, knownColumns)) {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+
+        retypeIfManifestArrivedLate(response, knownColumns);
+        return response;
+    }
+
+    private static void readStatus(JsonParser parser, StatementResponse response) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("state".equals(field)) {
+                response.setState(parser.getText());
+            } else if ("error".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String errorField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("message".equals(errorField)) {
+                        response.setErrorMessage(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readManifest(JsonParser parser, StatementResponse response) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "schema" -> readSchema(parser, response);
+                case "total_chunk_count" -> response.setTotalChunkCount(parser.getIntValue());
+                case "total_row_count" -> response.setTotalRowCount(parser.getLongValue());
+                case "total_byte_count" -> response.setTotalByteCount(parser.getLongValue());
+                case "format" -> response.setFormat(parser.getText());
+                case "result_compression" -> response.setResultCompression(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readSchema(JsonParser parser, StatementResponse response) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (!"columns".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+
+            List<DatabricksColumn> columns = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                DatabricksColumn column = new DatabricksColumn(null, "STRING");
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String columnField = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (columnField) {
+                        case "name" -> column.setName(parser.getText());
+                        case "type_name" -> column.setType(parser.getText());
+                        case "type_precision" -> column.setPrecision(parser.getIntValue());
+                        case "type_scale" -> column.setScale(parser.getIntValue());
+                        default -> parser.skipChildren();
+                    }
+                }
+                columns.add(column);
+            }
+            response.setColumns(columns);
+        }
+    }
+
+    private static void readResult(JsonParser parser, StatementResponse response,
+                                   List<DatabricksColumn> knownColumns) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (!readResultField(parser, field, response, knownColumns)) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static boolean readResultField(JsonParser parser, String field, StatementResponse response,
+                                           List<DatabricksColumn> knownColumns) throws IOException {
+        switch (field) {
+            case "chunk_index" -> response.setChunkIndex(parser.getIntValue());
+            case "row_offset" -> response.setRowOffset(parser.getLongValue());
+            case "next_chunk_index" -> response.setNextChunkIndex(parser.getIntValue());
+            case "data_array" -> {
+                List<DatabricksColumn> columns = response.getColumns() != null ? response.getColumns() : knownColumns;
+                response.setRows(readDataArray(parser, columns));
+            }
+            case "external_links" -> readExternalLinks(parser, response);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * EXTERNAL_LINKS 결과의 링크 목록 - 청크 위치는 첫 번째 링크 기준으로 응답에 반영합니다.
+     */
+    private static void readExternalLinks(JsonParser parser, StatementResponse response) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        List<ExternalLink> links = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ExternalLink link = new ExternalLink();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "external_link" -> link.setExternalLink(parser.getText());
+                    case "expiration" -> link.setExpiration(parser.getText());
+                    case "chunk_index" -> link.setChunkIndex(parser.getIntValue());
+                    case "row_offset" -> link.setRowOffset(parser.getLongValue());
+                    case "row_count" -> link.setRowCount(parser.getLongValue());
+                    case "byte_count" -> link.setByteCount(parser.getLongValue());
+                    case "next_chunk_index" -> link.setNextChunkIndex(parser.getIntValue());
+                    case "http_headers" -> {
+                        Map<String, String> headers = new LinkedHashMap<>();
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String name = parser.getCurrentName();
+                            parser.nextToken();
+                            headers.put(name, parser.getText());
+                        }
+                        link.setHttpHeaders(headers);
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            links.add(link);
+        }
+
+        if (!links.isEmpty()) {
+            response.setChunkIndex(links.get(0).getChunkIndex());
+            response.setRowOffset(links.get(0).getRowOffset());
+            response.setNextChunkIndex(links.get(links.size() - 1).getNextChunkIndex());
+        }
+        response.setExternalLinks(links);
+    }
+
+    /**
+     * data_array를 읽어 컬럼 벡터에 적재합니다.
+     * 컬럼 정보가 없으면 첫 번째 행의 값 개수로 임시 컬럼(column_0..N)을 만듭니다.
+     */
+    private static ColumnarBatch readDataArray(JsonParser parser, List<DatabricksColumn> columns) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return ColumnarBatch.empty();
+        }
+
+        ColumnarBatch batch = columns != null ? new ColumnarBatch(columns) : null;
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            if (batch == null) {
+                batch = readFirstRowWithoutSchema(parser);
+                continue;
+            }
+
+            int columnIndex = 0;
+            int columnCount = batch.getColumnCount();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (columnIndex < columnCount) {
+                    appendCurrentValue(parser, batch.getVector(columnIndex));
+                } else {
+                    parser.skipChildren();
+                }
+                columnIndex++;
+            }
+            batch.endRow();
+        }
+        return batch != null ? batch : ColumnarBatch.empty();
+    }
+
+    private static ColumnarBatch readFirstRowWithoutSchema(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(currentValueAsText(parser));
+        }
+
+        List<DatabricksColumn> placeholders = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            placeholders.add(new DatabricksColumn("column_" + i, "STRING")); // 임시 컬럼명
+        }
+
+        ColumnarBatch batch = new ColumnarBatch(placeholders);
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null) {
+                batch.getVector(i).appendNull();
+            } else {
+                batch.getVector(i).appendText(values.get(i));
+            }
+        }
+        batch.endRow();
+        return batch;
+    }
+
+    private static void appendCurrentValue(JsonParser parser, ColumnVector vector) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL -> vector.appendNull();
+            case VALUE_STRING -> vector.appendChars(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            case VALUE_NUMBER_INT -> {
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    vector.appendText(parser.getText());
+                } else {
+                    vector.appendLong(parser.getLongValue());
+                }
+            }
+            case VALUE_NUMBER_FLOAT -> vector.appendDouble(parser.getDoubleValue());
+            case VALUE_TRUE -> vector.appendBoolean(true);
+            case VALUE_FALSE -> vector.appendBoolean(false);
+            default -> vector.appendText(currentValueAsText(parser));
+        }
+    }
+
+    private static String currentValueAsText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+            // 중첩 값(ARRAY/MAP/STRUCT)은 JSON 문자열 그대로 보관
+            return parser.readValueAsTree().toString();
+        }
+        return parser.getText();
+    }
+
+    /**
+     * manifest가 data_array보다 뒤에 온 경우, 임시 문자열 컬럼을 manifest 타입으로 다시 적재합니다.
+     */
+    private static void retypeIfManifestArrivedLate(StatementResponse response, List<DatabricksColumn> knownColumns) {
+        ColumnarBatch rows = response.getRows();
+        List<DatabricksColumn> columns = response.getColumns();
+        if (rows == null || columns == null || rows.getColumns() == columns || rows.getColumns() == knownColumns) {
+            return;
+        }
+
+        ColumnarBatch typed = new ColumnarBatch(columns);
+        int columnCount = Math.min(columns.size(), rows.getColumnCount());
+        for (int row = 0; row < rows.getRowCount(); row++) {
+            for (int col = 0; col < columnCount; col++) {
+                String value = rows.getVector(col).getText(row);
+                if (value == null) {
+                    typed.getVector(col).appendNull();
+                } else {
+                    typed.getVector(col).appendText(value);
+                }
+            }
+            typed.endRow();
+        }
+        response.setRows(typed);
+    }
+}
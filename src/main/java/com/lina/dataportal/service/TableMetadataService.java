@@ -0,0 +1,303 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 테이블 컬럼 메타데이터 캐시
+ * DESCRIBE TABLE을 웨어하우스에서 실행하지 않고 Unity Catalog 테이블 API로 조회하며, 테이블별로 캐시합니다.
+ * 스키마 크롤이나 재확인 조회에서 받은 updated_at이 캐시된 값과 다르면 컬럼 정보를 교체합니다.
+ */
+@Service
+public class TableMetadataService {
+
+    private static final Logger log = LoggerFactory.getLogger(TableMetadataService.class);
+
+    @Autowired
+    private DatabricksApiClient databricksApiClient;
+
+    @Autowired
+    private DatabricksConfig databricksConfig;
+
+    @Autowired
+    private DatabricksExecutors databricksExecutors;
+
+    @Autowired
+    private SchemaCrawlService schemaCrawlService;
+
+    private final Map<String, TableEntry> tables = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        schemaCrawlService.addListingListener(this::refreshFromListing);
+        long interval = Math.max(1000, databricksConfig.getColumns().getExpireAfterMillis());
+        databricksExecutors.scheduler().scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 테이블 하나의 컬럼 목록
+     * @return 테이블을 찾지 못했거나 Unity Catalog 조회에 실패하면 null
+     */
+    public List<Map<String, Object>> getColumns(String workspaceUrl, String accessToken, String tableName) {
+        Map<String, Object> result = getColumns(workspaceUrl, accessToken, List.of(tableName));
+        Map<String, List<Map<String, Object>>> found = (Map<String, List<Map<String, Object>>>) result.get("tables");
+        return found.get(tableName);
+    }
+
+    /**
+     * 여러 테이블의 컬럼 목록을 한 번에 조회합니다.
+     * 캐시에 없는 테이블은 같은 스키마에 여러 개면 스키마 테이블 목록 한 번으로, 아니면 테이블별로 병렬 조회합니다.
+     * @return tables(요청한 이름 → 컬럼 목록), errors(요청한 이름 → 오류)
+     */
+    public Map<String, Object> getColumns(String workspaceUrl, String accessToken, Collection<String> tableNames) {
+        String credentialKey = CredentialFingerprint.of(workspaceUrl, accessToken);
+        DatabricksConfig.Columns config = databricksConfig.getColumns();
+        long now = System.currentTimeMillis();
+
+        Map<String, List<Map<String, Object>>> found = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>(); // 요청한 이름 → catalog.schema.table
+        for (String tableName : tableNames) {
+            String fullName = resolveFullName(workspaceUrl, accessToken, tableName);
+            if (fullName == null) {
+                errors.put(tableName, "Cannot resolve table name: " + tableName);
+                continue;
+            }
+            TableEntry entry = tables.get(key(credentialKey, fullName));
+            if (entry != null && now - entry.loadedAt < config.getRevalidateAfterMillis()) {
+                entry.lastAccess = now;
+                found.put(tableName, entry.columns);
+            } else {
+                missing.put(tableName, fullName);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Map.of("tables", found, "errors", errors);
+        }
+
+        // 같은 스키마에 조회할 테이블이 많으면 테이블 목록 API 한 번으로 가져옴
+        Map<String, Set<String>> bySchema = new LinkedHashMap<>();
+        missing.values().forEach(fullName -> bySchema
+            .computeIfAbsent(fullName.substring(0, fullName.lastIndexOf('.')), schema -> new LinkedHashSet<>())
+            .add(fullName));
+
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        Map<String, String> loadErrors = new ConcurrentHashMap<>(); // catalog.schema.table → 오류
+        for (Map.Entry<String, Set<String>> schema : bySchema.entrySet()) {
+            if (schema.getValue().size() >= config.getListThreshold()) {
+                try {
+                    loads.add(CompletableFuture.runAsync(
+                        () -> loadSchema(credentialKey, workspaceUrl, accessToken, schema.getKey(), schema.getValue(), loadErrors),
+                        databricksExecutors.io()));
+                } catch (RejectedExecutionException e) {
+                    schema.getValue().forEach(fullName -> loadErrors.put(fullName, e.getMessage()));
+                }
+            } else {
+                for (String fullName : schema.getValue()) {
+                    try {
+                        loads.add(CompletableFuture.runAsync(
+                            () -> loadTable(credentialKey, workspaceUrl, accessToken, fullName, loadErrors), databricksExecutors.io()));
+                    } catch (RejectedExecutionException e) {
+                        loadErrors.put(fullName, e.getMessage()); // IO 풀이 가득 참 - 테이블별 오류로 응답
+                    }
+                }
+            }
+        }
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).join();
+
+        for (Map.Entry<String, String> table : missing.entrySet()) {
+            TableEntry entry = tables.get(key(credentialKey, table.getValue()));
+            if (entry != null) {
+                found.put(table.getKey(), entry.columns);
+            } else {
+                errors.put(table.getKey(), loadErrors.getOrDefault(table.getValue(), "Table not found: " + table.getValue()));
+            }
+        }
+        return Map.of("tables", found, "errors", errors);
+    }
+
+    /**
+     * 스키마 크롤에서 받은 테이블 목록으로 캐시를 갱신합니다 (updated_at이 바뀐 테이블만 교체).
+     */
+    public void refreshFromListing(String workspaceUrl, String accessToken, List<Map<String, Object>> tableInfos) {
+        String credentialKey = CredentialFingerprint.of(workspaceUrl, accessToken);
+        for (Map<String, Object> tableInfo : tableInfos) {
+            if (Boolean.TRUE.equals(tableInfo.get("has_columns"))) {
+                store(credentialKey, tableInfo, false);
+            }
+        }
+    }
+
+    /**
+     * 포털에서 실행한 DDL/DML 대상 테이블의 컬럼 캐시 제거
+     * @param tableNames SQL에 쓰인 이름 (table, schema.table, catalog.schema.table)
+     */
+    public void invalidate(Collection<String> tableNames) {
+        for (String tableName : tableNames) {
+            String name = unquote(tableName).toLowerCase(Locale.ROOT);
+            tables.keySet().removeIf(key -> key.endsWith(":" + name) || key.endsWith("." + name));
+        }
+    }
+
+    private void loadSchema(String credentialKey, String workspaceUrl, String accessToken, String schemaFullName,
+                            Set<String> wanted, Map<String, String> loadErrors) {
+        int dot = schemaFullName.indexOf('.');
+        Map<String, Object> result = databricksApiClient.listTables(workspaceUrl, accessToken,
+            schemaFullName.substring(0, dot), schemaFullName.substring(dot + 1));
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            // 목록 권한이 없을 수 있으므로 테이블별 조회로 다시 시도
+            wanted.forEach(fullName -> loadTable(credentialKey, workspaceUrl, accessToken, fullName, loadErrors));
+            return;
+        }
+
+        Set<String> listed = new HashSet<>();
+        for (Map<String, Object> tableInfo : (List<Map<String, Object>>) result.get("tables")) {
+            if (Boolean.TRUE.equals(tableInfo.get("has_columns"))) {
+                listed.add(store(credentialKey, tableInfo, true));
+            }
+        }
+        for (String fullName : wanted) {
+            if (!listed.contains(fullName)) {
+                loadTable(credentialKey, workspaceUrl, accessToken, fullName, loadErrors);
+            }
+        }
+    }
+
+    private void loadTable(String credentialKey, String workspaceUrl, String accessToken, String fullName,
+                           Map<String, String> loadErrors) {
+        Map<String, Object> result = databricksApiClient.getTable(workspaceUrl, accessToken, fullName);
+        if (Boolean.TRUE.equals(result.get("success"))) {
+            store(credentialKey, (Map<String, Object>) result.get("table"), true);
+            return;
+        }
+        if (Boolean.TRUE.equals(result.get("notFound"))) {
+            tables.remove(key(credentialKey, fullName));
+        }
+        loadErrors.put(fullName, String.valueOf(result.get("error")));
+        log.debug("Failed to get columns of {}: {}", fullName, result.get("error"));
+    }
+
+    /**
+     * @param accessed 사용자 요청으로 조회한 경우 true (크롤로 받은 테이블은 조회된 적 있는 것만 갱신)
+     * @return catalog.schema.table (소문자)
+     */
+    private String store(String credentialKey, Map<String, Object> tableInfo, boolean accessed) {
+        String fullName = (tableInfo.get("catalog_name") + "." + tableInfo.get("schema_name") + "." + tableInfo.get("name"))
+            .toLowerCase(Locale.ROOT);
+        long updatedAt = ((Number) tableInfo.get("updated_at")).longValue();
+        long now = System.currentTimeMillis();
+        String key = key(credentialKey, fullName);
+
+        tables.compute(key, (k, entry) -> {
+            if (entry == null && !accessed) {
+                return null;
+            }
+            if (entry != null && entry.updatedAt == updatedAt && updatedAt != 0) {
+                entry.loadedAt = now; // 변경 없음 - 기존 목록 유지
+                return entry;
+            }
+            TableEntry loaded = new TableEntry(toColumns(tableInfo), updatedAt, now);
+            loaded.lastAccess = entry != null ? entry.lastAccess : now;
+            return loaded;
+        });
+        return fullName;
+    }
+
+    /**
+     * Unity Catalog 컬럼 정보 → 컬럼 패널 형식 (기존 DESCRIBE TABLE 결과와 같은 키)
+     */
+    private static List<Map<String, Object>> toColumns(Map<String, Object> tableInfo) {
+        List<Map<String, Object>> ucColumns = new ArrayList<>((List<Map<String, Object>>) tableInfo.get("columns"));
+        ucColumns.sort(Comparator.comparingInt(column -> (Integer) column.get("position")));
+        List<String> primaryKeys = (List<String>) tableInfo.get("primary_key_columns");
+        List<String> foreignKeys = (List<String>) tableInfo.get("foreign_key_columns");
+
+        List<Map<String, Object>> columns = new ArrayList<>(ucColumns.size());
+        for (Map<String, Object> ucColumn : ucColumns) {
+            String name = (String) ucColumn.get("name");
+            Map<String, Object> column = new HashMap<>();
+            column.put("name", name);
+            column.put("type", ucColumn.get("type_text"));
+            column.put("nullable", ucColumn.get("nullable"));
+            column.put("isPrimaryKey", primaryKeys.contains(name));
+            column.put("isForeignKey", foreignKeys.contains(name));
+            column.put("isPartitionKey", ucColumn.containsKey("partition_index"));
+            column.put("description", ucColumn.get("comment"));
+            columns.add(Collections.unmodifiableMap(column));
+        }
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * catalog.schema.table이 아니면 캐시된 스키마 트리에서 유일하게 일치하는 테이블을 찾습니다.
+     * @return 소문자 catalog.schema.table, 찾지 못했거나 여러 개면 null
+     */
+    private String resolveFullName(String workspaceUrl, String accessToken, String tableName) {
+        String[] parts = unquote(tableName).toLowerCase(Locale.ROOT).split("\\.");
+        if (parts.length == 3) {
+            return String.join(".", parts);
+        }
+        if (parts.length > 3) {
+            return null;
+        }
+
+        List<Map<String, Object>> tree = schemaCrawlService.getCachedSchemaTree(workspaceUrl, accessToken);
+        if (tree == null) {
+            return null;
+        }
+        String match = null;
+        for (Map<String, Object> schema : tree) {
+            String catalogName = String.valueOf(schema.get("catalog")).toLowerCase(Locale.ROOT);
+            String schemaName = String.valueOf(schema.get("schema")).toLowerCase(Locale.ROOT);
+            if (parts.length == 2 && !schemaName.equals(parts[0])) {
+                continue;
+            }
+            for (Map<String, Object> table : (List<Map<String, Object>>) schema.get("tables")) {
+                if (String.valueOf(table.get("name")).equalsIgnoreCase(parts[parts.length - 1])) {
+                    if (match != null) {
+                        return null; // 여러 카탈로그/스키마에 같은 이름
+                    }
+                    match = catalogName + "." + schemaName + "." + parts[parts.length - 1];
+                }
+            }
+        }
+        return match;
+    }
+
+    private static String unquote(String tableName) {
+        return tableName.trim().replace("`", "");
+    }
+
+    private static String key(String credentialKey, String fullName) {
+        return credentialKey + ":" + fullName;
+    }
+
+    private void evictExpired() {
+        long threshold = System.currentTimeMillis() - databricksConfig.getColumns().getExpireAfterMillis();
+        tables.values().removeIf(entry -> entry.lastAccess < threshold);
+    }
+
+    private static final class TableEntry {
+        private final List<Map<String, Object>> columns;
+        private final long updatedAt;
+        private volatile long loadedAt;
+        private volatile long lastAccess;
+
+        TableEntry(List<Map<String, Object>> columns, long updatedAt, long loadedAt) {
+            this.columns = columns;
+            this.updatedAt = updatedAt;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.lina.dataportal.service;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -18,9 +19,15 @@ public class TokenEncryptionService {
     @Value("${app.encryption.secret-key:mySecretKey12345}")
     private String secretKey;
     
+    private SecretKeySpec secretKeySpec;
+    
+    @PostConstruct
+    public void init() {
+        secretKeySpec = new SecretKeySpec(secretKey.getBytes(), ALGORITHM);
+    }
+    
     public String encrypt(String plainText) {
         try {
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKey.getBytes(), ALGORITHM);
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
             cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
             byte[] encryptedBytes = cipher.doFinal(plainText.getBytes());
@@ -32,7 +39,6 @@ public class TokenEncryptionService {
     
     public String decrypt(String encryptedText) {
         try {
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKey.getBytes(), ALGORITHM);
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
             cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
             byte[] decryptedBytes = cipher.doFinal(Base64.getDecoder().decode(encryptedText));
@@ -1,25 +1,49 @@
 package com.lina.dataportal.service;
 
+import com.lina.dataportal.config.DatabricksConfig;
 import com.lina.dataportal.domain.user.UserToken;
 import com.lina.dataportal.repository.UserTokenRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class UserTokenService {
     
+    private static final Logger log = LoggerFactory.getLogger(UserTokenService.class);
+    
     @Autowired
     private UserTokenRepository userTokenRepository;
     
     @Autowired
     private TokenEncryptionService tokenEncryptionService;
     
+    @Autowired
+    private DatabricksConfig databricksConfig;
+    
+    // 사용자별 활성 Databricks 토큰 캐시 (토큰이 없는 사용자도 캐시해 기본 설정 사용자의 DB 조회를 줄임)
+    private final Map<String, CachedToken> databricksTokens = new ConcurrentHashMap<>();
+    
+    // 아직 DB에 반영하지 않은 마지막 사용 시각 (tokenId → 시각)
+    private final Map<Long, LocalDateTime> pendingLastUsed = new ConcurrentHashMap<>();
+    
     @Transactional
-    public UserToken saveDatabricksToken(String userId, String accessToken, String workspaceUrl, 
+    public UserToken saveDatabricksToken(String userId, String accessToken, String workspaceUrl,
                                        String clusterId, String warehouseId) {
         // Deactivate existing tokens
         userTokenRepository.deactivateTokensByUserIdAndType(userId, "DATABRICKS_PAT");
@@ -32,32 +56,130 @@ public class UserTokenService {
         userToken.setClusterId(clusterId);
         userToken.setWarehouseId(warehouseId);
         
-        return userTokenRepository.save(userToken);
+        UserToken saved = userTokenRepository.save(userToken);
+        evictAfterCommit(userId);
+        return saved;
     }
     
+    /**
+     * 활성 Databricks 토큰 조회 - credentials.cache-ttl 동안 캐시된 결과를 사용합니다.
+     */
     public Optional<UserToken> getDatabricksToken(String userId) {
-        return userTokenRepository.findActiveDatabricksToken(userId);
+        long now = System.currentTimeMillis();
+        CachedToken cached = databricksTokens.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.token;
+        }
+        
+        Optional<UserToken> token = userTokenRepository.findActiveDatabricksToken(userId);
+        databricksTokens.put(userId, new CachedToken(token, now + databricksConfig.getCredentials().getCacheTtlMillis()));
+        return token;
     }
     
+    /**
+     * 토큰 복호화 - 캐시된 토큰이면 처음 한 번만 복호화합니다.
+     */
     public String decryptToken(UserToken userToken) {
+        CachedToken cached = databricksTokens.get(userToken.getUserId());
+        if (cached != null && cached.token.isPresent() && cached.token.get() == userToken) {
+            String accessToken = cached.accessToken;
+            if (accessToken == null) {
+                accessToken = tokenEncryptionService.decrypt(userToken.getEncryptedToken());
+                cached.accessToken = accessToken;
+            }
+            return accessToken;
+        }
         return tokenEncryptionService.decrypt(userToken.getEncryptedToken());
     }
     
-    @Transactional
+    /**
+     * 마지막 사용 시각 기록 - 바로 저장하지 않고 모아 두었다가 flushLastUsed에서 한 번에 반영합니다.
+     * 화면에 표시하는 단위인 초까지만 남겨, 같은 초에 사용된 토큰은 UPDATE 하나로 묶입니다.
+     */
     public void updateLastUsed(Long tokenId) {
-        userTokenRepository.findById(tokenId).ifPresent(token -> {
-            token.setLastUsedAt(LocalDateTime.now());
-            userTokenRepository.save(token);
-        });
+        pendingLastUsed.put(tokenId, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+    
+    /**
+     * 모아 둔 마지막 사용 시각을 시각별로 묶어 반영합니다 (같은 시각의 토큰은 UPDATE 한 번).
+     * 토큰마다 실제 마지막 사용 시각이 기록되며, DB 반영만 flush 주기만큼 늦어집니다.
+     */
+    @Scheduled(fixedDelayString = "${databricks.credentials.last-used-flush-interval:30000}")
+    public void flushLastUsed() {
+        if (pendingLastUsed.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long tokenId : pendingLastUsed.keySet()) {
+            LocalDateTime usedAt = pendingLastUsed.remove(tokenId);
+            if (usedAt != null) {
+                batch.put(tokenId, usedAt);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        Map<LocalDateTime, List<Long>> byUsedAt = new HashMap<>();
+        batch.forEach((tokenId, usedAt) -> byUsedAt.computeIfAbsent(usedAt, t -> new ArrayList<>()).add(tokenId));
+        for (Map.Entry<LocalDateTime, List<Long>> entry : byUsedAt.entrySet()) {
+            try {
+                userTokenRepository.updateLastUsedAt(entry.getValue(), entry.getKey());
+            } catch (Exception e) {
+                // 다음 주기에 다시 시도 (그 사이 새로 기록된 시각이 있으면 그 값을 유지)
+                entry.getValue().forEach(tokenId -> pendingLastUsed.putIfAbsent(tokenId, entry.getKey()));
+                log.warn("Failed to flush last used time of {} tokens: {}", entry.getValue().size(), e.getMessage());
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${databricks.credentials.last-used-flush-interval:30000}")
+    public void evictExpiredTokens() {
+        long now = System.currentTimeMillis();
+        databricksTokens.values().removeIf(cached -> cached.expiresAt <= now);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flushLastUsed();
     }
     
     @Transactional
     public void deactivateToken(String userId, String tokenType) {
         userTokenRepository.deactivateTokensByUserIdAndType(userId, tokenType);
+        evictAfterCommit(userId);
     }
     
     public boolean hasValidDatabricksToken(String userId) {
         Optional<UserToken> token = getDatabricksToken(userId);
         return token.isPresent() && token.get().getIsActive();
     }
-}
\ No newline at end of file
+    
+    /**
+     * 토큰 변경 시 캐시 제거
+     * 커밋 전에 다른 요청이 이전 토큰을 다시 캐시할 수 있으므로 커밋 후에 한 번 더 제거합니다.
+     */
+    private void evictAfterCommit(String userId) {
+        databricksTokens.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    databricksTokens.remove(userId);
+                }
+            });
+        }
+    }
+    
+    private static final class CachedToken {
+        private final Optional<UserToken> token;
+        private final long expiresAt;
+        private volatile String accessToken; // 복호화한 토큰 (처음 사용할 때 채움)
+        
+        CachedToken(Optional<UserToken> token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
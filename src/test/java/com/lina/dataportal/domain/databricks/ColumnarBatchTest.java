@@ -0,0 +1,58 @@
+package com.lina.dataportal.domain.databricks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarBatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesBigintAsStringSoValuesAbove2To53KeepTheirDigits() throws Exception {
+        ColumnarBatch batch = new ColumnarBatch(List.of(
+            new DatabricksColumn("id", "LONG"),
+            new DatabricksColumn("count", "INT"),
+            decimal("premium", 20, 2)
+        ));
+        long aboveDoublePrecision = (1L << 53) + 1; // 9007199254740993 - double로는 9007199254740992가 됨
+        appendRow(batch, Long.toString(aboveDoublePrecision), "7", "12345678901234567.89");
+        appendRow(batch, Long.toString(Long.MIN_VALUE), "-1", "0.00");
+        appendRow(batch, null, null, null);
+
+        JsonNode rows = objectMapper.readTree(objectMapper.writeValueAsString(batch));
+
+        assertThat(rows.get(0).get(0).isTextual()).isTrue();
+        assertThat(rows.get(0).get(0).asText()).isEqualTo("9007199254740993");
+        assertThat(rows.get(1).get(0).asText()).isEqualTo("-9223372036854775808");
+        // INT 이하는 2^53 안에 들어가므로 숫자 그대로
+        assertThat(rows.get(0).get(1).isInt()).isTrue();
+        assertThat(rows.get(0).get(1).asInt()).isEqualTo(7);
+        assertThat(rows.get(0).get(2).asText()).isEqualTo("12345678901234567.89");
+        assertThat(rows.get(2).get(0).isNull()).isTrue();
+        assertThat(rows.get(2).get(1).isNull()).isTrue();
+        assertThat(rows.get(2).get(2).isNull()).isTrue();
+    }
+
+    private static DatabricksColumn decimal(String name, int precision, int scale) {
+        DatabricksColumn column = new DatabricksColumn(name, "DECIMAL");
+        column.setPrecision(precision);
+        column.setScale(scale);
+        return column;
+    }
+
+    private static void appendRow(ColumnarBatch batch, String... values) {
+        for (int col = 0; col < values.length; col++) {
+            if (values[col] == null) {
+                batch.getVector(col).appendNull();
+            } else {
+                batch.getVector(col).appendText(values[col]);
+            }
+        }
+        batch.endRow();
+    }
+}
@@ -0,0 +1,510 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.config.DatabricksHttpClients;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.LargeVarCharVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.UInt1Vector;
+import org.apache.arrow.vector.UInt8Vector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArrowStreamDecoderTest {
+
+    private static final byte[] LZ4_FRAME = {0x04, 0x22, 0x4D, 0x18, 0x64, 0x40, (byte) 0xA7, 0, 0, 0, 0};
+
+    private BufferAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new RootAllocator();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // 닫히지 않은 Arrow 버퍼가 있으면 여기서 실패
+        allocator.close();
+    }
+
+    @Test
+    void readsFixedWidthColumnsWithNullsAcrossBitmapBytes() throws IOException {
+        Schema schema = new Schema(List.of(
+            Field.nullable("i8", new ArrowType.Int(8, true)),
+            Field.nullable("i16", new ArrowType.Int(16, true)),
+            Field.nullable("i32", new ArrowType.Int(32, true)),
+            Field.nullable("i64", new ArrowType.Int(64, true)),
+            Field.nullable("u8", new ArrowType.Int(8, false)),
+            Field.nullable("f32", new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE)),
+            Field.nullable("f64", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)),
+            Field.nullable("flag", new ArrowType.Bool())));
+        int rows = 20;
+
+        byte[] file = stream(schema, null, (root, writer) -> fill(root, writer, 0, rows, (i, row, vectors) -> {
+            ((TinyIntVector) vectors.get(0)).setSafe(i, (byte) (row - 10));
+            ((SmallIntVector) vectors.get(1)).setSafe(i, (short) (row * -1000));
+            ((IntVector) vectors.get(2)).setSafe(i, row * 100_000);
+            ((BigIntVector) vectors.get(3)).setSafe(i, row * 10_000_000_000L);
+            ((UInt1Vector) vectors.get(4)).setSafe(i, 250 + row % 6);
+            ((Float4Vector) vectors.get(5)).setSafe(i, row / 10f);
+            ((Float8Vector) vectors.get(6)).setSafe(i, row / 4.0);
+            ((BitVector) vectors.get(7)).setSafe(i, row % 3 == 0 ? 1 : 0);
+        }, ArrowStreamDecoderTest::isNullRow));
+        ColumnarBatch batch = decode(file, null);
+
+        assertThat(batch.getColumns()).extracting(DatabricksColumn::getType)
+            .containsExactly("BYTE", "SHORT", "INT", "LONG", "BYTE", "FLOAT", "DOUBLE", "BOOLEAN");
+        assertThat(batch.getRowCount()).isEqualTo(rows);
+        for (int row = 0; row < rows; row++) {
+            String[] expected = isNullRow(row) ? new String[8] : new String[] {
+                Long.toString(row - 10),
+                Long.toString(row * -1000L),
+                Long.toString(row * 100_000L),
+                Long.toString(row * 10_000_000_000L),
+                Long.toString(250 + row % 6),
+                Double.toString(Double.parseDouble(Float.toString(row / 10f))),
+                Double.toString(row / 4.0),
+                Boolean.toString(row % 3 == 0)
+            };
+            assertRow(batch, row, expected);
+        }
+    }
+
+    @Test
+    void readsUnsignedLongsBeyondTheSignedRange() throws IOException {
+        Schema schema = new Schema(List.of(Field.nullable("u64", new ArrowType.Int(64, false))));
+
+        ColumnarBatch batch = decode(stream(schema, null, (root, writer) -> fill(root, writer, 0, 3, (i, row, vectors) ->
+            ((UInt8Vector) vectors.get(0)).setSafe(i, row == 0 ? 42L : -row), row -> false)), null);
+
+        assertThat(batch.getColumns().get(0).getType()).isEqualTo("DECIMAL");
+        assertThat(column(batch, 0)).containsExactly("42", "18446744073709551615", "18446744073709551614");
+    }
+
+    @Test
+    void readsVariableWidthColumns() throws IOException {
+        Schema schema = new Schema(List.of(
+            Field.nullable("name", new ArrowType.Utf8()),
+            Field.nullable("body", new ArrowType.LargeUtf8()),
+            Field.nullable("payload", new ArrowType.Binary()),
+            Field.nullable("hash", new ArrowType.FixedSizeBinary(4))));
+        String[] names = {"보험료", "", "plain ascii", "이모지 😀", null, "끝"};
+        String large = "대용량 문자열 ".repeat(20_000);
+
+        byte[] file = stream(schema, null, (root, writer) -> fill(root, writer, 0, names.length, (i, row, vectors) -> {
+            if (names[row] == null) {
+                ((VarCharVector) vectors.get(0)).setNull(i);
+            } else {
+                ((VarCharVector) vectors.get(0)).setSafe(i, utf8(names[row]));
+            }
+            ((LargeVarCharVector) vectors.get(1)).setSafe(i, utf8(row == 2 ? large : "large-" + row));
+            ((VarBinaryVector) vectors.get(2)).setSafe(i, new byte[] {(byte) row, (byte) 0xFF, 0});
+            ((FixedSizeBinaryVector) vectors.get(3)).setSafe(i, new byte[] {1, 2, 3, (byte) row});
+        }, row -> row == 5));
+        ColumnarBatch batch = decode(file, null);
+
+        assertThat(batch.getColumns()).extracting(DatabricksColumn::getType)
+            .containsExactly("STRING", "STRING", "BINARY", "BINARY");
+        for (int row = 0; row < names.length; row++) {
+            String[] expected = row == 5 ? new String[4] : new String[] {
+                names[row],
+                row == 2 ? large : "large-" + row,
+                Base64.getEncoder().encodeToString(new byte[] {(byte) row, (byte) 0xFF, 0}),
+                Base64.getEncoder().encodeToString(new byte[] {1, 2, 3, (byte) row})
+            };
+            assertRow(batch, row, expected);
+        }
+    }
+
+    @Test
+    void resolvesDictionaryEncodedColumnsInEveryBatch() throws IOException {
+        DictionaryEncoding cityEncoding = new DictionaryEncoding(1L, false, new ArrowType.Int(8, true));
+        DictionaryEncoding productEncoding = new DictionaryEncoding(2L, false, new ArrowType.Int(32, true));
+        Schema schema = new Schema(List.of(
+            Field.nullable("id", new ArrowType.Int(64, true)),
+            // 스키마의 필드 타입은 인덱스 타입, 값 타입은 사전 배치에서 옴
+            new Field("city", new FieldType(true, cityEncoding.getIndexType(), cityEncoding), null),
+            new Field("product", new FieldType(true, productEncoding.getIndexType(), productEncoding), null)));
+        String[] cities = {"서울", "부산", "대구"};
+        String[] products = {"종신보험", "", "실손보험"};
+
+        try (VarCharVector cityValues = dictionaryValues("city", cities);
+             VarCharVector productValues = dictionaryValues("product", products)) {
+            DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider();
+            provider.put(new Dictionary(cityValues, cityEncoding));
+            provider.put(new Dictionary(productValues, productEncoding));
+
+            byte[] file = stream(schema, provider, (root, writer) -> {
+                for (int from = 0; from < 9; from += 3) {
+                    fill(root, writer, from, 3, (i, row, vectors) -> {
+                        ((BigIntVector) vectors.get(0)).setSafe(i, row);
+                        ((TinyIntVector) vectors.get(1)).setSafe(i, row % 3);
+                        ((IntVector) vectors.get(2)).setSafe(i, (row + 1) % 3);
+                    }, row -> row == 4);
+                }
+            });
+            ColumnarBatch batch = decode(file, null);
+
+            // 인덱스가 아니라 사전 값 타입으로 컬럼이 만들어짐
+            assertThat(batch.getColumns()).extracting(DatabricksColumn::getType).containsExactly("LONG", "STRING", "STRING");
+            assertThat(batch.getRowCount()).isEqualTo(9);
+            for (int row = 0; row < 9; row++) {
+                if (row == 4) {
+                    assertRow(batch, row, new String[3]);
+                } else {
+                    assertRow(batch, row, Long.toString(row), cities[row % 3], products[(row + 1) % 3]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsDecimalsWiderThanALong() throws IOException {
+        Schema schema = new Schema(List.of(
+            Field.nullable("premium", new ArrowType.Decimal(10, 2, 128)),
+            Field.nullable("total", new ArrowType.Decimal(38, 4, 128))));
+        BigDecimal[] premiums = {new BigDecimal("12345678.90"), new BigDecimal("-0.05"), new BigDecimal("0.00")};
+        BigDecimal[] totals = {
+            new BigDecimal("1234567890123456789012345678901234.5678"),
+            new BigDecimal("-9999999999999999999999.0001"),
+            new BigDecimal("0.0000")
+        };
+        DatabricksColumn premium = new DatabricksColumn("premium", "DECIMAL");
+        premium.setScale(2);
+        DatabricksColumn total = new DatabricksColumn("total", "DECIMAL");
+        total.setScale(4);
+
+        byte[] file = stream(schema, null, (root, writer) -> fill(root, writer, 0, 4, (i, row, vectors) -> {
+            ((DecimalVector) vectors.get(0)).setSafe(i, premiums[row]);
+            ((DecimalVector) vectors.get(1)).setSafe(i, totals[row]);
+        }, row -> row == 3));
+
+        for (List<DatabricksColumn> columns : Arrays.asList(List.of(premium, total), null)) {
+            ColumnarBatch batch = decode(file, columns);
+            assertThat(batch.getColumns()).extracting(DatabricksColumn::getScale).containsExactly(2, 4);
+            for (int row = 0; row < 3; row++) {
+                assertRow(batch, row, premiums[row].toPlainString(), totals[row].toPlainString());
+            }
+            assertRow(batch, 3, null, null);
+        }
+    }
+
+    @Test
+    void readsDatesAndTimestamps() throws IOException {
+        Schema schema = new Schema(List.of(
+            Field.nullable("day", new ArrowType.Date(DateUnit.DAY)),
+            Field.nullable("day_ms", new ArrowType.Date(DateUnit.MILLISECOND)),
+            Field.nullable("created_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC")),
+            Field.nullable("updated_at", new ArrowType.Timestamp(TimeUnit.MILLISECOND, "Asia/Seoul")),
+            Field.nullable("local_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null))));
+        long[] micros = {1_709_284_530_000_000L, 1_709_284_530_123_000L, 1_709_284_530_123_456L, -1L};
+
+        ColumnarBatch batch = decode(stream(schema, null, (root, writer) -> fill(root, writer, 0, 5, (i, row, vectors) -> {
+            ((DateDayVector) vectors.get(0)).setSafe(i, row == 3 ? -1 : 19_783 + row);
+            ((DateMilliVector) vectors.get(1)).setSafe(i, (19_783L + row) * 86_400_000L);
+            ((TimeStampMicroTZVector) vectors.get(2)).setSafe(i, micros[row]);
+            ((TimeStampMilliTZVector) vectors.get(3)).setSafe(i, micros[row] / 1000);
+            ((TimeStampMicroVector) vectors.get(4)).setSafe(i, micros[row]);
+        }, row -> row == 4)), null);
+
+        assertThat(batch.getColumns()).extracting(DatabricksColumn::getType)
+            .containsExactly("DATE", "DATE", "TIMESTAMP", "TIMESTAMP", "TIMESTAMP_NTZ");
+        assertRow(batch, 0, "2024-03-01", "2024-03-01", "2024-03-01T09:15:30Z", "2024-03-01T09:15:30Z",
+            "2024-03-01T09:15:30");
+        assertRow(batch, 1, "2024-03-02", "2024-03-02", "2024-03-01T09:15:30.123Z", "2024-03-01T09:15:30.123Z",
+            "2024-03-01T09:15:30.123");
+        assertRow(batch, 2, "2024-03-03", "2024-03-03", "2024-03-01T09:15:30.123456Z", "2024-03-01T09:15:30.123Z",
+            "2024-03-01T09:15:30.123456");
+        // epoch 이전 값은 내림으로 처리 (-1µs는 1969-12-31T23:59:59.999999)
+        assertRow(batch, 3, "1969-12-31", "2024-03-04", "1969-12-31T23:59:59.999999Z", "1970-01-01T00:00:00Z",
+            "1969-12-31T23:59:59.999999");
+        assertRow(batch, 4, new String[5]);
+    }
+
+    @Test
+    void appendsEveryRecordBatchToTheTargetBatch() throws IOException {
+        Schema schema = new Schema(List.of(Field.nullable("id", new ArrowType.Int(64, true))));
+        List<DatabricksColumn> columns = List.of(new DatabricksColumn("id", "LONG"));
+        ColumnarBatch target = new ColumnarBatch(columns);
+        target.getVector(0).appendLong(-1);
+        target.endRow();
+
+        ColumnarBatch batch = ArrowStreamDecoder.decode(new ByteArrayInputStream(stream(schema, null, (root, writer) -> {
+            for (int from = 0; from < 10; from += 4) {
+                fill(root, writer, from, Math.min(4, 10 - from), (i, row, vectors) ->
+                    ((BigIntVector) vectors.get(0)).setSafe(i, row), row -> false);
+            }
+        })), columns, target);
+
+        assertThat(batch).isSameAs(target);
+        assertThat(column(batch, 0)).containsExactly("-1", "0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+    }
+
+    @Test
+    void returnsAnEmptyBatchForASchemaOnlyStream() throws IOException {
+        Schema schema = new Schema(List.of(Field.nullable("id", new ArrowType.Int(32, true)),
+            Field.nullable("name", new ArrowType.Utf8())));
+
+        ColumnarBatch batch = decode(stream(schema, null, (root, writer) -> {}), null);
+
+        assertThat(batch.getRowCount()).isZero();
+        assertThat(batch.getColumnNames()).containsExactly("id", "name");
+    }
+
+    @Test
+    void acceptsAStreamWithoutTheEndOfStreamMarker() throws IOException {
+        Schema schema = new Schema(List.of(Field.nullable("id", new ArrowType.Int(32, true))));
+        byte[] file = stream(schema, null, (root, writer) -> fill(root, writer, 0, 3, (i, row, vectors) ->
+            ((IntVector) vectors.get(0)).setSafe(i, row), row -> false));
+        // EOS 마커 = [0xFFFFFFFF][0x00000000]
+        byte[] truncated = Arrays.copyOf(file, file.length - 8);
+
+        assertThat(column(decode(truncated, null), 0)).containsExactly("0", "1", "2");
+    }
+
+    @Test
+    void rejectsLz4CompressedFiles() {
+        assertThatThrownBy(() -> decode(LZ4_FRAME, null))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("LZ4");
+    }
+
+    @Test
+    void downloadsMultiBatchFilesFromExternalLinks() throws Exception {
+        Schema schema = new Schema(List.of(
+            Field.nullable("id", new ArrowType.Int(64, true)),
+            Field.nullable("city", new ArrowType.Utf8())));
+        Map<String, byte[]> files = new ConcurrentHashMap<>();
+        for (int part = 0; part < 2; part++) {
+            int base = part * 100;
+            files.put("/files/part-" + part + ".arrow", stream(schema, null, (root, writer) -> {
+                for (int from = base; from < base + 100; from += 30) {
+                    fill(root, writer, from, Math.min(30, base + 100 - from), (i, row, vectors) -> {
+                        ((BigIntVector) vectors.get(0)).setSafe(i, row);
+                        ((VarCharVector) vectors.get(1)).setSafe(i, utf8("도시-" + row));
+                    }, row -> row % 50 == 7);
+                }
+            }));
+        }
+        files.put("/files/compressed.arrow", LZ4_FRAME);
+        List<String> fileRequests = new ArrayList<>();
+        Map<String, String> fileHeaders = new ConcurrentHashMap<>();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/api/2.0/sql/statements/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int chunk = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            String file = chunk == 2 ? "/files/compressed.arrow" : "/files/part-" + chunk + ".arrow";
+            respond(exchange, "application/json", utf8("""
+                {"statement_id":"stmt-1","external_links":[{"chunk_index":%d,"row_offset":%d,"row_count":100,
+                 "byte_count":%d,"external_link":"%s%s?sig=abc","expiration":"2099-01-01T00:00:00Z",
+                 "http_headers":{"x-ms-blob-type":"BlockBlob"}}]}
+                """.formatted(chunk, chunk * 100, files.get(file).length, base, file)));
+        });
+        server.createContext("/files/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            synchronized (fileRequests) {
+                fileRequests.add(path + "?" + exchange.getRequestURI().getQuery());
+            }
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            fileHeaders.put("Authorization", authorization != null ? authorization : "");
+            fileHeaders.put("x-ms-blob-type", exchange.getRequestHeaders().getFirst("x-ms-blob-type"));
+            respond(exchange, "application/octet-stream", files.get(path));
+        });
+        server.start();
+
+        DatabricksConfig config = new DatabricksConfig();
+        DatabricksExecutors executors = new DatabricksExecutors(config);
+        DatabricksHttpClients httpClients = new DatabricksHttpClients(config);
+        try {
+            DatabricksApiClient client = apiClient(config, executors, httpClients);
+            List<DatabricksColumn> columns = List.of(new DatabricksColumn("id", "LONG"), new DatabricksColumn("city", "STRING"));
+
+            List<String> ids = new ArrayList<>();
+            for (int chunk = 0; chunk < 2; chunk++) {
+                Map<String, Object> result = client.getNextChunk(base, "dapi-token", "stmt-1", chunk, columns);
+                assertThat(result.get("success")).as("chunk %d: %s", chunk, result.get("error")).isEqualTo(true);
+                assertThat(result.get("rowCount")).isEqualTo(100);
+                ColumnarBatch rows = (ColumnarBatch) result.get("rows");
+                ids.addAll(column(rows, 0));
+                assertThat(rows.getVector(1).getText(8)).isEqualTo("도시-" + (chunk * 100 + 8));
+                assertThat(rows.getVector(1).getText(7)).isNull();
+            }
+
+            List<String> expected = new ArrayList<>();
+            for (int row = 0; row < 200; row++) {
+                expected.add(row % 50 == 7 ? null : Long.toString(row));
+            }
+            assertThat(ids).isEqualTo(expected);
+            // presigned URL은 그대로, Databricks 토큰 없이 링크에 지정된 헤더만 붙여 요청
+            assertThat(fileRequests).containsExactly("/files/part-0.arrow?sig=abc", "/files/part-1.arrow?sig=abc");
+            assertThat(fileHeaders).containsEntry("Authorization", "").containsEntry("x-ms-blob-type", "BlockBlob");
+
+            Map<String, Object> compressed = client.getNextChunk(base, "dapi-token", "stmt-1", 2, columns);
+            assertThat(compressed.get("success")).isEqualTo(false);
+            assertThat((String) compressed.get("error")).contains("LZ4");
+        } finally {
+            server.stop(0);
+            httpClients.shutdown();
+            executors.shutdown();
+        }
+    }
+
+    private static DatabricksApiClient apiClient(DatabricksConfig config, DatabricksExecutors executors,
+                                                 DatabricksHttpClients httpClients) {
+        DatabricksResilienceService resilience = new DatabricksResilienceService();
+        ReflectionTestUtils.setField(resilience, "databricksConfig", config);
+        DatabricksApiClient client = new DatabricksApiClient();
+        ReflectionTestUtils.setField(client, "databricksHttpClients", httpClients);
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(client, "databricksConfig", config);
+        ReflectionTestUtils.setField(client, "databricksExecutors", executors);
+        ReflectionTestUtils.setField(client, "databricksResilienceService", resilience);
+        return client;
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Arrow Java의 스트림 writer로 만든 파일 (Databricks ARROW_STREAM 결과와 같은 IPC 형식)
+     */
+    private byte[] stream(Schema schema, DictionaryProvider provider, Batches batches) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, provider, out)) {
+            writer.start();
+            batches.write(root, writer);
+            writer.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 행 번호 from부터 count개를 채워 RecordBatch 하나로 씀 (nulls에 해당하는 행은 모든 컬럼이 NULL)
+     */
+    private static void fill(VectorSchemaRoot root, ArrowStreamWriter writer, int from, int count, RowWriter values,
+                             IntPredicate nulls) throws IOException {
+        root.allocateNew();
+        List<FieldVector> vectors = root.getFieldVectors();
+        for (int i = 0; i < count; i++) {
+            int row = from + i;
+            if (nulls.test(row)) {
+                for (FieldVector vector : vectors) {
+                    vector.setNull(i);
+                }
+            } else {
+                values.write(i, row, vectors);
+            }
+        }
+        root.setRowCount(count);
+        writer.writeBatch();
+    }
+
+    private interface Batches {
+        void write(VectorSchemaRoot root, ArrowStreamWriter writer) throws IOException;
+    }
+
+    private interface RowWriter {
+        void write(int index, int row, List<FieldVector> vectors);
+    }
+
+    private ColumnarBatch decode(byte[] file, List<DatabricksColumn> columns) throws IOException {
+        return ArrowStreamDecoder.decode(new ByteArrayInputStream(file), columns, null);
+    }
+
+    private VarCharVector dictionaryValues(String name, String[] values) {
+        VarCharVector vector = new VarCharVector(name, allocator);
+        vector.allocateNew();
+        for (int i = 0; i < values.length; i++) {
+            vector.setSafe(i, utf8(values[i]));
+        }
+        vector.setValueCount(values.length);
+        return vector;
+    }
+
+    private static boolean isNullRow(int row) {
+        return row == 0 || row == 7 || row == 8 || row == 9 || row == 19;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> column(ColumnarBatch batch, int column) {
+        List<String> values = new ArrayList<>();
+        for (int row = 0; row < batch.getRowCount(); row++) {
+            values.add(batch.getVector(column).getText(row));
+        }
+        return values;
+    }
+
+    private static void assertRow(ColumnarBatch batch, int row, String... expected) {
+        for (int column = 0; column < expected.length; column++) {
+            assertThat(batch.getVector(column).getText(row))
+                .as("row %d column %s", row, batch.getColumns().get(column).getName())
+                .isEqualTo(expected[column]);
+        }
+    }
+}
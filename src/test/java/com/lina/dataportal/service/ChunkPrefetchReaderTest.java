@@ -0,0 +1,57 @@
+package com.lina.dataportal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkPrefetchReaderTest {
+
+    @Test
+    void fetchesOnTheCallerThreadWhenThePoolRejectsPrefetches() {
+        List<String> fetchThreads = new ArrayList<>();
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("Databricks IO pool is busy");
+        };
+
+        try (ChunkPrefetchReader reader = new ChunkPrefetchReader(chunkIndex -> {
+            fetchThreads.add(Thread.currentThread().getName());
+            return Map.of("chunkIndex", chunkIndex);
+        }, rejecting, 1, 5, 2)) {
+            assertThat(reader.next()).containsEntry("chunkIndex", 1);
+            assertThat(reader.next(3)).containsEntry("chunkIndex", 3);
+            assertThat(reader.next()).containsEntry("chunkIndex", 4);
+            assertThat(reader.hasNext()).isFalse();
+        }
+        assertThat(fetchThreads).hasSize(3).containsOnly(Thread.currentThread().getName());
+    }
+
+    @Test
+    void resumesPrefetchingOnceThePoolAcceptsAgain() {
+        boolean[] busy = {true};
+        List<Integer> submitted = new ArrayList<>();
+        Executor flaky = task -> {
+            if (busy[0]) {
+                throw new RejectedExecutionException("Databricks IO pool is busy");
+            }
+            task.run();
+        };
+
+        try (ChunkPrefetchReader reader = new ChunkPrefetchReader(chunkIndex -> {
+            submitted.add(chunkIndex);
+            return Map.of("chunkIndex", chunkIndex);
+        }, flaky, 0, 4, 2)) {
+            assertThat(reader.next()).containsEntry("chunkIndex", 0);
+            busy[0] = false;
+            for (int chunk = 1; chunk < 4; chunk++) {
+                assertThat(reader.next()).containsEntry("chunkIndex", chunk);
+            }
+        }
+        assertThat(submitted).containsExactly(0, 1, 2, 3);
+    }
+}
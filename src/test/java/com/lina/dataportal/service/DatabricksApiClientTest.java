@@ -0,0 +1,88 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.config.DatabricksHttpClients;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class DatabricksApiClientTest {
+
+    private DatabricksExecutors executors;
+    private DatabricksHttpClients httpClients;
+    private DatabricksApiClient client;
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        DatabricksConfig config = new DatabricksConfig();
+        config.getAsync().setIoThreads(1);
+        config.getAsync().setIoQueueCapacity(1);
+        executors = new DatabricksExecutors(config);
+        httpClients = mock(DatabricksHttpClients.class);
+
+        client = new DatabricksApiClient();
+        ReflectionTestUtils.setField(client, "databricksHttpClients", httpClients);
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(client, "databricksConfig", config);
+        ReflectionTestUtils.setField(client, "databricksExecutors", executors);
+        ReflectionTestUtils.setField(client, "databricksResilienceService", mock(DatabricksResilienceService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocker.countDown();
+        executors.shutdown();
+    }
+
+    @Test
+    void ioQueueIsBoundedAndRejectsWhenFull() {
+        saturateIoPool();
+
+        assertThatThrownBy(() -> executors.io().execute(() -> { }))
+            .isInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("busy");
+    }
+
+    @Test
+    void statementIsReportedBusyWhenTheIoPoolIsFull() {
+        saturateIoPool();
+
+        Map<String, Object> result = client.executeQueryAsync("https://test.cloud.databricks.com", "dapi-token", "wh-1",
+            "SELECT 1", ResultDisposition.INLINE, null).orTimeout(1, TimeUnit.SECONDS).join();
+
+        assertThat(result).containsEntry("success", false)
+            .containsEntry("rejected", true)
+            .containsEntry("busy", true);
+        assertThat((String) result.get("error")).contains("busy");
+        verifyNoInteractions(httpClients);
+    }
+
+    /**
+     * 스레드 1개는 blocker에서 멈추고, 대기열 1칸도 채움
+     */
+    private void saturateIoPool() {
+        executors.io().execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executors.io().execute(() -> { });
+    }
+}
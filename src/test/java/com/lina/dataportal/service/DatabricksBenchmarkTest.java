@@ -0,0 +1,434 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.config.DatabricksHttpClients;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import com.lina.dataportal.repository.SavedQueryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 테스트용 Databricks 대체 서버({@link DatabricksStubServer})를 대상으로 실제 QueryService 구성을 돌리는 부하 벤치마크
+ * 실행(execute), 청크 조회(chunk-fetch), 스키마 탐색(schema-crawl) 경로를 동시 실행하며
+ * 처리량, 지연 시간 분위수, 메모리 할당량, 스레드 사용량을 로그로 남깁니다.
+ * 기본 반복 수는 빌드가 느려지지 않을 만큼만 두고, 측정할 때는 시스템 속성으로 늘립니다.
+ * (예: -Dbenchmark.concurrency=16 -Dbenchmark.iterations=500 -Dbenchmark.warmup=100)
+ */
+class DatabricksBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabricksBenchmarkTest.class);
+
+    private static final String USER = "benchmark";
+    private static final String TOKEN = "dapi-benchmark";
+    private static final String TABLE = "stub_catalog_0.schema_0.table_000";
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 4);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 24);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 4);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private DatabricksStubServer.Settings settings;
+    private DatabricksStubServer stub;
+    private DatabricksConfig config;
+    private DatabricksExecutors executors;
+    private DatabricksHttpClients httpClients;
+    private DatabricksApiClient apiClient;
+    private SchemaCrawlService schemaCrawlService;
+    private QueryService queryService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        settings = new DatabricksStubServer.Settings();
+        settings.latencyMillis = 2;
+        settings.pendingMillis = 20;
+        settings.runningMillis = 40;
+        settings.rowsPerChunk = 500;
+        stub = new DatabricksStubServer(settings);
+
+        config = new DatabricksConfig();
+        config.getDefault().setWorkspaceUrl(stub.getUrl());
+        config.getDefault().setAccessToken(TOKEN);
+        config.getDefault().setWarehouseId("wh-benchmark");
+        config.getAsync().setInitialPollDelay(10);
+        config.getAsync().setMaxPollDelay(50);
+        executors = new DatabricksExecutors(config);
+        httpClients = new DatabricksHttpClients(config);
+
+        DatabricksResilienceService resilience = new DatabricksResilienceService();
+        ReflectionTestUtils.setField(resilience, "databricksConfig", config);
+        apiClient = new DatabricksApiClient();
+        ReflectionTestUtils.setField(apiClient, "databricksHttpClients", httpClients);
+        ReflectionTestUtils.setField(apiClient, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(apiClient, "databricksConfig", config);
+        ReflectionTestUtils.setField(apiClient, "databricksExecutors", executors);
+        ReflectionTestUtils.setField(apiClient, "databricksResilienceService", resilience);
+
+        QueryResultCache cache = new QueryResultCache();
+        ReflectionTestUtils.setField(cache, "databricksConfig", config);
+        ReflectionTestUtils.setField(cache, "databricksExecutors", executors);
+        StatementCursorRegistry cursors = new StatementCursorRegistry();
+        ReflectionTestUtils.setField(cursors, "databricksConfig", config);
+        ReflectionTestUtils.setField(cursors, "databricksExecutors", executors);
+        ChunkPrefetchService prefetch = new ChunkPrefetchService();
+        ReflectionTestUtils.setField(prefetch, "databricksApiClient", apiClient);
+        ReflectionTestUtils.setField(prefetch, "databricksConfig", config);
+        ReflectionTestUtils.setField(prefetch, "databricksExecutors", executors);
+        QueryAdmissionService admission = new QueryAdmissionService();
+        ReflectionTestUtils.setField(admission, "databricksConfig", config);
+        ReflectionTestUtils.setField(admission, "databricksExecutors", executors);
+        schemaCrawlService = new SchemaCrawlService();
+        ReflectionTestUtils.setField(schemaCrawlService, "databricksApiClient", apiClient);
+        ReflectionTestUtils.setField(schemaCrawlService, "databricksConfig", config);
+        ReflectionTestUtils.setField(schemaCrawlService, "databricksExecutors", executors);
+
+        queryService = new QueryService();
+        ReflectionTestUtils.setField(queryService, "userTokenService", mock(UserTokenService.class));
+        ReflectionTestUtils.setField(queryService, "databricksApiClient", apiClient);
+        ReflectionTestUtils.setField(queryService, "databricksConfig", config);
+        ReflectionTestUtils.setField(queryService, "chunkPrefetchService", prefetch);
+        ReflectionTestUtils.setField(queryService, "queryResultCache", cache);
+        ReflectionTestUtils.setField(queryService, "statementCursorRegistry", cursors);
+        ReflectionTestUtils.setField(queryService, "databricksHttpClients", httpClients);
+        ReflectionTestUtils.setField(queryService, "runningQueryRegistry", new RunningQueryRegistry());
+        ReflectionTestUtils.setField(queryService, "schemaCrawlService", schemaCrawlService);
+        ReflectionTestUtils.setField(queryService, "queryAdmissionService", admission);
+        ReflectionTestUtils.setField(queryService, "queryHistoryService", mock(QueryHistoryService.class));
+        ReflectionTestUtils.setField(queryService, "savedQueryRepository", mock(SavedQueryRepository.class));
+        ReflectionTestUtils.setField(queryService, "tableMetadataService", mock(TableMetadataService.class));
+        ReflectionTestUtils.setField(queryService, "databricksResilienceService", resilience);
+        ReflectionTestUtils.setField(queryService, "inFlightQueryRegistry", new InFlightQueryRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+        httpClients.shutdown();
+        executors.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ResultDisposition.class)
+    void allChunksAreReadInOrderForEachDisposition(ResultDisposition disposition) {
+        Map<String, Object> first = execute(disposition);
+
+        assertThat(first.get("success")).as("%s", first.get("error")).isEqualTo(true);
+        assertThat(first.get("totalChunks")).isEqualTo(settings.chunkCount);
+        assertThat(first.get("hasNextChunk")).isEqualTo(true);
+        assertRows((ColumnarBatch) first.get("rows"), 0);
+
+        String statementId = (String) first.get("statementId");
+        for (int chunk = 1; chunk < settings.chunkCount; chunk++) {
+            Map<String, Object> next = queryService.getNextChunk(statementId, chunk, USER);
+            assertThat(next.get("success")).as("chunk %d: %s", chunk, next.get("error")).isEqualTo(true);
+            assertRows((ColumnarBatch) next.get("rows"), chunk);
+        }
+        // EXTERNAL_LINKS는 모든 청크를 토큰 없이 presigned URL에서 받음 (토큰이 붙으면 대체 서버가 거절)
+        assertThat(stub.getFileDownloads())
+            .isEqualTo(disposition == ResultDisposition.EXTERNAL_LINKS ? settings.chunkCount : 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ResultDisposition.class)
+    void benchmarkExecute(ResultDisposition disposition) {
+        // 반복마다 다른 SQL - 결과 캐시와 동일 쿼리 합치기를 피해 매번 statement를 실행
+        Report report = run("execute-" + disposition, i -> Boolean.TRUE.equals(execute(disposition).get("success")));
+
+        assertThat(report.errors).isZero();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ResultDisposition.class)
+    void benchmarkChunkFetch(ResultDisposition disposition) {
+        Map<String, Object> first = execute(disposition);
+        String statementId = (String) first.get("statementId");
+        int totalChunks = (Integer) first.get("totalChunks");
+        assertThat(totalChunks).isGreaterThan(1);
+
+        Report report = run("chunk-fetch-" + disposition, i -> {
+            Map<String, Object> chunk = queryService.getNextChunk(statementId, 1 + i % (totalChunks - 1), USER);
+            return Boolean.TRUE.equals(chunk.get("success")) && chunk.get("rowCount").equals(settings.rowsPerChunk);
+        });
+
+        assertThat(report.errors).isZero();
+    }
+
+    @Test
+    void benchmarkSchemaCrawl() {
+        int tables = settings.catalogs * settings.schemasPerCatalog * settings.tablesPerSchema;
+
+        Report report = run("schema-crawl", i -> countTables(schemaCrawlService.getSchemaTree(stub.getUrl(), TOKEN, true)) == tables);
+
+        assertThat(report.errors).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listingFollowsPageTokensWithReservedCharacters() {
+        settings.pageSize = 3; // 20개 테이블 → 7페이지, 토큰에 +, /, = 포함
+
+        Map<String, Object> result = apiClient.listTables(stub.getUrl(), TOKEN,
+            DatabricksStubServer.catalogName(0), DatabricksStubServer.schemaName(0));
+
+        assertThat(result.get("success")).as("%s", result.get("error")).isEqualTo(true);
+        assertThat((List<Map<String, Object>>) result.get("tables")).hasSize(settings.tablesPerSchema)
+            .extracting(table -> table.get("name")).doesNotHaveDuplicates();
+    }
+
+    private Map<String, Object> execute(ResultDisposition disposition) {
+        return queryService.executeQueryAsync("SELECT * FROM " + TABLE + " WHERE id >= " + sequence.incrementAndGet(),
+            USER, disposition, false).join();
+    }
+
+    /**
+     * 청크 번호로 정해지는 대체 서버 값과 비교 (id, NULL인 name, DECIMAL 문자열)
+     */
+    private void assertRows(ColumnarBatch rows, int chunk) {
+        assertThat(rows.getRowCount()).isEqualTo(settings.rowsPerChunk);
+        for (int row : new int[] {0, 1, settings.rowsPerChunk - 1}) {
+            long id = (long) chunk * settings.rowsPerChunk + row;
+            assertThat(rows.getVector(0).getText(row)).isEqualTo(Long.toString(id));
+            assertThat(rows.getVector(1).getText(row)).isEqualTo((1000 + id) + "." + String.format("%02d", id % 100));
+            if (id % 7 == 0) {
+                assertThat(rows.getVector(2).getText(row)).isNull();
+            } else {
+                assertThat(rows.getVector(2).getText(row)).startsWith("name_" + id + "_").hasSize(settings.stringBytes);
+            }
+            assertThat(rows.getVector(3).getText(row)).isEqualTo(String.valueOf(id % 2 == 1));
+        }
+    }
+
+    /**
+     * 스키마 트리는 "카탈로그.스키마"별 항목 목록이고 항목마다 tables를 가짐
+     */
+    private static int countTables(List<Map<String, Object>> tree) {
+        int count = 0;
+        for (Map<String, Object> schema : tree) {
+            count += ((List<?>) schema.get("tables")).size();
+        }
+        return count;
+    }
+
+    /**
+     * 워밍업 후 CONCURRENCY개 스레드로 ITERATIONS번 실행하고 측정값을 로그로 남깁니다.
+     */
+    private Report run(String name, IntPredicate operation) {
+        ExecutorService drivers = Executors.newFixedThreadPool(CONCURRENCY, runnable -> {
+            Thread thread = new Thread(runnable, "benchmark-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (WARMUP > 0) {
+                execute(drivers, WARMUP, operation);
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            Map<Long, Long> allocatedBefore = allocatedBytes(threads);
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTime();
+            long startedBefore = threads.getTotalStartedThreadCount();
+            threads.resetPeakThreadCount();
+
+            long start = System.nanoTime();
+            Report report = execute(drivers, ITERATIONS, operation);
+            long elapsedNanos = System.nanoTime() - start;
+
+            Map<String, Long> allocatedByGroup = new TreeMap<>();
+            long allocatedTotal = 0;
+            Map<Long, Long> allocatedAfter = allocatedBytes(threads);
+            Map<Long, String> names = threadNames(threads, allocatedAfter.keySet());
+            for (Map.Entry<Long, Long> entry : allocatedAfter.entrySet()) {
+                long delta = entry.getValue() - allocatedBefore.getOrDefault(entry.getKey(), 0L);
+                if (delta > 0) {
+                    allocatedTotal += delta;
+                    allocatedByGroup.merge(threadGroup(names.get(entry.getKey())), delta, Long::sum);
+                }
+            }
+
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("concurrency", CONCURRENCY);
+            summary.put("iterations", ITERATIONS);
+            summary.put("errors", report.errors);
+            summary.put("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            summary.put("throughputPerSecond", round(ITERATIONS / seconds));
+            summary.put("latencyMs", latencySummary(report.latencies));
+            summary.put("bytesPerOperation", allocatedTotal / ITERATIONS);
+            summary.put("allocatedByThreadGroup", allocatedByGroup); // databricks-stub-*는 같은 JVM의 대체 서버 응답 처리 몫
+            summary.put("gcCount", gcCount() - gcCountBefore);
+            summary.put("gcTimeMs", gcTime() - gcTimeBefore);
+            summary.put("peakThreads", threads.getPeakThreadCount());
+            summary.put("startedThreads", threads.getTotalStartedThreadCount() - startedBefore);
+            summary.put("liveByThreadGroup", liveByGroup(names.values()));
+            log.info("Benchmark {}: {}", name, summary);
+            return report;
+        } finally {
+            drivers.shutdownNow();
+        }
+    }
+
+    private static Report execute(ExecutorService drivers, int iterations, IntPredicate operation) {
+        long[] latencies = new long[iterations];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>(CONCURRENCY);
+        for (int w = 0; w < CONCURRENCY; w++) {
+            workers.add(drivers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < iterations) {
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = operation.test(i);
+                    } catch (RuntimeException e) {
+                        log.warn("Benchmark operation {} failed", i, e);
+                        ok = false;
+                    }
+                    latencies[i] = System.nanoTime() - start;
+                    if (!ok) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Benchmark interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Benchmark worker failed", e.getCause());
+            }
+        }
+        return new Report(latencies, errors.get());
+    }
+
+    private static Map<String, Object> latencySummary(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long latency : sorted) {
+            sum += latency;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("mean", millis(sum / sorted.length));
+        summary.put("p50", millis(percentile(sorted, 50)));
+        summary.put("p90", millis(percentile(sorted, 90)));
+        summary.put("p95", millis(percentile(sorted, 95)));
+        summary.put("p99", millis(percentile(sorted, 99)));
+        summary.put("max", millis(sorted[sorted.length - 1]));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * 살아 있는 스레드별 누적 할당 바이트 - 측정 도중 종료된 스레드의 할당은 빠지므로 근사값입니다.
+     */
+    private static Map<Long, Long> allocatedBytes(ThreadMXBean threads) {
+        Map<Long, Long> allocated = new HashMap<>();
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads && sunThreads.isThreadAllocatedMemorySupported()) {
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = sunThreads.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    allocated.put(ids[i], bytes[i]);
+                }
+            }
+        }
+        return allocated;
+    }
+
+    private static Map<Long, String> threadNames(ThreadMXBean threads, Collection<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        for (ThreadInfo info : threads.getThreadInfo(ids.stream().mapToLong(Long::longValue).toArray())) {
+            if (info != null) {
+                names.put(info.getThreadId(), info.getThreadName());
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, Integer> liveByGroup(Collection<String> names) {
+        Map<String, Integer> groups = new TreeMap<>();
+        for (String name : names) {
+            groups.merge(threadGroup(name), 1, Integer::sum);
+        }
+        return groups;
+    }
+
+    /**
+     * 스레드 이름에서 번호를 떼어 풀 단위로 묶음 (예: databricks-io-12 → databricks-io-*)
+     */
+    private static String threadGroup(String name) {
+        if (name == null) {
+            return "terminated";
+        }
+        return name.replaceAll("\\d+", "*").replaceAll("\\*(-\\*)+", "*");
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private record Report(long[] latencies, int errors) {
+    }
+}
@@ -0,0 +1,588 @@
+package com.lina.dataportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 테스트용 Databricks 대체 서버 (127.0.0.1의 빈 포트에서 실행)
+ * Statement Execution API와 Unity Catalog 목록 API를 흉내 내며,
+ * INLINE(JSON_ARRAY)과 EXTERNAL_LINKS(ARROW_STREAM) 두 가지 결과 전달 방식을 모두 제공합니다.
+ * EXTERNAL_LINKS 청크는 Arrow Java writer로 만든 파일을 /files/ 아래 presigned URL처럼 내려줍니다.
+ */
+class DatabricksStubServer implements AutoCloseable {
+
+    // 예: id=42, amount=1042.42, name="name_42_xxxx", active=false, event_date=2024-02-12, event_ts=..., score=21.0
+    private static final List<Map<String, Object>> COLUMNS = List.of(
+        column("id", "LONG", "bigint", 0),
+        decimalColumn("amount", 15, 2, 1),
+        column("name", "STRING", "string", 2),
+        column("active", "BOOLEAN", "boolean", 3),
+        column("event_date", "DATE", "date", 4),
+        column("event_ts", "TIMESTAMP", "timestamp", 5),
+        column("score", "DOUBLE", "double", 6)
+    );
+
+    private static final Schema ARROW_SCHEMA = new Schema(List.of(
+        Field.nullable("id", new ArrowType.Int(64, true)),
+        Field.nullable("amount", new ArrowType.Decimal(15, 2, 128)),
+        Field.nullable("name", new ArrowType.Utf8()),
+        Field.nullable("active", new ArrowType.Bool()),
+        Field.nullable("event_date", new ArrowType.Date(DateUnit.DAY)),
+        Field.nullable("event_ts", new ArrowType.Timestamp(TimeUnit.MICROSECOND, "Etc/UTC")),
+        Field.nullable("score", new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE))
+    ));
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+    private static final String PAGE_TOKEN_PREFIX = "CgV+";
+    private static final String PAGE_TOKEN_SUFFIX = "/a==";
+
+    /**
+     * 지연 시간, 상태 전이 시간, 청크 수, 응답 크기 설정
+     */
+    static class Settings {
+        long latencyMillis = 5;
+        long pendingMillis = 50;
+        long runningMillis = 100;
+        int chunkCount = 4;
+        int rowsPerChunk = 1000;
+        int stringBytes = 32;
+        int catalogs = 2;
+        int schemasPerCatalog = 5;
+        int tablesPerSchema = 20;
+        int pageSize = 50;
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final BufferAllocator allocator = new RootAllocator();
+    private final String url;
+
+    private final Map<String, StubStatement> statements = new ConcurrentHashMap<>();
+    private final Map<Integer, List<List<String>>> jsonChunks = new ConcurrentHashMap<>();
+    private final Map<Integer, byte[]> arrowChunks = new ConcurrentHashMap<>();
+    private final AtomicLong statementSequence = new AtomicLong();
+    private final AtomicInteger fileDownloads = new AtomicInteger();
+    private final AtomicInteger cancelRequests = new AtomicInteger();
+
+    DatabricksStubServer(Settings settings) throws IOException {
+        this.settings = settings;
+        AtomicInteger threads = new AtomicInteger();
+        this.handlers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "databricks-stub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.url = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/api/2.0/sql/statements", exchange -> handle(exchange, this::statementApi));
+        server.createContext("/api/2.1/unity-catalog/", exchange -> handle(exchange, this::catalogApi));
+        server.createContext("/files/", exchange -> handle(exchange, this::file));
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    int getFileDownloads() {
+        return fileDownloads.get();
+    }
+
+    int getCancelRequests() {
+        return cancelRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        allocator.close();
+    }
+
+    private void statementApi(HttpExchange exchange) throws IOException {
+        if (!authorized(exchange)) {
+            unauthorized(exchange);
+            return;
+        }
+        // /api/2.0/sql/statements[/{id}[/cancel | /result/chunks/{index}]]
+        String path = exchange.getRequestURI().getPath().substring("/api/2.0/sql/statements".length());
+        String[] parts = path.isEmpty() || "/".equals(path) ? new String[0] : path.substring(1).split("/");
+        String method = exchange.getRequestMethod();
+
+        if (parts.length == 0 && "POST".equals(method)) {
+            createStatement(exchange);
+            return;
+        }
+        sleep(settings.latencyMillis);
+        StubStatement statement = parts.length > 0 ? statements.get(parts[0]) : null;
+        if (statement == null) {
+            error(exchange, 404, "RESOURCE_DOES_NOT_EXIST", "Statement not found: " + (parts.length > 0 ? parts[0] : ""));
+        } else if (parts.length == 1 && "GET".equals(method)) {
+            json(exchange, 200, statementBody(statement));
+        } else if (parts.length == 2 && "cancel".equals(parts[1]) && "POST".equals(method)) {
+            cancelRequests.incrementAndGet();
+            statement.canceled = true;
+            json(exchange, 200, Map.of());
+        } else if (parts.length == 4 && "result".equals(parts[1]) && "chunks".equals(parts[2]) && "GET".equals(method)) {
+            int chunkIndex = Integer.parseInt(parts[3]);
+            if (!"SUCCEEDED".equals(statement.state(System.currentTimeMillis()))) {
+                error(exchange, 404, "RESOURCE_DOES_NOT_EXIST", "Statement result not found: " + statement.id);
+            } else if (chunkIndex < 0 || chunkIndex >= settings.chunkCount) {
+                error(exchange, 400, "INVALID_PARAMETER_VALUE", "Chunk index out of range: " + chunkIndex);
+            } else {
+                json(exchange, 200, chunkBody(statement, chunkIndex));
+            }
+        } else {
+            error(exchange, 404, "ENDPOINT_NOT_FOUND", "No API found for '" + method + " " + exchange.getRequestURI().getPath() + "'");
+        }
+    }
+
+    private void createStatement(HttpExchange exchange) throws IOException {
+        Map<?, ?> request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readValue(body, Map.class);
+        }
+        boolean externalLinks = "EXTERNAL_LINKS".equals(request.get("disposition"));
+        if (externalLinks && !"ARROW_STREAM".equals(request.get("format"))) {
+            sleep(settings.latencyMillis);
+            error(exchange, 400, "INVALID_PARAMETER_VALUE", "EXTERNAL_LINKS disposition requires ARROW_STREAM format");
+            return;
+        }
+
+        StubStatement statement = new StubStatement("stub-" + statementSequence.incrementAndGet(), externalLinks,
+            System.currentTimeMillis(), settings.pendingMillis, settings.runningMillis);
+        statements.put(statement.id, statement);
+
+        // wait_timeout 동안은 실제 서비스처럼 끝날 때까지 응답을 미룸 (0s면 바로 PENDING 응답)
+        long waitMillis = parseWaitTimeout(request.get("wait_timeout"));
+        sleep(settings.latencyMillis + Math.min(waitMillis, statement.remainingMillis(System.currentTimeMillis())));
+        json(exchange, 200, statementBody(statement));
+    }
+
+    private void catalogApi(HttpExchange exchange) throws IOException {
+        if (!authorized(exchange)) {
+            unauthorized(exchange);
+            return;
+        }
+        sleep(settings.latencyMillis);
+        String path = exchange.getRequestURI().getPath().substring("/api/2.1/unity-catalog/".length());
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        String pageToken = query.get("page_token");
+
+        if ("catalogs".equals(path)) {
+            List<Map<String, Object>> catalogs = new ArrayList<>();
+            for (int c = 0; c < settings.catalogs; c++) {
+                catalogs.add(Map.of("name", catalogName(c), "comment", "stub catalog", "metastore_id", "stub-metastore"));
+            }
+            json(exchange, 200, page("catalogs", catalogs, pageToken));
+        } else if ("schemas".equals(path)) {
+            String catalogName = query.get("catalog_name");
+            if (catalogIndex(catalogName) < 0) {
+                error(exchange, 404, "CATALOG_DOES_NOT_EXIST", "Catalog '" + catalogName + "' does not exist.");
+                return;
+            }
+            List<Map<String, Object>> schemas = new ArrayList<>();
+            for (int s = 0; s < settings.schemasPerCatalog; s++) {
+                schemas.add(Map.of("name", schemaName(s), "catalog_name", catalogName,
+                    "full_name", catalogName + "." + schemaName(s), "comment", "stub schema"));
+            }
+            json(exchange, 200, page("schemas", schemas, pageToken));
+        } else if ("tables".equals(path)) {
+            String catalogName = query.get("catalog_name");
+            String schemaName = query.get("schema_name");
+            if (catalogIndex(catalogName) < 0 || schemaIndex(schemaName) < 0) {
+                error(exchange, 404, "SCHEMA_DOES_NOT_EXIST", "Schema '" + catalogName + "." + schemaName + "' does not exist.");
+                return;
+            }
+            List<Map<String, Object>> tables = new ArrayList<>();
+            for (int t = 0; t < settings.tablesPerSchema; t++) {
+                tables.add(tableBody(catalogName, schemaName, tableName(t), t));
+            }
+            json(exchange, 200, page("tables", tables, pageToken));
+        } else if (path.startsWith("tables/")) {
+            String fullName = path.substring("tables/".length());
+            String[] parts = fullName.split("\\.");
+            int tableIndex = parts.length == 3 ? tableIndex(parts[2]) : -1;
+            if (tableIndex < 0 || catalogIndex(parts[0]) < 0 || schemaIndex(parts[1]) < 0) {
+                error(exchange, 404, "TABLE_DOES_NOT_EXIST", "Table '" + fullName + "' does not exist.");
+                return;
+            }
+            json(exchange, 200, tableBody(parts[0], parts[1], parts[2], tableIndex));
+        } else {
+            error(exchange, 404, "ENDPOINT_NOT_FOUND", "No API found for '" + exchange.getRequestURI().getPath() + "'");
+        }
+    }
+
+    /**
+     * presigned URL 흉내 - 저장소 URL이므로 Databricks 토큰이 붙어 오면 거절합니다.
+     */
+    private void file(HttpExchange exchange) throws IOException {
+        sleep(settings.latencyMillis);
+        if (exchange.getRequestHeaders().getFirst("Authorization") != null) {
+            error(exchange, 400, "InvalidArgument", "Only one auth mechanism allowed");
+            return;
+        }
+        // /files/{statementId}/{chunkIndex}.arrow
+        String[] parts = exchange.getRequestURI().getPath().substring("/files/".length()).split("/");
+        StubStatement statement = parts.length == 2 ? statements.get(parts[0]) : null;
+        if (statement == null || !statement.externalLinks || !parts[1].endsWith(".arrow")) {
+            error(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            return;
+        }
+        int chunkIndex = Integer.parseInt(parts[1].substring(0, parts[1].length() - ".arrow".length()));
+        fileDownloads.incrementAndGet();
+        respond(exchange, 200, "application/vnd.apache.arrow.stream", arrowChunk(chunkIndex));
+    }
+
+    private Map<String, Object> statementBody(StubStatement statement) {
+        String state = statement.state(System.currentTimeMillis());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("statement_id", statement.id);
+        body.put("status", Map.of("state", state));
+        if ("SUCCEEDED".equals(state)) {
+            List<Map<String, Object>> chunks = new ArrayList<>();
+            for (int i = 0; i < settings.chunkCount; i++) {
+                chunks.add(Map.of("chunk_index", i, "row_offset", (long) i * settings.rowsPerChunk, "row_count", settings.rowsPerChunk));
+            }
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("format", statement.externalLinks ? "ARROW_STREAM" : "JSON_ARRAY");
+            manifest.put("schema", Map.of("column_count", COLUMNS.size(), "columns", COLUMNS));
+            manifest.put("total_chunk_count", settings.chunkCount);
+            manifest.put("total_row_count", (long) settings.chunkCount * settings.rowsPerChunk);
+            manifest.put("chunks", chunks);
+            body.put("manifest", manifest);
+            if (settings.chunkCount > 0) {
+                body.put("result", chunkBody(statement, 0));
+            }
+        }
+        return body;
+    }
+
+    private Map<String, Object> chunkBody(StubStatement statement, int chunkIndex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("chunk_index", chunkIndex);
+        body.put("row_offset", (long) chunkIndex * settings.rowsPerChunk);
+        body.put("row_count", settings.rowsPerChunk);
+        if (chunkIndex + 1 < settings.chunkCount) {
+            body.put("next_chunk_index", chunkIndex + 1);
+        }
+        if (statement.externalLinks) {
+            Map<String, Object> link = new LinkedHashMap<>();
+            link.put("chunk_index", chunkIndex);
+            link.put("row_offset", (long) chunkIndex * settings.rowsPerChunk);
+            link.put("row_count", settings.rowsPerChunk);
+            link.put("byte_count", arrowChunk(chunkIndex).length);
+            link.put("external_link", url + "/files/" + statement.id + "/" + chunkIndex + ".arrow?X-Amz-Signature=stub%2Bsig");
+            link.put("expiration", "2099-01-01T00:00:00Z");
+            if (chunkIndex + 1 < settings.chunkCount) {
+                link.put("next_chunk_index", chunkIndex + 1);
+            }
+            body.put("external_links", List.of(link));
+        } else {
+            // 같은 청크는 매번 같은 값 - 응답 생성 비용이 측정 대상 쪽 할당에 섞이지 않도록 한 번만 만듦
+            body.put("data_array", jsonChunks.computeIfAbsent(chunkIndex, this::jsonRows));
+        }
+        return body;
+    }
+
+    private List<List<String>> jsonRows(int chunkIndex) {
+        List<List<String>> rows = new ArrayList<>(settings.rowsPerChunk);
+        for (int r = 0; r < settings.rowsPerChunk; r++) {
+            long id = (long) chunkIndex * settings.rowsPerChunk + r;
+            LocalDate date = BASE_DATE.plusDays(id % 365);
+            rows.add(Arrays.asList(
+                String.valueOf(id),
+                amount(id).toPlainString(),
+                id % 7 == 0 ? null : name(id),
+                String.valueOf(id % 2 == 1),
+                date.toString(),
+                date + "T10:30:00.123Z",
+                String.valueOf(id * 0.5)
+            ));
+        }
+        return rows;
+    }
+
+    private byte[] arrowChunk(int chunkIndex) {
+        return arrowChunks.computeIfAbsent(chunkIndex, this::arrowFile);
+    }
+
+    /**
+     * JSON_ARRAY 청크와 같은 값을 담은 ARROW_STREAM 파일 (RecordBatch 하나)
+     */
+    private byte[] arrowFile(int chunkIndex) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(ARROW_SCHEMA, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, out)) {
+            writer.start();
+            root.allocateNew();
+            for (int r = 0; r < settings.rowsPerChunk; r++) {
+                long id = (long) chunkIndex * settings.rowsPerChunk + r;
+                LocalDate date = BASE_DATE.plusDays(id % 365);
+                ((BigIntVector) root.getVector(0)).setSafe(r, id);
+                ((DecimalVector) root.getVector(1)).setSafe(r, amount(id));
+                if (id % 7 == 0) {
+                    ((VarCharVector) root.getVector(2)).setNull(r);
+                } else {
+                    ((VarCharVector) root.getVector(2)).setSafe(r, name(id).getBytes(StandardCharsets.UTF_8));
+                }
+                ((BitVector) root.getVector(3)).setSafe(r, id % 2 == 1 ? 1 : 0);
+                ((DateDayVector) root.getVector(4)).setSafe(r, (int) date.toEpochDay());
+                long micros = date.atTime(10, 30).toEpochSecond(ZoneOffset.UTC) * 1_000_000L + 123_000L;
+                ((TimeStampMicroTZVector) root.getVector(5)).setSafe(r, micros);
+                ((Float8Vector) root.getVector(6)).setSafe(r, id * 0.5);
+            }
+            root.setRowCount(settings.rowsPerChunk);
+            writer.writeBatch();
+            writer.end();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write Arrow chunk " + chunkIndex, e);
+        }
+        return out.toByteArray();
+    }
+
+    private BigDecimal amount(long id) {
+        return BigDecimal.valueOf((1000 + id) * 100 + id % 100, 2);
+    }
+
+    private String name(long id) {
+        StringBuilder value = new StringBuilder(Math.max(settings.stringBytes, 16)).append("name_").append(id).append('_');
+        while (value.length() < settings.stringBytes) {
+            value.append('x');
+        }
+        return value.toString();
+    }
+
+    private Map<String, Object> tableBody(String catalogName, String schemaName, String tableName, int tableIndex) {
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("name", tableName);
+        table.put("catalog_name", catalogName);
+        table.put("schema_name", schemaName);
+        table.put("full_name", catalogName + "." + schemaName + "." + tableName);
+        table.put("table_type", "MANAGED");
+        table.put("comment", "stub table " + tableIndex);
+        table.put("updated_at", 1700000000000L + tableIndex);
+        table.put("columns", COLUMNS);
+        table.put("table_constraints", List.of(Map.of("primary_key_constraint",
+            Map.of("name", tableName + "_pk", "child_columns", List.of("id")))));
+        return table;
+    }
+
+    /**
+     * 목록 API 페이지 나누기 - page_token은 다음 페이지 시작 위치
+     * 실제 토큰처럼 base64 문자(+, /, =)를 넣어 클라이언트가 쿼리 파라미터를 제대로 인코딩하는지 확인합니다.
+     */
+    private Map<String, Object> page(String arrayField, List<Map<String, Object>> items, String pageToken) {
+        int pageSize = Math.max(1, settings.pageSize);
+        int from = pageToken == null || pageToken.isEmpty() ? 0 : Math.min(pageOffset(pageToken), items.size());
+        int to = Math.min(from + pageSize, items.size());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(arrayField, items.subList(from, to));
+        if (to < items.size()) {
+            body.put("next_page_token", PAGE_TOKEN_PREFIX + to + PAGE_TOKEN_SUFFIX);
+        }
+        return body;
+    }
+
+    private static int pageOffset(String pageToken) {
+        if (!pageToken.startsWith(PAGE_TOKEN_PREFIX) || !pageToken.endsWith(PAGE_TOKEN_SUFFIX)) {
+            throw new IllegalArgumentException("Invalid page_token: " + pageToken);
+        }
+        return Integer.parseInt(pageToken.substring(PAGE_TOKEN_PREFIX.length(), pageToken.length() - PAGE_TOKEN_SUFFIX.length()));
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            handler.handle(exchange);
+        } catch (IllegalArgumentException e) {
+            error(exchange, 400, "INVALID_PARAMETER_VALUE", String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            error(exchange, 500, "INTERNAL_ERROR", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static boolean authorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        return authorization != null && authorization.startsWith("Bearer ") && authorization.length() > 7;
+    }
+
+    private void unauthorized(HttpExchange exchange) throws IOException {
+        error(exchange, 401, "UNAUTHENTICATED", "Credential was not sent or was of an unsupported type");
+    }
+
+    private void error(HttpExchange exchange, int status, String errorCode, String message) throws IOException {
+        json(exchange, status, Map.of("error_code", errorCode, "message", message));
+    }
+
+    private void json(HttpExchange exchange, int status, Object body) throws IOException {
+        respond(exchange, status, "application/json", objectMapper.writeValueAsBytes(body));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> values = new HashMap<>();
+        if (rawQuery == null) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static long parseWaitTimeout(Object waitTimeout) {
+        if (waitTimeout == null || waitTimeout.toString().isBlank()) {
+            return 10_000; // Databricks 기본값 10s
+        }
+        return DurationStyle.detectAndParse(waitTimeout.toString()).toMillis();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int catalogIndex(String name) {
+        return index(name, "stub_catalog_", settings.catalogs);
+    }
+
+    private int schemaIndex(String name) {
+        return index(name, "schema_", settings.schemasPerCatalog);
+    }
+
+    private int tableIndex(String name) {
+        return index(name, "table_", settings.tablesPerSchema);
+    }
+
+    private static int index(String name, String prefix, int count) {
+        if (name == null || !name.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(name.substring(prefix.length()));
+            return index >= 0 && index < count ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static String catalogName(int index) {
+        return "stub_catalog_" + index;
+    }
+
+    static String schemaName(int index) {
+        return "schema_" + index;
+    }
+
+    static String tableName(int index) {
+        return String.format("table_%03d", index);
+    }
+
+    private static Map<String, Object> column(String name, String typeName, String typeText, int position) {
+        return Map.of("name", name, "type_name", typeName, "type_text", typeText, "position", position, "nullable", true);
+    }
+
+    private static Map<String, Object> decimalColumn(String name, int precision, int scale, int position) {
+        return Map.of("name", name, "type_name", "DECIMAL", "type_text", "decimal(" + precision + "," + scale + ")",
+            "type_precision", precision, "type_scale", scale, "position", position, "nullable", true);
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * 생성 시각 기준으로 PENDING → RUNNING → SUCCEEDED 상태가 진행되는 statement
+     */
+    private static class StubStatement {
+        private final String id;
+        private final boolean externalLinks;
+        private final long runningAt;
+        private final long succeededAt;
+        private volatile boolean canceled;
+
+        StubStatement(String id, boolean externalLinks, long createdAt, long pendingMillis, long runningMillis) {
+            this.id = id;
+            this.externalLinks = externalLinks;
+            this.runningAt = createdAt + pendingMillis;
+            this.succeededAt = runningAt + runningMillis;
+        }
+
+        String state(long now) {
+            if (canceled && now < succeededAt) {
+                return "CANCELED";
+            }
+            if (now < runningAt) {
+                return "PENDING";
+            }
+            return now < succeededAt ? "RUNNING" : "SUCCEEDED";
+        }
+
+        long remainingMillis(long now) {
+            return Math.max(0, succeededAt - now);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.TimestampColumnVector;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParquetExportWriterTest {
+
+    private static final List<DatabricksColumn> COLUMNS = columns();
+
+    // id, score, active, day, updated_at, premium DECIMAL(10,2), exposure DECIMAL(38,0), name
+    private static final String[][] ROWS = {
+        {"1", "3.5", "true", "2024-01-10", "2024-01-01T09:00:00+09:00", "1200.50", "100000000000000000000", "김민지"},
+        {"-9223372036854775808", "-0.0", "false", "1969-12-31", "1969-12-31T23:59:59.999999Z", "-0.01", "-1", ""},
+        {null, null, null, null, null, null, null, null},
+        {"9223372036854775807", "1.0E300", "true", "9999-12-31", "2024-03-01 12:34:56.5", "99999999.99", "0", "line\nbreak"}
+    };
+
+    @Test
+    void writesEveryColumnTypeReadableByParquetReader() throws IOException {
+        byte[] file = write(false, batch(0, ROWS.length));
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new BytesInputFile(file))) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            assertThat(reader.getFooter().getFileMetaData().getCreatedBy()).isEqualTo("lina-data-portal");
+            assertPrimitive(schema, "id", PrimitiveTypeName.INT64, null);
+            assertPrimitive(schema, "score", PrimitiveTypeName.DOUBLE, null);
+            assertPrimitive(schema, "active", PrimitiveTypeName.BOOLEAN, null);
+            assertPrimitive(schema, "day", PrimitiveTypeName.INT32, LogicalTypeAnnotation.dateType());
+            assertPrimitive(schema, "updated_at", PrimitiveTypeName.INT64,
+                LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS));
+            assertPrimitive(schema, "premium", PrimitiveTypeName.INT64, LogicalTypeAnnotation.decimalType(2, 10));
+            assertPrimitive(schema, "exposure", PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+            assertPrimitive(schema, "name", PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType());
+            assertThat(schema.getFields()).allMatch(field -> field.isRepetition(Type.Repetition.OPTIONAL));
+        }
+
+        List<Group> rows = readRows(file);
+        assertThat(rows).hasSize(ROWS.length);
+
+        Group first = rows.get(0);
+        assertThat(first.getLong("id", 0)).isEqualTo(1L);
+        assertThat(first.getDouble("score", 0)).isEqualTo(3.5);
+        assertThat(first.getBoolean("active", 0)).isTrue();
+        assertThat(first.getInteger("day", 0)).isEqualTo((int) LocalDate.of(2024, 1, 10).toEpochDay());
+        assertThat(first.getLong("updated_at", 0)).isEqualTo(micros("2024-01-01T00:00:00Z"));
+        assertThat(first.getLong("premium", 0)).isEqualTo(120050L);
+        assertThat(first.getString("exposure", 0)).isEqualTo("100000000000000000000");
+        assertThat(first.getString("name", 0)).isEqualTo("김민지");
+
+        Group second = rows.get(1);
+        assertThat(second.getLong("id", 0)).isEqualTo(Long.MIN_VALUE);
+        assertThat(Double.doubleToLongBits(second.getDouble("score", 0))).isEqualTo(Double.doubleToLongBits(-0.0));
+        assertThat(second.getBoolean("active", 0)).isFalse();
+        assertThat(second.getInteger("day", 0)).isEqualTo(-1);
+        assertThat(second.getLong("updated_at", 0)).isEqualTo(-1L);
+        assertThat(second.getLong("premium", 0)).isEqualTo(-1L);
+        assertThat(second.getString("name", 0)).isEmpty();
+
+        Group nulls = rows.get(2);
+        for (DatabricksColumn column : COLUMNS) {
+            assertThat(nulls.getFieldRepetitionCount(column.getName())).as(column.getName()).isZero();
+        }
+
+        Group last = rows.get(3);
+        assertThat(last.getLong("id", 0)).isEqualTo(Long.MAX_VALUE);
+        assertThat(last.getDouble("score", 0)).isEqualTo(1.0E300);
+        assertThat(last.getInteger("day", 0)).isEqualTo((int) LocalDate.of(9999, 12, 31).toEpochDay());
+        assertThat(last.getLong("updated_at", 0)).isEqualTo(micros("2024-03-01T12:34:56.5Z"));
+        assertThat(last.getLong("premium", 0)).isEqualTo(9999999999L);
+        assertThat(last.getString("name", 0)).isEqualTo("line\nbreak");
+    }
+
+    @Test
+    void writesOneRowGroupPerBatch() throws IOException {
+        byte[] file = write(false, batch(0, 2), batch(2, 3), batch(3, 4));
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new BytesInputFile(file))) {
+            assertThat(reader.getRowGroups()).extracting(block -> block.getRowCount()).containsExactly(2L, 1L, 1L);
+            assertThat(reader.getRecordCount()).isEqualTo(4);
+        }
+        List<Group> rows = readRows(file);
+        assertThat(rows).extracting(row -> row.getFieldRepetitionCount("id") == 0 ? null : row.getLong("id", 0))
+            .containsExactly(1L, Long.MIN_VALUE, null, Long.MAX_VALUE);
+    }
+
+    @Test
+    void compressesPagesWithGzip() throws IOException {
+        ColumnarBatch rows = batch(0, ROWS.length);
+        ColumnarBatch large = new ColumnarBatch(COLUMNS);
+        for (int i = 0; i < 2000; i++) {
+            large.appendRow(rows, i % ROWS.length);
+        }
+        byte[] plain = write(false, large);
+        byte[] gzip = write(true, large);
+
+        assertThat(gzip.length).isLessThan(plain.length);
+        try (ParquetFileReader reader = ParquetFileReader.open(new BytesInputFile(gzip))) {
+            assertThat(reader.getRowGroups().get(0).getColumns())
+                .allMatch(column -> column.getCodec() == CompressionCodecName.GZIP);
+        }
+        List<Group> read = readRows(gzip);
+        assertThat(read).hasSize(2000);
+        assertThat(read.get(1999).getString("name", 0)).isEqualTo("line\nbreak");
+    }
+
+    @Test
+    void renamesDuplicateColumnNames() throws IOException {
+        List<DatabricksColumn> columns = List.of(new DatabricksColumn("id", "LONG"), new DatabricksColumn("id", "STRING"),
+            new DatabricksColumn("id", "INT"));
+        ColumnarBatch batch = new ColumnarBatch(columns);
+        batch.getVector(0).appendText("7");
+        batch.getVector(1).appendText("seven");
+        batch.getVector(2).appendText("8");
+        batch.endRow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetExportWriter writer = new ParquetExportWriter(out, columns, false);
+        writer.write(batch);
+        writer.finish();
+
+        Group row = readRows(out.toByteArray()).get(0);
+        assertThat(row.getType().getFields()).extracting(Type::getName)
+            .containsExactly("id", "id_2", "id_3");
+        assertThat(row.getLong("id", 0)).isEqualTo(7L);
+        assertThat(row.getString("id_2", 0)).isEqualTo("seven");
+        assertThat(row.getLong("id_3", 0)).isEqualTo(8L);
+    }
+
+    @Test
+    void writesAValidFileForAnEmptyResult() throws IOException {
+        byte[] file = write(false, batch(0, 0));
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new BytesInputFile(file))) {
+            assertThat(reader.getRecordCount()).isZero();
+            assertThat(reader.getRowGroups()).isEmpty();
+            assertThat(reader.getFooter().getFileMetaData().getSchema().getFieldCount()).isEqualTo(COLUMNS.size());
+        }
+    }
+
+    private static byte[] write(boolean gzip, ColumnarBatch... batches) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetExportWriter writer = new ParquetExportWriter(out, COLUMNS, gzip);
+        for (ColumnarBatch batch : batches) {
+            writer.write(batch);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static List<Group> readRows(byte[] file) throws IOException {
+        List<Group> rows = new ArrayList<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(new BytesInputFile(file))) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                    .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    rows.add(records.read());
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void assertPrimitive(MessageType schema, String name, PrimitiveTypeName type,
+                                        LogicalTypeAnnotation annotation) {
+        assertThat(schema.getType(name).asPrimitiveType().getPrimitiveTypeName()).as(name).isEqualTo(type);
+        assertThat(schema.getType(name).getLogicalTypeAnnotation()).as(name).isEqualTo(annotation);
+    }
+
+    private static long micros(String timestamp) {
+        char[] chars = timestamp.toCharArray();
+        return TimestampColumnVector.parseEpochMicros(chars, 0, chars.length);
+    }
+
+    private static ColumnarBatch batch(int from, int to) {
+        ColumnarBatch batch = new ColumnarBatch(COLUMNS);
+        for (int row = from; row < to; row++) {
+            for (int column = 0; column < COLUMNS.size(); column++) {
+                String value = ROWS[row][column];
+                if (value == null) {
+                    batch.getVector(column).appendNull();
+                } else {
+                    batch.getVector(column).appendText(value);
+                }
+            }
+            batch.endRow();
+        }
+        return batch;
+    }
+
+    private static List<DatabricksColumn> columns() {
+        DatabricksColumn premium = new DatabricksColumn("premium", "DECIMAL");
+        premium.setPrecision(10);
+        premium.setScale(2);
+        DatabricksColumn exposure = new DatabricksColumn("exposure", "DECIMAL");
+        exposure.setPrecision(38);
+        exposure.setScale(0);
+        return List.of(
+            new DatabricksColumn("id", "LONG"),
+            new DatabricksColumn("score", "DOUBLE"),
+            new DatabricksColumn("active", "BOOLEAN"),
+            new DatabricksColumn("day", "DATE"),
+            new DatabricksColumn("updated_at", "TIMESTAMP"),
+            premium,
+            exposure,
+            new DatabricksColumn("name", "STRING"));
+    }
+
+    /**
+     * 메모리에 있는 파일 - Hadoop 파일 시스템 없이 ParquetFileReader로 읽기 위함
+     */
+    private static final class BytesInputFile implements InputFile {
+        private final byte[] bytes;
+
+        BytesInputFile(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long getLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public SeekableInputStream newStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+            return new DelegatingSeekableInputStream(in) {
+                @Override
+                public long getPos() {
+                    return bytes.length - in.available();
+                }
+
+                @Override
+                public void seek(long position) {
+                    in.reset();
+                    in.skip(position);
+                }
+            };
+        }
+    }
+}
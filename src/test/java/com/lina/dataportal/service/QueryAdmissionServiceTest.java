@@ -0,0 +1,231 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.service.QueryAdmissionService.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryAdmissionServiceTest {
+
+    private static final String WORKSPACE = "https://test.cloud.databricks.com";
+    private static final String WAREHOUSE = "wh-1";
+
+    private DatabricksConfig config;
+    private DatabricksExecutors executors;
+    private QueryAdmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new DatabricksConfig();
+        config.getAdmission().setMaxConcurrentPerWarehouse(1);
+        executors = new DatabricksExecutors(config);
+        service = new QueryAdmissionService();
+        ReflectionTestUtils.setField(service, "databricksConfig", config);
+        ReflectionTestUtils.setField(service, "databricksExecutors", executors);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown();
+    }
+
+    @Test
+    void admitsUpToTheWarehouseLimitAndQueuesTheRest() {
+        config.getAdmission().setMaxConcurrentPerWarehouse(2);
+
+        Ticket first = enqueue("alice");
+        Ticket second = enqueue("bob");
+        Ticket third = enqueue("carol");
+
+        assertThat(first.getAdmitted()).isCompleted();
+        assertThat(second.getAdmitted()).isCompleted();
+        assertThat(third.getAdmitted()).isNotDone();
+        assertThat(third.getQueuePosition()).isEqualTo(1);
+
+        second.release();
+        assertThat(third.getAdmitted()).isCompleted();
+        assertThat(third.getCurrentPosition()).isZero();
+    }
+
+    @Test
+    void interleavesUsersInsteadOfServingOneUsersBacklogFirst() {
+        Ticket running = enqueue("batch");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Ticket> queued = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            queued.add(track(enqueue("batch"), "batch", order));
+        }
+        queued.add(track(enqueue("analyst"), "analyst", order));
+        queued.add(track(enqueue("analyst"), "analyst", order));
+
+        // 나중에 온 analyst의 첫 쿼리는 batch 대기열 4개 뒤가 아니라 두 번째 순번
+        assertThat(queued.get(4).getCurrentPosition()).isEqualTo(2);
+
+        releaseAll(running, queued);
+        assertThat(order).containsExactly("batch", "analyst", "batch", "analyst", "batch", "batch");
+    }
+
+    @Test
+    void givesSlotsInProportionToUserWeights() {
+        config.getAdmission().getUserWeights().put("heavy", 2.0);
+        Ticket running = enqueue("heavy");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Ticket> queued = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            queued.add(track(enqueue("heavy"), "heavy", order));
+        }
+        for (int i = 0; i < 2; i++) {
+            queued.add(track(enqueue("light"), "light", order));
+        }
+
+        releaseAll(running, queued);
+        assertThat(order).containsExactly("heavy", "light", "heavy", "heavy", "light", "heavy");
+    }
+
+    @Test
+    void cancellingAQueuedTicketPassesItsTurnToTheNext() {
+        Ticket running = enqueue("alice");
+        Ticket cancelled = enqueue("alice");
+        Ticket next = enqueue("bob");
+        assertThat(next.getCurrentPosition()).isEqualTo(2);
+
+        cancelled.cancel();
+
+        assertThatThrownBy(() -> cancelled.getAdmitted().join()).isInstanceOf(CancellationException.class);
+        assertThat(next.getCurrentPosition()).isEqualTo(1);
+
+        running.release();
+        assertThat(next.getAdmitted()).isCompleted();
+        assertThat(stats().get("cancelled")).isEqualTo(1L);
+        assertThat(stats().get("running")).isEqualTo(1);
+    }
+
+    @Test
+    void cancelAfterAdmissionDoesNotReleaseTheSlot() {
+        Ticket running = enqueue("alice");
+        Ticket waiting = enqueue("bob");
+
+        running.cancel();
+        assertThat(running.getAdmitted()).isCompleted();
+        assertThat(waiting.getAdmitted()).isNotDone();
+
+        running.release();
+        running.release();
+        assertThat(waiting.getAdmitted()).isCompleted();
+        assertThat(stats().get("running")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTicketsThatWaitLongerThanTheQueueTimeout() throws Exception {
+        config.getAdmission().setQueueTimeout("100ms");
+        Ticket running = enqueue("alice");
+        Ticket waiting = enqueue("bob");
+
+        assertThatThrownBy(() -> waiting.getAdmitted().get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("not started within 100 ms");
+
+        // 만료된 티켓은 대기열에서 빠졌으므로 슬롯이 비면 새 요청이 바로 실행됨
+        running.release();
+        assertThat(enqueue("carol").getAdmitted()).isCompleted();
+        Map<String, Object> stats = stats();
+        assertThat(stats.get("timedOut")).isEqualTo(1L);
+        assertThat(stats.get("queued")).isEqualTo(0);
+    }
+
+    @Test
+    void admittedTicketIsNotExpiredLater() throws Exception {
+        config.getAdmission().setQueueTimeout("200ms");
+        Ticket running = enqueue("alice");
+        Ticket waiting = enqueue("bob");
+
+        running.release();
+        waiting.getAdmitted().get(1, TimeUnit.SECONDS);
+        Thread.sleep(300);
+
+        assertThat(waiting.getAdmitted()).isCompletedWithValue(null);
+        assertThat(stats().get("timedOut")).isEqualTo(0L);
+    }
+
+    @Test
+    void rejectsImmediatelyWhenAUserHasTooManyQueued() {
+        config.getAdmission().setMaxQueuedPerUser(2);
+        enqueue("alice");
+        enqueue("alice");
+        enqueue("alice");
+
+        Ticket rejected = enqueue("alice");
+        assertThatThrownBy(() -> rejected.getAdmitted().join())
+            .hasCauseInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("limit 2 per user");
+
+        // 다른 사용자는 영향 없음
+        assertThat(enqueue("bob").getAdmitted()).isNotDone();
+        assertThat(stats().get("rejected")).isEqualTo(1L);
+    }
+
+    @Test
+    void admitsEverythingWhenDisabled() {
+        config.getAdmission().setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(enqueue("alice").getAdmitted()).isCompleted();
+        }
+        assertThat(service.getStats()).isEmpty();
+    }
+
+    @Test
+    void keepsWaitStatisticsPastTheSampleWindow() {
+        for (int i = 0; i < 3000; i++) {
+            enqueue("alice").release();
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> waitTime = (Map<String, Object>) stats().get("waitTime");
+        assertThat(waitTime.get("count")).isEqualTo(3000L);
+        assertThat((long) waitTime.get("p99Ms")).isLessThanOrEqualTo((long) waitTime.get("maxMs"));
+        assertThat(stats().get("running")).isEqualTo(0);
+    }
+
+    private Ticket enqueue(String userId) {
+        return service.enqueue(WORKSPACE, WAREHOUSE, userId);
+    }
+
+    private static Ticket track(Ticket ticket, String label, List<String> order) {
+        ticket.getAdmitted().thenRun(() -> order.add(label));
+        return ticket;
+    }
+
+    /**
+     * 실행 중인 티켓부터 하나씩 끝내면서 대기열을 비움 (슬롯 1개라 실행 순서가 곧 승인 순서)
+     */
+    private static void releaseAll(Ticket running, List<Ticket> queued) {
+        List<Ticket> remaining = new ArrayList<>(queued);
+        running.release();
+        while (!remaining.isEmpty()) {
+            Ticket admitted = remaining.stream().filter(t -> t.getAdmitted().isDone()).findFirst().orElseThrow();
+            remaining.remove(admitted);
+            admitted.release();
+        }
+    }
+
+    private Map<String, Object> stats() {
+        return service.getStats().get(0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryHistoryServiceTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private QueryHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        // JPA가 QueryExecution으로 만드는 테이블과 같은 구조
+        jdbcTemplate.execute("CREATE TABLE query_executions (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+            + "user_id VARCHAR(255) NOT NULL, warehouse_id VARCHAR(255), statement_id VARCHAR(255), "
+            + "sql_hash VARCHAR(64) NOT NULL, fingerprint VARCHAR(64) NOT NULL, sql_text TEXT, status VARCHAR(20) NOT NULL, "
+            + "error_message VARCHAR(1000), row_count BIGINT, result_bytes BIGINT, queue_time_ms BIGINT NOT NULL, "
+            + "execution_time_ms BIGINT NOT NULL, fetch_time_ms BIGINT NOT NULL, cache_hit BOOLEAN NOT NULL, "
+            + "executed_at TIMESTAMP NOT NULL)");
+
+        DatabricksConfig config = new DatabricksConfig();
+        config.getHistory().setBatchSize(3);
+        service = new QueryHistoryService();
+        ReflectionTestUtils.setField(service, "databricksConfig", config);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void flushWritesQueuedExecutionsInJdbcBatches() {
+        for (int i = 1; i <= 7; i++) {
+            service.record("alice", "wh-1", "select * from claims where id = " + i, succeeded(i * 10L, false));
+        }
+        service.record("alice", "wh-1", "select * from missing", Map.of("success", false, "error", "TABLE_OR_VIEW_NOT_FOUND"));
+
+        service.flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM query_executions", Integer.class)).isEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT fingerprint) FROM query_executions WHERE status = 'SUCCEEDED'",
+            Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT error_message FROM query_executions WHERE status = 'FAILED'", String.class))
+            .isEqualTo("TABLE_OR_VIEW_NOT_FOUND");
+        assertThat(jdbcTemplate.queryForObject("SELECT statement_id FROM query_executions WHERE status = 'FAILED'", String.class)).isNull();
+    }
+
+    @Test
+    void latencyStatsAreAggregatedPerFingerprintWithTheLatestSql() {
+        for (int i = 1; i <= 100; i++) {
+            service.record("alice", "wh-1", "select * from claims where id = " + i, succeeded(i, i % 4 == 0));
+        }
+        service.record("bob", "wh-1", "select count(*) from policies", succeeded(5, false));
+        service.record("bob", "wh-1", "select count(*) from policies", Map.of("success", false, "error", "timeout"));
+        service.flush();
+
+        List<Map<String, Object>> stats = service.getLatencyStats(7, 10);
+
+        assertThat(stats).hasSize(2);
+        Map<String, Object> claims = stats.get(0);
+        assertThat(claims).containsEntry("count", 100)
+            .containsEntry("p50", 50L)
+            .containsEntry("p95", 95L)
+            .containsEntry("p99", 99L)
+            .containsEntry("max", 100L)
+            .containsEntry("executionP95", 93L) // 캐시 적중 25건은 실행 시간 0
+            .containsEntry("totalTime", 5050L)
+            .containsEntry("cacheHitRate", 0.25)
+            .containsEntry("avgRowCount", 10L);
+        assertThat(claims.get("lastExecutedAt")).isNotNull();
+        assertThat((String) claims.get("sampleSql")).startsWith("select * from claims where id = ");
+        assertThat(stats.get(1)).containsEntry("count", 1).containsEntry("sampleSql", "select count(*) from policies");
+
+        assertThat(service.getLatencyStats(7, 1)).extracting(stat -> stat.get("fingerprint"))
+            .containsExactly(claims.get("fingerprint"));
+    }
+
+    private static Map<String, Object> succeeded(long executionTime, boolean cacheHit) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("statementId", cacheHit ? "" : "stmt-" + executionTime);
+        result.put("rowCount", 10);
+        result.put("cacheHit", cacheHit);
+        // 캐시 적중은 실행 시간을 기록하지 않으므로 대기 시간으로 같은 응답 시간을 만듦
+        result.put(cacheHit ? "queueWaitTime" : "executionTime", executionTime);
+        return result;
+    }
+}
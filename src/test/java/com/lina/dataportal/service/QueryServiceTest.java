@@ -0,0 +1,194 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import com.lina.dataportal.domain.databricks.ResultDisposition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryServiceTest {
+
+    private static final String SQL = "SELECT id FROM insurance.claims";
+    private static final String STATEMENT_ID = "stmt-1";
+
+    private DatabricksConfig config;
+    private DatabricksExecutors executors;
+    private DatabricksApiClient databricksApiClient;
+    private RunningQueryRegistry runningQueryRegistry;
+    private CompletableFuture<Map<String, Object>> statement;
+    private QueryService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new DatabricksConfig();
+        config.getDefault().setWorkspaceUrl("https://test.cloud.databricks.com");
+        config.getDefault().setAccessToken("dapi-token");
+        config.getDefault().setWarehouseId("wh-1");
+        executors = new DatabricksExecutors(config);
+
+        statement = new CompletableFuture<>();
+        databricksApiClient = mock(DatabricksApiClient.class);
+        when(databricksApiClient.executeQueryAsync(anyString(), anyString(), anyString(), anyString(),
+            any(ResultDisposition.class), any(), any())).thenReturn(statement);
+
+        QueryResultCache cache = new QueryResultCache();
+        ReflectionTestUtils.setField(cache, "databricksConfig", config);
+        ReflectionTestUtils.setField(cache, "databricksExecutors", executors);
+        QueryAdmissionService admission = new QueryAdmissionService();
+        ReflectionTestUtils.setField(admission, "databricksConfig", config);
+        ReflectionTestUtils.setField(admission, "databricksExecutors", executors);
+        DatabricksResilienceService resilience = new DatabricksResilienceService();
+        ReflectionTestUtils.setField(resilience, "databricksConfig", config);
+        runningQueryRegistry = new RunningQueryRegistry();
+
+        service = new QueryService();
+        ReflectionTestUtils.setField(service, "userTokenService", mock(UserTokenService.class));
+        ReflectionTestUtils.setField(service, "databricksApiClient", databricksApiClient);
+        ReflectionTestUtils.setField(service, "databricksConfig", config);
+        ReflectionTestUtils.setField(service, "chunkPrefetchService", mock(ChunkPrefetchService.class));
+        ReflectionTestUtils.setField(service, "queryResultCache", cache);
+        ReflectionTestUtils.setField(service, "statementCursorRegistry", mock(StatementCursorRegistry.class));
+        ReflectionTestUtils.setField(service, "runningQueryRegistry", runningQueryRegistry);
+        ReflectionTestUtils.setField(service, "queryAdmissionService", admission);
+        ReflectionTestUtils.setField(service, "queryHistoryService", mock(QueryHistoryService.class));
+        ReflectionTestUtils.setField(service, "tableMetadataService", mock(TableMetadataService.class));
+        ReflectionTestUtils.setField(service, "databricksResilienceService", resilience);
+        ReflectionTestUtils.setField(service, "inFlightQueryRegistry", new InFlightQueryRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown();
+    }
+
+    @Test
+    void leaderCancellingTheSharedStatementIdOnlyDetachesItself() {
+        CompletableFuture<Map<String, Object>> leader = service.executeQueryAsync(SQL, "alice", null, true, "q-alice");
+        bindStatement();
+        CompletableFuture<Map<String, Object>> follower = service.executeQueryAsync(SQL, "bob", null, true, "q-bob");
+
+        Map<String, Object> cancelled = service.cancelStatement(STATEMENT_ID, "alice");
+
+        assertThat(cancelled.get("success")).isEqualTo(true);
+        assertThat(cancelled.get("queryId")).isEqualTo("q-alice");
+        assertThat(leader.join().get("cancelled")).isEqualTo(true);
+        assertThat(statement).isNotDone();
+        assertThat(follower).isNotDone();
+        verify(databricksApiClient, never()).cancelStatement(anyString(), anyString(), anyString());
+
+        statement.complete(result());
+        Map<String, Object> shared = follower.join();
+        assertThat(shared.get("success")).isEqualTo(true);
+        assertThat(shared.get("coalesced")).isEqualTo(true);
+        assertThat(((ColumnarBatch) shared.get("rows")).getRowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void statementIsCancelledOnlyWhenTheLastSubscriberCancels() {
+        CompletableFuture<Map<String, Object>> leader = service.executeQueryAsync(SQL, "alice", null, true, null);
+        bindStatement();
+        CompletableFuture<Map<String, Object>> follower = service.executeQueryAsync(SQL, "bob", null, true, null);
+
+        // 붙은 요청도 statementId로 자기 구독을 찾음 (Databricks에 직접 취소를 보내지 않음)
+        assertThat(runningQueryRegistry.find(STATEMENT_ID, "bob")).isNotNull();
+        service.cancelStatement(STATEMENT_ID, "bob");
+        assertThat(follower.join().get("cancelled")).isEqualTo(true);
+        assertThat(statement).isNotDone();
+
+        service.cancelStatement(STATEMENT_ID, "alice");
+        assertThat(leader.join().get("cancelled")).isEqualTo(true);
+        assertThat(statement).isCancelled();
+        verify(databricksApiClient, never()).cancelStatement(anyString(), anyString(), anyString());
+        assertThat(runningQueryRegistry.list("alice")).isEmpty();
+        assertThat(runningQueryRegistry.list("bob")).isEmpty();
+    }
+
+    @Test
+    void otherUsersCannotCancelASharedStatementTheyDidNotJoin() {
+        service.executeQueryAsync(SQL, "alice", null, true, null);
+        bindStatement();
+
+        assertThat(runningQueryRegistry.find(STATEMENT_ID, "mallory")).isNull();
+        assertThat(runningQueryRegistry.list("alice")).extracting(RunningQueryRegistry.RunningQuery::getStatementId)
+            .containsExactly(STATEMENT_ID);
+    }
+
+    @Test
+    void cacheHitDropsTheOriginalStatementIdAndExecutionDetails() {
+        CompletableFuture<Map<String, Object>> first = service.executeQueryAsync(SQL, "alice", null, true, null);
+        bindStatement();
+        statement.complete(result());
+        assertThat(first.join()).containsEntry("statementId", STATEMENT_ID).containsKey("queuePosition");
+
+        Map<String, Object> hit = service.executeQueryAsync(SQL, "alice", null, true, null).join();
+
+        assertThat(hit).containsEntry("success", true)
+            .containsEntry("cached", true)
+            .containsEntry("statementId", "")
+            .containsEntry("executionTime", 0L)
+            .doesNotContainKeys("queuePosition", "queueWaitTime", "coalesced", "workspaceUnavailable");
+        assertThat(((ColumnarBatch) hit.get("rows")).getRowCount()).isEqualTo(1);
+        verify(databricksApiClient, times(1)).executeQueryAsync(anyString(), anyString(), anyString(), anyString(),
+            any(ResultDisposition.class), any(), any());
+    }
+
+    @Test
+    void cacheHitReportsThatTheWorkspaceIsUnavailable() {
+        service.executeQueryAsync(SQL, "alice", null, true, null);
+        bindStatement();
+        statement.complete(result());
+        DatabricksResilienceService open = mock(DatabricksResilienceService.class);
+        when(open.unavailableFor(anyString())).thenReturn(12_000L);
+        ReflectionTestUtils.setField(service, "databricksResilienceService", open);
+
+        Map<String, Object> hit = service.executeQueryAsync(SQL, "alice", null, true, null).join();
+        assertThat(hit).containsEntry("success", true)
+            .containsEntry("cached", true)
+            .containsEntry("workspaceUnavailable", true)
+            .containsEntry("retryAfter", 12_000L);
+
+        Map<String, Object> uncached = service.executeQueryAsync(SQL, "alice", null, false, null).join();
+        assertThat(uncached).containsEntry("success", false).containsEntry("workspaceUnavailable", true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bindStatement() {
+        ArgumentCaptor<Consumer<String>> onSubmitted = ArgumentCaptor.forClass(Consumer.class);
+        verify(databricksApiClient, times(1)).executeQueryAsync(anyString(), anyString(), anyString(), anyString(),
+            any(ResultDisposition.class), onSubmitted.capture(), any());
+        onSubmitted.getValue().accept(STATEMENT_ID);
+    }
+
+    private static Map<String, Object> result() {
+        ColumnarBatch rows = new ColumnarBatch(List.of(new DatabricksColumn("id", "LONG")));
+        rows.getVector(0).appendLong(1);
+        rows.endRow();
+        return Map.of(
+            "success", true,
+            "statementId", STATEMENT_ID,
+            "rows", rows,
+            "rowCount", 1,
+            "hasNextChunk", false,
+            "executionTime", 10L
+        );
+    }
+}
@@ -0,0 +1,256 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.domain.databricks.ColumnVector;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResultBufferTest {
+
+    private static final long HEAP_LIMIT = 64L * 1024 * 1024;
+
+    private static final String[] TIMESTAMPS = {
+        "2024-03-01T09:15:30.000Z",
+        "2024-03-01T18:15:30+09:00",
+        "2024-03-01 09:15:30.123456",
+        "1969-12-31T23:59:59.9-05:30",
+        "2024-03-01T09:15:30Z"
+    };
+
+    @TempDir
+    Path spillDir;
+
+    private final List<ResultBuffer> buffers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ResultBuffer buffer : buffers) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    void keepsSmallResultsOnTheHeap() throws IOException {
+        ColumnarBatch expected = rows(0, 300);
+        ResultBuffer buffer = buffer(HEAP_LIMIT, expected, 100);
+
+        assertThat(buffer.isSpilled()).isFalse();
+        assertThat(buffer.getHeapRowCount()).isEqualTo(300);
+        assertSameRows(buffer, expected);
+        assertThat(spillFiles()).isEmpty();
+    }
+
+    @Test
+    void readsRowsBackAcrossTheSpill() throws IOException {
+        ColumnarBatch expected = rows(0, 1000);
+        ResultBuffer buffer = buffer(16 * 1024, expected, 97);
+
+        assertThat(buffer.isSpilled()).isTrue();
+        assertThat(buffer.getHeapRowCount()).isBetween(1, 999);
+        assertThat(buffer.getRowCount()).isEqualTo(1000);
+        assertSameRows(buffer, expected);
+        assertSameColumns(buffer, expected);
+    }
+
+    @Test
+    void readsRowsInAnyOrderAroundBlockBoundaries() throws IOException {
+        ColumnarBatch expected = rows(0, 700);
+        ResultBuffer buffer = buffer(0, expected, 128);
+        buffer.releaseHeap();
+
+        int[] order = {699, 0, 128, 127, 129, 256, 255, 511, 512, 1, 383, 384, 640};
+        ColumnarBatch copied = new ColumnarBatch(expected.getColumns());
+        for (int row : order) {
+            buffer.copyRow(row, copied);
+        }
+        for (int i = 0; i < order.length; i++) {
+            assertSameRow(copied, i, expected, order[i]);
+        }
+    }
+
+    @Test
+    void releaseHeapAfterSpillKeepsEveryRow() throws IOException {
+        ColumnarBatch expected = rows(0, 1000);
+        ResultBuffer buffer = buffer(16 * 1024, expected, 250);
+        long heapBefore = buffer.heapBytes();
+
+        long released = buffer.releaseHeap();
+
+        assertThat(released).isPositive();
+        assertThat(buffer.heapBytes()).isLessThan(heapBefore);
+        assertThat(buffer.getHeapRowCount()).isZero();
+        assertThat(buffer.releaseHeap()).isZero();
+        assertSameRows(buffer, expected);
+        assertSameColumns(buffer, expected);
+    }
+
+    @Test
+    void releaseHeapWritesAResultThatFitOnTheHeap() throws IOException {
+        ColumnarBatch expected = rows(0, 200);
+        ResultBuffer buffer = buffer(HEAP_LIMIT, expected, 200);
+        assertThat(buffer.isSpilled()).isFalse();
+
+        buffer.releaseHeap();
+
+        assertThat(buffer.isSpilled()).isTrue();
+        assertThat(spillFiles()).hasSize(1);
+        assertSameRows(buffer, expected);
+        assertSameColumns(buffer, expected);
+    }
+
+    @Test
+    void keepsTimestampNotationThroughTheFile() throws IOException {
+        ColumnarBatch expected = rows(0, TIMESTAMPS.length);
+        ResultBuffer buffer = buffer(HEAP_LIMIT, expected, TIMESTAMPS.length);
+        buffer.releaseHeap();
+
+        ColumnVector timestamps = buffer.column(4);
+        for (int row = 0; row < TIMESTAMPS.length; row++) {
+            String original = (row + 4) % 7 == 3 ? null : TIMESTAMPS[row];
+            assertThat(timestamps.getText(row)).isEqualTo(original);
+        }
+    }
+
+    @Test
+    void writesValuesLargerThanTheWriteBuffer() throws IOException {
+        List<DatabricksColumn> columns = List.of(new DatabricksColumn("id", "LONG"), new DatabricksColumn("body", "STRING"));
+        ColumnarBatch expected = new ColumnarBatch(columns);
+        String large = "가나다라".repeat(100_000); // UTF-8로 1.2MB
+        for (int row = 0; row < 3; row++) {
+            expected.getVector(0).appendLong(row);
+            expected.getVector(1).appendText(row == 1 ? large : "small-" + row);
+            expected.endRow();
+        }
+        ResultBuffer buffer = track(new ResultBuffer(columns, 0, spillDir));
+        buffer.append(expected);
+        buffer.finish();
+
+        assertThat(buffer.isSpilled()).isTrue();
+        assertSameRows(buffer, expected);
+    }
+
+    @Test
+    void closeDeletesTheSpillFile() throws IOException {
+        ColumnarBatch expected = rows(0, 300);
+        ResultBuffer buffer = buffer(0, expected, 300);
+        assertThat(spillFiles()).hasSize(1);
+
+        buffer.close();
+
+        assertThat(spillFiles()).isEmpty();
+        assertThatThrownBy(() -> buffer.copyRow(0, new ColumnarBatch(expected.getColumns())))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ResultBuffer buffer(long heapLimit, ColumnarBatch rows, int chunkRows) throws IOException {
+        ResultBuffer buffer = track(new ResultBuffer(rows.getColumns(), heapLimit, spillDir));
+        for (int from = 0; from < rows.getRowCount(); from += chunkRows) {
+            ColumnarBatch chunk = new ColumnarBatch(rows.getColumns());
+            for (int row = from; row < Math.min(rows.getRowCount(), from + chunkRows); row++) {
+                chunk.appendRow(rows, row);
+            }
+            buffer.append(chunk);
+        }
+        buffer.finish();
+        return buffer;
+    }
+
+    private ResultBuffer track(ResultBuffer buffer) {
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.toList();
+        }
+    }
+
+    /**
+     * 모든 형식의 컬럼 (컬럼 9개라 NULL 비트맵이 2바이트) - (행 + 컬럼) % 7 == 3이면 NULL
+     */
+    private static ColumnarBatch rows(int from, int to) {
+        DatabricksColumn amount = new DatabricksColumn("amount", "DECIMAL");
+        amount.setScale(2);
+        DatabricksColumn big = new DatabricksColumn("big", "DECIMAL");
+        big.setScale(2);
+        List<DatabricksColumn> columns = List.of(
+            new DatabricksColumn("id", "LONG"),
+            new DatabricksColumn("score", "DOUBLE"),
+            new DatabricksColumn("active", "BOOLEAN"),
+            new DatabricksColumn("day", "DATE"),
+            new DatabricksColumn("updated_at", "TIMESTAMP"),
+            amount,
+            big,
+            new DatabricksColumn("name", "STRING"),
+            new DatabricksColumn("note", "STRING"));
+
+        ColumnarBatch batch = new ColumnarBatch(columns);
+        for (int row = from; row < to; row++) {
+            String[] values = {
+                Long.toString(row * 1_000_003L - 5_000_000L),
+                Double.toString(row / 3.0),
+                Boolean.toString(row % 2 == 0),
+                "2024-01-01".replace("01-01", String.format("%02d-%02d", row % 12 + 1, row % 28 + 1)),
+                TIMESTAMPS[row % TIMESTAMPS.length],
+                (row - 500) + "." + String.format("%02d", row % 100),
+                "123456789012345678901234" + row + ".5" + (row % 10),
+                "이름-" + row,
+                row % 5 == 0 ? "" : "note " + "x".repeat(row % 40)
+            };
+            for (int column = 0; column < values.length; column++) {
+                if ((row + column) % 7 == 3) {
+                    batch.getVector(column).appendNull();
+                } else {
+                    batch.getVector(column).appendText(values[column]);
+                }
+            }
+            batch.endRow();
+        }
+        return batch;
+    }
+
+    private static void assertSameRows(ResultBuffer buffer, ColumnarBatch expected) {
+        assertThat(buffer.getRowCount()).isEqualTo(expected.getRowCount());
+        ColumnarBatch copied = new ColumnarBatch(expected.getColumns());
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            buffer.copyRow(row, copied);
+        }
+        assertThat(copied.getRowCount()).isEqualTo(expected.getRowCount());
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            assertSameRow(copied, row, expected, row);
+        }
+    }
+
+    private static void assertSameRow(ColumnarBatch actual, int actualRow, ColumnarBatch expected, int expectedRow) {
+        for (int column = 0; column < expected.getColumnCount(); column++) {
+            assertThat(actual.getVector(column).getText(actualRow))
+                .as("row %d column %s", expectedRow, expected.getColumns().get(column).getName())
+                .isEqualTo(expected.getVector(column).getText(expectedRow));
+        }
+    }
+
+    private static void assertSameColumns(ResultBuffer buffer, ColumnarBatch expected) {
+        for (int column = 0; column < expected.getColumnCount(); column++) {
+            ColumnVector actual = buffer.column(column);
+            assertThat(actual.size()).isEqualTo(expected.getRowCount());
+            for (int row = 0; row < expected.getRowCount(); row++) {
+                assertThat(actual.getText(row))
+                    .as("row %d column %s", row, expected.getColumns().get(column).getName())
+                    .isEqualTo(expected.getVector(column).getText(row));
+            }
+        }
+    }
+}
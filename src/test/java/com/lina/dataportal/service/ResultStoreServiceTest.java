@@ -0,0 +1,280 @@
+package com.lina.dataportal.service;
+
+import com.lina.dataportal.config.DatabricksConfig;
+import com.lina.dataportal.config.DatabricksExecutors;
+import com.lina.dataportal.domain.databricks.ColumnarBatch;
+import com.lina.dataportal.domain.databricks.DatabricksColumn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResultStoreServiceTest {
+
+    private static final String STATEMENT_ID = "01ef-result-store";
+    private static final String WORKSPACE = "https://test.cloud.databricks.com";
+    private static final String TOKEN = "dapi-test";
+    private static final long SPILL_EVERYTHING = 0;
+    private static final long KEEP_ON_HEAP = 16L * 1024 * 1024;
+
+    private static final List<DatabricksColumn> COLUMNS = columns();
+
+    // id, name, premium DECIMAL(2), score, start_date, updated_at, active, exposure DECIMAL(0)
+    private static final String[][] ROWS = {
+        {"1", "Kim Minji", "1200.50", "3.5", "2024-01-10", "2024-01-01T09:00:00+09:00", "true", "5"},
+        {"2", "lee", null, "-2.0", "2023-12-31", "2024-01-01T01:00:00Z", "false", "100000000000000000000"},
+        {"3", "Park", "99.99", null, "2024-02-01", "2023-12-31 23:59:59.5", "true", "-3"},
+        {"4", null, "100.50", "0.0", null, "2024-01-01T00:00:00.000Z", "false", null},
+        {"5", "kimchi", "100.51", "-10.25", "2024-01-10", null, null, "12345678901234567890123"},
+        {"6", "Choi", "1200.50", "7.0", "2023-06-01", "2024-06-01T12:00:00Z", "true", "7"}
+    };
+
+    @TempDir
+    Path spillDir;
+
+    private DatabricksConfig config;
+    private DatabricksExecutors executors;
+    private ResultStoreService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config = new DatabricksConfig();
+        config.getDefault().setWorkspaceUrl(WORKSPACE);
+        config.getDefault().setAccessToken(TOKEN);
+        config.getResultStore().setSpillDir(spillDir.toString());
+        executors = new DatabricksExecutors(config);
+
+        UserTokenService userTokenService = mock(UserTokenService.class);
+        when(userTokenService.getDatabricksToken(anyString())).thenReturn(Optional.empty());
+        ResultExportService resultExportService = mock(ResultExportService.class);
+        when(resultExportService.prepare(anyString(), anyString())).thenReturn(
+            new ResultExportService.ExportSource(STATEMENT_ID, WORKSPACE, TOKEN, COLUMNS, 2, null));
+        ChunkPrefetchService chunkPrefetchService = mock(ChunkPrefetchService.class);
+        when(chunkPrefetchService.openReader(anyString(), anyString(), anyString(), anyList(), anyInt(), anyInt()))
+            .thenAnswer(invocation -> new ChunkPrefetchReader(ResultStoreServiceTest::chunk, Runnable::run,
+                invocation.getArgument(4), invocation.getArgument(5), 2));
+
+        service = new ResultStoreService();
+        ReflectionTestUtils.setField(service, "userTokenService", userTokenService);
+        ReflectionTestUtils.setField(service, "databricksConfig", config);
+        ReflectionTestUtils.setField(service, "resultExportService", resultExportService);
+        ReflectionTestUtils.setField(service, "chunkPrefetchService", chunkPrefetchService);
+        ReflectionTestUtils.setField(service, "databricksExecutors", executors);
+        ReflectionTestUtils.setField(service, "statementCursorRegistry", mock(StatementCursorRegistry.class));
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        executors.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {KEEP_ON_HEAP, SPILL_EVERYTHING})
+    void sortsEachColumnTypeWithNullsFirstAscending(long heapBytesPerResult) {
+        config.getResultStore().setHeapBytesPerResult(heapBytesPerResult);
+
+        assertThat(ids(List.of("premium"), List.of())).containsExactly(2, 3, 4, 5, 1, 6);
+        assertThat(ids(List.of("score:asc"), List.of())).containsExactly(3, 5, 2, 4, 1, 6);
+        assertThat(ids(List.of("name"), List.of())).containsExactly(4, 6, 1, 3, 5, 2);
+        assertThat(ids(List.of("start_date"), List.of())).containsExactly(4, 6, 2, 1, 5, 3);
+        assertThat(ids(List.of("updated_at"), List.of())).containsExactly(5, 3, 1, 4, 2, 6);
+        assertThat(ids(List.of("active"), List.of())).containsExactly(5, 2, 4, 1, 3, 6);
+        // long 범위를 넘는 DECIMAL은 값 순위로 정렬
+        assertThat(ids(List.of("exposure"), List.of())).containsExactly(4, 3, 1, 6, 2, 5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {KEEP_ON_HEAP, SPILL_EVERYTHING})
+    void sortsDescendingWithNullsLastAndKeepsTiesInOriginalOrder(long heapBytesPerResult) {
+        config.getResultStore().setHeapBytesPerResult(heapBytesPerResult);
+
+        assertThat(ids(List.of("premium:desc"), List.of())).containsExactly(1, 6, 5, 4, 3, 2);
+        assertThat(ids(List.of("exposure:DESC"), List.of())).containsExactly(5, 2, 6, 1, 3, 4);
+        assertThat(ids(List.of("active:desc", "start_date:desc"), List.of())).containsExactly(3, 1, 6, 2, 4, 5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {KEEP_ON_HEAP, SPILL_EVERYTHING})
+    void filtersEachColumnType(long heapBytesPerResult) {
+        config.getResultStore().setHeapBytesPerResult(heapBytesPerResult);
+
+        assertThat(ids(List.of(), List.of("premium:gt:100.5"))).containsExactly(1, 5, 6);
+        assertThat(ids(List.of(), List.of("premium:eq:100.500"))).containsExactly(4);
+        assertThat(ids(List.of(), List.of("premium:eq:100.505"))).isEmpty();
+        assertThat(ids(List.of(), List.of("score:le:0"))).containsExactly(2, 4, 5);
+        assertThat(ids(List.of(), List.of("id:in:2, 4,6"))).containsExactly(2, 4, 6);
+        assertThat(ids(List.of(), List.of("id:ne:3"))).containsExactly(1, 2, 4, 5, 6);
+        assertThat(ids(List.of(), List.of("name:contains:KIM"))).containsExactly(1, 5);
+        assertThat(ids(List.of(), List.of("name:endswith:I"))).containsExactly(1, 5, 6);
+        assertThat(ids(List.of(), List.of("name:null"))).containsExactly(4);
+        assertThat(ids(List.of(), List.of("name:notnull"))).containsExactly(1, 2, 3, 5, 6);
+        assertThat(ids(List.of(), List.of("start_date:ge:2024-01-01"))).containsExactly(1, 3, 5);
+        assertThat(ids(List.of(), List.of("updated_at:lt:2024-01-01T09:30:00+09:00"))).containsExactly(1, 3, 4);
+        assertThat(ids(List.of(), List.of("active:eq:false"))).containsExactly(2, 4);
+        assertThat(ids(List.of(), List.of("exposure:gt:99999999999999999999"))).containsExactly(2, 5);
+    }
+
+    @Test
+    void appliesAllFiltersInSortedOrder() {
+        assertThat(ids(List.of("premium:desc"), List.of("active:eq:true"))).containsExactly(1, 6, 3);
+        assertThat(ids(List.of("name"), List.of("active:eq:true", "score:gt:3"))).containsExactly(6, 1);
+        // 정렬만 한 순서를 캐시에서 다시 써도 결과가 같아야 함
+        assertThat(ids(List.of("premium:desc"), List.of())).containsExactly(1, 6, 5, 4, 3, 2);
+        assertThat(ids(List.of("premium:desc"), List.of("name:startswith:k"))).containsExactly(1, 5);
+    }
+
+    @Test
+    void pagesThroughTheSortedView() {
+        Map<String, Object> page = service.getRows(STATEMENT_ID, "alice", 2, 2, List.of("id:desc"), List.of());
+
+        assertThat(page.get("success")).isEqualTo(true);
+        assertThat(idsOf(page)).containsExactly(4, 3);
+        assertThat(page.get("offset")).isEqualTo(2);
+        assertThat(page.get("totalRowCount")).isEqualTo(6);
+        assertThat(page.get("filteredRowCount")).isEqualTo(6);
+        assertThat(page.get("hasMore")).isEqualTo(true);
+
+        Map<String, Object> last = service.getRows(STATEMENT_ID, "alice", 4, 10, List.of("id:desc"), List.of("id:gt:1"));
+        assertThat(idsOf(last)).containsExactly(2);
+        assertThat(last.get("filteredRowCount")).isEqualTo(5);
+        assertThat(last.get("hasMore")).isEqualTo(false);
+    }
+
+    @Test
+    void keepsOriginalValuesInReturnedRows() {
+        Map<String, Object> page = service.getRows(STATEMENT_ID, "alice", 0, 1, List.of("updated_at:desc"), List.of());
+
+        ColumnarBatch rows = (ColumnarBatch) page.get("rows");
+        assertThat(rows.getVector(5).getText(0)).isEqualTo("2024-06-01T12:00:00Z");
+        assertThat(rows.getVector(2).getText(0)).isEqualTo("1200.50");
+    }
+
+    @Test
+    void rejectsInvalidSortsAndFilters() {
+        assertThat(error(List.of("missing"), List.of())).isEqualTo("Unknown column: missing");
+        assertThat(error(List.of(), List.of("score:gt:abc"))).isEqualTo("Invalid number: abc");
+        assertThat(error(List.of(), List.of("score:between:1"))).isEqualTo("Unknown filter operator: between");
+        assertThat(error(List.of(), List.of("score:gt"))).isEqualTo("Filter value is required for operator: gt");
+        assertThat(error(List.of(), List.of("start_date:eq:2024-13-01"))).isEqualTo("Invalid date/time: 2024-13-01");
+        assertThat(error(List.of(), List.of("active:eq:maybe"))).isEqualTo("Invalid boolean: maybe");
+        assertThat(error(List.of(), List.of("score"))).startsWith("Invalid filter");
+    }
+
+    @Test
+    void hidesResultsOfOtherUsers() {
+        assertThat(ids(List.of(), List.of())).hasSize(6);
+
+        Map<String, Object> other = service.getRows(STATEMENT_ID, "bob", 0, 10, List.of(), List.of());
+        assertThat(other.get("success")).isEqualTo(false);
+        assertThat(other.get("error")).isEqualTo("Statement not found: " + STATEMENT_ID);
+    }
+
+    @Test
+    void countsSortKeysAndViewsInMemoryUsageAndDropsThemWhenSpilled() {
+        ids(List.of(), List.of());
+        long loaded = memoryBytes();
+
+        ids(List.of("premium:desc"), List.of("active:eq:true"));
+        // premium 정렬 키(long 6개) + 정렬만 한 순서(int 6개) + 필터까지 적용한 순서(int 3개), 배열마다 헤더 16바이트
+        assertThat(memoryBytes() - loaded).isEqualTo((16 + 8 * 6) + (16 + 4 * 6) + (16 + 4 * 3));
+
+        // 다른 결과를 받으면서 한도를 넘으면 오래된 결과의 앞부분과 함께 정렬 키, 행 번호 목록도 버림
+        config.getResultStore().setMaxMemoryBytes(1);
+        Map<String, Object> other = service.getRows("01ef-other", "alice", 0, 100, List.of(), List.of());
+        assertThat(other.get("success")).isEqualTo(true);
+
+        assertThat(entryField(STATEMENT_ID, "derivedBytes")).isEqualTo(0L);
+        assertThat(memoryBytes()).isEqualTo(entryField(STATEMENT_ID, "bytes") + entryField("01ef-other", "bytes"));
+        // 버린 뒤에도 다시 계산해서 같은 결과
+        assertThat(ids(List.of("premium:desc"), List.of("active:eq:true"))).containsExactly(1, 6, 3);
+    }
+
+    private List<Integer> ids(List<String> sorts, List<String> filters) {
+        Map<String, Object> result = service.getRows(STATEMENT_ID, "alice", 0, 100, sorts, filters);
+        assertThat(result.get("success")).as("%s", result.get("error")).isEqualTo(true);
+        return idsOf(result);
+    }
+
+    private long memoryBytes() {
+        return ((AtomicLong) ReflectionTestUtils.getField(service, "memoryBytes")).get();
+    }
+
+    private long entryField(String statementId, String field) {
+        Map<?, ?> results = (Map<?, ?>) ReflectionTestUtils.getField(service, "results");
+        return (Long) ReflectionTestUtils.getField(results.get(statementId), field);
+    }
+
+    private static List<Integer> idsOf(Map<String, Object> result) {
+        ColumnarBatch rows = (ColumnarBatch) result.get("rows");
+        List<Integer> ids = new ArrayList<>();
+        for (int row = 0; row < rows.getRowCount(); row++) {
+            ids.add(Integer.parseInt(rows.getVector(0).getText(row)));
+        }
+        return ids;
+    }
+
+    private String error(List<String> sorts, List<String> filters) {
+        Map<String, Object> result = service.getRows(STATEMENT_ID, "alice", 0, 100, sorts, filters);
+        assertThat(result.get("success")).isEqualTo(false);
+        return (String) result.get("error");
+    }
+
+    /**
+     * 청크 0은 앞의 3행, 청크 1은 나머지
+     */
+    private static Map<String, Object> chunk(int chunkIndex) {
+        ColumnarBatch batch = new ColumnarBatch(COLUMNS);
+        for (int row = chunkIndex * 3; row < chunkIndex * 3 + 3; row++) {
+            for (int column = 0; column < COLUMNS.size(); column++) {
+                String value = ROWS[row][column];
+                if (value == null) {
+                    batch.getVector(column).appendNull();
+                } else {
+                    batch.getVector(column).appendText(value);
+                }
+            }
+            batch.endRow();
+        }
+        Map<String, Object> chunk = new HashMap<>();
+        chunk.put("success", true);
+        chunk.put("rows", batch);
+        return chunk;
+    }
+
+    private static List<DatabricksColumn> columns() {
+        DatabricksColumn premium = new DatabricksColumn("premium", "DECIMAL");
+        premium.setScale(2);
+        DatabricksColumn exposure = new DatabricksColumn("exposure", "DECIMAL");
+        exposure.setScale(0);
+        return List.of(
+            new DatabricksColumn("id", "LONG"),
+            new DatabricksColumn("name", "STRING"),
+            premium,
+            new DatabricksColumn("score", "DOUBLE"),
+            new DatabricksColumn("start_date", "DATE"),
+            new DatabricksColumn("updated_at", "TIMESTAMP"),
+            new DatabricksColumn("active", "BOOLEAN"),
+            exposure);
+    }
+}
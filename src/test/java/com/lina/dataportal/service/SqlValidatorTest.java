@@ -0,0 +1,153 @@
+package com.lina.dataportal.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlValidatorTest {
+
+    private static final int MAX_ROWS = 10000;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "FROM src INSERT INTO dest SELECT *",
+        "FROM src INSERT OVERWRITE TABLE dest SELECT * WHERE 1=1",
+        "from src insert into a select x insert into b select y",
+        "WITH c AS (SELECT * FROM src) FROM c INSERT INTO dest SELECT *",
+        "FROM src s MERGE INTO dest",
+        "INSERT INTO dest SELECT * FROM src",
+        "UPDATE dest SET x = 1",
+        "DELETE FROM dest WHERE x = 1",
+        "MERGE INTO dest USING src ON dest.id = src.id WHEN MATCHED THEN DELETE",
+        "DROP TABLE dest"
+    })
+    void rejectsWriteStatementsInReadOnlyMode(String sql) {
+        SqlValidator.Result result = SqlValidator.validate(sql, MAX_ROWS, true);
+
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getStatementType()).isNotIn("QUERY", "METADATA");
+        assertThat(result.getDiagnostics()).anyMatch(d -> d.getCode().equals("NOT_READ_ONLY"));
+        assertThat(result.getAppliedLimit()).isNull();
+        // 캐시 판단(SqlNormalizer)과도 같은 결론
+        assertThat(SqlNormalizer.isReadOnly(SqlNormalizer.normalize(sql))).isFalse();
+    }
+
+    @Test
+    void reportsTheWriteClauseOfFromFirstInsert() {
+        SqlValidator.Result result = SqlValidator.validate("FROM src\nINSERT INTO dest SELECT *", MAX_ROWS, true);
+
+        SqlValidator.Diagnostic error = result.getDiagnostics().get(0);
+        assertThat(result.getStatementType()).isEqualTo("INSERT");
+        assertThat(error.getLine()).isEqualTo(2);
+        assertThat(error.getColumn()).isEqualTo(1);
+    }
+
+    @Test
+    void allowsFromFirstInsertWithoutLimitWhenWritesAreEnabled() {
+        String sql = "FROM src INSERT INTO dest SELECT *";
+        SqlValidator.Result result = SqlValidator.validate(sql, MAX_ROWS, false);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getStatementType()).isEqualTo("INSERT");
+        assertThat(result.getSql()).isEqualTo(sql);
+        assertThat(result.getAppliedLimit()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "FROM src SELECT a, b WHERE a > 1",
+        "FROM src SELECT 'insert into dest' AS note",
+        "FROM src -- insert into dest\nSELECT *",
+        "FROM src SELECT * WHERE id IN (SELECT id FROM deleted_rows)",
+        "FROM src SELECT `update`"
+    })
+    void acceptsFromFirstQueries(String sql) {
+        SqlValidator.Result result = SqlValidator.validate(sql, MAX_ROWS, true);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getStatementType()).isEqualTo("QUERY");
+        assertThat(result.getAppliedLimit()).isEqualTo(MAX_ROWS);
+        assertThat(SqlNormalizer.isReadOnly(SqlNormalizer.normalize(sql))).isTrue();
+    }
+
+    @Test
+    void appendsLimitWhenMissing() {
+        SqlValidator.Result result = SqlValidator.validate("SELECT * FROM t;", MAX_ROWS, true);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getSql()).isEqualTo("SELECT * FROM t\nLIMIT 10000");
+        assertThat(result.getDiagnostics()).anyMatch(d -> d.getCode().equals("LIMIT_INJECTED"));
+    }
+
+    @Test
+    void appendsLimitToOuterQueryWhenOnlySubqueryHasOne() {
+        SqlValidator.Result result = SqlValidator.validate("SELECT * FROM (SELECT * FROM t LIMIT 5) s", MAX_ROWS, true);
+
+        assertThat(result.getSql()).endsWith(") s\nLIMIT 10000");
+        assertThat(result.getAppliedLimit()).isEqualTo(MAX_ROWS);
+    }
+
+    @Test
+    void keepsSmallerLimitAndClampsLargerOne() {
+        SqlValidator.Result small = SqlValidator.validate("SELECT * FROM t LIMIT 50", MAX_ROWS, true);
+        SqlValidator.Result large = SqlValidator.validate("SELECT * FROM t LIMIT 50000 OFFSET 10", MAX_ROWS, true);
+
+        assertThat(small.getSql()).isEqualTo("SELECT * FROM t LIMIT 50");
+        assertThat(small.getAppliedLimit()).isEqualTo(50);
+        assertThat(large.getSql()).isEqualTo("SELECT * FROM t LIMIT 10000 OFFSET 10");
+        assertThat(large.getDiagnostics()).anyMatch(d -> d.getCode().equals("LIMIT_CLAMPED"));
+    }
+
+    @Test
+    void insertsLimitBeforeOffset() {
+        SqlValidator.Result result = SqlValidator.validate("SELECT * FROM t ORDER BY id OFFSET 20", MAX_ROWS, true);
+
+        assertThat(result.getSql()).isEqualTo("SELECT * FROM t ORDER BY id LIMIT 10000 OFFSET 20");
+    }
+
+    @Test
+    void rejectsMultipleStatements() {
+        SqlValidator.Result result = SqlValidator.validate("SELECT 1; DROP TABLE t", MAX_ROWS, true);
+
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getDiagnostics()).anyMatch(d -> d.getCode().equals("MULTIPLE_STATEMENTS"));
+    }
+
+    @Test
+    void reportsUnterminatedStringWithPosition() {
+        SqlValidator.Result result = SqlValidator.validate("SELECT *\nFROM t WHERE name = 'abc", MAX_ROWS, true);
+
+        SqlValidator.Diagnostic error = result.getDiagnostics().get(0);
+        assertThat(result.isValid()).isFalse();
+        assertThat(error.getCode()).isEqualTo("SYNTAX_ERROR");
+        assertThat(error.getLine()).isEqualTo(2);
+        assertThat(error.getColumn()).isEqualTo(21);
+    }
+
+    @Test
+    void warnsOnJoinsWithoutCondition() {
+        assertThat(codes("SELECT * FROM a JOIN b")).contains("CARTESIAN_JOIN");
+        assertThat(codes("SELECT * FROM a, b")).contains("CARTESIAN_JOIN");
+        assertThat(codes("SELECT * FROM a JOIN b ON 1 = 1")).contains("CARTESIAN_JOIN");
+        assertThat(codes("SELECT * FROM a CROSS JOIN b")).contains("CROSS_JOIN");
+        assertThat(codes("SELECT * FROM a JOIN b ON a.id = b.id")).doesNotContain("CARTESIAN_JOIN");
+        assertThat(codes("SELECT * FROM a, b WHERE a.id = b.id")).doesNotContain("CARTESIAN_JOIN");
+    }
+
+    @Test
+    void acceptsMetadataStatementsWithoutLimit() {
+        SqlValidator.Result result = SqlValidator.validate("SHOW TABLES IN main.sales", MAX_ROWS, true);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getStatementType()).isEqualTo("METADATA");
+        assertThat(result.getAppliedLimit()).isNull();
+    }
+
+    private static java.util.List<String> codes(String sql) {
+        return SqlValidator.validate(sql, MAX_ROWS, true).getDiagnostics().stream()
+            .map(SqlValidator.Diagnostic::getCode)
+            .toList();
+    }
+}